@@ -0,0 +1,181 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.annotation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Prefix trie over the keys annotated with {@link ConfigValue}. The {@link ConfigValueProcessor} generates an
+ * instance of this holding every key so that a property may be matched against all keys that are a prefix of it (as
+ * some keys e.g. <code>dependencyOverride.</code> are prefixes for a family of properties) in a single walk of the
+ * property name rather than a scan of all keys.
+ * <p>
+ * Each node stores its children as a sorted array of characters searched with a binary search, so a lookup is
+ * proportional to the length of the property name.
+ */
+public final class ConfigKeyTrie {
+    private static final char[] NO_LABELS = new char[0];
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final Node root = new Node();
+
+    private final int size;
+
+    /**
+     * @param keys the configuration keys.
+     * @param deprecated whether the key at the same index is deprecated.
+     */
+    public ConfigKeyTrie(String[] keys, boolean[] deprecated) {
+        if (keys.length != deprecated.length) {
+            throw new IllegalArgumentException("Mismatched keys and deprecation flags");
+        }
+        for (int i = 0; i < keys.length; i++) {
+            Node node = root;
+            for (int j = 0; j < keys[i].length(); j++) {
+                node = node.child(keys[i].charAt(j));
+            }
+            node.key = keys[i];
+            node.deprecated = deprecated[i];
+        }
+        size = keys.length;
+    }
+
+    /**
+     * @return the number of keys.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param key the key to find.
+     * @return true if the key is exactly a configuration key.
+     */
+    public boolean contains(String key) {
+        final Node node = find(key);
+        return node != null && node.key != null;
+    }
+
+    /**
+     * @param key the key to find.
+     * @return true if the key is exactly a deprecated configuration key.
+     */
+    public boolean isDeprecated(String key) {
+        final Node node = find(key);
+        return node != null && node.key != null && node.deprecated;
+    }
+
+    /**
+     * @param property the property name.
+     * @return true if any configuration key is a prefix of (or equal to) the property name.
+     */
+    public boolean isKnown(String property) {
+        Node node = root;
+        for (int i = 0; i < property.length(); i++) {
+            node = node.get(property.charAt(i));
+            if (node == null) {
+                return false;
+            } else if (node.key != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param property the property name.
+     * @return the configuration keys that are a prefix of (or equal to) the property name, shortest first.
+     */
+    public List<String> prefixesOf(String property) {
+        List<String> result = Collections.emptyList();
+        Node node = root;
+        for (int i = 0; i < property.length(); i++) {
+            node = node.get(property.charAt(i));
+            if (node == null) {
+                break;
+            } else if (node.key != null) {
+                if (result.isEmpty()) {
+                    result = new ArrayList<>(1);
+                }
+                result.add(node.key);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param property the property name.
+     * @return the longest deprecated configuration key that is a prefix of (or equal to) the property name, or null.
+     */
+    public String deprecatedPrefixOf(String property) {
+        String result = null;
+        Node node = root;
+        for (int i = 0; i < property.length(); i++) {
+            node = node.get(property.charAt(i));
+            if (node == null) {
+                break;
+            } else if (node.key != null && node.deprecated) {
+                result = node.key;
+            }
+        }
+        return result;
+    }
+
+    private Node find(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.get(key.charAt(i));
+        }
+        return node;
+    }
+
+    private static final class Node {
+        private char[] labels = NO_LABELS;
+
+        private Node[] children = NO_CHILDREN;
+
+        private String key;
+
+        private boolean deprecated;
+
+        private Node get(char c) {
+            final int index = Arrays.binarySearch(labels, c);
+            return index < 0 ? null : children[index];
+        }
+
+        private Node child(char c) {
+            int index = Arrays.binarySearch(labels, c);
+            if (index < 0) {
+                index = -index - 1;
+                final char[] newLabels = new char[labels.length + 1];
+                final Node[] newChildren = new Node[children.length + 1];
+                System.arraycopy(labels, 0, newLabels, 0, index);
+                System.arraycopy(children, 0, newChildren, 0, index);
+                System.arraycopy(labels, index, newLabels, index + 1, labels.length - index);
+                System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+                newLabels[index] = c;
+                newChildren[index] = new Node();
+                labels = newLabels;
+                children = newChildren;
+            }
+            return children[index];
+        }
+    }
+}
@@ -116,12 +116,24 @@ public class ConfigValueProcessor extends AbstractProcessor {
                 (key, value) -> contents
                         .add(CodeBlock.builder().addStatement("allConfigValues.put($S, $L)", key, value).build()));
 
+        // The keys are sorted so the trie is built in the same order on every run.
+        ClassName trie = ClassName.get(getClass().getPackage().getName(), "ConfigKeyTrie");
+        CodeBlock.Builder keys = CodeBlock.builder().add("new $T(new String[] {", trie);
+        varResults.keySet().forEach(key -> keys.add("$W$S,", key));
+        keys.add(" },$Wnew boolean[] {");
+        varResults.values().forEach(value -> keys.add("$W$L,", value));
+        keys.add(" })");
+
         TypeSpec ConfigList = TypeSpec.classBuilder("ConfigList")
                 .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
                 .addField(
                         FieldSpec.builder(mainType, "allConfigValues", Modifier.STATIC, Modifier.FINAL, Modifier.PUBLIC)
                                 .initializer("new HashMap<>(" + indexResults.size() + ')')
                                 .build())
+                .addField(
+                        FieldSpec.builder(trie, "configKeys", Modifier.STATIC, Modifier.FINAL, Modifier.PUBLIC)
+                                .initializer(keys.build())
+                                .build())
                 .addStaticBlock(CodeBlock.join(contents, " "))
                 .build();
 
@@ -18,6 +18,7 @@ package org.jboss.pnc.mavenmanipulator.cli;
 import static org.jboss.pnc.mavenmanipulator.core.state.VersioningState.VERSION_SUFFIX_SNAPSHOT_SYSPROP;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -29,6 +30,8 @@ import java.util.List;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -69,6 +72,8 @@ import org.jboss.pnc.mavenmanipulator.core.state.RESTState;
 import org.jboss.pnc.mavenmanipulator.core.util.PropertiesUtils;
 import org.jboss.pnc.mavenmanipulator.io.ConfigIO;
 import org.jboss.pnc.mavenmanipulator.io.PomIO;
+import org.jboss.pnc.mavenmanipulator.io.resolver.CacheBundle;
+import org.jboss.pnc.mavenmanipulator.io.resolver.GalleyInfrastructure;
 import org.jboss.pnc.mavenmanipulator.io.rest.RestException;
 import org.jboss.pnc.otel.OTelCLIHelper;
 import org.slf4j.Logger;
@@ -104,12 +109,19 @@ public class Cli implements Callable<Integer> {
 
     private PlexusContainer container;
 
+    /**
+     * True if the container is owned by a {@link CliDaemon} and is reused between jobs.
+     */
+    private final boolean sharedContainer;
+
+    private final File workingDirectory;
+
     /**
      * Default pom file to operate against.
      */
     @SuppressWarnings("FieldMayBeFinal")
     @Option(names = { "-f", "--file" }, description = "POM File")
-    private File target = new File(System.getProperty("user.dir"), "pom.xml");
+    private File target;
 
     /**
      * Optional settings.xml file.
@@ -152,6 +164,62 @@ public class Cli implements Callable<Integer> {
     @Option(names = { "--printManipulatorOrder" }, description = "Print current manipulator order")
     boolean printManipulatorOrder;
 
+    @Option(
+            names = { "--scanClasspath" },
+            description = "Discover components by scanning the classpath instead of reading the component index")
+    boolean scanClasspath;
+
+    @Option(
+            names = { "--daemon" },
+            description = "Run as a daemon, accepting manipulation jobs on the given loopback port (0 for any free port)")
+    private Integer daemonPort;
+
+    @Option(
+            names = { "--daemonTokenFile" },
+            description = "File, only readable by the current user, to write the token daemon clients must send to "
+                    + "(default: ~/.pme/daemon-<port>.token)")
+    private File daemonTokenFile;
+
+    @Option(
+            names = { "--batch" },
+            description = "Manipulate the project directories listed, one per line, in the given file concurrently, "
+                    + "writing the result of each to the file with a '.results' suffix")
+    private File batchFile;
+
+    @Option(
+            names = { "--batchThreads" },
+            description = "Number of projects to manipulate concurrently in batch mode, each using its own "
+                    + "artifact cache (default: 2)")
+    private Integer batchThreads;
+
+    /**
+     * True if this instance runs one of the projects of a {@link CliBatch}.
+     */
+    private boolean batchJob;
+
+    /**
+     * The cache bundles exported by the jobs of a {@link CliBatch}, shared by all of them so that no two write the same
+     * one.
+     */
+    private Set<File> batchExports;
+
+    public Cli() {
+        this(null, new File(System.getProperty("user.dir")));
+    }
+
+    /**
+     * Creates an instance to run a single job within a {@link CliDaemon}.
+     *
+     * @param container the warm container to reuse, or null to create a new one.
+     * @param workingDirectory the directory to resolve the POM file against.
+     */
+    Cli(PlexusContainer container, File workingDirectory) {
+        this.container = container;
+        this.sharedContainer = container != null;
+        this.workingDirectory = workingDirectory;
+        this.target = new File(workingDirectory, "pom.xml");
+    }
+
     public static void main(String[] args) {
         System.exit(new Cli().run(args));
     }
@@ -174,46 +242,32 @@ public class Cli implements Callable<Integer> {
 
     @Override
     public Integer call() {
-        createSession(target, settings);
-
-        final boolean runningInContainer = runningInContainer();
-        final Logger rootLogger = LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
-        final ch.qos.logback.classic.Logger root = (ch.qos.logback.classic.Logger) rootLogger;
-
-        if (logFile != null) {
-            if (runningInContainer) {
-                logger.error("Disabling log file as running in container!");
-            } else {
-                LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
-                ((ch.qos.logback.classic.Logger) rootLogger).detachAndStopAllAppenders();
-
-                PatternLayoutEncoder ple = new PatternLayoutEncoder();
-                ple.setPattern("%level %logger{36} %msg%n");
-                ple.setContext(loggerContext);
-                ple.start();
-
-                FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
-                fileAppender.setEncoder(ple);
-                fileAppender.setContext(loggerContext);
-                fileAppender.setName("PME-CLI");
-                fileAppender.setAppend(false);
-                fileAppender.setFile(logFile);
-                fileAppender.start();
-
-                root.addAppender(fileAppender);
-                root.setLevel(Level.INFO);
+        if (daemonPort != null) {
+            if (sharedContainer) {
+                logger.error("Unable to start a daemon from within a daemon job");
+                return 10;
             }
+            return runDaemon();
         }
-        // Set debug logging after session creation else we get the log filled with Plexus
-        // creation stuff.
-        if (trace) {
-            root.setLevel(Level.TRACE);
+        if (batchFile != null) {
+            if (sharedContainer) {
+                logger.error("Unable to start a batch from within a daemon job");
+                return 10;
+            }
+            return runBatch();
         }
-        if (debug) {
-            root.setLevel(Level.DEBUG);
+        if (sharedContainer) {
+            // Relative paths are resolved against the job's directory rather than that of the daemon.
+            target = resolve(target);
+            settings = settings == null ? null : resolve(settings);
         }
-        if (quiet) {
-            root.setLevel(Level.WARN);
+        if (!createSession(target, settings)) {
+            return 100;
+        }
+
+        // The logging configuration is global so a batch configures it once for all of its concurrent jobs.
+        if (!batchJob) {
+            configureLogging();
         }
 
         if (!session.isEnabled()) {
@@ -233,6 +287,16 @@ public class Cli implements Callable<Integer> {
             logger.error("POM Manipulation failed: Unable to read config file ", e);
             return 10;
         }
+        final String export = session.getUserProperties().getProperty(CacheBundle.CACHE_BUNDLE_EXPORT);
+        if (export != null && sharedContainer) {
+            // As with the POM, a relative bundle is resolved against the job's directory rather than that of the JVM.
+            final File exportFile = resolve(new File(export)).getAbsoluteFile();
+            session.getUserProperties().setProperty(CacheBundle.CACHE_BUNDLE_EXPORT, exportFile.getPath());
+            if (batchExports != null && !batchExports.add(exportFile)) {
+                logger.error("Cache bundle {} is already exported by another project of the batch", exportFile);
+                return 10;
+            }
+        }
 
         try {
             // Note : don't print out settings information earlier (like when we actually read it) as the logging
@@ -253,17 +317,9 @@ public class Cli implements Callable<Integer> {
                                 ? FileUtils.readFileToString(settings, StandardCharsets.UTF_8)
                                 : "** File does not exist **");
             }
-            String endpoint = System.getenv("OTEL_EXPORTER_OTLP_ENDPOINT");
-            String service = System.getenv("OTEL_SERVICE_NAME");
-            if (endpoint != null) {
-                if (service == null) {
-                    service = "pom-manipulation-ext";
-                }
-                logger.info("Enabling OpenTelemetry collection on {} with service name {}", endpoint, service);
-                OTelCLIHelper.startOTel(
-                        service,
-                        "cli",
-                        OTelCLIHelper.defaultSpanProcessor(OTelCLIHelper.defaultSpanExporter(endpoint)));
+            // A batch collects telemetry for all of its jobs.
+            if (!batchJob) {
+                startTelemetry();
             }
             manipulationManager.init(session);
 
@@ -320,7 +376,9 @@ public class Cli implements Callable<Integer> {
                 try {
                     manipulationManager.scanAndApply(session);
                 } finally {
-                    OTelCLIHelper.stopOTel();
+                    if (!batchJob) {
+                        OTelCLIHelper.stopOTel();
+                    }
                 }
             }
         } catch (RestException e) {
@@ -343,19 +401,184 @@ public class Cli implements Callable<Integer> {
         return 0;
     }
 
+    /**
+     * @return the JSON report file written by the job run by this instance, or null if it did not write one.
+     */
+    File getReportFile() {
+        return session == null ? null : session.getReport();
+    }
+
+    private int runDaemon() {
+        try {
+            container = createContainer(scanClasspath);
+        } catch (PlexusContainerException e) {
+            logger.debug("Caught problem instantiating ", e);
+            System.err.println("Unable to start Cli subsystem");
+            return 100;
+        }
+        try (CliDaemon daemon = new CliDaemon(container, daemonPort, daemonTokenFile)) {
+            daemon.run();
+        } catch (IOException e) {
+            logger.error("PME daemon failed", e);
+            return 100;
+        } finally {
+            container.dispose();
+        }
+        return 0;
+    }
+
+    private int runBatch() {
+        final List<File> directories;
+        try {
+            directories = CliBatch.readDirectories(resolve(batchFile));
+        } catch (IOException e) {
+            logger.error("Unable to read batch file {}", batchFile, e);
+            return 10;
+        }
+        final int threads = batchThreads == null ? CliBatch.DEFAULT_THREADS : batchThreads;
+        batchExports = ConcurrentHashMap.newKeySet();
+
+        configureLogging();
+        startTelemetry();
+        try {
+            return new CliBatch(directories, threads, scanClasspath, this::createBatchJob)
+                    .run(new File(resolve(batchFile).getPath() + ".results"));
+        } catch (IOException | PlexusContainerException e) {
+            logger.error("PME batch failed", e);
+            return 100;
+        } finally {
+            OTelCLIHelper.stopOTel();
+        }
+    }
+
+    /**
+     * Creates the job for one project of a batch with the options of this instance.
+     *
+     * @param container the warm container to use.
+     * @param directory the project directory.
+     * @param cacheDirectory the Galley cache directory to use unless one has been configured.
+     * @return the job.
+     */
+    private Cli createBatchJob(PlexusContainer container, File directory, File cacheDirectory) {
+        final Cli job = new Cli(container, directory);
+        job.batchJob = true;
+        job.batchExports = batchExports;
+        job.settings = settings == null ? null : resolve(settings);
+        job.userProps = new Properties();
+        if (userProps != null) {
+            job.userProps.putAll(userProps);
+        }
+        job.userProps.putIfAbsent(GalleyInfrastructure.CACHE_DIRECTORY, cacheDirectory.getPath());
+        job.profiles.addAll(profiles);
+        job.quiet = quiet;
+        job.debug = debug;
+        job.trace = trace;
+        job.scanClasspath = scanClasspath;
+        return job;
+    }
+
+    private void configureLogging() {
+        final boolean runningInContainer = runningInContainer();
+        final Logger rootLogger = LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        final ch.qos.logback.classic.Logger root = (ch.qos.logback.classic.Logger) rootLogger;
+
+        if (logFile != null) {
+            if (runningInContainer) {
+                logger.error("Disabling log file as running in container!");
+            } else if (sharedContainer) {
+                logger.error("Disabling log file as running as a daemon job!");
+            } else {
+                LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+                ((ch.qos.logback.classic.Logger) rootLogger).detachAndStopAllAppenders();
+
+                PatternLayoutEncoder ple = new PatternLayoutEncoder();
+                ple.setPattern("%level %logger{36} %msg%n");
+                ple.setContext(loggerContext);
+                ple.start();
+
+                FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+                fileAppender.setEncoder(ple);
+                fileAppender.setContext(loggerContext);
+                fileAppender.setName("PME-CLI");
+                fileAppender.setAppend(false);
+                fileAppender.setFile(logFile);
+                fileAppender.start();
+
+                root.addAppender(fileAppender);
+                root.setLevel(Level.INFO);
+            }
+        }
+        // Set debug logging after session creation else we get the log filled with Plexus
+        // creation stuff.
+        if (trace) {
+            root.setLevel(Level.TRACE);
+        }
+        if (debug) {
+            root.setLevel(Level.DEBUG);
+        }
+        if (quiet) {
+            root.setLevel(Level.WARN);
+        }
+    }
+
+    private void startTelemetry() {
+        String endpoint = System.getenv("OTEL_EXPORTER_OTLP_ENDPOINT");
+        String service = System.getenv("OTEL_SERVICE_NAME");
+        if (endpoint != null) {
+            if (service == null) {
+                service = "pom-manipulation-ext";
+            }
+            logger.info("Enabling OpenTelemetry collection on {} with service name {}", endpoint, service);
+            OTelCLIHelper.startOTel(
+                    service,
+                    "cli",
+                    OTelCLIHelper.defaultSpanProcessor(OTelCLIHelper.defaultSpanExporter(endpoint)));
+        }
+    }
+
+    private File resolve(File file) {
+        return file.isAbsolute() ? file : new File(workingDirectory, file.getPath());
+    }
+
+    /**
+     * Creates the container. By default, components are discovered via the {@code META-INF/sisu/javax.inject.Named}
+     * indexes generated by the sisu-maven-plugin for each module (and for all dependencies when the CLI is packaged)
+     * which avoids examining every class on the classpath.
+     *
+     * @param scanClasspath whether to scan the classpath for components rather than use the index.
+     * @return the new container.
+     * @throws PlexusContainerException if an error occurs.
+     */
+    static PlexusContainer createContainer(boolean scanClasspath) throws PlexusContainerException {
+        final long start = System.nanoTime();
+        final DefaultContainerConfiguration config = new DefaultContainerConfiguration();
+        config.setClassPathScanning(scanClasspath ? PlexusConstants.SCANNING_ON : PlexusConstants.SCANNING_INDEX);
+        config.setComponentVisibility(PlexusConstants.GLOBAL_VISIBILITY);
+        config.setName("PME-CLI");
+        final PlexusContainer result = new DefaultPlexusContainer(config);
+
+        LoggerFactory.getLogger(Cli.class)
+                .debug(
+                        "Created container with {} in {} ms",
+                        scanClasspath ? "classpath scanning" : "component index",
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return result;
+    }
+
     @SuppressWarnings("deprecation")
-    private void createSession(File target, File settings) {
+    private boolean createSession(File target, File settings) {
         try {
-            final DefaultContainerConfiguration config = new DefaultContainerConfiguration();
-            config.setClassPathScanning(PlexusConstants.SCANNING_ON);
-            config.setComponentVisibility(PlexusConstants.GLOBAL_VISIBILITY);
-            config.setName("PME-CLI");
-            container = new DefaultPlexusContainer(config);
+            if (!sharedContainer) {
+                container = createContainer(scanClasspath);
+            }
 
             pomIO = container.lookup(PomIO.class);
             session = container.lookup(ManipulationSession.class);
             manipulationManager = container.lookup(ManipulationManager.class);
 
+            // A warm container retains the session from any previous job.
+            session.reset();
+
             final MavenExecutionRequest req = new DefaultMavenExecutionRequest()
                     .setSystemProperties(System.getProperties())
                     .setUserProperties(userProps)
@@ -403,16 +626,17 @@ public class Cli implements Callable<Integer> {
         } catch (ComponentLookupException | PlexusContainerException e) {
             logger.debug("Caught problem instantiating ", e);
             System.err.println("Unable to start Cli subsystem");
-            System.exit(100);
+            return false;
         } catch (SettingsBuildingException e) {
             logger.debug("Caught problem parsing settings file ", e);
             System.err.println("Unable to parse settings.xml file");
-            System.exit(100);
+            return false;
         } catch (MavenExecutionRequestPopulationException e) {
             logger.debug("Caught problem populating maven request from settings file ", e);
             System.err.println("Unable to create maven execution request from settings.xml file");
-            System.exit(100);
+            return false;
         }
+        return true;
     }
 
     private Settings parseSettings(File settings) throws ComponentLookupException, SettingsBuildingException {
@@ -0,0 +1,211 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.cli;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FileUtils;
+import org.codehaus.plexus.PlexusContainer;
+import org.codehaus.plexus.PlexusContainerException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Manipulates several projects within one JVM.
+ * <p>
+ * The components within a container are singletons, so each worker thread owns a warm container and runs its jobs
+ * one at a time with the {@link org.jboss.pnc.mavenmanipulator.core.ManipulationSession} reset between each, as
+ * {@link CliDaemon} does. Each worker also keeps a Galley cache directory between its jobs, while the REST client
+ * configuration and its connection pool are shared by the whole JVM.
+ * <p>
+ * As the Galley caches are not shared, an artifact or metadata file needed by the projects of several workers is
+ * downloaded once per worker. Each additional worker therefore adds to the disk usage and to the traffic against the
+ * repositories, which is why the number of workers defaults to {@link #DEFAULT_THREADS} rather than the number of
+ * processors.
+ * <p>
+ * The exit code, directory and JSON report (if any) of each project are written, tab separated, to the results file.
+ */
+final class CliBatch {
+    /**
+     * The number of projects manipulated concurrently unless configured otherwise.
+     */
+    static final int DEFAULT_THREADS = 2;
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final List<File> directories;
+
+    private final int threads;
+
+    private final boolean scanClasspath;
+
+    private final JobFactory jobs;
+
+    /**
+     * @param directories the project directories to manipulate.
+     * @param threads the number of projects to manipulate concurrently.
+     * @param scanClasspath whether to scan the classpath for components rather than use the index.
+     * @param jobs creates the job for each project.
+     */
+    CliBatch(List<File> directories, int threads, boolean scanClasspath, JobFactory jobs) {
+        this.directories = directories;
+        this.threads = Math.max(1, Math.min(threads, directories.size()));
+        this.scanClasspath = scanClasspath;
+        this.jobs = jobs;
+    }
+
+    /**
+     * Reads the project directories from a file containing one per line. Blank lines and those starting with '#' are
+     * ignored and relative directories are resolved against the directory containing the file.
+     *
+     * @param file the file to read.
+     * @return the list of directories.
+     * @throws IOException if an error occurs.
+     */
+    static List<File> readDirectories(File file) throws IOException {
+        final File parent = file.getAbsoluteFile().getParentFile();
+        return Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)
+                .stream()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .map(line -> {
+                    final File directory = new File(line);
+                    return directory.isAbsolute() ? directory : new File(parent, line);
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Runs the jobs.
+     *
+     * @param results the file to write the result of each job to.
+     * @return the highest exit code of the jobs.
+     * @throws IOException if the results cannot be written.
+     * @throws PlexusContainerException if a container cannot be created.
+     */
+    int run(File results) throws IOException, PlexusContainerException {
+        final File cacheRoot = Files.createTempDirectory("pme-batch").toFile();
+        final BlockingQueue<Worker> workers = new ArrayBlockingQueue<>(threads);
+        final AtomicInteger count = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(
+                threads,
+                r -> new Thread(r, "pme-batch-" + count.incrementAndGet()));
+
+        logger.info("Manipulating {} projects using {} threads", directories.size(), threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                workers.add(new Worker(Cli.createContainer(scanClasspath), new File(cacheRoot, Integer.toString(i))));
+            }
+
+            final List<Future<Result>> futures = new ArrayList<>(directories.size());
+            for (final File directory : directories) {
+                futures.add(executor.submit(() -> {
+                    final Worker worker = workers.take();
+                    try {
+                        return run(worker, directory);
+                    } finally {
+                        workers.add(worker);
+                    }
+                }));
+            }
+
+            int status = 0;
+            try (Writer writer = Files.newBufferedWriter(results.toPath(), StandardCharsets.UTF_8)) {
+                for (int i = 0; i < directories.size(); i++) {
+                    Result result;
+                    try {
+                        result = futures.get(i).get();
+                    } catch (ExecutionException e) {
+                        logger.error("Batch job for {} failed", directories.get(i), e.getCause());
+                        result = new Result(100, null);
+                    }
+                    status = Math.max(status, result.status);
+                    writer.write(result.status + "\t" + directories.get(i) + "\t"
+                            + (result.report == null ? "" : result.report.getPath()) + System.lineSeparator());
+                }
+            }
+            logger.info("Batch results written to {}", results);
+            return status;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Interrupted running batch");
+            return 100;
+        } finally {
+            executor.shutdownNow();
+            workers.forEach(w -> w.container.dispose());
+            FileUtils.deleteQuietly(cacheRoot);
+        }
+    }
+
+    private Result run(Worker worker, File directory) {
+        logger.info("Running batch job for {}", directory);
+
+        final Cli cli = jobs.create(worker.container, directory, worker.cacheDirectory);
+
+        final int status = cli.call();
+        final File report = cli.getReportFile();
+
+        logger.info("Batch job for {} completed with {}", directory, status);
+        return new Result(status, report != null && report.isFile() ? report : null);
+    }
+
+    @FunctionalInterface
+    interface JobFactory {
+        /**
+         * @param container the warm container of the worker running the job.
+         * @param directory the project directory.
+         * @param cacheDirectory the Galley cache directory of the worker.
+         * @return the job.
+         */
+        Cli create(PlexusContainer container, File directory, File cacheDirectory);
+    }
+
+    private static final class Worker {
+        private final PlexusContainer container;
+
+        private final File cacheDirectory;
+
+        private Worker(PlexusContainer container, File cacheDirectory) {
+            this.container = container;
+            this.cacheDirectory = cacheDirectory;
+        }
+    }
+
+    private static final class Result {
+        private final int status;
+
+        private final File report;
+
+        private Result(int status, File report) {
+            this.status = status;
+            this.report = report;
+        }
+    }
+}
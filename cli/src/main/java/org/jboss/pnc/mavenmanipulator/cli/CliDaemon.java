@@ -0,0 +1,201 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.cli;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.codehaus.plexus.PlexusContainer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.classic.Level;
+
+/**
+ * Keeps a warm container and accepts manipulation jobs on a loopback port, avoiding the container, settings and
+ * Galley start up cost of each CLI invocation.
+ * <p>
+ * As a job may run arbitrary scripts as the user running the daemon, a client must prove it may read the token the
+ * daemon writes on start up to a file only readable by that user. The protocol is line based and UTF-8 encoded. A
+ * request consists of the token, the working directory and then one CLI argument per line and is terminated by an
+ * empty line. The response consists of the exit code followed by the contents of the JSON alignment report if the job
+ * wrote one. A request with any other token is closed without a response.
+ * <p>
+ * The components within the container are singletons, so jobs are run one at a time with the
+ * {@link org.jboss.pnc.mavenmanipulator.core.ManipulationSession} reset between each.
+ */
+final class CliDaemon implements Closeable {
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final PlexusContainer container;
+
+    private final ServerSocket server;
+
+    private final File tokenFile;
+
+    private final byte[] token;
+
+    /**
+     * @param container the warm container to run the jobs in.
+     * @param port the loopback port to listen on, or 0 for any free port.
+     * @param tokenFile the file to write the token clients must send to, or null for
+     *        <code>~/.pme/daemon-&lt;port&gt;.token</code>.
+     * @throws IOException if the port can not be bound or the token written.
+     */
+    CliDaemon(PlexusContainer container, int port, File tokenFile) throws IOException {
+        this.container = container;
+        this.server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+
+        final byte[] random = new byte[32];
+        new SecureRandom().nextBytes(random);
+        final String encoded = Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+        this.token = encoded.getBytes(StandardCharsets.UTF_8);
+        this.tokenFile = tokenFile == null
+                ? new File(System.getProperty("user.home"), ".pme" + File.separator + "daemon-" + getPort() + ".token")
+                : tokenFile;
+        try {
+            writeToken(this.tokenFile.toPath(), encoded);
+        } catch (IOException e) {
+            server.close();
+            throw e;
+        }
+    }
+
+    int getPort() {
+        return server.getLocalPort();
+    }
+
+    File getTokenFile() {
+        return tokenFile;
+    }
+
+    /**
+     * Accepts and runs jobs until closed.
+     */
+    void run() {
+        logger.info(
+                "PME daemon listening on {}:{} with the token in {}",
+                server.getInetAddress().getHostAddress(),
+                getPort(),
+                tokenFile);
+
+        while (!server.isClosed()) {
+            try (Socket socket = server.accept()) {
+                handle(socket);
+            } catch (IOException e) {
+                if (!server.isClosed()) {
+                    logger.error("Failed to process PME daemon job", e);
+                }
+            }
+        }
+        logger.info("PME daemon stopped");
+    }
+
+    private void handle(Socket socket) throws IOException {
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+
+        final String received = reader.readLine();
+        if (received == null || !MessageDigest.isEqual(token, received.getBytes(StandardCharsets.UTF_8))) {
+            logger.warn("Rejecting PME daemon job from port {} with an invalid token", socket.getPort());
+            return;
+        }
+        String directory = reader.readLine();
+        if (directory == null) {
+            return;
+        }
+        List<String> args = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null && !line.isEmpty()) {
+            args.add(line);
+        }
+        logger.info("Running PME daemon job in {} with arguments {}", directory, args);
+
+        final ch.qos.logback.classic.Logger root = (ch.qos.logback.classic.Logger) LoggerFactory
+                .getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        final Level level = root.getLevel();
+        final Cli cli = new Cli(container, new File(directory));
+        int result;
+        try {
+            result = cli.run(args.toArray(new String[0]));
+        } finally {
+            root.setLevel(level);
+        }
+
+        writer.write(Integer.toString(result));
+        writer.write('\n');
+
+        // Only the report written by this job, rather than one left by an earlier job, is returned.
+        File report = cli.getReportFile();
+        if (report != null && report.isFile()) {
+            writer.write(FileUtils.readFileToString(report, StandardCharsets.UTF_8));
+        }
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            server.close();
+        } finally {
+            Files.deleteIfExists(tokenFile.toPath());
+        }
+    }
+
+    /**
+     * Writes the token to a new file that only the owner may read and write, replacing any left by a previous daemon.
+     */
+    private static void writeToken(Path file, String token) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.deleteIfExists(file);
+        try {
+            Files.createFile(
+                    file,
+                    PosixFilePermissions.asFileAttribute(
+                            EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE)));
+        } catch (UnsupportedOperationException e) {
+            Files.createFile(file);
+            final File f = file.toFile();
+            if (!(f.setReadable(false, false) && f.setReadable(true, true) && f.setWritable(false, false)
+                    && f.setWritable(true, true))) {
+                Files.deleteIfExists(file);
+                throw new IOException("Unable to restrict access to daemon token file " + file);
+            }
+        }
+        Files.write(file, token.getBytes(StandardCharsets.UTF_8));
+    }
+}
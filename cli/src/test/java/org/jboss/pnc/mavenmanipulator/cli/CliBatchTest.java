@@ -0,0 +1,161 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.cli;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.contrib.java.lang.system.SystemErrRule;
+import org.junit.contrib.java.lang.system.SystemOutRule;
+import org.junit.rules.TemporaryFolder;
+
+public class CliBatchTest {
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Rule
+    public final SystemOutRule systemOutRule = new SystemOutRule().enableLog().muteForSuccessfulTests();
+
+    @Rule
+    public final SystemErrRule systemErrRule = new SystemErrRule().enableLog().muteForSuccessfulTests();
+
+    @Test
+    public void readDirectories() throws Exception {
+        File absolute = temp.newFolder();
+        File batch = temp.newFile();
+        FileUtils.writeStringToFile(
+                batch,
+                "# Projects\nfirst\n\n  " + absolute + "  \n",
+                StandardCharsets.UTF_8);
+
+        assertEquals(
+                Arrays.asList(new File(temp.getRoot(), "first"), absolute),
+                CliBatch.readDirectories(batch));
+    }
+
+    @Test
+    public void runBatch() throws Exception {
+        File first = temp.newFolder();
+        File second = temp.newFolder();
+        File batch = temp.newFile();
+        FileUtils.writeLines(batch, Arrays.asList(first.getPath(), second.getPath()));
+
+        assertEquals(
+                0,
+                new Cli().run(
+                        new String[] { "--batch", batch.getPath(), "--batchThreads=2", "-Dmanipulation.disable=true" }));
+
+        List<String> results = FileUtils.readLines(new File(batch.getPath() + ".results"), StandardCharsets.UTF_8);
+        // Disabled manipulation produces no report.
+        assertEquals(Arrays.asList("0\t" + first + "\t", "0\t" + second + "\t"), results);
+    }
+
+    @Test
+    public void runBatchManipulatesConcurrently() throws Exception {
+        File first = project("rebuild-1");
+        File second = project("rebuild-2");
+        File batch = temp.newFile();
+        FileUtils.writeLines(batch, Arrays.asList(first.getPath(), second.getPath()));
+
+        assertEquals(
+                0,
+                new Cli().run(
+                        new String[] { "--batch", batch.getPath(), "--batchThreads=2",
+                                "-Dmaven.repo.local=" + temp.newFolder() }));
+
+        List<String> results = FileUtils.readLines(new File(batch.getPath() + ".results"), StandardCharsets.UTF_8);
+        assertEquals(2, results.size());
+        assertTrue(results.get(0).startsWith("0\t" + first + "\t" + first));
+        assertTrue(results.get(1).startsWith("0\t" + second + "\t" + second));
+
+        // Each job uses the configuration of its own project.
+        String result = FileUtils.readFileToString(new File(first, "pom.xml"), StandardCharsets.UTF_8);
+        assertTrue(result.contains("<version>1.0.rebuild-1</version>"));
+        result = FileUtils.readFileToString(new File(second, "pom.xml"), StandardCharsets.UTF_8);
+        assertTrue(result.contains("<version>1.0.rebuild-2</version>"));
+    }
+
+    @Test
+    public void runBatchExportsBundlePerProject() throws Exception {
+        File first = project("rebuild-1");
+        File second = project("rebuild-2");
+        File batch = temp.newFile();
+        FileUtils.writeLines(batch, Arrays.asList(first.getPath(), second.getPath()));
+
+        assertEquals(
+                0,
+                new Cli().run(
+                        new String[] { "--batch", batch.getPath(), "--batchThreads=2",
+                                "-Dmaven.repo.local=" + temp.newFolder(),
+                                "-DmanipulationCacheBundleExport=bundle.zip" }));
+
+        // A relative bundle is resolved against each project.
+        assertTrue(new File(first, "bundle.zip").isFile());
+        assertTrue(new File(second, "bundle.zip").isFile());
+    }
+
+    @Test
+    public void runBatchRejectsSharedBundle() throws Exception {
+        File first = project("rebuild-1");
+        File second = project("rebuild-2");
+        File bundle = new File(temp.getRoot(), "bundle.zip");
+        File batch = temp.newFile();
+        FileUtils.writeLines(batch, Arrays.asList(first.getPath(), second.getPath()));
+
+        assertEquals(
+                10,
+                new Cli().run(
+                        new String[] { "--batch", batch.getPath(), "--batchThreads=2",
+                                "-Dmaven.repo.local=" + temp.newFolder(),
+                                "-DmanipulationCacheBundleExport=" + bundle }));
+
+        List<String> results = FileUtils.readLines(new File(batch.getPath() + ".results"), StandardCharsets.UTF_8);
+        // Only one of the projects may write the bundle.
+        assertEquals(1, results.stream().filter(r -> r.startsWith("10\t")).count());
+        assertEquals(1, results.stream().filter(r -> r.startsWith("0\t")).count());
+        assertTrue(bundle.isFile());
+    }
+
+    /**
+     * @param suffix the version suffix configured in the project's own configuration file.
+     * @return the project directory.
+     */
+    private File project(String suffix) throws Exception {
+        File directory = temp.newFolder();
+        FileUtils.writeStringToFile(
+                new File(directory, "pom.xml"),
+                "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n"
+                        + "  <modelVersion>4.0.0</modelVersion>\n"
+                        + "  <groupId>org.foo</groupId>\n"
+                        + "  <artifactId>bar</artifactId>\n"
+                        + "  <version>1.0</version>\n"
+                        + "</project>\n",
+                StandardCharsets.UTF_8);
+        FileUtils.writeStringToFile(
+                new File(directory, "pme.properties"),
+                "versionSuffix=" + suffix + "\n",
+                StandardCharsets.UTF_8);
+        return directory;
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.cli;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.codehaus.plexus.PlexusContainer;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.contrib.java.lang.system.SystemErrRule;
+import org.junit.contrib.java.lang.system.SystemOutRule;
+import org.junit.rules.TemporaryFolder;
+
+public class CliDaemonTest {
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Rule
+    public final SystemOutRule systemOutRule = new SystemOutRule().enableLog().muteForSuccessfulTests();
+
+    @Rule
+    public final SystemErrRule systemErrRule = new SystemErrRule().enableLog().muteForSuccessfulTests();
+
+    @Test
+    public void runJobs() throws Exception {
+        PlexusContainer container = Cli.createContainer(false);
+        File directory = temp.newFolder();
+
+        try (CliDaemon daemon = new CliDaemon(container, 0, new File(temp.getRoot(), "daemon.token"))) {
+            Thread thread = new Thread(daemon::run);
+            thread.start();
+
+            assertEquals("0", submit(daemon, directory, "-Dmanipulation.disable=true"));
+            // The container is reused for subsequent jobs.
+            assertEquals("0", submit(daemon, directory, "-Dmanipulation.disable=true", "-f", "other.xml"));
+            assertEquals("10", submit(daemon, directory, "-FOOBAR"));
+            assertEquals("10", submit(daemon, directory, "--daemon=0"));
+
+            daemon.close();
+            thread.join();
+        } finally {
+            container.dispose();
+        }
+    }
+
+    @Test
+    public void runJobsWithDifferentProperties() throws Exception {
+        PlexusContainer container = Cli.createContainer(false);
+        File first = temp.newFolder();
+        File second = temp.newFolder();
+        for (File directory : new File[] { first, second }) {
+            FileUtils.writeStringToFile(
+                    new File(directory, "pom.xml"),
+                    "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n"
+                            + "  <modelVersion>4.0.0</modelVersion>\n"
+                            + "  <groupId>org.foo</groupId>\n"
+                            + "  <artifactId>bar</artifactId>\n"
+                            + "  <version>1.0</version>\n"
+                            + "  <properties>\n"
+                            + "    <empty></empty>\n"
+                            + "  </properties>\n"
+                            + "</project>\n",
+                    StandardCharsets.UTF_8);
+        }
+
+        try (CliDaemon daemon = new CliDaemon(container, 0, new File(temp.getRoot(), "daemon.token"))) {
+            Thread thread = new Thread(daemon::run);
+            thread.start();
+
+            String repository = "-Dmaven.repo.local=" + temp.newFolder();
+            List<String> response = submitJob(
+                    daemon,
+                    first,
+                    repository,
+                    "-DversionSuffix=rebuild-1",
+                    "-DpomTextPatching=true");
+            assertEquals("0", response.get(0));
+            assertTrue(String.join("\n", response).contains("1.0.rebuild-1"));
+            assertEquals("0", submitJob(daemon, second, repository, "-DversionSuffix=rebuild-2").get(0));
+            // The report written by the previous job in the directory is not returned for this one.
+            assertEquals("0", submit(daemon, second, "-Dmanipulation.disable=true"));
+
+            daemon.close();
+            thread.join();
+        } finally {
+            container.dispose();
+        }
+
+        // Configuration of the first job must not be retained by the singleton components for the second.
+        String result = FileUtils.readFileToString(new File(first, "pom.xml"), StandardCharsets.UTF_8);
+        assertTrue(result.contains("<version>1.0.rebuild-1</version>"));
+        assertTrue(result.contains("<empty></empty>"));
+        result = FileUtils.readFileToString(new File(second, "pom.xml"), StandardCharsets.UTF_8);
+        assertTrue(result.contains("<version>1.0.rebuild-2</version>"));
+        assertFalse(result.contains("<empty></empty>"));
+    }
+
+    @Test
+    public void rejectInvalidToken() throws Exception {
+        PlexusContainer container = Cli.createContainer(false);
+        File directory = temp.newFolder();
+        File token = new File(temp.getRoot(), "daemon.token");
+
+        try (CliDaemon daemon = new CliDaemon(container, 0, token)) {
+            assertEquals(
+                    EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE),
+                    Files.getPosixFilePermissions(token.toPath()));
+
+            Thread thread = new Thread(daemon::run);
+            thread.start();
+
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), daemon.getPort())) {
+                Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+                writer.write("invalid\n" + directory + "\n-Dmanipulation.disable=true\n\n");
+                writer.flush();
+
+                // The job is not run and the connection closed without a response.
+                assertEquals(-1, socket.getInputStream().read());
+            }
+            assertEquals("0", submit(daemon, directory, "-Dmanipulation.disable=true"));
+
+            daemon.close();
+            thread.join();
+        } finally {
+            container.dispose();
+        }
+        assertFalse(token.exists());
+    }
+
+    private static String submit(CliDaemon daemon, File directory, String... args) throws Exception {
+        List<String> response = submitJob(daemon, directory, args);
+        // Disabled manipulation produces no report.
+        assertEquals(1, response.size());
+        return response.get(0);
+    }
+
+    private static List<String> submitJob(CliDaemon daemon, File directory, String... args) throws Exception {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), daemon.getPort())) {
+            Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            writer.write(FileUtils.readFileToString(daemon.getTokenFile(), StandardCharsets.UTF_8) + "\n");
+            writer.write(directory + "\n");
+            for (String arg : args) {
+                writer.write(arg + "\n");
+            }
+            writer.write("\n");
+            writer.flush();
+
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            List<String> response = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                response.add(line);
+            }
+            return response;
+        }
+    }
+}
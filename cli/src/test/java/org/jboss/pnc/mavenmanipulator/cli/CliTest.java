@@ -31,14 +31,18 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.filefilter.DirectoryFileFilter;
 import org.apache.commons.io.filefilter.FileFilterUtils;
 import org.apache.commons.lang3.reflect.FieldUtils;
 import org.apache.maven.execution.MavenSession;
+import org.codehaus.plexus.PlexusContainer;
 import org.jboss.pnc.mavenmanipulator.core.ManipulationSession;
 import org.jboss.pnc.mavenmanipulator.core.fixture.TestUtils;
+import org.jboss.pnc.mavenmanipulator.core.impl.Manipulator;
+import org.jboss.pnc.mavenmanipulator.io.resolver.ExtensionInfrastructure;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.contrib.java.lang.system.ExpectedSystemExit;
@@ -46,8 +50,12 @@ import org.junit.contrib.java.lang.system.ProvideSystemProperty;
 import org.junit.contrib.java.lang.system.SystemErrRule;
 import org.junit.contrib.java.lang.system.SystemOutRule;
 import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class CliTest {
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
     @Rule
     public final ProvideSystemProperty ansiOFF = new ProvideSystemProperty("picocli.ansi", "false");
 
@@ -406,6 +414,34 @@ public class CliTest {
 
     }
 
+    @Test
+    public void checkComponentIndexMatchesScanning() throws Exception {
+        long start = System.nanoTime();
+        PlexusContainer indexed = Cli.createContainer(false);
+        long indexedTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        PlexusContainer scanned = Cli.createContainer(true);
+        long scannedTime = System.nanoTime() - start;
+
+        try {
+            logger.info(
+                    "Container startup with component index: {} ms, with classpath scanning: {} ms",
+                    TimeUnit.NANOSECONDS.toMillis(indexedTime),
+                    TimeUnit.NANOSECONDS.toMillis(scannedTime));
+
+            assertEquals(
+                    scanned.lookupMap(Manipulator.class).keySet(),
+                    indexed.lookupMap(Manipulator.class).keySet());
+            assertEquals(
+                    scanned.lookupMap(ExtensionInfrastructure.class).keySet(),
+                    indexed.lookupMap(ExtensionInfrastructure.class).keySet());
+        } finally {
+            indexed.dispose();
+            scanned.dispose();
+        }
+    }
+
     @Test
     public void checkManipulatorOrder() {
         new Cli().run(new String[] { "--printManipulatorOrder" });
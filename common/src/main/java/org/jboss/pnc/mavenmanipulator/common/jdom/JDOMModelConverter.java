@@ -15,8 +15,10 @@
  */
 package org.jboss.pnc.mavenmanipulator.common.jdom;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 
 import org.apache.maven.model.*;
 import org.codehaus.plexus.util.xml.Xpp3Dom;
@@ -67,21 +69,16 @@ public class JDOMModelConverter {
                 elIt = null;
             }
             final IndentationCounter innerCount = new IndentationCounter(counter.getDepth() + 1);
-            while (it.hasNext()) {
+            while (elIt != null && it.hasNext()) {
                 final Contributor value = (Contributor) it.next();
-                Element el;
-                if (elIt != null && elIt.hasNext()) {
-                    el = (Element) elIt.next();
-                    if (!elIt.hasNext()) {
-                        elIt = null;
-                    }
-                } else {
-                    el = factory.element("contributor", element.getNamespace());
-                    Utils.insertAtPreferredLocation(element, el, innerCount);
+                final Element el = (Element) elIt.next();
+                if (!elIt.hasNext()) {
+                    elIt = null;
                 }
                 updateContributor(value, innerCount, el);
                 innerCount.increaseCount();
             }
+            insertRemaining(innerCount, element, "contributor", it, this::updateContributor);
             if (elIt != null) {
                 while (elIt.hasNext()) {
                     elIt.next();
@@ -114,21 +111,16 @@ public class JDOMModelConverter {
                 elIt = null;
             }
             final IndentationCounter innerCount = new IndentationCounter(counter.getDepth() + 1);
-            while (it.hasNext()) {
+            while (elIt != null && it.hasNext()) {
                 final Dependency value = (Dependency) it.next();
-                Element el;
-                if (elIt != null && elIt.hasNext()) {
-                    el = (Element) elIt.next();
-                    if (!elIt.hasNext()) {
-                        elIt = null;
-                    }
-                } else {
-                    el = factory.element("dependency", element.getNamespace());
-                    Utils.insertAtPreferredLocation(element, el, innerCount);
+                final Element el = (Element) elIt.next();
+                if (!elIt.hasNext()) {
+                    elIt = null;
                 }
                 updateDependency(value, innerCount, el);
                 innerCount.increaseCount();
             }
+            insertRemaining(innerCount, element, "dependency", it, this::updateDependency);
             if (elIt != null) {
                 while (elIt.hasNext()) {
                     elIt.next();
@@ -162,21 +154,16 @@ public class JDOMModelConverter {
                 elIt = null;
             }
             final IndentationCounter innerCount = new IndentationCounter(counter.getDepth() + 1);
-            while (it.hasNext()) {
+            while (elIt != null && it.hasNext()) {
                 final Developer value = (Developer) it.next();
-                Element el;
-                if (elIt != null && elIt.hasNext()) {
-                    el = (Element) elIt.next();
-                    if (!elIt.hasNext()) {
-                        elIt = null;
-                    }
-                } else {
-                    el = factory.element("developer", element.getNamespace());
-                    Utils.insertAtPreferredLocation(element, el, innerCount);
+                final Element el = (Element) elIt.next();
+                if (!elIt.hasNext()) {
+                    elIt = null;
                 }
                 updateDeveloper(value, innerCount, el);
                 innerCount.increaseCount();
             }
+            insertRemaining(innerCount, element, "developer", it, this::updateDeveloper);
             if (elIt != null) {
                 while (elIt.hasNext()) {
                     elIt.next();
@@ -205,21 +192,16 @@ public class JDOMModelConverter {
                 elIt = null;
             }
             final IndentationCounter innerCount = new IndentationCounter(counter.getDepth() + 1);
-            while (it.hasNext()) {
+            while (elIt != null && it.hasNext()) {
                 final Exclusion value = (Exclusion) it.next();
-                Element el;
-                if (elIt != null && elIt.hasNext()) {
-                    el = (Element) elIt.next();
-                    if (!elIt.hasNext()) {
-                        elIt = null;
-                    }
-                } else {
-                    el = factory.element("exclusion", element.getNamespace());
-                    Utils.insertAtPreferredLocation(element, el, innerCount);
+                final Element el = (Element) elIt.next();
+                if (!elIt.hasNext()) {
+                    elIt = null;
                 }
                 updateExclusion(value, innerCount, el);
                 innerCount.increaseCount();
             }
+            insertRemaining(innerCount, element, "exclusion", it, this::updateExclusion);
             if (elIt != null) {
                 while (elIt.hasNext()) {
                     elIt.next();
@@ -248,21 +230,16 @@ public class JDOMModelConverter {
                 elIt = null;
             }
             final IndentationCounter innerCount = new IndentationCounter(counter.getDepth() + 1);
-            while (it.hasNext()) {
+            while (elIt != null && it.hasNext()) {
                 final Extension value = (Extension) it.next();
-                Element el;
-                if (elIt != null && elIt.hasNext()) {
-                    el = (Element) elIt.next();
-                    if (!elIt.hasNext()) {
-                        elIt = null;
-                    }
-                } else {
-                    el = factory.element("extension", element.getNamespace());
-                    Utils.insertAtPreferredLocation(element, el, innerCount);
+                final Element el = (Element) elIt.next();
+                if (!elIt.hasNext()) {
+                    elIt = null;
                 }
                 updateExtension(value, innerCount, el);
                 innerCount.increaseCount();
             }
+            insertRemaining(innerCount, element, "extension", it, this::updateExtension);
             if (elIt != null) {
                 while (elIt.hasNext()) {
                     elIt.next();
@@ -293,21 +270,16 @@ public class JDOMModelConverter {
                 elIt = null;
             }
             final IndentationCounter innerCount = new IndentationCounter(counter.getDepth() + 1);
-            while (it.hasNext()) {
+            while (elIt != null && it.hasNext()) {
                 final License value = (License) it.next();
-                Element el;
-                if (elIt != null && elIt.hasNext()) {
-                    el = (Element) elIt.next();
-                    if (!elIt.hasNext()) {
-                        elIt = null;
-                    }
-                } else {
-                    el = factory.element("license", element.getNamespace());
-                    Utils.insertAtPreferredLocation(element, el, innerCount);
+                final Element el = (Element) elIt.next();
+                if (!elIt.hasNext()) {
+                    elIt = null;
                 }
                 updateLicense(value, innerCount, el);
                 innerCount.increaseCount();
             }
+            insertRemaining(innerCount, element, "license", it, this::updateLicense);
             if (elIt != null) {
                 while (elIt.hasNext()) {
                     elIt.next();
@@ -340,21 +312,16 @@ public class JDOMModelConverter {
                 elIt = null;
             }
             final IndentationCounter innerCount = new IndentationCounter(counter.getDepth() + 1);
-            while (it.hasNext()) {
+            while (elIt != null && it.hasNext()) {
                 final MailingList value = (MailingList) it.next();
-                Element el;
-                if (elIt != null && elIt.hasNext()) {
-                    el = (Element) elIt.next();
-                    if (!elIt.hasNext()) {
-                        elIt = null;
-                    }
-                } else {
-                    el = factory.element("mailingList", element.getNamespace());
-                    Utils.insertAtPreferredLocation(element, el, innerCount);
+                final Element el = (Element) elIt.next();
+                if (!elIt.hasNext()) {
+                    elIt = null;
                 }
                 updateMailingList(value, innerCount, el);
                 innerCount.increaseCount();
             }
+            insertRemaining(innerCount, element, "mailingList", it, this::updateMailingList);
             if (elIt != null) {
                 while (elIt.hasNext()) {
                     elIt.next();
@@ -383,21 +350,16 @@ public class JDOMModelConverter {
                 elIt = null;
             }
             final IndentationCounter innerCount = new IndentationCounter(counter.getDepth() + 1);
-            while (it.hasNext()) {
+            while (elIt != null && it.hasNext()) {
                 final Notifier value = (Notifier) it.next();
-                Element el;
-                if (elIt != null && elIt.hasNext()) {
-                    el = (Element) elIt.next();
-                    if (!elIt.hasNext()) {
-                        elIt = null;
-                    }
-                } else {
-                    el = factory.element("notifier", element.getNamespace());
-                    Utils.insertAtPreferredLocation(element, el, innerCount);
+                final Element el = (Element) elIt.next();
+                if (!elIt.hasNext()) {
+                    elIt = null;
                 }
                 updateNotifier(value, innerCount, el);
                 innerCount.increaseCount();
             }
+            insertRemaining(innerCount, element, "notifier", it, this::updateNotifier);
             if (elIt != null) {
                 while (elIt.hasNext()) {
                     elIt.next();
@@ -426,21 +388,16 @@ public class JDOMModelConverter {
                 elIt = null;
             }
             final IndentationCounter innerCount = new IndentationCounter(counter.getDepth() + 1);
-            while (it.hasNext()) {
+            while (elIt != null && it.hasNext()) {
                 final Plugin value = (Plugin) it.next();
-                Element el;
-                if (elIt != null && elIt.hasNext()) {
-                    el = (Element) elIt.next();
-                    if (!elIt.hasNext()) {
-                        elIt = null;
-                    }
-                } else {
-                    el = factory.element("plugin", element.getNamespace());
-                    Utils.insertAtPreferredLocation(element, el, innerCount);
+                final Element el = (Element) elIt.next();
+                if (!elIt.hasNext()) {
+                    elIt = null;
                 }
                 updatePlugin(value, innerCount, el);
                 innerCount.increaseCount();
             }
+            insertRemaining(innerCount, element, "plugin", it, this::updatePlugin);
             if (elIt != null) {
                 while (elIt.hasNext()) {
                     elIt.next();
@@ -472,21 +429,16 @@ public class JDOMModelConverter {
                 elIt = null;
             }
             final IndentationCounter innerCount = new IndentationCounter(counter.getDepth() + 1);
-            while (it.hasNext()) {
+            while (elIt != null && it.hasNext()) {
                 final PluginExecution value = (PluginExecution) it.next();
-                Element el;
-                if (elIt != null && elIt.hasNext()) {
-                    el = (Element) elIt.next();
-                    if (!elIt.hasNext()) {
-                        elIt = null;
-                    }
-                } else {
-                    el = factory.element("execution", element.getNamespace());
-                    Utils.insertAtPreferredLocation(element, el, innerCount);
+                final Element el = (Element) elIt.next();
+                if (!elIt.hasNext()) {
+                    elIt = null;
                 }
                 updatePluginExecution(value, innerCount, el);
                 innerCount.increaseCount();
             }
+            insertRemaining(innerCount, element, "execution", it, this::updatePluginExecution);
             if (elIt != null) {
                 while (elIt.hasNext()) {
                     elIt.next();
@@ -519,21 +471,16 @@ public class JDOMModelConverter {
                 elIt = null;
             }
             final IndentationCounter innerCount = new IndentationCounter(counter.getDepth() + 1);
-            while (it.hasNext()) {
+            while (elIt != null && it.hasNext()) {
                 final Profile value = (Profile) it.next();
-                Element el;
-                if (elIt != null && elIt.hasNext()) {
-                    el = (Element) elIt.next();
-                    if (!elIt.hasNext()) {
-                        elIt = null;
-                    }
-                } else {
-                    el = factory.element("profile", element.getNamespace());
-                    Utils.insertAtPreferredLocation(element, el, innerCount);
+                final Element el = (Element) elIt.next();
+                if (!elIt.hasNext()) {
+                    elIt = null;
                 }
                 updateProfile(value, innerCount, el);
                 innerCount.increaseCount();
             }
+            insertRemaining(innerCount, element, "profile", it, this::updateProfile);
             if (elIt != null) {
                 while (elIt.hasNext()) {
                     elIt.next();
@@ -562,21 +509,16 @@ public class JDOMModelConverter {
                 elIt = null;
             }
             final IndentationCounter innerCount = new IndentationCounter(counter.getDepth() + 1);
-            while (it.hasNext()) {
+            while (elIt != null && it.hasNext()) {
                 final ReportPlugin value = (ReportPlugin) it.next();
-                Element el;
-                if (elIt != null && elIt.hasNext()) {
-                    el = (Element) elIt.next();
-                    if (!elIt.hasNext()) {
-                        elIt = null;
-                    }
-                } else {
-                    el = factory.element("plugin", element.getNamespace());
-                    Utils.insertAtPreferredLocation(element, el, innerCount);
+                final Element el = (Element) elIt.next();
+                if (!elIt.hasNext()) {
+                    elIt = null;
                 }
                 updateReportPlugin(value, innerCount, el);
                 innerCount.increaseCount();
             }
+            insertRemaining(innerCount, element, "plugin", it, this::updateReportPlugin);
             if (elIt != null) {
                 while (elIt.hasNext()) {
                     elIt.next();
@@ -605,21 +547,16 @@ public class JDOMModelConverter {
                 elIt = null;
             }
             final IndentationCounter innerCount = new IndentationCounter(counter.getDepth() + 1);
-            while (it.hasNext()) {
+            while (elIt != null && it.hasNext()) {
                 final ReportSet value = (ReportSet) it.next();
-                Element el;
-                if (elIt != null && elIt.hasNext()) {
-                    el = (Element) elIt.next();
-                    if (!elIt.hasNext()) {
-                        elIt = null;
-                    }
-                } else {
-                    el = factory.element("reportSet", element.getNamespace());
-                    Utils.insertAtPreferredLocation(element, el, innerCount);
+                final Element el = (Element) elIt.next();
+                if (!elIt.hasNext()) {
+                    elIt = null;
                 }
                 updateReportSet(value, innerCount, el);
                 innerCount.increaseCount();
             }
+            insertRemaining(innerCount, element, "reportSet", it, this::updateReportSet);
             if (elIt != null) {
                 while (elIt.hasNext()) {
                     elIt.next();
@@ -660,21 +597,16 @@ public class JDOMModelConverter {
                 elIt = null;
             }
             final IndentationCounter innerCount = new IndentationCounter(counter.getDepth() + 1);
-            while (it.hasNext()) {
+            while (elIt != null && it.hasNext()) {
                 final Repository value = (Repository) it.next();
-                Element el;
-                if (elIt != null && elIt.hasNext()) {
-                    el = (Element) elIt.next();
-                    if (!elIt.hasNext()) {
-                        elIt = null;
-                    }
-                } else {
-                    el = factory.element(childTag, element.getNamespace());
-                    Utils.insertAtPreferredLocation(element, el, innerCount);
+                final Element el = (Element) elIt.next();
+                if (!elIt.hasNext()) {
+                    elIt = null;
                 }
                 updateRepository(value, innerCount, el);
                 innerCount.increaseCount();
             }
+            insertRemaining(innerCount, element, childTag, it, this::updateRepository);
             if (elIt != null) {
                 while (elIt.hasNext()) {
                     elIt.next();
@@ -710,21 +642,16 @@ public class JDOMModelConverter {
                 elIt = null;
             }
             final IndentationCounter innerCount = new IndentationCounter(counter.getDepth() + 1);
-            while (it.hasNext()) {
+            while (elIt != null && it.hasNext()) {
                 final Resource value = (Resource) it.next();
-                Element el;
-                if (elIt != null && elIt.hasNext()) {
-                    el = (Element) elIt.next();
-                    if (!elIt.hasNext()) {
-                        elIt = null;
-                    }
-                } else {
-                    el = factory.element(childTag, element.getNamespace());
-                    Utils.insertAtPreferredLocation(element, el, innerCount);
+                final Element el = (Element) elIt.next();
+                if (!elIt.hasNext()) {
+                    elIt = null;
                 }
                 updateResource(value, innerCount, el);
                 innerCount.increaseCount();
             }
+            insertRemaining(innerCount, element, childTag, it, this::updateResource);
             if (elIt != null) {
                 while (elIt.hasNext()) {
                     elIt.next();
@@ -1894,4 +1821,40 @@ public class JDOMModelConverter {
             }
         }
     }
+
+    /**
+     * Create an element for each of the remaining values, splice them into the parent in a single pass and then
+     * update them. This avoids rescanning the parent content for every new element when a large number of
+     * entries (e.g. an injected BOM) are added.
+     *
+     * @param counter the counter positioned at the first new element
+     * @param element the list element to insert into
+     * @param tag the tag of the new elements
+     * @param it the values that have no existing element
+     * @param updater the method to populate each new element
+     */
+    @SuppressWarnings("unchecked")
+    private <T> void insertRemaining(
+            final IndentationCounter counter,
+            final Element element,
+            final String tag,
+            final Iterator it,
+            final Updater<T> updater) {
+        final List<T> values = new ArrayList<>();
+        final List<Element> added = new ArrayList<>();
+        while (it.hasNext()) {
+            values.add((T) it.next());
+            added.add(factory.element(tag, element.getNamespace()));
+        }
+        Utils.insertAtPreferredLocation(element, added, counter);
+        for (int i = 0; i < added.size(); i++) {
+            updater.update(values.get(i), counter, added.get(i));
+            counter.increaseCount();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Updater<T> {
+        void update(T value, IndentationCounter counter, Element element);
+    }
 }
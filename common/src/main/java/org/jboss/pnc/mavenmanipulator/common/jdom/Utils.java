@@ -212,6 +212,26 @@ public final class Utils {
             final Element parent,
             final Element child,
             final IndentationCounter counter) {
+        insertAtPreferredLocation(parent, Collections.singletonList(child), counter);
+    } // -- void insertAtPreferredLocation( Element, Element, Counter )
+
+    /**
+     * Inserts a batch of children as if each had been passed to
+     * {@link #insertAtPreferredLocation(Element, Element, IndentationCounter)} in turn with the counter increased
+     * between them. The parent content is only scanned once and the children, each preceded by its indentation, are
+     * spliced in with a single operation so the cost is linear in the size of the batch.
+     *
+     * @param parent the element to insert into
+     * @param children the new children, in order
+     * @param counter the counter positioned at the first child
+     */
+    public static void insertAtPreferredLocation(
+            final Element parent,
+            final List<Element> children,
+            final IndentationCounter counter) {
+        if (children.isEmpty()) {
+            return;
+        }
         int contentIndex = 0;
         int elementCounter = 0;
         final Iterator<?> it = parent.getContent().iterator();
@@ -229,26 +249,29 @@ public final class Utils {
                 lastText = (Text) next;
             }
         }
-        if (lastText != null && lastText.getTextTrim().length() == 0) {
-            lastText = lastText.clone();
-        } else {
+        if (lastText == null || lastText.getTextTrim().length() != 0) {
             StringBuilder starter = new StringBuilder(lineSeparator);
             for (int i = 0; i < counter.getDepth(); i++) {
                 starter.append(INDENT);
             }
             lastText = factory.text(starter.toString());
         }
+        // Every subsequent child follows the previous one and so picks up the same indentation.
+        final List<Content> batch = new ArrayList<>(children.size() * 2 + 1);
+        for (Element child : children) {
+            batch.add(lastText.clone());
+            batch.add(child);
+        }
         if (parent.getContentSize() == 0) {
             final Text finalText = lastText.clone();
             final String newVersion = finalText.getText().substring(0, finalText.getText().length() - INDENT.length());
             // TODO: Not sure if we need to handle this text replacement specially (like elsewhere).
             logger.trace("Replacing original text of {} with modified text of {}", finalText.getText(), newVersion);
             finalText.setText(newVersion);
-            parent.addContent(contentIndex, finalText);
+            batch.add(finalText);
         }
-        parent.addContent(contentIndex, child);
-        parent.addContent(contentIndex, lastText);
-    } // -- void insertAtPreferredLocation( Element, Element, Counter )
+        parent.addContent(contentIndex, batch);
+    } // -- void insertAtPreferredLocation( Element, List, Counter )
 
     /**
      * Method findAndReplaceProperties.
@@ -19,15 +19,27 @@ import static org.apache.commons.lang3.StringUtils.isEmpty;
 import static org.apache.commons.lang3.StringUtils.isNotEmpty;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
 
 import org.apache.maven.model.Activation;
 import org.apache.maven.model.ActivationProperty;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.BuildBase;
 import org.apache.maven.model.Dependency;
 import org.apache.maven.model.DependencyManagement;
 import org.apache.maven.model.Model;
@@ -35,6 +47,7 @@ import org.apache.maven.model.Parent;
 import org.apache.maven.model.Plugin;
 import org.apache.maven.model.PluginManagement;
 import org.apache.maven.model.Profile;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
 import org.commonjava.atlas.maven.ident.ref.ArtifactRef;
 import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
 import org.commonjava.atlas.maven.ident.ref.SimpleProjectVersionRef;
@@ -42,6 +55,7 @@ import org.commonjava.atlas.maven.ident.util.VersionUtils;
 import org.commonjava.maven.galley.maven.internal.defaults.StandardMaven350PluginDefaults;
 import org.commonjava.maven.galley.maven.spi.defaults.MavenPluginDefaults;
 import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationException;
+import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationUncheckedException;
 import org.jboss.pnc.mavenmanipulator.common.session.MavenSessionHandler;
 import org.jboss.pnc.mavenmanipulator.common.util.ProfileUtils;
 import org.jboss.pnc.mavenmanipulator.common.util.PropertyResolver;
@@ -98,6 +112,11 @@ public class Project {
      */
     private final MavenSessionHandler session;
 
+    /**
+     * Digest of the model when this project was created, used to determine whether it has since been modified.
+     */
+    private final byte[] fingerprint;
+
     /**
      * @param sessionHandler Maven session context (may be null, e.g. in unit tests)
      * @param pom POM file for this project
@@ -115,6 +134,7 @@ public class Project {
         } else if (model.getVersion() == null && model.getParent() == null) {
             throw new ManipulationException("Invalid model ({}) - cannot find version!");
         }
+        this.fingerprint = fingerprint(model);
     }
 
     /**
@@ -129,7 +149,8 @@ public class Project {
     }
 
     /**
-     * Create a project by copying another. Only used by ManipulationManager for comparing changes.
+     * Create a project by copying another. See {@link #snapshot()} for a lightweight alternative when only the
+     * original state needs to be reported on.
      *
      * @param original the Project to use.
      */
@@ -141,6 +162,7 @@ public class Project {
         this.inheritanceRoot = original.inheritanceRoot;
         this.executionRoot = original.executionRoot;
         this.incrementalPME = original.incrementalPME;
+        this.fingerprint = original.fingerprint;
         if (original.projectParent != null) {
             this.projectParent = new Project(original.projectParent);
         }
@@ -205,6 +227,26 @@ public class Project {
         return model;
     }
 
+    /**
+     * Determines whether the model content differs from when this project was created. Manipulators may report a
+     * project as changed without altering it ; this allows those to be skipped when rewriting.
+     *
+     * @return true if the model has been modified.
+     */
+    public boolean isModified() {
+        return !Arrays.equals(fingerprint, fingerprint(model));
+    }
+
+    private static byte[] fingerprint(final Model model) {
+        try {
+            final StringWriter writer = new StringWriter();
+            new MavenXpp3Writer().write(writer, model);
+            return MessageDigest.getInstance("SHA-256").digest(writer.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new ManipulationUncheckedException("Unable to fingerprint model {}", model, e);
+        }
+    }
+
     public ProjectVersionRef getKey() {
         return new SimpleProjectVersionRef(getGroupId(), getArtifactId(), getVersion());
     }
@@ -592,6 +634,91 @@ public class Project {
         return resolvedManagedDependencies;
     }
 
+    /**
+     * Capture the properties and the resolved dependencies and plugins of this project and its active profiles. The
+     * model itself is not modified (duplicate entries are skipped rather than removed).
+     *
+     * @return an immutable snapshot of the current state.
+     * @throws ManipulationException if an error occurs
+     */
+    public ProjectSnapshot snapshot() throws ManipulationException {
+        final Map<String, ProjectSnapshot.Section> profiles = new LinkedHashMap<>();
+
+        for (final Profile profile : ProfileUtils.getProfiles(session, model)) {
+            final DependencyManagement dm = profile.getDependencyManagement();
+            final BuildBase build = profile.getBuild();
+            profiles.put(
+                    profile.getId(),
+                    snapshot(
+                            profile.getProperties(),
+                            profile.getDependencies(),
+                            dm == null ? null : dm.getDependencies(),
+                            build == null ? null : build.getPlugins(),
+                            build == null || build.getPluginManagement() == null ? null
+                                    : build.getPluginManagement().getPlugins()));
+        }
+
+        final DependencyManagement dm = model.getDependencyManagement();
+        final Build build = model.getBuild();
+
+        return new ProjectSnapshot(
+                getGroupId(),
+                getArtifactId(),
+                getVersion(),
+                getResolvedKey(),
+                executionRoot,
+                snapshot(
+                        model.getProperties(),
+                        model.getDependencies(),
+                        dm == null ? null : dm.getDependencies(),
+                        build == null ? null : build.getPlugins(),
+                        build == null || build.getPluginManagement() == null ? null
+                                : build.getPluginManagement().getPlugins()),
+                profiles);
+    }
+
+    private ProjectSnapshot.Section snapshot(
+            Properties properties,
+            List<Dependency> dependencies,
+            List<Dependency> managedDependencies,
+            List<Plugin> plugins,
+            List<Plugin> managedPlugins)
+            throws ManipulationException {
+        // Resolve copies of the lists so that removal of any duplicates does not affect the model.
+        final Map<ArtifactRef, Dependency> deps = new HashMap<>();
+        final Map<ArtifactRef, Dependency> managedDeps = new HashMap<>();
+        final Map<ArtifactRef, Dependency> allDeps = new HashMap<>();
+        final Map<ProjectVersionRef, Plugin> resolvedPlugins = new HashMap<>();
+        final Map<ProjectVersionRef, Plugin> resolvedManagedPlugins = new HashMap<>();
+
+        resolveDeps(session, new ArrayList<>(dependencies), false, deps);
+        resolveDeps(session, new ArrayList<>(dependencies), true, allDeps);
+        if (managedDependencies != null) {
+            resolveDeps(session, new ArrayList<>(managedDependencies), false, managedDeps);
+        }
+        if (plugins != null) {
+            resolvePlugins(session, new ArrayList<>(plugins), PluginResolver.NONE, resolvedPlugins);
+        }
+        if (managedPlugins != null) {
+            resolvePlugins(
+                    session,
+                    new ArrayList<>(managedPlugins),
+                    PluginResolver.PLUGIN_DEFAULTS,
+                    resolvedManagedPlugins);
+        }
+
+        final Set<ArtifactRef> unversioned = new HashSet<>();
+        allDeps.keySet().stream().filter(a -> a.getVersionString().equals("*")).forEach(unversioned::add);
+
+        return new ProjectSnapshot.Section(
+                properties,
+                new HashSet<>(deps.keySet()),
+                new HashSet<>(managedDeps.keySet()),
+                unversioned,
+                new HashSet<>(resolvedPlugins.keySet()),
+                new HashSet<>(resolvedManagedPlugins.keySet()));
+    }
+
     private void resolveDeps(
             MavenSessionHandler session,
             List<Dependency> deps,
@@ -623,13 +750,8 @@ public class Project {
                 v = "*";
             }
             if (isNotEmpty(g) && isNotEmpty(a) && isNotEmpty(v)) {
-                SimpleScopedArtifactRef sar = new SimpleScopedArtifactRef(
-                        g,
-                        a,
-                        v,
-                        d.getType(),
-                        d.getClassifier(),
-                        d.getScope());
+                SimpleScopedArtifactRef sar = session.getRefInterner()
+                        .artifactRef(g, a, v, d.getType(), d.getClassifier(), d.getScope());
 
                 // If the GAVTC already exists within the map it means we have a duplicate entry. While Maven
                 // technically allows this it does warn that this leads to unstable models. In PME case this breaks
@@ -701,7 +823,7 @@ public class Project {
             // Theoretically we could default an empty v via PLUGIN_DEFAULTS.getDefaultVersion( g, a ) but
             // this means managed plugins would be included which confuses things.
             if (isNotEmpty(g) && isNotEmpty(a) && isNotEmpty(v)) {
-                SimpleProjectVersionRef spv = new SimpleProjectVersionRef(g, a, v);
+                ProjectVersionRef spv = session.getRefInterner().projectVersionRef(g, a, v);
 
                 // If the GAV already exists within the map it means we have a duplicate entry. While Maven
                 // technically allows this it does warn that this leads to unstable models. In PME case this breaks
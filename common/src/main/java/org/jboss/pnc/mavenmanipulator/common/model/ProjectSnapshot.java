@@ -0,0 +1,139 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.common.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.commonjava.atlas.maven.ident.ref.ArtifactRef;
+import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
+import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationException;
+
+import lombok.Getter;
+
+/**
+ * Immutable record of the parts of a {@link Project} that are compared when reporting the alignment results. It is
+ * captured via {@link Project#snapshot()} before any manipulation so the original state can be reported on without
+ * holding a deep copy of every model.
+ */
+@Getter
+public final class ProjectSnapshot {
+    private final String groupId;
+
+    private final String artifactId;
+
+    private final String version;
+
+    private final ProjectVersionRef resolvedKey;
+
+    private final boolean executionRoot;
+
+    private final Section content;
+
+    /**
+     * The active profiles, in model order, keyed by their identifier.
+     */
+    private final Map<String, Section> profiles;
+
+    ProjectSnapshot(
+            final String groupId,
+            final String artifactId,
+            final String version,
+            final ProjectVersionRef resolvedKey,
+            final boolean executionRoot,
+            final Section content,
+            final Map<String, Section> profiles) {
+        this.groupId = intern(groupId);
+        this.artifactId = intern(artifactId);
+        this.version = intern(version);
+        this.resolvedKey = resolvedKey;
+        this.executionRoot = executionRoot;
+        this.content = content;
+        this.profiles = Collections.unmodifiableMap(new LinkedHashMap<>(profiles));
+    }
+
+    /**
+     * Snapshot every project in the list.
+     *
+     * @param projects the projects to capture.
+     * @return a list of snapshots in the same order.
+     * @throws ManipulationException if an error occurs resolving the projects.
+     */
+    public static List<ProjectSnapshot> of(final List<Project> projects) throws ManipulationException {
+        final List<ProjectSnapshot> result = new ArrayList<>(projects.size());
+        for (Project project : projects) {
+            result.add(project.snapshot());
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public String toString() {
+        return groupId + ':' + artifactId + ':' + version;
+    }
+
+    private static String intern(final String value) {
+        return value == null ? null : value.intern();
+    }
+
+    /**
+     * The properties and resolved dependencies and plugins of either the project itself or one of its profiles.
+     */
+    @Getter
+    public static final class Section {
+        private final Map<String, String> properties;
+
+        private final Set<ArtifactRef> dependencies;
+
+        private final Set<ArtifactRef> managedDependencies;
+
+        /**
+         * Dependencies without a version (recorded with a version of <code>*</code>).
+         */
+        private final Set<ArtifactRef> unversionedDependencies;
+
+        private final Set<ProjectVersionRef> plugins;
+
+        private final Set<ProjectVersionRef> managedPlugins;
+
+        Section(
+                final Properties properties,
+                final Set<ArtifactRef> dependencies,
+                final Set<ArtifactRef> managedDependencies,
+                final Set<ArtifactRef> unversionedDependencies,
+                final Set<ProjectVersionRef> plugins,
+                final Set<ProjectVersionRef> managedPlugins) {
+            final Map<String, String> copy = new HashMap<>(properties.size());
+            properties.forEach((k, v) -> {
+                if (k != null && v != null) {
+                    copy.put(intern(k.toString()), intern(v.toString()));
+                }
+            });
+            this.properties = Collections.unmodifiableMap(copy);
+            this.dependencies = Collections.unmodifiableSet(dependencies);
+            this.managedDependencies = Collections.unmodifiableSet(managedDependencies);
+            this.unversionedDependencies = Collections.unmodifiableSet(unversionedDependencies);
+            this.plugins = Collections.unmodifiableSet(plugins);
+            this.managedPlugins = Collections.unmodifiableSet(managedPlugins);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.common.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.commonjava.atlas.maven.ident.ref.ProjectRef;
+import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectVersionRef;
+
+/**
+ * Flyweight pool for the project, version and artifact references created in bulk while aligning a build. Equal
+ * references (and the strings they are built from) are canonicalised to a single shared instance, so the many maps
+ * and sets keyed by them across the reactor hold one copy of each coordinate.
+ * <p>
+ * A pool is owned by the session (see {@link org.jboss.pnc.mavenmanipulator.common.session.MavenSessionHandler})
+ * and is safe for concurrent use.
+ * </p>
+ */
+public final class RefInterner {
+    private final ConcurrentMap<String, String> strings = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<ProjectRef, ProjectRef> projectRefs = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<ProjectVersionRef, ProjectVersionRef> projectVersionRefs = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<SimpleScopedArtifactRef, SimpleScopedArtifactRef> artifactRefs = new ConcurrentHashMap<>();
+
+    private final LongAdder requests = new LongAdder();
+
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * @param value the string to canonicalise, may be null.
+     * @return the shared instance equal to value.
+     */
+    public String intern(final String value) {
+        if (value == null) {
+            return null;
+        }
+        final String existing = strings.putIfAbsent(value, value);
+        return existing == null ? value : existing;
+    }
+
+    public ProjectRef projectRef(final String groupId, final String artifactId) {
+        return canonical(projectRefs, new SimpleProjectRef(intern(groupId), intern(artifactId)));
+    }
+
+    public ProjectVersionRef projectVersionRef(final String groupId, final String artifactId, final String version) {
+        return canonical(
+                projectVersionRefs,
+                new SimpleProjectVersionRef(intern(groupId), intern(artifactId), intern(version)));
+    }
+
+    public SimpleScopedArtifactRef artifactRef(
+            final String groupId,
+            final String artifactId,
+            final String version,
+            final String type,
+            final String classifier,
+            final String scope) {
+        return canonical(
+                artifactRefs,
+                new SimpleScopedArtifactRef(
+                        intern(groupId),
+                        intern(artifactId),
+                        intern(version),
+                        intern(type),
+                        intern(classifier),
+                        intern(scope)));
+    }
+
+    /**
+     * @return the number of references requested from this pool.
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * @return the number of requests that were satisfied by an existing reference.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of distinct references held.
+     */
+    public int size() {
+        return projectRefs.size() + projectVersionRefs.size() + artifactRefs.size();
+    }
+
+    /**
+     * Release all pooled instances and reset the statistics.
+     */
+    public void clear() {
+        strings.clear();
+        projectRefs.clear();
+        projectVersionRefs.clear();
+        artifactRefs.clear();
+        requests.reset();
+        hits.reset();
+    }
+
+    private <T> T canonical(final ConcurrentMap<T, T> pool, final T candidate) {
+        requests.increment();
+        final T existing = pool.putIfAbsent(candidate, candidate);
+        if (existing == null) {
+            return candidate;
+        }
+        hits.increment();
+        return existing;
+    }
+}
@@ -37,7 +37,7 @@ import lombok.Setter;
  */
 @Getter
 @Setter
-@EqualsAndHashCode(callSuper = true)
+@EqualsAndHashCode(callSuper = true, cacheStrategy = EqualsAndHashCode.CacheStrategy.LAZY)
 public class SimpleScopedArtifactRef extends SimpleArtifactRef {
     private final String scope;
 
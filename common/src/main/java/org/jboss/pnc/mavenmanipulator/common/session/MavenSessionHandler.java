@@ -22,6 +22,8 @@ import java.util.Properties;
 import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.settings.Settings;
 import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationException;
+import org.jboss.pnc.mavenmanipulator.common.model.RefInterner;
+import org.jboss.pnc.mavenmanipulator.common.util.MetricsRegistry;
 
 public interface MavenSessionHandler {
     Properties getUserProperties();
@@ -39,4 +41,24 @@ public interface MavenSessionHandler {
     Settings getSettings();
 
     List<String> getExcludedScopes();
+
+    /**
+     * Returns the pool used to canonicalise the references created while aligning. The default returns a new, empty
+     * pool on each call, so handlers that do not share one still work but gain no de-duplication.
+     *
+     * @return the reference pool.
+     */
+    default RefInterner getRefInterner() {
+        return new RefInterner();
+    }
+
+    /**
+     * Returns the registry recording the progress of the run. The default returns a new, empty registry on each call,
+     * so handlers that do not keep one still work but whatever is recorded is discarded.
+     *
+     * @return the metrics registry.
+     */
+    default MetricsRegistry getMetrics() {
+        return new MetricsRegistry();
+    }
 }
@@ -0,0 +1,361 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.common.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.apache.maven.model.Dependency;
+import org.commonjava.atlas.maven.ident.ref.ProjectRef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Immutable map from groupId:artifactId patterns to values, compiled by a {@link Builder}. As it is never modified
+ * once built a single instance may be shared between threads. The following patterns are supported:
+ * <ul>
+ * <li>Exact e.g. <code>org.foo:bar</code></li>
+ * <li>Artifact wildcard e.g. <code>org.foo:*</code></li>
+ * <li>GroupId prefix e.g. <code>org.foo.*:bar</code> or <code>org.foo.*:*</code>, matching any groupId below
+ * <code>org.foo</code> (but not <code>org.foo</code> itself)</li>
+ * <li>Glob, where <code>*</code> and <code>?</code> may appear anywhere e.g. <code>*:bar</code> or
+ * <code>org.*.foo:bar-*</code></li>
+ * </ul>
+ * A lookup takes the first match from, in order, the exact groupId, the longest matching groupId prefix and then the
+ * globs in the order they were added. As with the original {@link WildcardMap}, within a groupId (or groupId prefix)
+ * an artifact wildcard takes precedence over an explicit artifactId.
+ * <p>
+ * The exact and prefix patterns are held in a trie over the groupId segments so a lookup is proportional to the length
+ * of the groupId rather than the number of patterns; only globs are examined individually.
+ */
+public final class GlobMap<T> {
+    public static final String WILDCARD = "*";
+
+    private static final String PREFIX = ".*";
+
+    private static final Logger logger = LoggerFactory.getLogger(GlobMap.class);
+
+    private static final GlobMap<?> EMPTY = new Builder<>().build();
+
+    private final Node<T> root = new Node<>();
+
+    private final List<Glob<T>> globs = new ArrayList<>();
+
+    private final List<String> patterns = new ArrayList<>();
+
+    private GlobMap(Builder<T> builder) {
+        for (Map.Entry<String, Map<String, T>> group : builder.groups.entrySet()) {
+            final String groupId = group.getKey();
+            final boolean prefix = groupId.endsWith(PREFIX);
+            Node<T> node = root;
+            for (String segment : (prefix ? groupId.substring(0, groupId.length() - PREFIX.length()) : groupId)
+                    .split("\\.", -1)) {
+                node = node.children.computeIfAbsent(segment, s -> new Node<>());
+            }
+            final Table<T> table = prefix ? node.prefix : node.exact;
+            for (Map.Entry<String, T> artifact : group.getValue().entrySet()) {
+                if (WILDCARD.equals(artifact.getKey())) {
+                    table.wildcard = artifact.getValue();
+                } else {
+                    table.artifacts.put(artifact.getKey(), artifact.getValue());
+                }
+                patterns.add(groupId + ':' + artifact.getKey());
+            }
+        }
+        for (Map.Entry<String, Glob<T>> glob : builder.globs.entrySet()) {
+            globs.add(glob.getValue());
+            patterns.add(glob.getKey());
+        }
+    }
+
+    /**
+     * @param <T> the value type
+     * @return an empty map.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> GlobMap<T> empty() {
+        return (GlobMap<T>) EMPTY;
+    }
+
+    /**
+     * @return the number of patterns.
+     */
+    public int size() {
+        return patterns.size();
+    }
+
+    /**
+     * @return Returns true if there are no patterns.
+     */
+    public boolean isEmpty() {
+        return patterns.isEmpty();
+    }
+
+    /**
+     * @param key the key to look for
+     * @return true if any pattern matches the key.
+     */
+    public boolean containsKey(Dependency key) {
+        return get(key.getGroupId(), key.getArtifactId()) != null;
+    }
+
+    /**
+     * @param key the key to look for
+     * @return true if any pattern matches the key.
+     */
+    public boolean containsKey(ProjectRef key) {
+        return get(key.getGroupId(), key.getArtifactId()) != null;
+    }
+
+    /**
+     * @param key the key to look for
+     * @return the value of the pattern taking precedence that matches the key, or {@code null} if none match.
+     */
+    public T get(Dependency key) {
+        return get(key.getGroupId(), key.getArtifactId());
+    }
+
+    /**
+     * @param key the key to look for
+     * @return the value of the pattern taking precedence that matches the key, or {@code null} if none match.
+     */
+    public T get(ProjectRef key) {
+        return get(key.getGroupId(), key.getArtifactId());
+    }
+
+    private T get(String groupId, String artifactId) {
+        T result = null;
+        Node<T> node = root;
+        int start = 0;
+
+        while (true) {
+            final int end = groupId.indexOf('.', start);
+            node = node.children.get(end < 0 ? groupId.substring(start) : groupId.substring(start, end));
+            if (node == null) {
+                break;
+            } else if (end < 0) {
+                final T exact = node.exact.get(artifactId);
+                if (exact != null) {
+                    return exact;
+                }
+                break;
+            }
+            // Further segments remain so any prefix here covers the groupId; a deeper one takes precedence.
+            final T prefix = node.prefix.get(artifactId);
+            if (prefix != null) {
+                result = prefix;
+            }
+            start = end + 1;
+        }
+        if (result == null) {
+            for (Glob<T> glob : globs) {
+                if (glob.groupId.matcher(groupId).matches() && glob.artifactId.matcher(artifactId).matches()) {
+                    return glob.value;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "GlobMap{" + patterns + '}';
+    }
+
+    private static boolean isGlob(String value) {
+        return value.indexOf('*') >= 0 || value.indexOf('?') >= 0;
+    }
+
+    private static Pattern compile(String glob) {
+        final StringBuilder regex = new StringBuilder();
+        int start = 0;
+        for (int i = 0; i < glob.length(); i++) {
+            final char c = glob.charAt(i);
+            if (c == '*' || c == '?') {
+                if (i > start) {
+                    regex.append(Pattern.quote(glob.substring(start, i)));
+                }
+                regex.append(c == '*' ? ".*" : ".");
+                start = i + 1;
+            }
+        }
+        if (start < glob.length()) {
+            regex.append(Pattern.quote(glob.substring(start)));
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    /**
+     * Collects the patterns for a {@link GlobMap}. Where the same groupId has both an artifact wildcard and explicit
+     * artifactIds the wildcard is retained (with a warning), as in {@link WildcardMap}.
+     */
+    public static final class Builder<T> {
+        /**
+         * This map represents groupId (which may be a prefix) : map where map is artifactId : value. The artifactId
+         * may be a wildcard '*'.
+         */
+        private final Map<String, Map<String, T>> groups = new LinkedHashMap<>();
+
+        private final Map<String, Glob<T>> globs = new LinkedHashMap<>();
+
+        private GlobMap<T> compiled;
+
+        /**
+         * Associates the specified value with the specified key pattern.
+         *
+         * @param key key pattern to associate with
+         * @param value value to associate with the key
+         * @return this builder.
+         */
+        public Builder<T> put(ProjectRef key, T value) {
+            final String groupId = key.getGroupId();
+            final String artifactId = key.getArtifactId();
+            final boolean grouped = groupId.endsWith(PREFIX)
+                    ? !isGlob(groupId.substring(0, groupId.length() - PREFIX.length()))
+                    : !isGlob(groupId);
+
+            compiled = null;
+            if (!grouped || (!WILDCARD.equals(artifactId) && isGlob(artifactId))) {
+                globs.put(
+                        groupId + ':' + artifactId,
+                        new Glob<>(compile(groupId), compile(artifactId), value));
+                return this;
+            }
+
+            final Map<String, T> vMap = groups.computeIfAbsent(groupId, g -> new LinkedHashMap<>());
+            if (WILDCARD.equals(artifactId)) {
+                // Erase any previous mappings.
+                if (!vMap.isEmpty() && !vMap.containsKey(WILDCARD)) {
+                    logger.warn(
+                            "Emptying map with keys {} as replacing with wildcard mapping {}",
+                            vMap.keySet(),
+                            key);
+                }
+                vMap.clear();
+                vMap.put(artifactId, value);
+            } else if (vMap.containsKey(WILDCARD)) {
+                logger.warn(
+                        "Unable to add {} with value {} as wildcard mapping for {} already exists.",
+                        key,
+                        value,
+                        groupId);
+            } else {
+                vMap.put(artifactId, value);
+            }
+            return this;
+        }
+
+        /**
+         * Answered from the patterns as collected, with the same precedence as {@link GlobMap#get(ProjectRef)}, so
+         * that interleaving this with {@link #put} does not compile the map each time.
+         *
+         * @param key the key to look for
+         * @return true if any pattern added so far matches the key.
+         */
+        public boolean containsKey(ProjectRef key) {
+            final String groupId = key.getGroupId();
+            final String artifactId = key.getArtifactId();
+
+            if (get(groups.get(groupId), artifactId) != null) {
+                return true;
+            }
+            // Any prefix covering the groupId matches; the longest would take precedence but only presence matters.
+            for (int end = groupId.indexOf('.'); end >= 0; end = groupId.indexOf('.', end + 1)) {
+                if (get(groups.get(groupId.substring(0, end) + PREFIX), artifactId) != null) {
+                    return true;
+                }
+            }
+            for (Glob<T> glob : globs.values()) {
+                if (glob.groupId.matcher(groupId).matches() && glob.artifactId.matcher(artifactId).matches()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static <T> T get(Map<String, T> artifacts, String artifactId) {
+            if (artifacts == null) {
+                return null;
+            }
+            final T wildcard = artifacts.get(WILDCARD);
+            return wildcard != null ? wildcard : artifacts.get(artifactId);
+        }
+
+        /**
+         * @return true if no patterns have been added.
+         */
+        public boolean isEmpty() {
+            return groups.isEmpty() && globs.isEmpty();
+        }
+
+        /**
+         * @return the compiled map of the patterns added so far.
+         */
+        public GlobMap<T> build() {
+            if (compiled == null) {
+                compiled = new GlobMap<>(this);
+            }
+            return compiled;
+        }
+
+        @Override
+        public String toString() {
+            return build().toString();
+        }
+    }
+
+    private static final class Node<T> {
+        private final Map<String, Node<T>> children = new HashMap<>();
+
+        /**
+         * Patterns for exactly this groupId.
+         */
+        private final Table<T> exact = new Table<>();
+
+        /**
+         * Patterns for groupIds below this one.
+         */
+        private final Table<T> prefix = new Table<>();
+    }
+
+    private static final class Table<T> {
+        private final Map<String, T> artifacts = new HashMap<>();
+
+        private T wildcard;
+
+        private T get(String artifactId) {
+            return wildcard != null ? wildcard : artifacts.get(artifactId);
+        }
+    }
+
+    private static final class Glob<T> {
+        private final Pattern groupId;
+
+        private final Pattern artifactId;
+
+        private final T value;
+
+        private Glob(Pattern groupId, Pattern artifactId, T value) {
+            this.groupId = groupId;
+            this.artifactId = artifactId;
+            this.value = value;
+        }
+    }
+}
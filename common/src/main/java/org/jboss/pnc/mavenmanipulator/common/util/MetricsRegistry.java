@@ -0,0 +1,232 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.common.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.Value;
+
+/**
+ * Counters, gauges and timers recording the progress of a manipulation run, e.g. the REST lookups outstanding, the
+ * artifacts transferred and the time spent in each manipulator, so that a long run may be monitored while it is in
+ * progress. Metrics are created on first use and identified by a dotted name (e.g. <code>rest.tasks.pending</code>).
+ * <p>
+ * A registry is owned by the session (see {@link org.jboss.pnc.mavenmanipulator.common.session.MavenSessionHandler})
+ * and is safe for concurrent use.
+ * </p>
+ */
+public final class MetricsRegistry {
+    public enum Type {
+        COUNTER,
+        GAUGE
+    }
+
+    /**
+     * The value of a single metric (or, for a timer, one of its components) at the time it was sampled.
+     */
+    @Value
+    public static class Sample {
+        String name;
+
+        Type type;
+
+        Number value;
+    }
+
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Gauge> gauges = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * @param name the metric name.
+     * @return the counter of that name, created if required.
+     */
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, n -> new Counter());
+    }
+
+    /**
+     * @param name the metric name.
+     * @return the gauge of that name, created if required.
+     */
+    public Gauge gauge(String name) {
+        return gauges.computeIfAbsent(name, n -> new Gauge());
+    }
+
+    /**
+     * @param name the metric name.
+     * @return the timer of that name, created if required.
+     */
+    public Timer timer(String name) {
+        return timers.computeIfAbsent(name, n -> new Timer());
+    }
+
+    /**
+     * Samples every metric. A timer is reported as <code>name.count</code>, <code>name.seconds</code> (the total time),
+     * <code>name.max.seconds</code> and <code>name.active</code> (the number currently being timed).
+     *
+     * @return the samples, ordered by name.
+     */
+    public List<Sample> sample() {
+        final SortedMap<String, Sample> samples = new TreeMap<>();
+
+        counters.forEach((n, c) -> samples.put(n, new Sample(n, Type.COUNTER, c.get())));
+        gauges.forEach((n, g) -> samples.put(n, new Sample(n, Type.GAUGE, g.get())));
+        for (Map.Entry<String, Timer> entry : timers.entrySet()) {
+            final String n = entry.getKey();
+            final Timer t = entry.getValue();
+            samples.put(n + ".count", new Sample(n + ".count", Type.COUNTER, t.getCount()));
+            samples.put(n + ".seconds", new Sample(n + ".seconds", Type.COUNTER, seconds(t.total.sum())));
+            samples.put(n + ".max.seconds", new Sample(n + ".max.seconds", Type.GAUGE, seconds(t.max.get())));
+            samples.put(n + ".active", new Sample(n + ".active", Type.GAUGE, t.getActive()));
+        }
+        return new ArrayList<>(samples.values());
+    }
+
+    /**
+     * Removes all metrics.
+     */
+    public void clear() {
+        counters.clear();
+        gauges.clear();
+        timers.clear();
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    /**
+     * A monotonically increasing count.
+     */
+    public static final class Counter {
+        private final LongAdder count = new LongAdder();
+
+        public void increment() {
+            count.increment();
+        }
+
+        public void add(long value) {
+            count.add(value);
+        }
+
+        public long get() {
+            return count.sum();
+        }
+    }
+
+    /**
+     * A value that may go up and down e.g. the size of a queue.
+     */
+    public static final class Gauge {
+        private final AtomicLong value = new AtomicLong();
+
+        public void set(long newValue) {
+            value.set(newValue);
+        }
+
+        public void add(long delta) {
+            value.addAndGet(delta);
+        }
+
+        public long get() {
+            return value.get();
+        }
+    }
+
+    /**
+     * Records the number and duration of some operation, and how many are currently in progress.
+     */
+    public static final class Timer {
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder total = new LongAdder();
+
+        private final AtomicLong max = new AtomicLong();
+
+        private final AtomicLong active = new AtomicLong();
+
+        /**
+         * Starts timing an operation ; the returned context should be closed (e.g. via try-with-resources) once it
+         * completes, whether or not it succeeded.
+         *
+         * @return the context to close once the operation completes.
+         */
+        public Context start() {
+            active.incrementAndGet();
+            return new Context(this, System.nanoTime());
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getActive() {
+            return active.get();
+        }
+
+        /**
+         * @param unit the unit to return the time in.
+         * @return the total time recorded.
+         */
+        public long getTotal(TimeUnit unit) {
+            return unit.convert(total.sum(), TimeUnit.NANOSECONDS);
+        }
+
+        private void record(long nanos) {
+            active.decrementAndGet();
+            count.increment();
+            total.add(nanos);
+            max.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    /**
+     * An operation being timed.
+     */
+    public static final class Context
+            implements AutoCloseable {
+        private final Timer timer;
+
+        private final long start;
+
+        private boolean closed;
+
+        private Context(Timer timer, long start) {
+            this.timer = timer;
+            this.start = start;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                timer.record(System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -20,21 +20,20 @@ import static org.jboss.pnc.mavenmanipulator.common.util.JSONUtils.GROUP_ID;
 import static org.jboss.pnc.mavenmanipulator.common.util.JSONUtils.VERSION;
 
 import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
-import org.commonjava.atlas.maven.ident.ref.SimpleProjectVersionRef;
 import org.goots.hiderdoclet.doclet.JavadocExclude;
 import org.jboss.da.model.rest.GAV;
 import org.jboss.pnc.mavenmanipulator.common.json.DependencyAnalyserResult;
+import org.jboss.pnc.mavenmanipulator.common.model.RefInterner;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
-import com.fasterxml.jackson.databind.node.JsonNodeType;
 
 import kong.unirest.jackson.JacksonObjectMapper;
 
@@ -61,29 +60,90 @@ public class PMEObjectMapper extends JacksonObjectMapper {
         mapper.registerModule(module);
     }
 
+    /**
+     * Reads a {@link DependencyAnalyserResult} directly from the parser tokens rather than via an intermediate tree,
+     * skipping any other fields (and their children). As a response may contain many thousands of results the
+     * coordinates are interned through a {@link RefInterner} shared by all results of a single response, so the
+     * strings common to many results (e.g. groupIds) are held once and each result's reference and {@link GAV} share
+     * them.
+     */
     @JavadocExclude
     public static class MavenResultDeserializer extends JsonDeserializer<DependencyAnalyserResult> {
+        private static final String INTERNER = MavenResultDeserializer.class.getName() + ".interner";
+
         @Override
         public DependencyAnalyserResult deserialize(JsonParser p, DeserializationContext ctxt)
                 throws java.io.IOException {
-            JsonNode node = p.getCodec().readTree(p);
-            final String groupId = node.get(GROUP_ID).asText();
-            final String artifactId = node.get(ARTIFACT_ID).asText();
-            final String version = node.get(VERSION).asText();
-
-            DependencyAnalyserResult result = new DependencyAnalyserResult();
-            result.setGav(new GAV(groupId, artifactId, version));
+            String groupId = null;
+            String artifactId = null;
+            String version = null;
+            String bestMatchVersion = null;
+            String latestVersion = null;
 
-            if (node.has(BEST_MATCH_VERSION) && !node.get(BEST_MATCH_VERSION).getNodeType().equals(JsonNodeType.NULL)) {
-                result.setBestMatchVersion(node.get(BEST_MATCH_VERSION).asText());
+            JsonToken token = p.currentToken();
+            if (token == JsonToken.START_OBJECT) {
+                token = p.nextToken();
+            }
+            for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+                final String field = p.currentName();
+                // Move to the value ; null values are read as null. An object or array is never a valid value so is
+                // skipped whole, whether or not the field is known, to leave the parser at the next field.
+                if (p.nextToken().isStructStart()) {
+                    p.skipChildren();
+                    continue;
+                }
+                switch (field) {
+                    case GROUP_ID:
+                        groupId = p.getValueAsString();
+                        break;
+                    case ARTIFACT_ID:
+                        artifactId = p.getValueAsString();
+                        break;
+                    case VERSION:
+                        version = p.getValueAsString();
+                        break;
+                    case BEST_MATCH_VERSION:
+                        bestMatchVersion = p.getValueAsString();
+                        break;
+                    case LATEST_VERSION:
+                        latestVersion = p.getValueAsString();
+                        break;
+                    default:
+                        break;
+                }
             }
-            if (node.has(LATEST_VERSION) && !node.get(LATEST_VERSION).getNodeType().equals(JsonNodeType.NULL)) {
-                result.setLatestVersion(node.get(LATEST_VERSION).asText());
+            if (groupId == null || artifactId == null || version == null) {
+                return ctxt.reportInputMismatch(
+                        DependencyAnalyserResult.class,
+                        "Result requires %s, %s and %s but was %s:%s:%s",
+                        GROUP_ID,
+                        ARTIFACT_ID,
+                        VERSION,
+                        groupId,
+                        artifactId,
+                        version);
             }
 
-            result.setProjectVersionRef(new SimpleProjectVersionRef(groupId, artifactId, version));
+            final ProjectVersionRef ref = interner(ctxt).projectVersionRef(groupId, artifactId, version);
+            final DependencyAnalyserResult result = new DependencyAnalyserResult();
+            result.setGav(new GAV(ref.getGroupId(), ref.getArtifactId(), ref.getVersionString()));
+            result.setProjectVersionRef(ref);
+            result.setBestMatchVersion(bestMatchVersion);
+            result.setLatestVersion(latestVersion);
 
             return result;
         }
+
+        /**
+         * @return the interner for the response being read, held as a per call attribute.
+         */
+        private static RefInterner interner(DeserializationContext ctxt) {
+            RefInterner interner = (RefInterner) ctxt.getAttribute(INTERNER);
+            if (interner == null) {
+                interner = new RefInterner();
+                ctxt.setAttribute(INTERNER, interner);
+            }
+            return interner;
+        }
     }
 }
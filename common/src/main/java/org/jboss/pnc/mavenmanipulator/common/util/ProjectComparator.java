@@ -26,10 +26,14 @@ import static org.jboss.pnc.mavenmanipulator.common.util.ProjectComparator.Type.
 import static org.jboss.pnc.mavenmanipulator.common.util.ProjectComparator.Type.PROFILE_MANAGED_PLUGINS;
 import static org.jboss.pnc.mavenmanipulator.common.util.ProjectComparator.Type.PROFILE_PLUGINS;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
@@ -50,6 +54,8 @@ import org.jboss.pnc.mavenmanipulator.common.json.PME;
 import org.jboss.pnc.mavenmanipulator.common.json.ProfileItem;
 import org.jboss.pnc.mavenmanipulator.common.json.PropertiesItem;
 import org.jboss.pnc.mavenmanipulator.common.model.Project;
+import org.jboss.pnc.mavenmanipulator.common.model.ProjectSnapshot;
+import org.jboss.pnc.mavenmanipulator.common.model.ProjectSnapshot.Section;
 import org.jboss.pnc.mavenmanipulator.common.session.MavenSessionHandler;
 import org.slf4j.helpers.MessageFormatter;
 
@@ -110,18 +116,50 @@ public class ProjectComparator {
             List<Project> originalProjects,
             List<Project> newProjects)
             throws ManipulationException {
+        return compareProjects(
+                session,
+                jsonReport,
+                dependencyRelocations,
+                ProjectSnapshot.of(originalProjects),
+                newProjects);
+    }
+
+    /**
+     * Compare the original state of the projects, as captured by {@link Project#snapshot()}, against the current
+     * projects and record the differences in the JSON report.
+     *
+     * @param session the current session
+     * @param jsonReport the report to populate
+     * @param dependencyRelocations any relocations that have been applied
+     * @param originalProjects snapshots of the projects before manipulation
+     * @param newProjects the manipulated projects
+     * @return the textual report.
+     * @throws ManipulationException if an error occurs.
+     */
+    public static String compareProjects(
+            MavenSessionHandler session,
+            PME jsonReport,
+            WildcardMap<ProjectVersionRef> dependencyRelocations,
+            Collection<ProjectSnapshot> originalProjects,
+            List<Project> newProjects)
+            throws ManipulationException {
+        final GlobMap<ProjectVersionRef> relocations = dependencyRelocations.toGlobMap();
         final boolean reportNonAligned = Boolean
                 .parseBoolean(session.getUserProperties().getProperty(REPORT_NON_ALIGNED, "false"));
         final StringBuilder builder = new StringBuilder(500);
         final List<ModulesItem> modules = jsonReport.getModules();
+        final Map<String, List<ProjectSnapshot>> originalsByGA = new HashMap<>();
+
+        originalProjects.forEach(
+                p -> originalsByGA.computeIfAbsent(p.getGroupId() + ':' + p.getArtifactId(), k -> new ArrayList<>())
+                        .add(p));
 
         try {
             newProjects.forEach(
-                    newProject -> originalProjects.stream()
-                            .filter(
-                                    originalProject -> newProject.getArtifactId()
-                                            .equals(originalProject.getArtifactId())
-                                            && newProject.getGroupId().equals(originalProject.getGroupId()))
+                    newProject -> originalsByGA
+                            .getOrDefault(
+                                    newProject.getGroupId() + ':' + newProject.getArtifactId(),
+                                    Collections.emptyList())
                             .forEach(originalProject -> {
 
                                 ModulesItem module = new ModulesItem();
@@ -141,38 +179,26 @@ public class ProjectComparator {
                                 }
                                 injectSpacerLine(builder);
 
-                                newProject.getModel()
-                                        .getProperties()
-                                        .forEach(
-                                                (nKey, nValue) -> originalProject.getModel()
-                                                        .getProperties()
-                                                        .forEach((oKey, oValue) -> {
-                                                            if (oKey != null && oKey.equals(nKey) && oValue != null
-                                                                    && !oValue.equals(nValue)) {
-                                                                module.getProperties()
-                                                                        .put(
-                                                                                oKey.toString(),
-                                                                                new PropertiesItem(
-                                                                                        oValue.toString(),
-                                                                                        nValue.toString()));
-                                                                append(
-                                                                        builder,
-                                                                        "\tProperty : key {} ; value {} --> {}",
-                                                                        oKey,
-                                                                        oValue,
-                                                                        nValue);
-                                                                spacerLine.set(true);
-                                                            }
-                                                        }));
+                                final Section original = originalProject.getContent();
+
+                                newProject.getModel().getProperties().forEach((nKey, nValue) -> {
+                                    String oValue = original.getProperties().get(nKey);
+                                    if (oValue != null && !oValue.equals(nValue)) {
+                                        module.getProperties()
+                                                .put(nKey.toString(), new PropertiesItem(oValue, nValue.toString()));
+                                        append(builder, "\tProperty : key {} ; value {} --> {}", nKey, oValue, nValue);
+                                        spacerLine.set(true);
+                                    }
+                                });
                                 injectSpacerLine(builder);
 
                                 compareDependencies(
                                         DEPENDENCIES,
                                         module.getDependencies(),
                                         builder,
-                                        dependencyRelocations,
+                                        relocations,
                                         reportNonAligned,
-                                        handleDependencies(session, originalProject, null, DEPENDENCIES),
+                                        handleDependencies(original, DEPENDENCIES),
                                         handleDependencies(session, newProject, null, DEPENDENCIES));
 
                                 injectSpacerLine(builder);
@@ -183,13 +209,9 @@ public class ProjectComparator {
                                         MANAGED_DEPENDENCIES,
                                         mgdDeps.getDependencies(),
                                         builder,
-                                        dependencyRelocations,
+                                        relocations,
                                         reportNonAligned,
-                                        handleDependencies(
-                                                session,
-                                                originalProject,
-                                                null,
-                                                MANAGED_DEPENDENCIES),
+                                        handleDependencies(original, MANAGED_DEPENDENCIES),
                                         handleDependencies(session, newProject, null, MANAGED_DEPENDENCIES));
 
                                 injectSpacerLine(builder);
@@ -198,9 +220,9 @@ public class ProjectComparator {
                                         DEPENDENCIES_UNVERSIONED,
                                         module.getDependencies(),
                                         builder,
-                                        dependencyRelocations,
+                                        relocations,
                                         reportNonAligned,
-                                        handleDependencies(session, originalProject, null, DEPENDENCIES_UNVERSIONED),
+                                        handleDependencies(original, DEPENDENCIES_UNVERSIONED),
                                         handleDependencies(session, newProject, null, DEPENDENCIES_UNVERSIONED));
 
                                 injectSpacerLine(builder);
@@ -210,7 +232,7 @@ public class ProjectComparator {
                                         module.getPlugins(),
                                         builder,
                                         reportNonAligned,
-                                        handlePlugins(session, originalProject, null, PLUGINS),
+                                        handlePlugins(original, PLUGINS),
                                         handlePlugins(session, newProject, null, PLUGINS));
 
                                 ManagedPluginsItem mgdPlugins = new ManagedPluginsItem();
@@ -221,42 +243,31 @@ public class ProjectComparator {
                                         mgdPlugins.getPlugins(),
                                         builder,
                                         reportNonAligned,
-                                        handlePlugins(
-                                                session,
-                                                originalProject,
-                                                null,
-                                                MANAGED_PLUGINS),
+                                        handlePlugins(original, MANAGED_PLUGINS),
                                         handlePlugins(session, newProject, null, MANAGED_PLUGINS));
 
-                                List<Profile> oldProfiles = ProfileUtils
-                                        .getProfiles(session, originalProject.getModel());
                                 List<Profile> newProfiles = ProfileUtils.getProfiles(session, newProject.getModel());
 
                                 newProfiles.forEach(
-                                        newProfile -> oldProfiles.stream()
-                                                .filter(oldProfile -> newProfile.getId().equals(oldProfile.getId()))
-                                                .forEach(oldProfile -> {
+                                        newProfile -> Optional
+                                                .ofNullable(originalProject.getProfiles().get(newProfile.getId()))
+                                                .ifPresent(oldProfile -> {
                                                     ProfileItem profileItem = new ProfileItem();
                                                     profileItem.setId(newProfile.getId());
                                                     module.getProfiles().add(profileItem);
 
-                                                    newProfile.getProperties()
-                                                            .forEach(
-                                                                    (nKey, nValue) -> oldProfile.getProperties()
-                                                                            .forEach((oKey, oValue) -> {
-
-                                                                                if (oKey != null && oKey.equals(nKey)
-                                                                                        && oValue != null
-                                                                                        && !oValue.equals(nValue)) {
-                                                                                    append(
-                                                                                            builder,
-                                                                                            "\tProfile property : key {} ; value {} --> {}",
-                                                                                            oKey,
-                                                                                            oValue,
-                                                                                            nValue);
-                                                                                    spacerLine.set(true);
-                                                                                }
-                                                                            }));
+                                                    newProfile.getProperties().forEach((nKey, nValue) -> {
+                                                        String oValue = oldProfile.getProperties().get(nKey);
+                                                        if (oValue != null && !oValue.equals(nValue)) {
+                                                            append(
+                                                                    builder,
+                                                                    "\tProfile property : key {} ; value {} --> {}",
+                                                                    nKey,
+                                                                    oValue,
+                                                                    nValue);
+                                                            spacerLine.set(true);
+                                                        }
+                                                    });
 
                                                     injectSpacerLine(builder);
 
@@ -264,13 +275,9 @@ public class ProjectComparator {
                                                             PROFILE_DEPENDENCIES,
                                                             profileItem.getDependencies(),
                                                             builder,
-                                                            dependencyRelocations,
+                                                            relocations,
                                                             reportNonAligned,
-                                                            handleDependencies(
-                                                                    session,
-                                                                    originalProject,
-                                                                    oldProfile,
-                                                                    PROFILE_DEPENDENCIES),
+                                                            handleDependencies(oldProfile, PROFILE_DEPENDENCIES),
                                                             handleDependencies(
                                                                     session,
                                                                     newProject,
@@ -286,13 +293,9 @@ public class ProjectComparator {
                                                             PROFILE_MANAGED_DEPENDENCIES,
                                                             mgdProfileDeps.getDependencies(),
                                                             builder,
-                                                            dependencyRelocations,
+                                                            relocations,
                                                             reportNonAligned,
-                                                            handleDependencies(
-                                                                    session,
-                                                                    originalProject,
-                                                                    oldProfile,
-                                                                    PROFILE_MANAGED_DEPENDENCIES),
+                                                            handleDependencies(oldProfile, PROFILE_MANAGED_DEPENDENCIES),
                                                             handleDependencies(
                                                                     session,
                                                                     newProject,
@@ -305,13 +308,9 @@ public class ProjectComparator {
                                                             PROFILE_DEPENDENCIES_UNVERSIONED,
                                                             profileItem.getDependencies(),
                                                             builder,
-                                                            dependencyRelocations,
+                                                            relocations,
                                                             reportNonAligned,
-                                                            handleDependencies(
-                                                                    session,
-                                                                    originalProject,
-                                                                    oldProfile,
-                                                                    PROFILE_DEPENDENCIES_UNVERSIONED),
+                                                            handleDependencies(oldProfile, PROFILE_DEPENDENCIES_UNVERSIONED),
                                                             handleDependencies(
                                                                     session,
                                                                     newProject,
@@ -325,11 +324,7 @@ public class ProjectComparator {
                                                             profileItem.getPlugins(),
                                                             builder,
                                                             reportNonAligned,
-                                                            handlePlugins(
-                                                                    session,
-                                                                    originalProject,
-                                                                    oldProfile,
-                                                                    PROFILE_PLUGINS),
+                                                            handlePlugins(oldProfile, PROFILE_PLUGINS),
                                                             handlePlugins(
                                                                     session,
                                                                     newProject,
@@ -346,11 +341,7 @@ public class ProjectComparator {
                                                             mgdProfilePlugins.getPlugins(),
                                                             builder,
                                                             reportNonAligned,
-                                                            handlePlugins(
-                                                                    session,
-                                                                    originalProject,
-                                                                    oldProfile,
-                                                                    PROFILE_MANAGED_PLUGINS),
+                                                            handlePlugins(oldProfile, PROFILE_MANAGED_PLUGINS),
                                                             handlePlugins(
                                                                     session,
                                                                     newProject,
@@ -369,7 +360,7 @@ public class ProjectComparator {
             Type type,
             Map<String, ProjectVersionRef> alignedDependencies,
             StringBuilder builder,
-            WildcardMap<ProjectVersionRef> dependencyRelocations,
+            GlobMap<ProjectVersionRef> dependencyRelocations,
             boolean reportNonAligned,
             Set<ArtifactRef> originalDeps,
             Set<ArtifactRef> newDeps) {
@@ -495,6 +486,42 @@ public class ProjectComparator {
         builder.append(System.lineSeparator());
     }
 
+    private static Set<ArtifactRef> handleDependencies(Section section, Type type) {
+        switch (type) {
+            case DEPENDENCIES:
+            case PROFILE_DEPENDENCIES: {
+                return section.getDependencies();
+            }
+            case MANAGED_DEPENDENCIES:
+            case PROFILE_MANAGED_DEPENDENCIES: {
+                return section.getManagedDependencies();
+            }
+            case DEPENDENCIES_UNVERSIONED:
+            case PROFILE_DEPENDENCIES_UNVERSIONED: {
+                return section.getUnversionedDependencies();
+            }
+            default: {
+                throw new IllegalArgumentException("Invalid type " + type);
+            }
+        }
+    }
+
+    private static Set<ProjectVersionRef> handlePlugins(Section section, Type type) {
+        switch (type) {
+            case PLUGINS:
+            case PROFILE_PLUGINS: {
+                return section.getPlugins();
+            }
+            case MANAGED_PLUGINS:
+            case PROFILE_MANAGED_PLUGINS: {
+                return section.getManagedPlugins();
+            }
+            default: {
+                throw new IllegalArgumentException("Invalid type " + type);
+            }
+        }
+    }
+
     private static Set<ArtifactRef> handleDependencies(
             MavenSessionHandler session,
             Project project,
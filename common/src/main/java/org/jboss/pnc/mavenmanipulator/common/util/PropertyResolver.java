@@ -80,6 +80,19 @@ public final class PropertyResolver {
      */
     public static String resolveProperties(MavenSessionHandler session, List<Project> projects, String value)
             throws ManipulationException {
+        return createInterpolator(session, projects).interp(value);
+    }
+
+    /**
+     * Creates an interpolator over the amalgamated properties of the projects. This may be used to resolve many
+     * values against the same projects without rebuilding the properties each time, providing the properties are not
+     * modified in the meantime.
+     *
+     * @param session the current session
+     * @param projects set of projects
+     * @return the interpolator
+     */
+    public static PropertyInterpolator createInterpolator(MavenSessionHandler session, List<Project> projects) {
         final Properties amalgamated = new Properties();
 
         // The projects passed in are in a crafted order (determined by Project::getInherited or getReverseInherited)
@@ -88,7 +101,6 @@ public final class PropertyResolver {
             amalgamated.putAll(p.getModel().getProperties());
             amalgamated.putAll(searchProfiles(session, p));
         }
-        PropertyInterpolator pi = new PropertyInterpolator(amalgamated, projects.get(0));
-        return pi.interp(value);
+        return new PropertyInterpolator(amalgamated, projects.get(0));
     }
 }
@@ -20,6 +20,7 @@ import java.util.Map;
 
 import org.apache.maven.model.Dependency;
 import org.commonjava.atlas.maven.ident.ref.ProjectRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectRef;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,7 +29,8 @@ import org.slf4j.LoggerFactory;
  * <p>
  * String(groupId) : Map (where Map contains String(artifactId):String(value) ).
  * </p>
- * artifactId may be a wildcard (*) or an explicit value.
+ * artifactId may be a wildcard (*) or an explicit value. {@link #toGlobMap()} compiles the mappings for lookups that
+ * also interpret groupId prefixes and globs.
  */
 public class WildcardMap<T> {
     public static final String WILDCARD = "*";
@@ -44,6 +46,8 @@ public class WildcardMap<T> {
      */
     private final Map<String, Map<String, T>> map = new LinkedHashMap<>();
 
+    private GlobMap<T> compiled;
+
     /**
      * Size implementation
      *
@@ -127,6 +131,7 @@ public class WildcardMap<T> {
                 }
             }
         }
+        compiled = null;
         if (wildcard) {
             logger.warn(
                     "Unable to add {} with value {} as wildcard mapping for {} already exists.",
@@ -179,6 +184,20 @@ public class WildcardMap<T> {
         return result;
     }
 
+    /**
+     * @return the mappings compiled into a {@link GlobMap}, which is rebuilt only after further mappings are added.
+     */
+    public GlobMap<T> toGlobMap() {
+        if (compiled == null) {
+            final GlobMap.Builder<T> builder = new GlobMap.Builder<>();
+            map.forEach(
+                    (groupId, artifacts) -> artifacts.forEach(
+                            (artifactId, value) -> builder.put(new SimpleProjectRef(groupId, artifactId), value)));
+            compiled = builder.build();
+        }
+        return compiled;
+    }
+
     /**
      * @return Returns true if the underlying map is empty.
      */
@@ -0,0 +1,127 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.common.jdom;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.input.SAXBuilder;
+import org.jdom2.output.Format;
+import org.jdom2.output.LineSeparator;
+import org.jdom2.output.XMLOutputter;
+import org.junit.Test;
+
+public class UtilsTest {
+    private static final String[] PARENTS = { "<dependencies/>", "<dependencies></dependencies>",
+            "<dependencies>\n      <dependency/>\n    </dependencies>",
+            "<dependencies>\n      <dependency/>\n      <!-- comment -->\n      <dependency/>\n    </dependencies>",
+            "<dependencies>\n  <dependency/><dependency/>\n  </dependencies>" };
+
+    @Test
+    public void verifyBatchInsertionMatchesSequential() throws Exception {
+        for (String parent : PARENTS) {
+            for (int existing = 0; existing < 3; existing++) {
+                Element sequential = parse(parent);
+                IndentationCounter counter = counter(existing);
+                for (int i = 0; i < 5; i++) {
+                    Utils.insertAtPreferredLocation(sequential, new Element("dependency"), counter);
+                    counter.increaseCount();
+                }
+
+                Element batch = parse(parent);
+                List<Element> children = new ArrayList<>();
+                for (int i = 0; i < 5; i++) {
+                    children.add(new Element("dependency"));
+                }
+                Utils.insertAtPreferredLocation(batch, children, counter(existing));
+
+                assertEquals(parent, output(sequential), output(batch));
+            }
+        }
+    }
+
+    @Test
+    public void verifyInsertionMatchesPreviousOutput() throws Exception {
+        // Produced by the element at a time insertion before batching was introduced.
+        final String[][] expected = {
+                { "<dependencies/>", "0",
+                        "<dependencies>\n      <dependency n=\"0\" />\n      <dependency n=\"1\" />\n"
+                                + "      <dependency n=\"2\" />\n    </dependencies>" },
+                { "<dependencies>\n      <dependency/>\n    </dependencies>", "1",
+                        "<dependencies>\n      <dependency />\n      <dependency n=\"0\" />\n"
+                                + "      <dependency n=\"1\" />\n      <dependency n=\"2\" />\n    </dependencies>" },
+                { PARENTS[3], "0",
+                        "<dependencies>\n      <dependency />\n      <dependency n=\"0\" />\n"
+                                + "      <dependency n=\"1\" />\n      <dependency n=\"2\" />\n"
+                                + "      <!-- comment -->\n      <dependency />\n    </dependencies>" },
+                { PARENTS[3], "2",
+                        "<dependencies>\n      <dependency />\n      <!-- comment -->\n      <dependency />\n"
+                                + "      <dependency n=\"0\" />\n      <dependency n=\"1\" />\n"
+                                + "      <dependency n=\"2\" />\n    </dependencies>" },
+                { PARENTS[4], "0",
+                        "<dependencies>\n  <dependency />\n  <dependency n=\"0\" />\n  <dependency n=\"1\" />\n"
+                                + "  <dependency n=\"2\" /><dependency />\n  </dependencies>" },
+                { PARENTS[4], "2",
+                        "<dependencies>\n  <dependency /><dependency />\n  <dependency n=\"0\" />\n"
+                                + "  <dependency n=\"1\" />\n  <dependency n=\"2\" />\n  </dependencies>" } };
+
+        for (String[] row : expected) {
+            final int existing = Integer.parseInt(row[1]);
+
+            Element sequential = parse(row[0]);
+            IndentationCounter counter = counter(existing);
+            for (Element child : children(3)) {
+                Utils.insertAtPreferredLocation(sequential, child, counter);
+                counter.increaseCount();
+            }
+            assertEquals(row[0], row[2], output(sequential));
+
+            Element batch = parse(row[0]);
+            Utils.insertAtPreferredLocation(batch, children(3), counter(existing));
+            assertEquals(row[0], row[2], output(batch));
+        }
+    }
+
+    private static List<Element> children(int count) {
+        List<Element> children = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            children.add(new Element("dependency").setAttribute("n", Integer.toString(i)));
+        }
+        return children;
+    }
+
+    private static IndentationCounter counter(int index) {
+        IndentationCounter counter = new IndentationCounter(3);
+        for (int i = 0; i < index; i++) {
+            counter.increaseCount();
+        }
+        return counter;
+    }
+
+    private static Element parse(String xml) throws Exception {
+        Document doc = new SAXBuilder().build(new StringReader(xml));
+        return doc.detachRootElement();
+    }
+
+    private static String output(Element element) {
+        return new XMLOutputter(Format.getRawFormat().setLineSeparator(LineSeparator.UNIX)).outputString(element);
+    }
+}
@@ -16,7 +16,9 @@
 package org.jboss.pnc.mavenmanipulator.common.model;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 
 import org.apache.maven.model.Model;
 import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationException;
@@ -68,4 +70,26 @@ public class ProjectTest {
 
         assertNotEquals(one, three);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void verifyModificationDetection() throws ManipulationException {
+        Model m = new Model();
+        m.setGroupId("org.foo");
+        m.setArtifactId("bar");
+        m.setVersion("1.0");
+        m.addProperty("foo", "bar");
+        Project project = new Project(m);
+
+        assertFalse(project.isModified());
+
+        m.setVersion("1.0.rebuild-1");
+        assertTrue(project.isModified());
+        assertTrue(new Project(project).isModified());
+
+        m.setVersion("1.0");
+        assertFalse(project.isModified());
+
+        m.addProperty("foo", "baz");
+        assertTrue(project.isModified());
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.common.model;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures the heap retained by the resolved dependency keys of a synthetic reactor with and without the
+ * {@link RefInterner}. It is not a functional test so is ignored by default; remove the annotation (or run it from an
+ * IDE) with a fixed heap, e.g. -Xms2g -Xmx2g, to reproduce the figures.
+ */
+@Ignore("Benchmark")
+public class RefInternerBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(RefInternerBenchmarkTest.class);
+
+    private static final int MODULES = 500;
+
+    private static final int DEPENDENCIES = 300;
+
+    private static final int DISTINCT = 3000;
+
+    private static final int ROUNDS = 3;
+
+    @Test
+    public void measureRetainedHeap() {
+        final long plain = retained(null);
+        final RefInterner interner = new RefInterner();
+        final long interned = retained(interner);
+
+        logger.info(
+                "Retained heap for {} modules x {} dependencies ({} distinct) over {} rounds: {} KB plain, {} KB interned",
+                MODULES,
+                DEPENDENCIES,
+                DISTINCT,
+                ROUNDS,
+                plain / 1024,
+                interned / 1024);
+        logger.info("Interner served {} of {} lookups", interner.getHits(), interner.getRequests());
+    }
+
+    private static long retained(RefInterner interner) {
+        final long before = usedHeap();
+        final List<Set<SimpleScopedArtifactRef>> keys = new ArrayList<>(MODULES * ROUNDS);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int module = 0; module < MODULES; module++) {
+                final Set<SimpleScopedArtifactRef> resolved = new HashSet<>();
+                for (int d = 0; d < DEPENDENCIES; d++) {
+                    final int gav = (module * DEPENDENCIES + d) % DISTINCT;
+                    // Each module's POM is parsed separately so the coordinates are never the same String instances.
+                    final String groupId = new String("org.example.group" + gav / 10);
+                    final String artifactId = new String("artifact-" + gav);
+                    final String version = new String("1.0." + gav % 7);
+                    resolved.add(
+                            interner == null
+                                    ? new SimpleScopedArtifactRef(groupId, artifactId, version, "jar", null, "compile")
+                                    : interner.artifactRef(groupId, artifactId, version, "jar", null, "compile"));
+                }
+                keys.add(resolved);
+            }
+        }
+        final long after = usedHeap();
+        logger.debug("Retained {} key sets", keys.size());
+        return after - before;
+    }
+
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.common.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.commonjava.atlas.maven.ident.ref.ProjectRef;
+import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectVersionRef;
+import org.junit.Test;
+
+public class RefInternerTest {
+    @Test
+    public void verifyCanonicalReferences() {
+        RefInterner interner = new RefInterner();
+
+        ProjectRef pr = interner.projectRef("org.foo", "bar");
+        ProjectVersionRef pvr = interner.projectVersionRef("org.foo", "bar", "1.0");
+        SimpleScopedArtifactRef sar = interner.artifactRef("org.foo", "bar", "1.0", "jar", null, "test");
+
+        assertEquals(new SimpleProjectRef("org.foo", "bar"), pr);
+        assertEquals(new SimpleProjectVersionRef("org.foo", "bar", "1.0"), pvr);
+        assertEquals(new SimpleScopedArtifactRef("org.foo", "bar", "1.0", "jar", null, "test"), sar);
+
+        assertSame(pr, interner.projectRef(new String("org.foo"), new String("bar")));
+        assertSame(pvr, interner.projectVersionRef("org.foo", "bar", new String("1.0")));
+        assertSame(sar, interner.artifactRef("org.foo", "bar", "1.0", "jar", null, "test"));
+        assertSame(pr.getGroupId(), sar.getGroupId());
+
+        // Scope is part of the identity of a scoped artifact.
+        assertNotSame(sar, interner.artifactRef("org.foo", "bar", "1.0", "jar", null, "compile"));
+
+        assertEquals(7, interner.getRequests());
+        assertEquals(3, interner.getHits());
+        assertEquals(4, interner.size());
+
+        interner.clear();
+        assertEquals(0, interner.size());
+        assertNotSame(pr, interner.projectRef("org.foo", "bar"));
+    }
+
+    @Test
+    public void verifyCachedHashCode() {
+        SimpleScopedArtifactRef sar = new SimpleScopedArtifactRef("org.foo", "bar", "1.0", "jar", null, "test");
+
+        assertEquals(sar.hashCode(), sar.hashCode());
+        assertEquals(
+                new SimpleScopedArtifactRef("org.foo", "bar", "1.0", "jar", null, "test").hashCode(),
+                sar.hashCode());
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.common.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.maven.model.Dependency;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectRef;
+import org.junit.Test;
+
+public class GlobMapTest {
+    @Test
+    public void testExactAndWildcard() {
+        GlobMap.Builder<String> builder = new GlobMap.Builder<>();
+        builder.put(SimpleProjectRef.parse("org.group:artifact"), "1.0");
+        GlobMap<String> map = builder.build();
+
+        assertEquals("1.0", map.get(SimpleProjectRef.parse("org.group:artifact")));
+        assertNull(map.get(SimpleProjectRef.parse("org.group:other")));
+        assertFalse(map.containsKey(SimpleProjectRef.parse("org.group:*")));
+        assertFalse(map.containsKey(SimpleProjectRef.parse("org:artifact")));
+
+        // As with WildcardMap the artifact wildcard replaces the explicit artifactIds.
+        builder.put(SimpleProjectRef.parse("org.group:*"), "2.0");
+        builder.put(SimpleProjectRef.parse("org.group:another"), "3.0");
+        assertEquals("1.0", map.get(SimpleProjectRef.parse("org.group:artifact")));
+        map = builder.build();
+
+        Dependency dependency = new Dependency();
+        dependency.setGroupId("org.group");
+        dependency.setArtifactId("artifact");
+        assertEquals("2.0", map.get(dependency));
+        assertEquals("2.0", map.get(SimpleProjectRef.parse("org.group:another")));
+        assertEquals(1, map.size());
+        assertSame(map, builder.build());
+    }
+
+    @Test
+    public void testPrecedence() {
+        GlobMap<String> map = new GlobMap.Builder<String>().put(SimpleProjectRef.parse("*:artifact"), "glob")
+                .put(SimpleProjectRef.parse("org.*:*"), "prefix")
+                .put(SimpleProjectRef.parse("org.group.*:artifact"), "longer-prefix")
+                .put(SimpleProjectRef.parse("org.group.sub:artifact"), "exact")
+                .put(SimpleProjectRef.parse("com.*.group:*-api"), "glob-api")
+                .build();
+
+        assertEquals(5, map.size());
+        assertEquals("exact", map.get(SimpleProjectRef.parse("org.group.sub:artifact")));
+        assertEquals("longer-prefix", map.get(SimpleProjectRef.parse("org.group.sub.more:artifact")));
+        assertEquals("prefix", map.get(SimpleProjectRef.parse("org.group.sub:other")));
+        assertEquals("prefix", map.get(SimpleProjectRef.parse("org.group:artifact")));
+        assertEquals("glob", map.get(SimpleProjectRef.parse("org:artifact")));
+        assertEquals("glob", map.get(SimpleProjectRef.parse("com.foo:artifact")));
+        assertEquals("glob-api", map.get(SimpleProjectRef.parse("com.foo.bar.group:foo-api")));
+        assertNull(map.get(SimpleProjectRef.parse("com.group:foo-api")));
+        assertNull(map.get(SimpleProjectRef.parse("org:other")));
+    }
+
+    @Test
+    public void testBuilderContainsKey() {
+        GlobMap.Builder<String> builder = new GlobMap.Builder<String>()
+                .put(SimpleProjectRef.parse("*:artifact"), "glob")
+                .put(SimpleProjectRef.parse("org.group.*:*"), "prefix")
+                .put(SimpleProjectRef.parse("com.group:*"), "wildcard")
+                .put(SimpleProjectRef.parse("net.group:artifact-?"), "artifact-glob");
+
+        for (String key : new String[] { "org.group.sub:other", "org.group.sub.more:other", "com.group:other",
+                "net.foo:artifact", "net.group:artifact-1" }) {
+            assertTrue(key, builder.containsKey(SimpleProjectRef.parse(key)));
+            assertTrue(key, builder.build().containsKey(SimpleProjectRef.parse(key)));
+        }
+        for (String key : new String[] { "org.group:other", "org:other", "com.group.sub:other",
+                "net.group:artifact-10" }) {
+            assertFalse(key, builder.containsKey(SimpleProjectRef.parse(key)));
+            assertFalse(key, builder.build().containsKey(SimpleProjectRef.parse(key)));
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        GlobMap<String> map = GlobMap.empty();
+
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(SimpleProjectRef.parse("org.group:artifact")));
+        assertTrue(new GlobMap.Builder<String>().isEmpty());
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.common.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+public class MetricsRegistryTest {
+    @Test
+    public void testSample() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        metrics.counter("rest.tasks.split").add(2);
+        metrics.gauge("rest.tasks.pending").set(5);
+        MetricsRegistry.Context context = metrics.timer("manipulator.Test").start();
+
+        assertEquals(1, metrics.timer("manipulator.Test").getActive());
+        context.close();
+        context.close();
+
+        List<MetricsRegistry.Sample> samples = metrics.sample();
+        List<String> names = samples.stream().map(MetricsRegistry.Sample::getName).collect(Collectors.toList());
+        assertEquals(6, names.size());
+        assertEquals("manipulator.Test.active", names.get(0));
+        assertEquals("rest.tasks.split", names.get(5));
+        assertEquals(MetricsRegistry.Type.COUNTER, samples.get(5).getType());
+        assertEquals(2L, samples.get(5).getValue());
+        assertEquals(MetricsRegistry.Type.GAUGE, samples.get(4).getType());
+        assertEquals(5L, samples.get(4).getValue());
+        assertEquals(1, metrics.timer("manipulator.Test").getCount());
+        assertEquals(0, metrics.timer("manipulator.Test").getActive());
+    }
+
+    @Test
+    public void testConcurrentUpdates() throws Exception {
+        MetricsRegistry metrics = new MetricsRegistry();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 100; i++) {
+            executor.execute(() -> {
+                metrics.counter("count").increment();
+                metrics.gauge("pending").add(1);
+                try (MetricsRegistry.Context ignored = metrics.timer("time").start()) {
+                    metrics.gauge("pending").add(-1);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertEquals(100, metrics.counter("count").get());
+        assertEquals(0, metrics.gauge("pending").get());
+        assertEquals(100, metrics.timer("time").getCount());
+        assertEquals(0, metrics.timer("time").getActive());
+    }
+
+    @Test
+    public void testClear() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        metrics.counter("count").increment();
+
+        metrics.clear();
+        assertTrue(metrics.sample().isEmpty());
+        assertEquals(0, metrics.counter("count").get());
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.common.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectVersionRef;
+import org.jboss.da.model.rest.GAV;
+import org.jboss.pnc.mavenmanipulator.common.json.DependencyAnalyserResult;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+/**
+ * Compares the time and allocation of reading a large DA lookup response with the streaming
+ * {@link PMEObjectMapper.MavenResultDeserializer} against reading each result via an intermediate tree, as it was
+ * previously. It is not a functional test so is ignored by default; remove the annotation (or run it from an IDE) to
+ * reproduce the figures.
+ */
+@Ignore("Benchmark")
+public class PMEObjectMapperBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(PMEObjectMapperBenchmarkTest.class);
+
+    private static final int RESULTS = 10000;
+
+    private static final int WARMUP = 50;
+
+    private static final int ROUNDS = 200;
+
+    private static final TypeReference<List<DependencyAnalyserResult>> RESULT_LIST = new TypeReference<
+            List<DependencyAnalyserResult>>() {
+    };
+
+    @Test
+    public void measureDeserialization() throws Exception {
+        final String json = response();
+        final ObjectMapper streaming = new ObjectMapper();
+        new PMEObjectMapper(streaming);
+        final ObjectMapper tree = new ObjectMapper();
+        new PMEObjectMapper(tree);
+        tree.registerModule(new SimpleModule().addDeserializer(DependencyAnalyserResult.class, new TreeDeserializer()));
+
+        measure("tree", tree, json);
+        measure("streaming", streaming, json);
+    }
+
+    private static void measure(String name, ObjectMapper mapper, String json) throws Exception {
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        for (int i = 0; i < WARMUP; i++) {
+            mapper.readValue(json, RESULT_LIST);
+        }
+        final long allocated = threads.getCurrentThreadAllocatedBytes();
+        final long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            mapper.readValue(json, RESULT_LIST);
+        }
+        final long nanos = System.nanoTime() - start;
+        logger.info(
+                "{} results {}: {} ms and {} KB allocated per response",
+                RESULTS,
+                name,
+                String.format("%.2f", nanos / 1_000_000.0 / ROUNDS),
+                (threads.getCurrentThreadAllocatedBytes() - allocated) / 1024 / ROUNDS);
+    }
+
+    /**
+     * A response of the shape returned by DA, with a few hundred groupIds and some unused fields.
+     */
+    private static String response() {
+        final StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < RESULTS; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append("{\"groupId\":\"org.example.group")
+                    .append(i / 30)
+                    .append("\",\"artifactId\":\"artifact-")
+                    .append(i)
+                    .append("\",\"version\":\"1.0.")
+                    .append(i % 7)
+                    .append("\",\"bestMatchVersion\":\"1.0.")
+                    .append(i % 7)
+                    .append(".redhat-00001\",\"latestVersion\":null,\"blacklisted\":false,")
+                    .append("\"availableVersions\":[\"1.0.redhat-00001\",\"1.0.redhat-00002\"]}");
+        }
+        return builder.append(']').toString();
+    }
+
+    /**
+     * The previous deserializer, reading each result into a tree first.
+     */
+    private static class TreeDeserializer extends JsonDeserializer<DependencyAnalyserResult> {
+        @Override
+        public DependencyAnalyserResult deserialize(JsonParser p, DeserializationContext ctxt)
+                throws java.io.IOException {
+            final JsonNode node = p.getCodec().readTree(p);
+            final String groupId = node.get(JSONUtils.GROUP_ID).asText();
+            final String artifactId = node.get(JSONUtils.ARTIFACT_ID).asText();
+            final String version = node.get(JSONUtils.VERSION).asText();
+
+            final DependencyAnalyserResult result = new DependencyAnalyserResult();
+            result.setGav(new GAV(groupId, artifactId, version));
+            if (node.hasNonNull("bestMatchVersion")) {
+                result.setBestMatchVersion(node.get("bestMatchVersion").asText());
+            }
+            if (node.hasNonNull("latestVersion")) {
+                result.setLatestVersion(node.get("latestVersion").asText());
+            }
+            result.setProjectVersionRef(new SimpleProjectVersionRef(groupId, artifactId, version));
+            return result;
+        }
+    }
+}
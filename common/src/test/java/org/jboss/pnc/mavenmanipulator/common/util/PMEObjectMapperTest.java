@@ -0,0 +1,106 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.common.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectVersionRef;
+import org.jboss.pnc.mavenmanipulator.common.json.DependencyAnalyserResult;
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+
+public class PMEObjectMapperTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final PMEObjectMapper pmeMapper = new PMEObjectMapper(mapper);
+
+    @Test
+    public void testDeserialize() throws Exception {
+        final String json = "[{\"groupId\":\"org.foo\",\"artifactId\":\"bar\",\"version\":\"1.0\","
+                + "\"bestMatchVersion\":\"1.0.redhat-00001\",\"availableVersions\":[\"1.0.redhat-00001\"],"
+                + "\"blacklisted\":false,\"extra\":{\"nested\":{\"version\":\"2.0\"}},\"latestVersion\":null},"
+                + "{\"version\":1.1,\"artifactId\":\"baz\",\"groupId\":\"org.foo\",\"bestMatchVersion\":null,"
+                + "\"latestVersion\":\"1.1.redhat-00002\"}]";
+
+        final List<DependencyAnalyserResult> results = mapper
+                .readValue(json, new TypeReference<List<DependencyAnalyserResult>>() {
+                });
+
+        assertEquals(2, results.size());
+        final DependencyAnalyserResult first = results.get(0);
+        assertEquals(new SimpleProjectVersionRef("org.foo", "bar", "1.0"), first.getProjectVersionRef());
+        assertEquals("org.foo", first.getGav().getGroupId());
+        assertEquals("1.0", first.getGav().getVersion());
+        assertEquals("1.0.redhat-00001", first.getBestMatchVersion());
+        assertNull(first.getLatestVersion());
+
+        final DependencyAnalyserResult second = results.get(1);
+        assertEquals(new SimpleProjectVersionRef("org.foo", "baz", "1.1"), second.getProjectVersionRef());
+        assertNull(second.getBestMatchVersion());
+        assertEquals("1.1.redhat-00002", second.getLatestVersion());
+
+        // Results within a response share their common coordinates.
+        assertSame(first.getProjectVersionRef().getGroupId(), second.getProjectVersionRef().getGroupId());
+        assertSame(second.getProjectVersionRef().getGroupId(), second.getGav().getGroupId());
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        final String json = "{\"groupId\":\"org.foo\",\"artifactId\":\"bar\",\"version\":\"1.0\","
+                + "\"bestMatchVersion\":\"1.0.redhat-00001\"}";
+
+        final DependencyAnalyserResult result = pmeMapper.readValue(json, DependencyAnalyserResult.class);
+
+        assertEquals(result, pmeMapper.readValue(pmeMapper.writeValue(result), DependencyAnalyserResult.class));
+    }
+
+    @Test(expected = MismatchedInputException.class)
+    public void testMissingCoordinate() throws Exception {
+        mapper.readValue("{\"groupId\":\"org.foo\",\"version\":\"1.0\"}", DependencyAnalyserResult.class);
+    }
+
+    @Test
+    public void testStructuredKnownField() throws Exception {
+        final String json = "[{\"groupId\":\"org.foo\",\"artifactId\":\"bar\",\"version\":\"1.0\","
+                + "\"bestMatchVersion\":{\"version\":\"2.0\",\"groupId\":\"org.other\"},"
+                + "\"latestVersion\":[\"3.0\",{\"artifactId\":\"other\"}]},"
+                + "{\"groupId\":\"org.foo\",\"artifactId\":\"baz\",\"version\":\"1.1\"}]";
+
+        final List<DependencyAnalyserResult> results = mapper
+                .readValue(json, new TypeReference<List<DependencyAnalyserResult>>() {
+                });
+
+        assertEquals(2, results.size());
+        assertEquals(new SimpleProjectVersionRef("org.foo", "bar", "1.0"), results.get(0).getProjectVersionRef());
+        assertNull(results.get(0).getBestMatchVersion());
+        assertNull(results.get(0).getLatestVersion());
+        assertEquals(new SimpleProjectVersionRef("org.foo", "baz", "1.1"), results.get(1).getProjectVersionRef());
+    }
+
+    @Test(expected = MismatchedInputException.class)
+    public void testStructuredCoordinate() throws Exception {
+        mapper.readValue(
+                "{\"groupId\":{\"groupId\":\"org.foo\"},\"artifactId\":\"bar\",\"version\":\"1.0\"}",
+                DependencyAnalyserResult.class);
+    }
+}
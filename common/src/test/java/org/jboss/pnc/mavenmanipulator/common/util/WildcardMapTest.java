@@ -133,4 +133,17 @@ public class WildcardMapTest {
                         "Emptying map with keys [artifact] as replacing with wildcard mapping org.group:*"));
 
     }
+
+    @Test
+    public void testToGlobMap() {
+        map.put(SimpleProjectRef.parse("org.group:artifact"), "1.1");
+        GlobMap<String> globMap = map.toGlobMap();
+
+        Assert.assertEquals("1.1", globMap.get(SimpleProjectRef.parse("org.group:artifact")));
+        Assert.assertSame(globMap, map.toGlobMap());
+
+        map.put(SimpleProjectRef.parse("org.group:*"), "1.2");
+        Assert.assertNotSame(globMap, map.toGlobMap());
+        Assert.assertEquals("1.2", map.toGlobMap().get(SimpleProjectRef.parse("org.group:artifact")));
+    }
 }
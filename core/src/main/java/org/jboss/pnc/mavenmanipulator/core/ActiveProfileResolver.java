@@ -0,0 +1,177 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.core;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.apache.maven.model.Activation;
+import org.apache.maven.model.ActivationFile;
+import org.apache.maven.model.ActivationOS;
+import org.apache.maven.model.ActivationProperty;
+import org.apache.maven.model.Profile;
+import org.apache.maven.model.building.ModelProblem;
+import org.apache.maven.model.building.ModelProblemCollectorRequest;
+import org.apache.maven.model.profile.DefaultProfileActivationContext;
+import org.apache.maven.model.profile.ProfileSelector;
+import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationException;
+import org.jboss.pnc.mavenmanipulator.common.model.Project;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Determines the ids of the active profiles across the projects. The first profile found for an id is the one used
+ * and, as Maven does, profiles that are active by default are only active until a profile is otherwise activated;
+ * here that is evaluated cumulatively in project order. The activation of each distinct activation definition is
+ * only evaluated once, and file based activation is evaluated relative to the module declaring the profile.
+ */
+final class ActiveProfileResolver {
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final ProfileSelector selector;
+
+    private final Set<String> explicitlyActivated;
+
+    private final Properties userProperties;
+
+    private final Map<String, Boolean> activations = new HashMap<>();
+
+    ActiveProfileResolver(ProfileSelector selector, Collection<String> explicitlyActivated, Properties userProperties) {
+        this.selector = selector;
+        this.explicitlyActivated = new HashSet<>(explicitlyActivated);
+        this.userProperties = userProperties;
+    }
+
+    Set<String> resolve(List<Project> projects) throws ManipulationException {
+        final Set<String> seen = new HashSet<>();
+        final Set<String> active = new LinkedHashSet<>();
+        final Set<String> byDefault = new LinkedHashSet<>();
+        final Set<String> pendingByDefault = new LinkedHashSet<>();
+
+        for (final Project project : projects) {
+            for (final Profile profile : project.getModel().getProfiles()) {
+                if (!seen.add(profile.getId())) {
+                    continue;
+                }
+                if (explicitlyActivated.contains(profile.getId()) || isActive(project, profile)) {
+                    active.add(profile.getId());
+                } else if (profile.getActivation() != null && profile.getActivation().isActiveByDefault()) {
+                    pendingByDefault.add(profile.getId());
+                }
+            }
+            // Default profiles only apply while no other profile, from this or any prior project, is active.
+            if (active.isEmpty()) {
+                byDefault.addAll(pendingByDefault);
+                pendingByDefault.clear();
+            }
+        }
+        logger.debug(
+                "Evaluated {} distinct activations for {} profiles ; active {} and active by default {}",
+                activations.size(),
+                seen.size(),
+                active,
+                byDefault);
+
+        final Set<String> result = new HashSet<>(active);
+        result.addAll(byDefault);
+        return result;
+    }
+
+    private boolean isActive(Project project, Profile profile) throws ManipulationException {
+        final Activation activation = profile.getActivation();
+        if (activation == null) {
+            return false;
+        }
+        final File basedir = activation.getFile() == null ? null : project.getPom().getParentFile();
+        final String key = key(activation, basedir);
+        Boolean result = activations.get(key);
+
+        if (result == null) {
+            result = evaluate(profile, basedir);
+            activations.put(key, result);
+        }
+        return result;
+    }
+
+    private boolean evaluate(Profile profile, File basedir) throws ManipulationException {
+        // Evaluate a copy so the model is not affected and activeByDefault is handled by the caller.
+        final Profile probe = new Profile();
+        final Activation activation = profile.getActivation().clone();
+        activation.setActiveByDefault(false);
+        probe.setId(profile.getId());
+        probe.setActivation(activation);
+
+        final DefaultProfileActivationContext context = new DefaultProfileActivationContext()
+                .setSystemProperties(System.getProperties())
+                .setUserProperties(userProperties)
+                .setProjectDirectory(basedir);
+        final List<ModelProblemCollectorRequest> problems = new ArrayList<>();
+        final boolean result = !selector.getActiveProfiles(Collections.singletonList(probe), context, request -> {
+            if (request.getSeverity() != ModelProblem.Severity.WARNING) {
+                problems.add(request);
+            }
+        }).isEmpty();
+
+        if (!problems.isEmpty()) {
+            throw new ManipulationException(
+                    "Activation detection failure for profile {} : {}",
+                    profile.getId(),
+                    problems.get(0).getMessage(),
+                    problems.get(0).getException());
+        }
+        return result;
+    }
+
+    private static String key(Activation activation, File basedir) {
+        final StringBuilder key = new StringBuilder();
+        key.append(activation.getJdk());
+
+        final ActivationOS os = activation.getOs();
+        if (os != null) {
+            key.append("|os:")
+                    .append(os.getName())
+                    .append(',')
+                    .append(os.getFamily())
+                    .append(',')
+                    .append(os.getArch())
+                    .append(',')
+                    .append(os.getVersion());
+        }
+        final ActivationProperty property = activation.getProperty();
+        if (property != null) {
+            key.append("|property:").append(property.getName()).append('=').append(property.getValue());
+        }
+        final ActivationFile file = activation.getFile();
+        if (file != null) {
+            key.append("|file:")
+                    .append(file.getExists())
+                    .append(',')
+                    .append(file.getMissing())
+                    .append('@')
+                    .append(basedir);
+        }
+        return key.toString();
+    }
+}
@@ -25,13 +25,12 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.TreeMap;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -39,23 +38,33 @@ import javax.inject.Singleton;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.maven.execution.MavenSession;
-import org.apache.maven.profiles.DefaultProfileManager;
-import org.apache.maven.profiles.activation.ProfileActivationException;
+import org.apache.maven.model.profile.ProfileSelector;
 import org.apache.maven.project.ProjectBuilder;
+import org.codehaus.plexus.component.repository.exception.ComponentLookupException;
 import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
 import org.jboss.pnc.mavenmanipulator.annotation.ConfigValue;
 import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationException;
 import org.jboss.pnc.mavenmanipulator.common.json.PME;
 import org.jboss.pnc.mavenmanipulator.common.model.Project;
+import org.jboss.pnc.mavenmanipulator.common.model.ProjectSnapshot;
 import org.jboss.pnc.mavenmanipulator.common.util.JSONUtils;
+import org.jboss.pnc.mavenmanipulator.common.util.MetricsRegistry;
 import org.jboss.pnc.mavenmanipulator.common.util.ProjectComparator;
 import org.jboss.pnc.mavenmanipulator.common.util.WildcardMap;
 import org.jboss.pnc.mavenmanipulator.core.impl.Manipulator;
 import org.jboss.pnc.mavenmanipulator.core.impl.PreparseGroovyManipulator;
 import org.jboss.pnc.mavenmanipulator.core.state.CommonState;
 import org.jboss.pnc.mavenmanipulator.core.state.DependencyState;
+import org.jboss.pnc.mavenmanipulator.core.state.JSONState;
+import org.jboss.pnc.mavenmanipulator.core.state.PluginState;
+import org.jboss.pnc.mavenmanipulator.core.state.ProfileInjectionState;
+import org.jboss.pnc.mavenmanipulator.core.state.PropertyState;
 import org.jboss.pnc.mavenmanipulator.core.state.RelocationState;
+import org.jboss.pnc.mavenmanipulator.core.state.RepositoryInjectionState;
+import org.jboss.pnc.mavenmanipulator.core.state.XMLState;
+import org.jboss.pnc.mavenmanipulator.core.util.ConfigSnapshot;
 import org.jboss.pnc.mavenmanipulator.core.util.ManipulatorPriorityComparator;
+import org.jboss.pnc.mavenmanipulator.io.ModelIO;
 import org.jboss.pnc.mavenmanipulator.io.PomIO;
 import org.jboss.pnc.mavenmanipulator.io.resolver.ExtensionInfrastructure;
 import org.slf4j.Logger;
@@ -99,6 +108,39 @@ public class ManipulationManager {
     @ConfigValue(docIndex = "../index.html#write-changed")
     public static final String REWRITE_CHANGED = "manipulationWriteChanged";
 
+    @ConfigValue(docIndex = "../index.html#concurrent-manipulators")
+    public static final String CONCURRENT_MANIPULATORS = "manipulationConcurrent";
+
+    @ConfigValue(docIndex = "../index.html#model-handoff")
+    public static final String MODEL_HANDOFF = "manipulationModelHandoff";
+
+    /**
+     * Directory in which to cache the results of runs, keyed by their inputs, so that a run with identical inputs
+     * restores those results rather than running the manipulators.
+     */
+    @ConfigValue(docIndex = "../index.html#result-cache")
+    public static final String RESULT_CACHE = "manipulationResultCache";
+
+    /**
+     * If true, a cached result is not restored but compared with the result of running the manipulators.
+     */
+    @ConfigValue(docIndex = "../index.html#result-cache")
+    public static final String RESULT_CACHE_VERIFY = "manipulationResultCacheVerify";
+
+    /**
+     * If true the metrics of a run in progress are published as the JMX MBean
+     * <code>org.jboss.pnc.mavenmanipulator:type=Metrics</code>. Disabled by default.
+     */
+    @ConfigValue(docIndex = "../index.html#metrics")
+    public static final String METRICS_JMX = "manipulationMetricsJmx";
+
+    /**
+     * Interval, in seconds, at which the metrics of a run in progress are written in the Prometheus text format to
+     * <code>manipulation-metrics.prom</code> in the target directory. Disabled if zero (the default).
+     */
+    @ConfigValue(docIndex = "../index.html#metrics")
+    public static final String METRICS_INTERVAL = "manipulationMetricsInterval";
+
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
     private final Map<String, Manipulator> manipulators;
@@ -107,19 +149,23 @@ public class ManipulationManager {
 
     private final PomIO pomIO;
 
+    private final ModelIO modelIO;
+
     private final PreparseGroovyManipulator preparseGroovyManipulator;
 
-    private final PME jsonReport = new PME();
+    private PME jsonReport = new PME();
 
     @Inject
     public ManipulationManager(
             Map<String, Manipulator> manipulators,
             Map<String, ExtensionInfrastructure> infrastructure,
             PomIO pomIO,
+            ModelIO modelIO,
             PreparseGroovyManipulator preparseGroovyManipulator) {
         this.manipulators = manipulators;
         this.infrastructure = infrastructure;
         this.pomIO = pomIO;
+        this.modelIO = modelIO;
         this.preparseGroovyManipulator = preparseGroovyManipulator;
     }
 
@@ -131,6 +177,8 @@ public class ManipulationManager {
     @Getter
     private List<Manipulator> orderedManipulators;
 
+    private ManipulatorScheduler scheduler;
+
     /**
      * Initialize {@link ManipulationSession} using the given {@link MavenSession} instance, along with any state
      * managed by the individual
@@ -143,31 +191,20 @@ public class ManipulationManager {
             throws ManipulationException {
         logger.debug("Initialising ManipulationManager with user properties {}", session.getUserProperties());
 
+        // Start a fresh report in case this instance is reused for a further run.
+        jsonReport = new PME();
+
         // We invert it as the property is to _enable_ deprecated properties - which is off by default.
         final boolean deprecatedDisabled = !Boolean.parseBoolean(
                 session.getUserProperties()
                         .getProperty(
                                 DEPRECATED_PROPERTIES,
                                 "false"));
-        final HashMap<String, String> deprecatedUsage = new HashMap<>();
-
-        session.getUserProperties()
-                .stringPropertyNames()
-                .forEach(
-                        p -> {
-                            if (!p.equals("maven.repo.local")
-                                    && ConfigList.allConfigValues.keySet().stream().noneMatch(p::startsWith)) {
-                                logger.warn("Unknown configuration value {}", p);
-                            }
-                            // Track deprecated properties. We have to do a rather ugly starts with instead of direct keying as
-                            // some properties operate upon a prefix basis.
-                            logger.debug("Examining for deprecated properties for {}", p);
-                            ConfigList.allConfigValues.entrySet()
-                                    .stream()
-                                    .filter(e -> p.startsWith(e.getKey()))
-                                    .filter(Map.Entry::getValue)
-                                    .forEach(up -> deprecatedUsage.put(p, up.getKey()));
-                        });
+        // A single pass over the user properties matches each against the trie of configuration keys, finding those
+        // unknown and deprecated. Some keys operate upon a prefix basis so every key prefixing a property is matched.
+        final ConfigSnapshot config = session.getConfig();
+        config.getUnknown().forEach(p -> logger.warn("Unknown configuration value {}", p));
+        final Map<String, String> deprecatedUsage = config.getDeprecated();
 
         if (deprecatedUsage.size() > 0) {
             deprecatedUsage.forEach(
@@ -196,6 +233,10 @@ public class ManipulationManager {
             manipulator.init(session);
         }
         orderedManipulators.sort(new ManipulatorPriorityComparator());
+        scheduler = new ManipulatorScheduler(
+                orderedManipulators,
+                Boolean.parseBoolean(session.getUserProperties().getProperty(CONCURRENT_MANIPULATORS, "false")),
+                session.getMetrics());
 
         // Now init the common state
         CommonState cState = new CommonState(session.getUserProperties());
@@ -208,14 +249,42 @@ public class ManipulationManager {
     }
 
     /**
-     * Encapsulates {@link #applyManipulations(List)}
+     * Encapsulates {@link #applyManipulations(List)}, publishing the metrics of the run while it is in progress.
      *
      * @param session the container session for manipulation.
      * @throws ManipulationException if an error occurs.
      */
-    @SuppressWarnings("ResultOfMethodCallIgnored")
     public void scanAndApply(final ManipulationSession session)
             throws ManipulationException {
+        final long interval;
+        try {
+            interval = Long.parseLong(session.getUserProperties().getProperty(METRICS_INTERVAL, "0"));
+        } catch (NumberFormatException e) {
+            throw new ManipulationException("Invalid value for {}", METRICS_INTERVAL, e);
+        }
+        try (MetricsExporter ignored = new MetricsExporter(
+                session.getMetrics(),
+                new File(session.getTargetDir(), MetricsExporter.PROMETHEUS_FILE))
+                .start(
+                        Boolean.parseBoolean(session.getUserProperties().getProperty(METRICS_JMX, "false")),
+                        interval)) {
+            scanAndApplyChanges(session);
+        }
+    }
+
+    @SuppressWarnings("ResultOfMethodCallIgnored")
+    private void scanAndApplyChanges(final ManipulationSession session)
+            throws ManipulationException {
+        final String resultCacheDirectory = session.getUserProperties().getProperty(RESULT_CACHE);
+        ResultCache resultCache = resultCacheDirectory == null ? null
+                : new ResultCache(
+                        new File(resultCacheDirectory),
+                        session.getPom().getAbsoluteFile().getParentFile(),
+                        Boolean.parseBoolean(session.getUserProperties().getProperty(RESULT_CACHE_VERIFY, "false")));
+        if (resultCache != null) {
+            resultCache.snapshot();
+        }
+
         preparseGroovyManipulator.applyChanges(session);
 
         if (!session.getPom().exists()) {
@@ -224,20 +293,65 @@ public class ManipulationManager {
                     session.getPom());
         }
 
-        final List<Project> currentProjects = pomIO.parseProject(session, session.getPom());
-        final List<Project> originalProjects = new ArrayList<>();
-        currentProjects.forEach(p -> originalProjects.add(new Project(p)));
+        final List<Project> currentProjects;
+        try (MetricsRegistry.Context ignored = session.getMetrics().timer("pom.parse").start()) {
+            currentProjects = pomIO.parseProject(session, session.getPom());
+        }
+        session.getMetrics().counter("pom.parsed").add(currentProjects.size());
 
-        final Project originalExecutionRoot = originalProjects.get(0);
-        if (!originalExecutionRoot.isExecutionRoot()) {
-            throw new ManipulationException("First project is not execution root : {}", originalProjects);
+        if (!currentProjects.get(0).isExecutionRoot()) {
+            throw new ManipulationException("First project is not execution root : {}", currentProjects);
         }
 
         session.getActiveProfiles().addAll(parseActiveProfiles(session, currentProjects));
         session.setProjects(currentProjects);
 
+        final String uncachedLookups = resultCache == null ? null
+                : ResultCache.uncachedLookups(session, currentProjects);
+        if (uncachedLookups != null) {
+            logger.info("Not using the result cache as the result depends upon {}", uncachedLookups);
+            resultCache = null;
+        }
+        if (resultCache != null) {
+            resultCache.fingerprint(
+                    session.getUserProperties(),
+                    session.getSettings(),
+                    session.getRemoteRepositories(),
+                    currentProjects,
+                    resolveInputFiles(session, currentProjects.get(0)));
+            if (resultCache.restore()) {
+                final File report = reportJsonFile(session);
+                if (resultCache.isRestored(report)) {
+                    session.setReport(report);
+                }
+                finishInfrastructure();
+                logger.info("Maven-Manipulation-Extension: Finished using cached result.");
+                return;
+            }
+        }
+
+        // Record only what the report compares rather than holding a copy of every original model.
+        final List<ProjectSnapshot> originalProjects = ProjectSnapshot.of(currentProjects);
+        final ProjectSnapshot originalExecutionRoot = originalProjects.get(0);
+
         Set<Project> changed = applyManipulations(currentProjects);
 
+        // Manipulators may report projects as changed without modifying their model (or having only modified
+        // other files) so only rewrite those POMs that actually differ. The reports and marker file still cover
+        // every project reported as changed.
+        final Set<Project> modified = new HashSet<>();
+        for (Project p : changed) {
+            if (p.isModified()) {
+                modified.add(p);
+            } else {
+                logger.debug("Project {} reported as changed but model is unmodified", p);
+            }
+        }
+        // As before, the execution root is rewritten whenever it is reported as changed so that it carries the
+        // manifest comment.
+        final Set<Project> rewrite = new HashSet<>(modified);
+        changed.stream().filter(Project::isExecutionRoot).findFirst().ifPresent(rewrite::add);
+
         // Create a marker file if we made some changes to prevent duplicate runs.
         if (!changed.isEmpty()) {
             logger.info("Maven-Manipulation-Extension: Completed with changed: {}", currentProjects);
@@ -264,18 +378,15 @@ public class ManipulationManager {
                     File reportFile = new File(reportTxtOutputFile);
                     FileUtils.writeStringToFile(reportFile, report, StandardCharsets.UTF_8);
                 }
-                final String reportJsonOutputFile = session.getUserProperties()
-                        .getProperty(
-                                REPORT_JSON_OUTPUT_FILE,
-                                session.getTargetDir() + File.separator + REPORT_JSON_DEFAULT);
+                final File reportJsonOutputFile = reportJsonFile(session);
 
                 try (FileWriter writer = new FileWriter(reportJsonOutputFile)) {
                     writer.write(JSONUtils.jsonToString(jsonReport));
                 }
+                session.setReport(reportJsonOutputFile);
 
                 if (Boolean.parseBoolean(session.getUserProperties().getProperty(REWRITE_CHANGED, "true"))) {
-                    logger.debug("Maven-Manipulation-Extension: Rewrite changed");
-                    pomIO.rewritePOMs(changed);
+                    rewritePOMs(session, rewrite);
                     new File(session.getTargetDir().getParentFile(), ManipulationManager.MARKER_FILE).createNewFile();
                 }
             } catch (IOException e) {
@@ -284,43 +395,101 @@ public class ManipulationManager {
             }
         }
 
+        if (resultCache != null) {
+            resultCache.record();
+        }
+        finishInfrastructure();
+
+        logger.info("Maven-Manipulation-Extension: Finished.");
+    }
+
+    private static File reportJsonFile(ManipulationSession session) {
+        return new File(
+                session.getUserProperties()
+                        .getProperty(
+                                REPORT_JSON_OUTPUT_FILE,
+                                session.getTargetDir() + File.separator + REPORT_JSON_DEFAULT));
+    }
+
+    private void rewritePOMs(ManipulationSession session, Set<Project> rewrite) throws ManipulationException {
+        logger.debug("Maven-Manipulation-Extension: Rewrite changed");
+        try (MetricsRegistry.Context ignored = session.getMetrics().timer("pom.rewrite").start()) {
+            pomIO.rewritePOMs(rewrite);
+        }
+        session.getMetrics().counter("pom.rewritten").add(rewrite.size());
+    }
+
+    private void finishInfrastructure() {
         // Ensure shutdown of GalleyInfrastructure Executor Service
         for (ExtensionInfrastructure e : infrastructure.values()) {
             e.finish();
         }
-
-        logger.info("Maven-Manipulation-Extension: Finished.");
     }
 
-    @SuppressWarnings({ "unchecked", "deprecation" })
-    private Set<String> parseActiveProfiles(ManipulationSession session, List<Project> projects)
+    /**
+     * Resolves the remote and extra BOMs referenced by the configuration and locates the files edited by the XML and
+     * JSON manipulators, so that their content is part of the inputs.
+     */
+    private List<File> resolveInputFiles(ManipulationSession session, Project executionRoot)
             throws ManipulationException {
-        final Set<String> activeProfiles = new HashSet<>();
-        final DefaultProfileManager dpm = new DefaultProfileManager(
-                session.getSession().getContainer(),
-                session.getUserProperties());
+        final List<ProjectVersionRef> boms = new ArrayList<>();
+        final DependencyState dependencyState = session.getState(DependencyState.class);
+        if (dependencyState != null && dependencyState.getRemoteBOMDepMgmt() != null) {
+            boms.addAll(dependencyState.getRemoteBOMDepMgmt());
+        }
+        if (dependencyState != null && dependencyState.getExtraBOMs() != null) {
+            boms.addAll(new TreeMap<>(dependencyState.getExtraBOMs()).values());
+        }
+        final PluginState pluginState = session.getState(PluginState.class);
+        if (pluginState != null && pluginState.getRemotePluginMgmt() != null) {
+            boms.addAll(pluginState.getRemotePluginMgmt());
+        }
+        final PropertyState propertyState = session.getState(PropertyState.class);
+        if (propertyState != null && propertyState.getRemotePropertyMgmt() != null) {
+            boms.addAll(propertyState.getRemotePropertyMgmt());
+        }
+        final ProfileInjectionState profileState = session.getState(ProfileInjectionState.class);
+        if (profileState != null && profileState.getRemoteProfileInjectionMgmt() != null) {
+            boms.addAll(profileState.getRemoteProfileInjectionMgmt());
+        }
+        final RepositoryInjectionState repositoryState = session.getState(RepositoryInjectionState.class);
+        if (repositoryState != null && repositoryState.getRemoteRepositoryInjectionMgmt() != null) {
+            boms.add(repositoryState.getRemoteRepositoryInjectionMgmt());
+        }
 
-        logger.debug("Explicitly activating {}", session.getActiveProfiles());
-        dpm.explicitlyActivate(session.getActiveProfiles());
+        final List<File> result = new ArrayList<>(boms.size());
+        for (final ProjectVersionRef bom : boms) {
+            result.add(modelIO.resolveRawFile(bom.asPomArtifact()));
+        }
 
-        for (Project p : projects) {
-            // We clone the original profile here to prevent the DefaultProfileManager affecting the original list
-            // during its activation calculation.
-            p.getModel()
-                    .getProfiles()
-                    .stream()
-                    .filter(newProfile -> !dpm.getProfilesById().containsKey(newProfile.getId()))
-                    .forEach(newProfile -> dpm.addProfile(newProfile.clone()));
+        // As in the manipulators, the files are relative to the execution root.
+        final File directory = executionRoot.getPom().getParentFile();
+        final XMLState xmlState = session.getState(XMLState.class);
+        if (xmlState != null && xmlState.isEnabled()) {
+            xmlState.getXMLOperations().forEach(o -> result.add(new File(directory, o.getFile())));
+        }
+        final JSONState jsonState = session.getState(JSONState.class);
+        if (jsonState != null && jsonState.isEnabled()) {
+            jsonState.getJSONOperations().forEach(o -> result.add(new File(directory, o.getFile())));
+        }
+        return result;
+    }
 
-            try {
-                List<org.apache.maven.model.Profile> ap = dpm.getActiveProfiles();
-                activeProfiles
-                        .addAll(ap.stream().map(org.apache.maven.model.Profile::getId).collect(Collectors.toList()));
-            } catch (ProfileActivationException e) {
-                throw new ManipulationException("Activation detection failure", e);
-            }
+    private Set<String> parseActiveProfiles(ManipulationSession session, List<Project> projects)
+            throws ManipulationException {
+        final ProfileSelector selector;
+        try {
+            selector = session.getSession().getContainer().lookup(ProfileSelector.class);
+        } catch (ComponentLookupException e) {
+            throw new ManipulationException("Unable to lookup profile selector", e);
         }
 
+        logger.debug("Explicitly activating {}", session.getActiveProfiles());
+        final Set<String> activeProfiles = new ActiveProfileResolver(
+                selector,
+                session.getActiveProfiles(),
+                session.getUserProperties()).resolve(projects);
+
         if (logger.isDebugEnabled()) {
             final String profileScanningProp = session.getUserProperties()
                     .getProperty(
@@ -352,15 +521,7 @@ public class ManipulationManager {
      */
     private Set<Project> applyManipulations(final List<Project> projects)
             throws ManipulationException {
-        final Set<Project> changed = new HashSet<>();
-        for (final Manipulator manipulator : orderedManipulators) {
-            logger.info("Running manipulator {}", manipulator.getClass().getName());
-            final Set<Project> mChanged = manipulator.applyChanges(projects);
-
-            if (mChanged != null) {
-                changed.addAll(mChanged);
-            }
-        }
+        final Set<Project> changed = scheduler.apply(projects);
 
         if (changed.isEmpty()) {
             logger.info("Maven-Manipulation-Extension: No changes.");
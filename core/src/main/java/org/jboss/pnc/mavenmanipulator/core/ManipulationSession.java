@@ -23,6 +23,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
 
+import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
@@ -32,12 +33,16 @@ import org.apache.maven.settings.Settings;
 import org.jboss.pnc.mavenmanipulator.annotation.ConfigValue;
 import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationException;
 import org.jboss.pnc.mavenmanipulator.common.model.Project;
+import org.jboss.pnc.mavenmanipulator.common.model.RefInterner;
 import org.jboss.pnc.mavenmanipulator.common.session.MavenSessionHandler;
 import org.jboss.pnc.mavenmanipulator.common.util.ManifestUtils;
+import org.jboss.pnc.mavenmanipulator.common.util.MetricsRegistry;
 import org.jboss.pnc.mavenmanipulator.core.impl.Manipulator;
 import org.jboss.pnc.mavenmanipulator.core.state.CommonState;
 import org.jboss.pnc.mavenmanipulator.core.state.State;
 import org.jboss.pnc.mavenmanipulator.core.state.VersioningState;
+import org.jboss.pnc.mavenmanipulator.core.util.ConfigSnapshot;
+import org.jboss.pnc.mavenmanipulator.io.resolver.CacheBundle;
 
 /**
  * Repository for components that help manipulate POMs as needed, and state related to each {@link Manipulator}
@@ -56,6 +61,10 @@ public class ManipulationSession
 
     private final Map<Class<?>, State> states = new HashMap<>();
 
+    private final RefInterner refInterner = new RefInterner();
+
+    private final MetricsRegistry metrics = new MetricsRegistry();
+
     private MavenSession mavenSession;
 
     /**
@@ -65,7 +74,19 @@ public class ManipulationSession
 
     private ManipulationException error;
 
+    private ConfigSnapshot config;
+
+    private File report;
+
+    private final CacheBundle cacheBundle;
+
     public ManipulationSession() {
+        this(new CacheBundle());
+    }
+
+    @Inject
+    public ManipulationSession(CacheBundle cacheBundle) {
+        this.cacheBundle = cacheBundle;
         System.out.println(
                 "[INFO] Running Maven Manipulation Extension (PME) "
                         + ManifestUtils.getManifestInformation(ManipulationSession.class));
@@ -85,6 +106,22 @@ public class ManipulationSession
         return !Boolean.parseBoolean(getUserProperties().getProperty(MANIPULATIONS_DISABLED_PROP, "false"));
     }
 
+    /**
+     * Clears all state, projects and errors recorded by a previous run. As this session is a singleton shared with
+     * the manipulators this allows a long lived container (e.g. the CLI daemon) to run successive manipulations in
+     * isolation.
+     */
+    public void reset() {
+        states.clear();
+        projects = null;
+        error = null;
+        mavenSession = null;
+        config = null;
+        report = null;
+        refInterner.clear();
+        metrics.clear();
+    }
+
     public void setState(final State state) {
         states.put(state.getClass(), state);
     }
@@ -96,17 +133,41 @@ public class ManipulationSession
      * @throws ManipulationException if an error occurs
      */
     public void reinitialiseStates() throws ManipulationException {
+        config = null;
+        final ConfigSnapshot snapshot = getConfig();
         for (State s : states.values()) {
-            s.initialise(getUserProperties());
+            s.initialise(snapshot);
         }
     }
 
+    /**
+     * Returns the snapshot of the user properties the states are configured from. This is built on first use and
+     * reused until {@link #reinitialiseStates()} is called, so changes to the user properties are only seen after that.
+     *
+     * @return the snapshot of the user properties.
+     */
+    public ConfigSnapshot getConfig() {
+        final Properties userProperties = getUserProperties();
+        if (config == null || config.getSource() != userProperties) {
+            config = ConfigSnapshot.of(userProperties);
+        }
+        return config;
+    }
+
+    /**
+     * @return the bundle that remote lookups are recorded in or served from, if configured.
+     */
+    public CacheBundle getCacheBundle() {
+        return cacheBundle;
+    }
+
     public <T extends State> T getState(final Class<T> stateType) {
         return stateType.cast(states.get(stateType));
     }
 
     public void setMavenSession(final MavenSession mavenSession) {
         this.mavenSession = mavenSession;
+        this.config = null;
     }
 
     @Override
@@ -116,6 +177,16 @@ public class ManipulationSession
                         .getUserProperties();
     }
 
+    @Override
+    public RefInterner getRefInterner() {
+        return refInterner;
+    }
+
+    @Override
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
     public void setProjects(final List<Project> projects) {
         this.projects = projects;
     }
@@ -162,6 +233,20 @@ public class ManipulationSession
                         .getLocalRepository();
     }
 
+    /**
+     * @param report the JSON alignment report written (or restored from the result cache) by this run.
+     */
+    public void setReport(final File report) {
+        this.report = report;
+    }
+
+    /**
+     * @return the JSON alignment report written by this run, or null if it did not write one.
+     */
+    public File getReport() {
+        return report;
+    }
+
     /**
      * Used by extension ManipulatingEventSpy to store any errors during project construction and manipulation
      *
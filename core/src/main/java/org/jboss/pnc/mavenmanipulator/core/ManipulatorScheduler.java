@@ -0,0 +1,195 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationException;
+import org.jboss.pnc.mavenmanipulator.common.model.Project;
+import org.jboss.pnc.mavenmanipulator.common.util.MetricsRegistry;
+import org.jboss.pnc.mavenmanipulator.core.impl.Manipulator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the ordered manipulators, optionally running those whose declared {@link Manipulator#getReads() reads} and
+ * {@link Manipulator#getWrites() writes} do not conflict concurrently. A manipulator is only started once every
+ * earlier manipulator that it conflicts with has completed, so the result is the same as running them in order.
+ */
+final class ManipulatorScheduler {
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final List<Manipulator> manipulators;
+
+    /**
+     * For each manipulator, the indices of the earlier manipulators it must run after.
+     */
+    private final List<List<Integer>> predecessors;
+
+    private final boolean sequential;
+
+    private final MetricsRegistry metrics;
+
+    ManipulatorScheduler(List<Manipulator> manipulators, boolean concurrent) {
+        this(manipulators, concurrent, new MetricsRegistry());
+    }
+
+    /**
+     * @param manipulators the manipulators, in order.
+     * @param concurrent whether non-conflicting manipulators may run concurrently.
+     * @param metrics the registry to record the time spent in (and whether currently running) each manipulator.
+     */
+    ManipulatorScheduler(List<Manipulator> manipulators, boolean concurrent, MetricsRegistry metrics) {
+        this.manipulators = manipulators;
+        this.metrics = metrics;
+        this.predecessors = new ArrayList<>(manipulators.size());
+
+        boolean chain = true;
+        for (int i = 0; i < manipulators.size(); i++) {
+            final List<Integer> before = new ArrayList<>();
+            for (int j = 0; j < i; j++) {
+                if (conflicts(manipulators.get(j), manipulators.get(i))) {
+                    before.add(j);
+                }
+            }
+            // If every manipulator has to wait for the one before it there is nothing to be gained.
+            if (i > 0 && !before.contains(i - 1)) {
+                chain = false;
+            }
+            predecessors.add(before);
+        }
+        this.sequential = !concurrent || chain;
+    }
+
+    /**
+     * Whether the later manipulator must wait for the earlier one i.e. either writes a resource the other reads or
+     * writes.
+     */
+    static boolean conflicts(Manipulator earlier, Manipulator later) {
+        return !Collections.disjoint(earlier.getWrites(), later.getReads())
+                || !Collections.disjoint(earlier.getWrites(), later.getWrites())
+                || !Collections.disjoint(earlier.getReads(), later.getWrites());
+    }
+
+    List<Integer> getPredecessors(int index) {
+        return Collections.unmodifiableList(predecessors.get(index));
+    }
+
+    boolean isSequential() {
+        return sequential;
+    }
+
+    /**
+     * Applies the manipulators to the projects.
+     *
+     * @param projects the projects to apply the changes to.
+     * @return the set of changed projects.
+     * @throws ManipulationException if an error occurs ; if several manipulators fail the first in execution order
+     *         is reported.
+     */
+    Set<Project> apply(List<Project> projects) throws ManipulationException {
+        final Set<Project> changed = new HashSet<>();
+
+        if (sequential) {
+            for (final Manipulator manipulator : manipulators) {
+                addChanged(changed, run(manipulator, projects));
+            }
+            return changed;
+        }
+
+        final ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        // Manipulators are largely waiting on remote calls or file IO so allow at least two to overlap even on a single
+        // processor. A manipulator only occupies a thread once its predecessors have completed so capping the pool
+        // can only delay, never block, the others.
+        final ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(manipulators.size(), Math.max(2, Runtime.getRuntime().availableProcessors())),
+                r -> {
+                    // Retain the class loader of the caller (e.g. the extension realm) for the manipulators.
+                    final Thread thread = new Thread(r);
+                    thread.setContextClassLoader(loader);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        try {
+            final List<CompletableFuture<Set<Project>>> futures = new ArrayList<>(manipulators.size());
+            for (int i = 0; i < manipulators.size(); i++) {
+                final Manipulator manipulator = manipulators.get(i);
+                final CompletableFuture<?>[] before = predecessors.get(i)
+                        .stream()
+                        .map(futures::get)
+                        .toArray(CompletableFuture[]::new);
+
+                futures.add(CompletableFuture.allOf(before).thenApplyAsync(v -> {
+                    try {
+                        return run(manipulator, projects);
+                    } catch (ManipulationException e) {
+                        throw new CompletionException(e);
+                    }
+                }, executor));
+            }
+
+            // Wait for every manipulator so none are still running once this returns, reporting the first failure.
+            ExecutionException failure = null;
+            for (final CompletableFuture<Set<Project>> future : futures) {
+                try {
+                    addChanged(changed, future.get());
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+            }
+            if (failure != null) {
+                if (failure.getCause() instanceof ManipulationException) {
+                    throw (ManipulationException) failure.getCause();
+                } else if (failure.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) failure.getCause();
+                }
+                throw new ManipulationException("Caught exception running manipulators", failure.getCause());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ManipulationException("Interrupted running manipulators", e);
+        } finally {
+            executor.shutdownNow();
+        }
+        return changed;
+    }
+
+    private Set<Project> run(Manipulator manipulator, List<Project> projects) throws ManipulationException {
+        logger.info("Running manipulator {}", manipulator.getClass().getName());
+        try (MetricsRegistry.Context ignored = metrics
+                .timer("manipulator." + manipulator.getClass().getSimpleName())
+                .start()) {
+            return manipulator.applyChanges(projects);
+        }
+    }
+
+    private static void addChanged(Set<Project> changed, Set<Project> mChanged) {
+        if (mChanged != null) {
+            changed.addAll(mChanged);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+import org.jboss.pnc.mavenmanipulator.common.util.MetricsRegistry;
+import org.jboss.pnc.mavenmanipulator.common.util.MetricsRegistry.Sample;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Publishes the {@link MetricsRegistry} of a run while it is in progress; as a JMX MBean named
+ * {@value #OBJECT_NAME} (with an attribute per metric, and a <code>run</code> key added if several runs within the JVM
+ * are in progress) and, optionally, by periodically writing the metrics in the
+ * Prometheus text format to {@value #PROMETHEUS_FILE} in the target directory. The file is replaced atomically so a
+ * reader never sees a partial file.
+ */
+final class MetricsExporter
+        implements AutoCloseable {
+    static final String OBJECT_NAME = "org.jboss.pnc.mavenmanipulator:type=Metrics";
+
+    static final String PROMETHEUS_FILE = "manipulation-metrics.prom";
+
+    private static final String PREFIX = "pme_";
+
+    private static final AtomicInteger RUNS = new AtomicInteger();
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final MetricsRegistry metrics;
+
+    private final File file;
+
+    private ObjectName registered;
+
+    private ScheduledExecutorService flusher;
+
+    /**
+     * @param metrics the metrics to publish.
+     * @param file the file to write the metrics to, or null.
+     */
+    MetricsExporter(MetricsRegistry metrics, File file) {
+        this.metrics = metrics;
+        this.file = file;
+    }
+
+    /**
+     * @param jmx whether to register the MBean.
+     * @param interval the interval, in seconds, at which to write the file.
+     * @return this exporter.
+     */
+    MetricsExporter start(boolean jmx, long interval) {
+        if (jmx) {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            try {
+                ObjectName name = new ObjectName(OBJECT_NAME);
+                while (registered == null) {
+                    try {
+                        server.registerMBean(new MetricsMBean(), name);
+                        registered = name;
+                    } catch (InstanceAlreadyExistsException e) {
+                        // Another run within this JVM is in progress (e.g. the CLI batch mode) so number this one.
+                        name = new ObjectName(OBJECT_NAME + ",run=" + RUNS.incrementAndGet());
+                    }
+                }
+                logger.info("Publishing metrics as MBean {}", registered);
+            } catch (JMException e) {
+                logger.warn("Unable to register metrics MBean {}", OBJECT_NAME, e);
+            }
+        }
+        if (file != null && interval > 0) {
+            flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                final Thread thread = new Thread(r, "metrics-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.SECONDS);
+        }
+        return this;
+    }
+
+    /**
+     * @return the name the MBean was registered as, or null if it was not.
+     */
+    ObjectName getObjectName() {
+        return registered;
+    }
+
+    /**
+     * Writes the current metrics to the file. Failures are logged rather than failing the run.
+     */
+    void flush() {
+        try {
+            final Path target = file.toPath();
+            final Path parent = target.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            final Path temp = Files.createTempFile(parent, PROMETHEUS_FILE, ".tmp");
+            try {
+                Files.write(temp, toPrometheus(metrics.sample()).getBytes(StandardCharsets.UTF_8));
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            logger.warn("Unable to write metrics to {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Stops publishing the metrics, writing the final values to the file.
+     */
+    @Override
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+            flush();
+        }
+        if (registered != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(registered);
+            } catch (JMException e) {
+                logger.debug("Unable to unregister metrics MBean {}", registered, e);
+            }
+        }
+    }
+
+    /**
+     * @param samples the metric values.
+     * @return the values in the Prometheus text exposition format.
+     */
+    static String toPrometheus(List<Sample> samples) {
+        final StringBuilder builder = new StringBuilder();
+        for (final Sample sample : samples) {
+            final String name = metricName(sample.getName());
+            builder.append("# TYPE ")
+                    .append(name)
+                    .append(' ')
+                    .append(sample.getType() == MetricsRegistry.Type.COUNTER ? "counter" : "gauge")
+                    .append('\n')
+                    .append(name)
+                    .append(' ')
+                    .append(sample.getValue())
+                    .append('\n');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @param name the dotted metric name e.g. <code>manipulator.DependencyManipulator.seconds</code>
+     * @return a valid Prometheus metric name e.g. <code>pme_manipulator_DependencyManipulator_seconds</code>
+     */
+    static String metricName(String name) {
+        final StringBuilder builder = new StringBuilder(PREFIX.length() + name.length()).append(PREFIX);
+        for (int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            builder.append((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') ? c : '_');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Exposes each metric as a read only attribute. As metrics are created on first use the attributes are
+     * determined each time they are queried.
+     */
+    private final class MetricsMBean
+            implements DynamicMBean {
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            for (final Sample sample : metrics.sample()) {
+                if (sample.getName().equals(attribute)) {
+                    return sample.getValue();
+                }
+            }
+            throw new AttributeNotFoundException(attribute);
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException("Metric " + attribute.getName() + " is read only");
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            final List<String> names = Arrays.asList(attributes);
+            final AttributeList result = new AttributeList();
+            for (final Sample sample : metrics.sample()) {
+                if (names.contains(sample.getName())) {
+                    result.add(new Attribute(sample.getName(), sample.getValue()));
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+            throw new ReflectionException(new NoSuchMethodException(actionName));
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            final List<Sample> samples = metrics.sample();
+            final MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[samples.size()];
+            for (int i = 0; i < attributes.length; i++) {
+                final Sample sample = samples.get(i);
+                attributes[i] = new MBeanAttributeInfo(
+                        sample.getName(),
+                        sample.getValue().getClass().getName(),
+                        sample.getType() == MetricsRegistry.Type.COUNTER ? "Counter" : "Gauge",
+                        true,
+                        false,
+                        false);
+            }
+            return new MBeanInfo(
+                    MetricsRegistry.class.getName(),
+                    "Metrics of the manipulation in progress",
+                    attributes,
+                    null,
+                    null,
+                    null);
+        }
+    }
+}
@@ -0,0 +1,463 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.model.BuildBase;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.ModelBase;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.Profile;
+import org.apache.maven.settings.Settings;
+import org.apache.maven.settings.io.xpp3.SettingsXpp3Writer;
+import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationException;
+import org.jboss.pnc.mavenmanipulator.common.model.Project;
+import org.jboss.pnc.mavenmanipulator.common.util.ManifestUtils;
+import org.jboss.pnc.mavenmanipulator.core.state.GroovyState;
+import org.jboss.pnc.mavenmanipulator.core.state.RESTState;
+import org.jboss.pnc.mavenmanipulator.core.state.RangeResolverState;
+import org.jboss.pnc.mavenmanipulator.core.state.VersioningState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches the files written by a manipulation keyed by a fingerprint of its inputs, so that a later run with the same
+ * inputs can restore them rather than running the manipulators again.
+ * <p>
+ * The files written are determined by comparing the state of the project directory (excluding any {@code .git}
+ * directory) before and after the run. An entry consists of a copy of each file written and a list of the files
+ * deleted; entries are created in a temporary directory and moved into place so concurrent runs do not see partial
+ * entries.
+ * <p>
+ * Lookups whose responses are not part of the fingerprint, i.e. REST alignment and the remote metadata read for
+ * incremental suffixes and version ranges, make the result uncacheable; see {@link #uncachedLookups}.
+ */
+final class ResultCache {
+    private static final String FILES = "files";
+
+    private static final String DELETED = "deleted.txt";
+
+    /**
+     * Allow for file systems with a coarse modification time resolution.
+     */
+    private static final long MODIFICATION_RESOLUTION = 2000;
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final Path cache;
+
+    private final Path root;
+
+    private final boolean verify;
+
+    private Map<String, FileState> before;
+
+    private String key;
+
+    private final Set<Path> restored = new HashSet<>();
+
+    /**
+     * @param cache the directory containing the entries.
+     * @param root the project directory.
+     * @param verify if true, existing entries are not restored but compared with the result of the run.
+     */
+    ResultCache(File cache, File root, boolean verify) {
+        this.cache = cache.toPath().toAbsolutePath().normalize();
+        this.root = root.toPath().toAbsolutePath().normalize();
+        this.verify = verify;
+    }
+
+    /**
+     * Records the state of the project directory. Must be called before anything is modified.
+     *
+     * @throws ManipulationException if an error occurs.
+     */
+    void snapshot() throws ManipulationException {
+        before = scan(System.currentTimeMillis() - MODIFICATION_RESOLUTION);
+    }
+
+    /**
+     * Determines whether the result of the run depends upon remote lookups that are not part of the fingerprint, in
+     * which case the result must neither be restored nor recorded.
+     *
+     * @param session the session of the run.
+     * @param projects the projects found.
+     * @return a description of the lookups, or null if there are none.
+     */
+    static String uncachedLookups(ManipulationSession session, List<Project> projects) {
+        final Properties userProperties = session.getUserProperties();
+        if (!userProperties.getProperty(RESTState.REST_URL, "").isEmpty()) {
+            return "REST lookups (" + RESTState.REST_URL + ')';
+        }
+        if (!userProperties.getProperty(VersioningState.INCREMENT_SERIAL_SUFFIX_SYSPROP, "").isEmpty()) {
+            return "metadata lookups (" + VersioningState.INCREMENT_SERIAL_SUFFIX_SYSPROP + ')';
+        }
+        final GroovyState groovyState = session.getState(GroovyState.class);
+        if (groovyState != null && groovyState.isEnabled()) {
+            // A script may be resolved remotely and may read or write anything, so its effect can not be fingerprinted.
+            return "Groovy scripts (" + groovyState.getGroovyScripts() + ')';
+        }
+        final RangeResolverState rangeResolverState = session.getState(RangeResolverState.class);
+        if (rangeResolverState != null && rangeResolverState.isEnabled() && hasVersionRanges(projects)) {
+            return "metadata lookups (version ranges)";
+        }
+        return null;
+    }
+
+    /**
+     * Computes the fingerprint of the inputs of the run.
+     *
+     * @param userProperties the effective user properties, including those from any configuration file.
+     * @param settings the Maven settings, or null.
+     * @param repositories the remote repositories, or null.
+     * @param projects the projects found.
+     * @param files the other files the run depends upon e.g. the remote and extra BOMs and the files edited by the XML
+     *        and JSON manipulators.
+     * @throws ManipulationException if an error occurs.
+     */
+    void fingerprint(
+            Properties userProperties,
+            Settings settings,
+            List<ArtifactRepository> repositories,
+            List<Project> projects,
+            Collection<File> files) throws ManipulationException {
+        final MessageDigest digest = digest();
+        update(digest, ManifestUtils.getManifestInformation(ResultCache.class));
+
+        final Map<String, String> properties = new TreeMap<>();
+        userProperties.stringPropertyNames()
+                .stream()
+                .filter(k -> !k.equals(ManipulationManager.RESULT_CACHE)
+                        && !k.equals(ManipulationManager.RESULT_CACHE_VERIFY))
+                .forEach(k -> properties.put(k, userProperties.getProperty(k)));
+        properties.forEach((k, v) -> update(digest, k + '=' + v));
+
+        if (repositories != null) {
+            for (final ArtifactRepository repository : repositories) {
+                update(digest, repository.getId() + '=' + repository.getUrl());
+            }
+        }
+        try {
+            if (settings != null) {
+                final StringWriter writer = new StringWriter();
+                new SettingsXpp3Writer().write(writer, settings);
+                update(digest, writer.toString());
+            }
+            for (final Project project : projects) {
+                update(digest, relative(project.getPom().toPath()));
+                digest.update(Files.readAllBytes(project.getPom().toPath()));
+            }
+            for (final File file : files) {
+                if (file.isFile()) {
+                    digest.update(Files.readAllBytes(file.toPath()));
+                } else {
+                    update(digest, "missing " + file);
+                }
+            }
+        } catch (IOException e) {
+            throw new ManipulationException("Unable to fingerprint inputs", e);
+        }
+        key = hex(digest.digest());
+        logger.debug("Result cache key is {}", key);
+    }
+
+    /**
+     * @return the fingerprint of the inputs of the run.
+     */
+    String getKey() {
+        return key;
+    }
+
+    /**
+     * Restores the files of a previous run with the same inputs, unless verifying.
+     *
+     * @return true if the files were restored.
+     * @throws ManipulationException if an error occurs.
+     */
+    boolean restore() throws ManipulationException {
+        final Path entry = cache.resolve(key);
+        if (verify || !Files.isDirectory(entry)) {
+            return false;
+        }
+        logger.info("Restoring result of a previous run from {}", entry);
+
+        try {
+            final Path files = entry.resolve(FILES);
+            for (final String path : list(files)) {
+                final Path target = root.resolve(path);
+                Files.createDirectories(target.getParent());
+                Files.copy(files.resolve(path), target, StandardCopyOption.REPLACE_EXISTING);
+                restored.add(target.toAbsolutePath().normalize());
+            }
+            for (final String path : Files.readAllLines(entry.resolve(DELETED), StandardCharsets.UTF_8)) {
+                Files.deleteIfExists(root.resolve(path));
+            }
+        } catch (IOException e) {
+            throw new ManipulationException("Unable to restore result from {}", entry, e);
+        }
+        return true;
+    }
+
+    /**
+     * @param file the file to check.
+     * @return true if the file was written by {@link #restore()}.
+     */
+    boolean isRestored(File file) {
+        return restored.contains(file.toPath().toAbsolutePath().normalize());
+    }
+
+    /**
+     * Records the files written by the run in a new entry or, if verifying, compares them with the existing entry.
+     *
+     * @throws ManipulationException if an error occurs or verification fails.
+     */
+    void record() throws ManipulationException {
+        final Map<String, FileState> after = scan(Long.MAX_VALUE);
+        final List<String> written = new ArrayList<>();
+        final List<String> deleted = new ArrayList<>();
+
+        try {
+            for (final Map.Entry<String, FileState> file : after.entrySet()) {
+                final FileState previous = before.get(file.getKey());
+                if (previous == null || previous.differs(root.resolve(file.getKey()))) {
+                    written.add(file.getKey());
+                }
+            }
+            before.keySet().stream().filter(k -> !after.containsKey(k)).forEach(deleted::add);
+
+            final Path entry = cache.resolve(key);
+            if (Files.isDirectory(entry)) {
+                if (verify) {
+                    compare(entry, written, deleted);
+                }
+                return;
+            }
+
+            Files.createDirectories(cache);
+            final Path temp = Files.createTempDirectory(cache, ".entry");
+            for (final String path : written) {
+                final Path target = temp.resolve(FILES).resolve(path);
+                Files.createDirectories(target.getParent());
+                Files.copy(root.resolve(path), target);
+            }
+            Files.write(temp.resolve(DELETED), deleted, StandardCharsets.UTF_8);
+            try {
+                Files.move(temp, entry);
+                logger.info(
+                        "Recorded {} written and {} deleted files in result cache {}",
+                        written.size(),
+                        deleted.size(),
+                        entry);
+            } catch (IOException e) {
+                // Another run recorded the same result.
+                logger.debug("Unable to record result in {}: {}", entry, e.getMessage());
+                FileUtils.deleteQuietly(temp.toFile());
+            }
+        } catch (IOException e) {
+            throw new ManipulationException("Unable to record result in {}", cache, e);
+        }
+    }
+
+    private void compare(Path entry, List<String> written, List<String> deleted)
+            throws IOException, ManipulationException {
+        final Path files = entry.resolve(FILES);
+        final TreeSet<String> differences = new TreeSet<>(list(files));
+        differences.addAll(written);
+
+        for (final String path : written) {
+            final Path expected = files.resolve(path);
+            if (Files.isRegularFile(expected)
+                    && Arrays.equals(Files.readAllBytes(expected), Files.readAllBytes(root.resolve(path)))) {
+                differences.remove(path);
+            }
+        }
+        final TreeSet<String> expectedDeleted = new TreeSet<>(
+                Files.readAllLines(entry.resolve(DELETED), StandardCharsets.UTF_8));
+        if (!expectedDeleted.equals(new TreeSet<>(deleted))) {
+            differences.add(DELETED);
+        }
+
+        if (!differences.isEmpty()) {
+            throw new ManipulationException(
+                    "Result cache verification failed ; result differs from {} in {}",
+                    entry,
+                    differences);
+        }
+        logger.info("Result cache verification succeeded against {}", entry);
+    }
+
+    /**
+     * @param recent files modified after this time also have their content hashed so changes made within the
+     *        modification time resolution are detected.
+     */
+    private Map<String, FileState> scan(long recent) throws ManipulationException {
+        final Map<String, FileState> result = new HashMap<>();
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    if (dir.getFileName() != null && ".git".equals(dir.getFileName().toString())
+                            || dir.equals(cache)) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    if (attrs.isRegularFile()) {
+                        final long modified = attrs.lastModifiedTime().toMillis();
+                        result.put(
+                                relative(file),
+                                new FileState(modified, attrs.size(), modified >= recent ? hash(file) : null));
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new ManipulationException("Unable to scan {}", root, e);
+        }
+        return result;
+    }
+
+    private static boolean hasVersionRanges(List<Project> projects) {
+        for (final Project project : projects) {
+            final Model model = project.getModel();
+            final List<ModelBase> bases = new ArrayList<>(model.getProfiles());
+            bases.add(model);
+
+            for (final ModelBase base : bases) {
+                final List<Dependency> dependencies = new ArrayList<>(base.getDependencies());
+                if (base.getDependencyManagement() != null) {
+                    dependencies.addAll(base.getDependencyManagement().getDependencies());
+                }
+                final List<Plugin> plugins = new ArrayList<>();
+                final BuildBase build = base instanceof Model ? ((Model) base).getBuild() : ((Profile) base).getBuild();
+                if (build != null) {
+                    plugins.addAll(build.getPlugins());
+                    if (build.getPluginManagement() != null) {
+                        plugins.addAll(build.getPluginManagement().getPlugins());
+                    }
+                }
+                // A range may also be held by a property.
+                if (base.getProperties().values().stream().anyMatch(ResultCache::isVersionRange)
+                        || dependencies.stream().anyMatch(d -> isVersionRange(d.getVersion()))
+                        || plugins.stream().anyMatch(p -> isVersionRange(p.getVersion()))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isVersionRange(Object version) {
+        if (version == null) {
+            return false;
+        }
+        final String value = version.toString().trim();
+        return value.startsWith("[") || value.startsWith("(");
+    }
+
+    private String relative(Path path) {
+        return root.relativize(path.toAbsolutePath().normalize()).toString().replace(File.separatorChar, '/');
+    }
+
+    private static List<String> list(Path directory) throws IOException {
+        final List<String> result = new ArrayList<>();
+        if (Files.isDirectory(directory)) {
+            Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    result.add(directory.relativize(file).toString().replace(File.separatorChar, '/'));
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+        return result;
+    }
+
+    private static byte[] hash(Path file) throws IOException {
+        return digest().digest(Files.readAllBytes(file));
+    }
+
+    private static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static String hex(byte[] bytes) {
+        final StringBuilder result = new StringBuilder(bytes.length * 2);
+        for (final byte b : bytes) {
+            result.append(String.format("%02x", b));
+        }
+        return result.toString();
+    }
+
+    private static final class FileState {
+        private final long modified;
+
+        private final long size;
+
+        private final byte[] hash;
+
+        private FileState(long modified, long size, byte[] hash) {
+            this.modified = modified;
+            this.size = size;
+            this.hash = hash;
+        }
+
+        private boolean differs(Path file) throws IOException {
+            if (file.toFile().lastModified() != modified || Files.size(file) != size) {
+                return true;
+            }
+            return hash != null && !Arrays.equals(hash, hash(file));
+        }
+    }
+}
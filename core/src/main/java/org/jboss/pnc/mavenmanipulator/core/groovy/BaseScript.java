@@ -52,6 +52,8 @@ public abstract class BaseScript extends BaseScriptUtils {
 
     private InvocationStage stage;
 
+    private ReactorIndex reactorIndex;
+
     /**
      * Get the modelIO instance for remote artifact resolving.
      */
@@ -131,6 +133,20 @@ public abstract class BaseScript extends BaseScriptUtils {
         return stage;
     }
 
+    /**
+     * Get the index over the dependencies and plugins of all projects. This is shared by all scripts run at the
+     * current stage.
+     *
+     * @return a {@link ReactorIndex} reference.
+     */
+    @Override
+    public ReactorIndex getReactorIndex() {
+        if (reactorIndex == null) {
+            reactorIndex = new ReactorIndex(projects);
+        }
+        return reactorIndex;
+    }
+
     /**
      * Gets a configured VersionTranslator to make REST calls to DA
      *
@@ -165,11 +181,39 @@ public abstract class BaseScript extends BaseScriptUtils {
             Project project,
             InvocationStage stage)
             throws ManipulationException {
+        setValues(pomIO, fileIO, modelIO, session, projects, project, stage, null);
+    }
+
+    /**
+     * Internal use only - the {@link InitialGroovyManipulator} uses this to
+     * initialise the values
+     *
+     * @param pomIO the pomIO instance.
+     * @param fileIO the fileIO instance.
+     * @param modelIO the modelIO instance.
+     * @param session the Session instance.
+     * @param projects ArrayList of Project instances
+     * @param project Current project
+     * @param stage the current InvocationStage of the groovy script
+     * @param reactorIndex the index shared by the scripts of this stage, or null to create one on demand
+     * @throws ManipulationException if an error occurs getting the base directory
+     */
+    public void setValues(
+            PomIO pomIO,
+            FileIO fileIO,
+            ModelIO modelIO,
+            ManipulationSession session,
+            List<Project> projects,
+            Project project,
+            InvocationStage stage,
+            ReactorIndex reactorIndex)
+            throws ManipulationException {
         this.fileIO = fileIO;
         this.pomIO = pomIO;
         this.modelIO = modelIO;
         this.session = session;
         this.projects = projects;
+        this.reactorIndex = reactorIndex;
 
         if (project != null) {
             this.gav = project.getKey();
@@ -18,6 +18,7 @@ package org.jboss.pnc.mavenmanipulator.core.groovy;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
 
 import org.commonjava.atlas.maven.ident.ref.ProjectRef;
 import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
@@ -55,78 +56,7 @@ public abstract class BaseScriptUtils extends Script implements MavenBaseScript
      */
     public void inlineProperty(Project currentProject, ProjectRef groupArtifact) throws ManipulationException {
         logger.debug("Inlining property for {} with reference {}", currentProject, groupArtifact);
-        try {
-            currentProject.getResolvedManagedDependencies()
-                    .entrySet()
-                    .stream()
-                    .filter(
-                            a -> (groupArtifact.getArtifactId().equals("*")
-                                    && a.getKey().getGroupId().equals(groupArtifact.getGroupId())) ||
-                                    (a.getKey().asProjectRef().equals(groupArtifact)
-                                            && a.getValue().getVersion().contains("$")))
-                    .forEach(a -> {
-                        logger.debug("Found managed artifact {} (original dependency {})", a.getKey(), a.getValue());
-                        a.getValue()
-                                .setVersion(
-                                        PropertyResolver.resolvePropertiesUnchecked(
-                                                getSession(),
-                                                currentProject.getInheritedList(),
-                                                a.getValue().getVersion()));
-                    });
-            currentProject.getResolvedDependencies()
-                    .entrySet()
-                    .stream()
-                    .filter(
-                            a -> (groupArtifact.getArtifactId().equals("*")
-                                    && a.getKey().getGroupId().equals(groupArtifact.getGroupId())) ||
-                                    (a.getKey().asProjectRef().equals(groupArtifact)
-                                            && a.getValue().getVersion().contains("$")))
-                    .forEach(a -> {
-                        logger.debug("Found artifact {} (original dependency {})", a.getKey(), a.getValue());
-                        a.getValue()
-                                .setVersion(
-                                        PropertyResolver.resolvePropertiesUnchecked(
-                                                getSession(),
-                                                currentProject.getInheritedList(),
-                                                a.getValue().getVersion()));
-                    });
-            currentProject.getResolvedManagedPlugins()
-                    .entrySet()
-                    .stream()
-                    .filter(
-                            a -> (groupArtifact.getArtifactId().equals("*")
-                                    && a.getKey().getGroupId().equals(groupArtifact.getGroupId())) ||
-                                    (a.getKey().asProjectRef().equals(groupArtifact)
-                                            && a.getValue().getVersion().contains("$")))
-                    .forEach(a -> {
-                        logger.debug("Found managed plugin {} (original dependency {})", a.getKey(), a.getValue());
-                        a.getValue()
-                                .setVersion(
-                                        PropertyResolver.resolvePropertiesUnchecked(
-                                                getSession(),
-                                                currentProject.getInheritedList(),
-                                                a.getValue().getVersion()));
-                    });
-            currentProject.getResolvedPlugins()
-                    .entrySet()
-                    .stream()
-                    .filter(
-                            a -> (groupArtifact.getArtifactId().equals("*")
-                                    && a.getKey().getGroupId().equals(groupArtifact.getGroupId())) ||
-                                    (a.getKey().asProjectRef().equals(groupArtifact)
-                                            && a.getValue().getVersion().contains("$")))
-                    .forEach(a -> {
-                        logger.debug("Found plugin {} (original dependency {})", a.getKey(), a.getValue());
-                        a.getValue()
-                                .setVersion(
-                                        PropertyResolver.resolvePropertiesUnchecked(
-                                                getSession(),
-                                                currentProject.getInheritedList(),
-                                                a.getValue().getVersion()));
-                    });
-        } catch (ManipulationUncheckedException e) {
-            throw (ManipulationException) e.getCause();
-        }
+        inline(currentProject, getReactorIndex().find(groupArtifact), v -> v.contains("$"));
     }
 
     /**
@@ -140,61 +70,28 @@ public abstract class BaseScriptUtils extends Script implements MavenBaseScript
      */
     public void inlineProperty(Project currentProject, String propertyKey) throws ManipulationException {
         logger.debug("Inlining property for {} with reference {}", currentProject, propertyKey);
+        inline(currentProject, getReactorIndex().findByProperty(propertyKey), v -> v.equals("${" + propertyKey + "}"));
+    }
+
+    /**
+     * Resolves the versions of those entries declared directly (i.e. not in a profile) in the current project.
+     */
+    private void inline(Project currentProject, List<ReactorIndex.Entry> entries, Predicate<String> filter)
+            throws ManipulationException {
         try {
-            currentProject.getResolvedManagedDependencies()
-                    .entrySet()
-                    .stream()
-                    .filter(a -> a.getValue().getVersion().equals("${" + propertyKey + "}"))
-                    .forEach(a -> {
-                        logger.debug("Found managed artifact {} (original dependency {})", a.getKey(), a.getValue());
-                        a.getValue()
-                                .setVersion(
-                                        PropertyResolver.resolvePropertiesUnchecked(
-                                                getSession(),
-                                                currentProject.getInheritedList(),
-                                                a.getValue().getVersion()));
-                    });
-            currentProject.getResolvedDependencies()
-                    .entrySet()
-                    .stream()
-                    .filter(a -> a.getValue().getVersion().equals("${" + propertyKey + "}"))
-                    .forEach(a -> {
-                        logger.debug("Found artifact {} (original dependency {})", a.getKey(), a.getValue());
-                        a.getValue()
-                                .setVersion(
-                                        PropertyResolver.resolvePropertiesUnchecked(
-                                                getSession(),
-                                                currentProject.getInheritedList(),
-                                                a.getValue().getVersion()));
-                    });
-            currentProject.getResolvedManagedPlugins()
-                    .entrySet()
-                    .stream()
-                    .filter(
-                            a -> (a.getValue().getVersion() != null)
-                                    && (a.getValue().getVersion().equals("${" + propertyKey + "}")))
-                    .forEach(a -> {
-                        logger.debug("Found managed plugin {} (original dependency {})", a.getKey(), a.getValue());
-                        a.getValue()
-                                .setVersion(
-                                        PropertyResolver.resolvePropertiesUnchecked(
-                                                getSession(),
-                                                currentProject.getInheritedList(),
-                                                a.getValue().getVersion()));
-                    });
-            currentProject.getResolvedPlugins()
-                    .entrySet()
-                    .stream()
-                    .filter(a -> a.getValue().getVersion().equals("${" + propertyKey + "}"))
-                    .forEach(a -> {
-                        logger.debug("Found plugin {} (original dependency {})", a.getKey(), a.getValue());
-                        a.getValue()
-                                .setVersion(
-                                        PropertyResolver.resolvePropertiesUnchecked(
-                                                getSession(),
-                                                currentProject.getInheritedList(),
-                                                a.getValue().getVersion()));
-                    });
+            for (final ReactorIndex.Entry entry : entries) {
+                final String version = entry.getVersion();
+                if (entry.getProject() != currentProject || entry.getProfile() != null || version == null
+                        || !filter.test(version)) {
+                    continue;
+                }
+                logger.debug("Found {} with version {}", entry, version);
+                entry.setVersion(
+                        PropertyResolver.resolvePropertiesUnchecked(
+                                getSession(),
+                                currentProject.getInheritedList(),
+                                version));
+            }
         } catch (ManipulationUncheckedException e) {
             throw (ManipulationException) e.getCause();
         }
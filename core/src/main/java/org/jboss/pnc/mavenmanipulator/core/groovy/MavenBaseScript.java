@@ -68,4 +68,13 @@ public interface MavenBaseScript extends CommonBaseScript {
      * @return a {@link MavenSessionHandler} reference.
      */
     MavenSessionHandler getSession();
+
+    /**
+     * Get the index over the dependencies and plugins of all projects.
+     *
+     * @return a {@link ReactorIndex} reference.
+     */
+    default ReactorIndex getReactorIndex() {
+        return new ReactorIndex(getProjects());
+    }
 }
@@ -0,0 +1,483 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.core.groovy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.maven.model.BuildBase;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.ModelBase;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginManagement;
+import org.apache.maven.model.Profile;
+import org.commonjava.atlas.maven.ident.ref.ProjectRef;
+import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectRef;
+import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationException;
+import org.jboss.pnc.mavenmanipulator.common.model.Project;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import lombok.Getter;
+
+/**
+ * Index over the dependencies and plugins (managed or not, in the project or its potentially active profiles) of
+ * every project in the reactor, so that scripts may find them by group and artifact, or by a property their version
+ * references, without resolving every project for each lookup.
+ * <p>
+ * The index is built on first use and shared by all scripts of an invocation stage. Scripts are free to modify the
+ * models directly: each lookup first checks, without resolving anything, whether a project's dependency or plugin lists
+ * or properties have been replaced, resized or changed, and whether the coordinates of every indexed entry still
+ * match its model element, and re-indexes the projects that have changed. Versions changed through
+ * {@link Entry#setVersion(String)} are re-indexed immediately.
+ */
+public class ReactorIndex {
+    private static final Pattern PROPERTY = Pattern.compile("\\$\\{([^}]+)}");
+
+    private static final String WILDCARD = "*";
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final List<Project> projects;
+
+    private final Map<Project, List<Entry>> byProject = new LinkedHashMap<>();
+
+    private final Map<Project, List<Object>> shapes = new HashMap<>();
+
+    private final Map<ProjectRef, List<Entry>> byGroupArtifact = new HashMap<>();
+
+    private final Map<String, List<Entry>> byGroup = new HashMap<>();
+
+    private final Map<String, List<Entry>> byProperty = new HashMap<>();
+
+    private boolean built;
+
+    /**
+     * The section of the model an indexed element is declared in.
+     */
+    public enum Kind {
+        DEPENDENCY, MANAGED_DEPENDENCY, PLUGIN, MANAGED_PLUGIN
+    }
+
+    /**
+     * @param projects the projects in the reactor.
+     */
+    public ReactorIndex(List<Project> projects) {
+        this.projects = projects == null ? Collections.emptyList() : projects;
+    }
+
+    /**
+     * Finds the dependencies and plugins with the given group and artifact in any project.
+     *
+     * @param groupArtifact the group and artifact to find. An artifactId may be a wildcard (i.e. '*').
+     * @return the matching entries.
+     * @throws ManipulationException if an error occurs resolving a project.
+     */
+    public List<Entry> find(ProjectRef groupArtifact) throws ManipulationException {
+        return lookup(() -> WILDCARD.equals(groupArtifact.getArtifactId())
+                ? byGroup.get(groupArtifact.getGroupId())
+                : byGroupArtifact.get(new SimpleProjectRef(groupArtifact.getGroupId(), groupArtifact.getArtifactId())));
+    }
+
+    /**
+     * Finds the dependencies or plugins of the given kind with the given group and artifact in any project.
+     *
+     * @param groupArtifact the group and artifact to find. An artifactId may be a wildcard (i.e. '*').
+     * @param kind the section of the model to find them in.
+     * @return the matching entries.
+     * @throws ManipulationException if an error occurs resolving a project.
+     */
+    public List<Entry> find(ProjectRef groupArtifact, Kind kind) throws ManipulationException {
+        final List<Entry> result = new ArrayList<>();
+        for (final Entry entry : find(groupArtifact)) {
+            if (entry.getKind() == kind) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the dependencies and plugins whose version references the property in any project.
+     *
+     * @param property the property name (without <code>${}</code>).
+     * @return the matching entries.
+     * @throws ManipulationException if an error occurs resolving a project.
+     */
+    public List<Entry> findByProperty(String property) throws ManipulationException {
+        return lookup(() -> byProperty.get(property));
+    }
+
+    /**
+     * @param groupArtifact the group and artifact to find. An artifactId may be a wildcard (i.e. '*').
+     * @return the names of the properties referenced by the versions of the matching dependencies and plugins.
+     * @throws ManipulationException if an error occurs resolving a project.
+     */
+    public Set<String> getReferencedProperties(ProjectRef groupArtifact) throws ManipulationException {
+        final Set<String> result = new LinkedHashSet<>();
+        for (final Entry entry : find(groupArtifact)) {
+            result.addAll(entry.getProperties());
+        }
+        return result;
+    }
+
+    /**
+     * Discards the index so that it is rebuilt on the next lookup.
+     */
+    public void invalidate() {
+        built = false;
+        byProject.clear();
+        shapes.clear();
+        byGroupArtifact.clear();
+        byGroup.clear();
+        byProperty.clear();
+    }
+
+    private List<Entry> lookup(Query query) throws ManipulationException {
+        refresh();
+
+        final List<Entry> found = query.get();
+        return found == null ? Collections.emptyList() : new ArrayList<>(found);
+    }
+
+    private void refresh() throws ManipulationException {
+        if (!built) {
+            for (final Project project : projects) {
+                index(project);
+            }
+            built = true;
+            return;
+        }
+
+        final List<Project> changed = new ArrayList<>();
+        boolean propertiesChanged = false;
+        for (final Project project : projects) {
+            final List<Object> shape = shape(project);
+            final List<Object> previous = shapes.get(project);
+            if (!shapeEquals(shape, previous)) {
+                changed.add(project);
+                // Resolution depends upon the properties of the project and its parents, so a change to any
+                // properties may alter the resolved coordinates anywhere.
+                propertiesChanged |= previous == null || !Objects.equals(shape.get(0), previous.get(0));
+            } else if (!isCurrent(project)) {
+                // The coordinates of an element have been changed in place, which the shape does not reveal. This
+                // must be checked for every entry, not just those found, as the element may now match the query.
+                changed.add(project);
+            }
+        }
+        if (propertiesChanged) {
+            logger.debug("Properties have been modified ; rebuilding reactor index");
+            invalidate();
+            refresh();
+        } else {
+            for (final Project project : changed) {
+                logger.debug("Project {} has been modified ; re-indexing", project);
+                index(project);
+            }
+        }
+    }
+
+    private void index(Project project) throws ManipulationException {
+        final List<Entry> previous = byProject.remove(project);
+        if (previous != null) {
+            for (final Entry entry : previous) {
+                unlink(entry);
+            }
+        }
+
+        final List<Entry> entries = new ArrayList<>();
+        project.getAllResolvedDependencies()
+                .forEach((k, v) -> entries.add(new Entry(project, null, Kind.DEPENDENCY, k, v)));
+        project.getResolvedManagedDependencies()
+                .forEach((k, v) -> entries.add(new Entry(project, null, Kind.MANAGED_DEPENDENCY, k, v)));
+        project.getAllResolvedPlugins().forEach((k, v) -> entries.add(new Entry(project, null, Kind.PLUGIN, k, v)));
+        project.getResolvedManagedPlugins()
+                .forEach((k, v) -> entries.add(new Entry(project, null, Kind.MANAGED_PLUGIN, k, v)));
+        project.getAllResolvedProfileDependencies()
+                .forEach((p, m) -> m.forEach((k, v) -> entries.add(new Entry(project, p, Kind.DEPENDENCY, k, v))));
+        project.getResolvedProfileManagedDependencies()
+                .forEach(
+                        (p, m) -> m.forEach(
+                                (k, v) -> entries.add(new Entry(project, p, Kind.MANAGED_DEPENDENCY, k, v))));
+        project.getAllResolvedProfilePlugins()
+                .forEach((p, m) -> m.forEach((k, v) -> entries.add(new Entry(project, p, Kind.PLUGIN, k, v))));
+        project.getResolvedProfileManagedPlugins()
+                .forEach((p, m) -> m.forEach((k, v) -> entries.add(new Entry(project, p, Kind.MANAGED_PLUGIN, k, v))));
+
+        for (final Entry entry : entries) {
+            link(entry);
+        }
+        byProject.put(project, entries);
+        // Taken after resolving as resolution removes duplicate elements.
+        shapes.put(project, shape(project));
+    }
+
+    private boolean isCurrent(Project project) {
+        for (final Entry entry : byProject.get(project)) {
+            if (!entry.isCurrent()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void link(Entry entry) {
+        byGroupArtifact.computeIfAbsent(entry.getGroupArtifact(), k -> new ArrayList<>()).add(entry);
+        byGroup.computeIfAbsent(entry.getGroupArtifact().getGroupId(), k -> new ArrayList<>()).add(entry);
+        for (final String property : entry.getProperties()) {
+            byProperty.computeIfAbsent(property, k -> new ArrayList<>()).add(entry);
+        }
+    }
+
+    private void unlink(Entry entry) {
+        remove(byGroupArtifact, entry.getGroupArtifact(), entry);
+        remove(byGroup, entry.getGroupArtifact().getGroupId(), entry);
+        for (final String property : entry.getProperties()) {
+            remove(byProperty, property, entry);
+        }
+    }
+
+    private static <K> void remove(Map<K, List<Entry>> map, K key, Entry entry) {
+        final List<Entry> entries = map.get(key);
+        if (entries != null) {
+            entries.remove(entry);
+            if (entries.isEmpty()) {
+                map.remove(key);
+            }
+        }
+    }
+
+    /**
+     * A cheap description of the structure of a project: its properties, then each dependency and plugin list with
+     * its size. Lists are compared by identity so that a replaced list is noticed.
+     */
+    private static List<Object> shape(Project project) {
+        final Model model = project.getModel();
+        final List<Object> shape = new ArrayList<>();
+        int properties = model.getProperties().hashCode();
+        for (final Profile profile : model.getProfiles()) {
+            properties = 31 * properties + profile.getProperties().hashCode();
+        }
+        shape.add(properties);
+
+        addShape(shape, model, model.getBuild());
+        for (final Profile profile : model.getProfiles()) {
+            addShape(shape, profile, profile.getBuild());
+        }
+        return shape;
+    }
+
+    private static void addShape(List<Object> shape, ModelBase base, BuildBase build) {
+        shape.add(base.getDependencies());
+        shape.add(base.getDependencies().size());
+        final DependencyManagement dm = base.getDependencyManagement();
+        shape.add(dm);
+        if (dm != null) {
+            shape.add(dm.getDependencies());
+            shape.add(dm.getDependencies().size());
+        }
+        shape.add(build);
+        if (build != null) {
+            shape.add(build.getPlugins());
+            shape.add(build.getPlugins().size());
+            final PluginManagement pm = build.getPluginManagement();
+            shape.add(pm);
+            if (pm != null) {
+                shape.add(pm.getPlugins());
+                shape.add(pm.getPlugins().size());
+            }
+        }
+    }
+
+    private static boolean shapeEquals(List<Object> shape, List<Object> previous) {
+        if (previous == null || shape.size() != previous.size()) {
+            return false;
+        }
+        for (int i = 0; i < shape.size(); i++) {
+            final Object a = shape.get(i);
+            final Object b = previous.get(i);
+            if (a instanceof Integer ? !a.equals(b) : a != b) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Set<String> properties(String version) {
+        if (version == null || !version.contains("${")) {
+            return Collections.emptySet();
+        }
+        final Set<String> result = new LinkedHashSet<>();
+        final Matcher matcher = PROPERTY.matcher(version);
+        while (matcher.find()) {
+            result.add(matcher.group(1));
+        }
+        return result;
+    }
+
+    @FunctionalInterface
+    private interface Query {
+        List<Entry> get();
+    }
+
+    /**
+     * A dependency or plugin in a project or one of its profiles.
+     */
+    public final class Entry {
+        /**
+         * The project declaring the element.
+         */
+        @Getter
+        private final Project project;
+
+        /**
+         * The profile declaring the element, or null if declared outside profiles.
+         */
+        @Getter
+        private final Profile profile;
+
+        @Getter
+        private final Kind kind;
+
+        /**
+         * The coordinates of the element, resolved when it was indexed.
+         */
+        @Getter
+        private final ProjectVersionRef ref;
+
+        @Getter
+        private final ProjectRef groupArtifact;
+
+        private final Object element;
+
+        private final String groupId;
+
+        private final String artifactId;
+
+        private String version;
+
+        @Getter
+        private Set<String> properties;
+
+        private Entry(Project project, Profile profile, Kind kind, ProjectVersionRef ref, Dependency dependency) {
+            this(
+                    project,
+                    profile,
+                    kind,
+                    ref,
+                    dependency,
+                    dependency.getGroupId(),
+                    dependency.getArtifactId(),
+                    dependency.getVersion());
+        }
+
+        private Entry(Project project, Profile profile, Kind kind, ProjectVersionRef ref, Plugin plugin) {
+            this(project, profile, kind, ref, plugin, plugin.getGroupId(), plugin.getArtifactId(), plugin.getVersion());
+        }
+
+        private Entry(
+                Project project,
+                Profile profile,
+                Kind kind,
+                ProjectVersionRef ref,
+                Object element,
+                String groupId,
+                String artifactId,
+                String version) {
+            this.project = project;
+            this.profile = profile;
+            this.kind = kind;
+            this.ref = ref;
+            this.groupArtifact = new SimpleProjectRef(ref.getGroupId(), ref.getArtifactId());
+            this.element = element;
+            this.groupId = groupId;
+            this.artifactId = artifactId;
+            this.version = version;
+            this.properties = properties(version);
+        }
+
+        /**
+         * @return the dependency, or null if this is a plugin.
+         */
+        public Dependency getDependency() {
+            return element instanceof Dependency ? (Dependency) element : null;
+        }
+
+        /**
+         * @return the plugin, or null if this is a dependency.
+         */
+        public Plugin getPlugin() {
+            return element instanceof Plugin ? (Plugin) element : null;
+        }
+
+        /**
+         * @return the version as declared in the model (i.e. unresolved).
+         */
+        public String getVersion() {
+            return element instanceof Dependency ? ((Dependency) element).getVersion()
+                    : ((Plugin) element).getVersion();
+        }
+
+        /**
+         * Sets the version of the element in the model, updating the index to match.
+         *
+         * @param newVersion the new version.
+         */
+        public void setVersion(String newVersion) {
+            if (element instanceof Dependency) {
+                ((Dependency) element).setVersion(newVersion);
+            } else {
+                ((Plugin) element).setVersion(newVersion);
+            }
+            for (final String property : properties) {
+                remove(byProperty, property, this);
+            }
+            version = newVersion;
+            properties = properties(newVersion);
+            for (final String property : properties) {
+                byProperty.computeIfAbsent(property, k -> new ArrayList<>()).add(this);
+            }
+        }
+
+        private boolean isCurrent() {
+            if (element instanceof Dependency) {
+                final Dependency d = (Dependency) element;
+                return Objects.equals(groupId, d.getGroupId()) && Objects.equals(artifactId, d.getArtifactId())
+                        && Objects.equals(version, d.getVersion());
+            }
+            final Plugin p = (Plugin) element;
+            return Objects.equals(groupId, p.getGroupId()) && Objects.equals(artifactId, p.getArtifactId())
+                    && Objects.equals(version, p.getVersion());
+        }
+
+        @Override
+        public String toString() {
+            return kind + " " + ref + " in " + project + (profile == null ? "" : " (profile " + profile.getId() + ')');
+        }
+    }
+}
@@ -20,6 +20,7 @@ import static org.jboss.pnc.mavenmanipulator.core.util.IdUtils.ga;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -196,4 +197,14 @@ public class BOMBuilderManipulator
         return 80;
     }
 
+    @Override
+    public Set<Resource> getReads() {
+        return EnumSet.of(Resource.MODEL);
+    }
+
+    @Override
+    public Set<Resource> getWrites() {
+        return EnumSet.of(Resource.MODEL, Resource.OUTPUT);
+    }
+
 }
@@ -35,6 +35,7 @@ import org.jboss.pnc.mavenmanipulator.core.ManipulationSession;
 import org.jboss.pnc.mavenmanipulator.core.groovy.BaseScript;
 import org.jboss.pnc.mavenmanipulator.core.groovy.InvocationPoint;
 import org.jboss.pnc.mavenmanipulator.core.groovy.InvocationStage;
+import org.jboss.pnc.mavenmanipulator.core.groovy.ReactorIndex;
 import org.jboss.pnc.mavenmanipulator.core.state.GroovyState;
 import org.jboss.pnc.mavenmanipulator.io.FileIO;
 import org.jboss.pnc.mavenmanipulator.io.ModelIO;
@@ -113,7 +114,17 @@ public abstract class BaseGroovyManipulator {
         }
     }
 
-    void applyGroovyScript(List<Project> projects, Project project, File groovyScript) throws ManipulationException {
+    /**
+     * Runs a script against the projects.
+     *
+     * @param projects the projects.
+     * @param project the project the script is run for.
+     * @param groovyScript the script.
+     * @param reactorIndex the index over the projects shared by the scripts of this stage, or null.
+     * @throws ManipulationException if an error occurs.
+     */
+    void applyGroovyScript(List<Project> projects, Project project, File groovyScript, ReactorIndex reactorIndex)
+            throws ManipulationException {
         final GroovyShell shell = new GroovyShell();
         final Script script;
         InvocationStage stage;
@@ -150,7 +161,8 @@ public abstract class BaseGroovyManipulator {
                     currentStage = stage;
                 }
 
-                ((BaseScript) script).setValues(pomIO, fileIO, modelIO, session, projects, project, currentStage);
+                ((BaseScript) script)
+                        .setValues(pomIO, fileIO, modelIO, session, projects, project, currentStage, reactorIndex);
             } else {
                 throw new ManipulationException("Cannot cast {} to a BaseScript to set values", groovyScript);
             }
@@ -18,10 +18,19 @@ package org.jboss.pnc.mavenmanipulator.core.impl;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 import static org.apache.commons.lang3.StringUtils.join;
 
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.maven.model.Exclusion;
 import org.apache.maven.model.InputLocationTracker;
@@ -31,9 +40,12 @@ import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
 import org.commonjava.atlas.maven.ident.ref.SimpleProjectRef;
 import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationException;
 import org.jboss.pnc.mavenmanipulator.common.model.Project;
-import org.jboss.pnc.mavenmanipulator.common.util.WildcardMap;
+import org.jboss.pnc.mavenmanipulator.common.util.GlobMap;
 import org.jboss.pnc.mavenmanipulator.core.ManipulationSession;
+import org.jboss.pnc.mavenmanipulator.core.state.CommonState;
 import org.jboss.pnc.mavenmanipulator.core.util.DependencyPluginWrapper;
+import org.jboss.pnc.mavenmanipulator.core.util.OverrideRules;
+import org.jboss.pnc.mavenmanipulator.core.util.OverrideRules.Rule;
 import org.jboss.pnc.mavenmanipulator.core.util.PropertiesUtils;
 import org.jboss.pnc.mavenmanipulator.core.util.PropertyMapper;
 import org.jboss.pnc.mavenmanipulator.io.ModelIO;
@@ -56,23 +68,22 @@ public class CommonManipulator {
     protected ManipulationSession session;
 
     /**
-     * Remove module overrides which do not apply to the current module. Searches the full list of version overrides
-     * for any keys which contain the '@' symbol. Removes these from the version overrides list, and add them back
-     * without the '@' symbol only if they apply to the current module.
+     * Remove module overrides which do not apply to the current module. Module overrides are keys which contain the
+     * '@' symbol. Only those that apply to the current module are applied to the version overrides list.
      *
      * @param projectGA the current project group : artifact
      * @param moduleOverrides are individual overrides e.g. group:artifact@groupId:artifactId :: value
      * @param originalOverrides The full list of version overrides, both global and module specific
-     * @param explicitOverrides a custom map to handle wildcard overrides
+     * @param explicitOverrides collects the explicit (possibly wildcard) overrides
      * @param extraBOMOverrides a nested map of additional overrides, keyed on a String
      * @return The map of global and module specific overrides which apply to the given module
      * @throws ManipulationException if an error occurs
      */
     protected Map<ArtifactRef, String> applyModuleVersionOverrides(
             final String projectGA,
-            final Map<String, String> moduleOverrides,
+            final OverrideRules moduleOverrides,
             final Map<ArtifactRef, String> originalOverrides,
-            final WildcardMap<String> explicitOverrides,
+            final GlobMap.Builder<String> explicitOverrides,
             final Map<String, Map<ProjectRef, String>> extraBOMOverrides)
             throws ManipulationException {
         final Map<ArtifactRef, String> remainingOverrides = new LinkedHashMap<>(originalOverrides);
@@ -83,150 +94,119 @@ public class CommonManipulator {
                     System.lineSeparator(),
                     join(remainingOverrides.entrySet(), System.lineSeparator() + "  "));
         }
+        if (moduleOverrides.isEmpty()) {
+            return remainingOverrides;
+        }
+
+        final Removals removals = new Removals();
 
-        // These modes correspond to two different kinds of passes over the available override properties:
+        // There are two different kinds of passes over the available override rules:
         // 1. Module-specific: Don't process wildcard overrides here, allow module-specific settings to take precedence.
+        for (final Rule rule : moduleOverrides.getModuleRules(projectGA)) {
+            final String currentValue = rule.getValue();
+
+            if (currentValue != null && !currentValue.isEmpty()) {
+                logger.debug(
+                        "Overriding module dependency for {} with {} : {}",
+                        projectGA,
+                        rule.getArtifact(),
+                        currentValue);
+                explicitOverrides.put(rule.getArtifact(), dereference(rule, extraBOMOverrides));
+            } else {
+                // Override prevention...
+                removals.add(rule.getArtifact());
+                logger.debug("For module {}, ignoring dependency override for {}", projectGA, rule.getArtifact());
+            }
+        }
         // 2. Wildcards: Add these IF there is no corresponding module-specific override.
-        final boolean[] wildcardMode = { false, true };
-        for (boolean aWildcardMode : wildcardMode) {
-            for (final Entry<String, String> entry : moduleOverrides.entrySet()) {
-                final String currentKey = entry.getKey();
-                final String currentValue = entry.getValue();
-                final boolean isModuleWildcard = currentKey.endsWith("@*");
+        for (final Rule rule : moduleOverrides.getGlobalRules()) {
+            final String currentValue = rule.getValue();
 
+            if (explicitOverrides.containsKey(rule.getArtifact())) {
                 logger.debug(
-                        "Processing key {} for override with value '{}' and is "
-                                + "wildcard {} and in module wildcard {}",
-                        currentKey,
-                        currentValue,
-                        isModuleWildcard,
-                        aWildcardMode);
-
-                if (!currentKey.contains("@")) {
-                    logger.trace("Not an override. Skip.");
-                    continue;
-                }
+                        "For artifact override: {}, current overrides already contain a module-specific version. Skip.",
+                        rule.getArtifact());
+                continue;
+            }
 
-                final String artifactGA;
-                boolean replace = false;
-                // process module-specific overrides (first)
-                if (!aWildcardMode) {
-                    // skip wildcard overrides in this mode
-                    if (isModuleWildcard) {
-                        logger.trace("Not currently in wildcard mode. Skip.");
-                        continue;
-                    }
+            // I think this is only used for e.g. dependencyExclusion.groupId:artifactId@*=<explicitVersion>
+            if (currentValue != null && !currentValue.isEmpty()) {
+                logger.debug(
+                        "Overriding module dependency for {} with {} : {}",
+                        projectGA,
+                        rule.getArtifact(),
+                        currentValue);
+                explicitOverrides.put(rule.getArtifact(), dereference(rule, extraBOMOverrides));
+            } else {
+                // If we have a wildcard artifact we want to replace any prior explicit overrides
+                // with this one i.e. this takes precedence.
+                removals.add(rule.getArtifact());
+                logger.debug("Removing artifactGA {} from overrides", rule.getArtifact());
+            }
+        }
 
-                    final String[] artifactAndModule = currentKey.split("@");
-                    if (artifactAndModule.length != 2) {
-                        throw new ManipulationException("Invalid format for exclusion key {}", currentKey);
-                    }
-                    artifactGA = artifactAndModule[0];
-                    final ProjectRef moduleGA = SimpleProjectRef.parse(artifactAndModule[1]);
-
-                    logger.debug(
-                            "For artifact override: {}, comparing parsed module: {} to current project: {}",
-                            artifactGA,
-                            moduleGA,
-                            projectGA);
-
-                    if (moduleGA.toString().equals(projectGA) ||
-                            (moduleGA.getArtifactId().equals("*") &&
-                                    SimpleProjectRef.parse(projectGA).getGroupId().equals(moduleGA.getGroupId()))) {
-                        if (currentValue != null && !currentValue.isEmpty()) {
-                            replace = true;
-                            logger.debug(
-                                    "Overriding module dependency for {} with {} : {}",
-                                    moduleGA,
-                                    artifactGA,
-                                    currentValue);
-                        } else {
-                            // Override prevention...
-                            removeGA(remainingOverrides, SimpleProjectRef.parse(artifactGA));
-                            logger.debug("For module {}, ignoring dependency override for {}", moduleGA, artifactGA);
-                        }
-                    }
-                }
-                // process wildcard overrides (second)
-                else {
-                    // skip module-specific overrides in this mode i.e. format of groupdId:artifactId@*=
-                    if (!isModuleWildcard) {
-                        logger.debug("Currently in wildcard mode. Skip.");
-                        continue;
-                    }
+        removals.apply(remainingOverrides);
 
-                    artifactGA = currentKey.substring(0, currentKey.length() - 2);
-                    logger.debug(
-                            "For artifact override: {}, checking if current overrides already contain a module-specific version.",
-                            artifactGA);
+        return remainingOverrides;
+    }
 
-                    if (explicitOverrides.containsKey(SimpleProjectRef.parse(artifactGA))) {
-                        logger.debug(
-                                "For artifact override: {}, current overrides already contain a module-specific version. Skip.",
-                                artifactGA);
-                        continue;
-                    }
+    /**
+     * Expand values that reference an extra BOM.
+     */
+    private String dereference(final Rule rule, final Map<String, Map<ProjectRef, String>> extraBOMOverrides)
+            throws ManipulationException {
+        final Map<ProjectRef, String> extraBOM = extraBOMOverrides.get(rule.getValue());
+        if (extraBOM == null) {
+            return rule.getValue();
+        }
+        final String newArtifactValue = extraBOM.get(rule.getArtifact());
+        if (newArtifactValue == null) {
+            throw new ManipulationException(
+                    "Extra BOM {} does not define a version for artifact {} targeted by {}",
+                    rule.getValue(),
+                    rule.getArtifact(),
+                    rule.getKey());
+        }
+        logger.debug(
+                "Dereferenced value {} for {} from extra BOM {}",
+                newArtifactValue,
+                rule.getArtifact(),
+                rule.getValue());
+        return newArtifactValue;
+    }
 
-                    // I think this is only used for e.g. dependencyExclusion.groupId:artifactId@*=<explicitVersion>
-                    if (currentValue != null && !currentValue.isEmpty()) {
-                        logger.debug(
-                                "Overriding module dependency for {} with {} : {}",
-                                projectGA,
-                                artifactGA,
-                                currentValue);
-                        replace = true;
-                    } else {
-                        // If we have a wildcard artifact we want to replace any prior explicit overrides
-                        // with this one i.e. this takes precedence.
-                        removeGA(remainingOverrides, SimpleProjectRef.parse(artifactGA));
-                        logger.debug("Removing artifactGA {} from overrides", artifactGA);
-                    }
-                }
+    /**
+     * Collects the artifacts to remove from the overrides so that they may be removed in a single pass.
+     */
+    private static final class Removals {
+        private final Set<ProjectRef> artifacts = new HashSet<>();
 
-                if (replace) {
-                    final ProjectRef projectRef = SimpleProjectRef.parse(artifactGA);
-                    final String newArtifactValue;
-                    // Expand values that reference an extra BOM
-                    final Map<ProjectRef, String> extraBOM = extraBOMOverrides.get(currentValue);
-                    if (extraBOM == null) {
-                        newArtifactValue = currentValue;
-                    } else {
-                        newArtifactValue = extraBOM.get(projectRef);
-                        if (newArtifactValue == null) {
-                            throw new ManipulationException(
-                                    "Extra BOM {} does not define a version for artifact {} targeted by {}",
-                                    currentValue,
-                                    artifactGA,
-                                    currentKey);
-                        }
-                        logger.debug(
-                                "Dereferenced value {} for {} from extra BOM {}",
-                                newArtifactValue,
-                                artifactGA,
-                                currentValue);
-                    }
-                    explicitOverrides.put(projectRef, newArtifactValue);
-                }
-            }
-        }
+        private final Set<String> groupIds = new HashSet<>();
 
-        return remainingOverrides;
-    }
+        private final Set<String> artifactIds = new HashSet<>();
 
-    private void removeGA(Map<ArtifactRef, String> overrides, ProjectRef ref) {
-        Iterator<ArtifactRef> it = overrides.keySet().iterator();
+        private boolean all;
 
-        while (it.hasNext()) {
-            ArtifactRef a = it.next();
+        void add(ProjectRef ref) {
+            if (ref.getGroupId().equals("*") && ref.getArtifactId().equals("*")) {
+                all = true;
+            } else if (ref.getArtifactId().equals("*")) {
+                groupIds.add(ref.getGroupId());
+            } else if (ref.getGroupId().equals("*")) {
+                artifactIds.add(ref.getArtifactId());
+            } else {
+                artifacts.add(new SimpleProjectRef(ref.getGroupId(), ref.getArtifactId()));
+            }
+        }
 
-            if (a.asProjectRef().equals(ref) ||
-                    (ref.getArtifactId().equals("*") && a.getGroupId().equals(ref.getGroupId())) ||
-                    (ref.getGroupId().equals("*") && a.getArtifactId().equals(ref.getArtifactId()))) {
-                it.remove();
-            } else if (ref.getArtifactId().equals("*") && ref.getGroupId().equals("*")) {
-                // For complete wildcard also cache the ignored module as we need the list later during
-                // property processing.
-                it.remove();
+        void apply(Map<ArtifactRef, String> overrides) {
+            if (all) {
+                overrides.clear();
+            } else if (!artifacts.isEmpty() || !groupIds.isEmpty() || !artifactIds.isEmpty()) {
+                overrides.keySet()
+                        .removeIf(
+                                a -> groupIds.contains(a.getGroupId()) || artifactIds.contains(a.getArtifactId())
+                                        || artifacts.contains(new SimpleProjectRef(a.getGroupId(), a.getArtifactId())));
             }
         }
     }
@@ -245,15 +225,14 @@ public class CommonManipulator {
     protected void applyExplicitOverrides(
             final Project project,
             final Map<? extends ProjectVersionRef, ? extends InputLocationTracker> dependencies,
-            final WildcardMap<String> explicitOverrides,
+            final GlobMap<String> explicitOverrides,
             final Map<Project, Map<String, PropertyMapper>> versionPropertyUpdateMap)
             throws ManipulationException {
         // Apply matching overrides to dependencies
         for (final Entry<? extends ProjectVersionRef, ? extends InputLocationTracker> entry : dependencies.entrySet()) {
             final ProjectVersionRef projectVersionRef = entry.getKey();
-            final ProjectRef groupIdArtifactId = new SimpleProjectRef(
-                    projectVersionRef.getGroupId(),
-                    projectVersionRef.getArtifactId());
+            final ProjectRef groupIdArtifactId = session.getRefInterner()
+                    .projectRef(projectVersionRef.getGroupId(), projectVersionRef.getArtifactId());
 
             if (explicitOverrides.containsKey(groupIdArtifactId)) {
                 final String overrideVersion = explicitOverrides.get(groupIdArtifactId);
@@ -304,9 +283,22 @@ public class CommonManipulator {
     }
 
     protected void explicitOverridePropertyUpdates(ManipulationSession session) throws ManipulationException {
+        explicitOverridePropertyUpdates(session, explicitVersionPropertyUpdateMap);
+    }
+
+    /**
+     * Applies the explicit override property updates recorded in the supplied map.
+     *
+     * @param session the current session
+     * @param explicitPropertyUpdates the explicit property updates to apply
+     * @throws ManipulationException if an error occurs
+     */
+    protected void explicitOverridePropertyUpdates(
+            ManipulationSession session,
+            Map<Project, Map<String, PropertyMapper>> explicitPropertyUpdates) throws ManipulationException {
         // Moved this to debug as otherwise it deluges the logging.
         logger.debug("Iterating for explicit overrides...");
-        for (final Entry<Project, Map<String, PropertyMapper>> e : explicitVersionPropertyUpdateMap.entrySet()) {
+        for (final Entry<Project, Map<String, PropertyMapper>> e : explicitPropertyUpdates.entrySet()) {
             Project project = e.getKey();
             logger.debug("Checking property override within project {}", project);
             for (final Entry<String, PropertyMapper> entry : e.getValue().entrySet()) {
@@ -334,6 +326,134 @@ public class CommonManipulator {
         }
     }
 
+    /**
+     * Applies the alignment to each project in turn or, if {@link CommonState#isParallelAlignment()} is set, aligns
+     * separate inheritance hierarchies concurrently. Aligning a project only reads and writes the models of its own
+     * hierarchy, so the projects of each hierarchy are still aligned in project order on a single thread. Each
+     * hierarchy records its property updates into its own maps which are then merged into the shared maps in project
+     * order, so the result matches the sequential run.
+     *
+     * @param projects the projects to align
+     * @param versionPropertyUpdateMap the shared map of property updates for the manipulator
+     * @param alignment the per project alignment
+     * @throws ManipulationException if an error occurs ; if several hierarchies fail the first in project order is
+     *         reported.
+     */
+    protected void applyToProjects(
+            final List<Project> projects,
+            final Map<Project, Map<String, PropertyMapper>> versionPropertyUpdateMap,
+            final ProjectAlignment alignment)
+            throws ManipulationException {
+        final CommonState commonState = session.getState(CommonState.class);
+        final Map<Project, List<Project>> hierarchies = commonState.isParallelAlignment() ? hierarchies(projects)
+                : Collections.emptyMap();
+
+        if (hierarchies.size() <= 1) {
+            for (final Project project : projects) {
+                alignment.apply(project, versionPropertyUpdateMap, explicitVersionPropertyUpdateMap);
+            }
+            return;
+        }
+
+        final int threads = Math.min(hierarchies.size(), Runtime.getRuntime().availableProcessors());
+        logger.debug("Aligning {} inheritance hierarchies using {} threads", hierarchies.size(), threads);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<ProjectUpdates>> futures = new ArrayList<>(hierarchies.size());
+            for (final List<Project> hierarchy : hierarchies.values()) {
+                // Property updates are only ever recorded against the project being aligned, so seeding the
+                // scoped maps with any existing entries for the hierarchy retains the clash detection of the
+                // sequential run.
+                final ProjectUpdates updates = new ProjectUpdates(
+                        scope(hierarchy, versionPropertyUpdateMap),
+                        scope(hierarchy, explicitVersionPropertyUpdateMap));
+                futures.add(executor.submit(() -> {
+                    for (final Project project : hierarchy) {
+                        alignment.apply(project, updates.versionPropertyUpdates, updates.explicitPropertyUpdates);
+                    }
+                    return updates;
+                }));
+            }
+            final Map<Project, Map<String, PropertyMapper>> propertyUpdates = new HashMap<>();
+            final Map<Project, Map<String, PropertyMapper>> explicitPropertyUpdates = new HashMap<>();
+            for (final Future<ProjectUpdates> future : futures) {
+                final ProjectUpdates updates = future.get();
+                propertyUpdates.putAll(updates.versionPropertyUpdates);
+                explicitPropertyUpdates.putAll(updates.explicitPropertyUpdates);
+            }
+            for (final Project project : projects) {
+                if (propertyUpdates.containsKey(project)) {
+                    versionPropertyUpdateMap.put(project, propertyUpdates.get(project));
+                }
+                if (explicitPropertyUpdates.containsKey(project)) {
+                    explicitVersionPropertyUpdateMap.put(project, explicitPropertyUpdates.get(project));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ManipulationException("Interrupted aligning projects", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ManipulationException) {
+                throw (ManipulationException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new ManipulationException("Caught exception aligning projects", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Groups the projects by their inheritance root, retaining the project order within and across the groups.
+     */
+    static Map<Project, List<Project>> hierarchies(final List<Project> projects) {
+        final Map<Project, List<Project>> result = new LinkedHashMap<>();
+        for (final Project project : projects) {
+            result.computeIfAbsent(project.getInheritedList().get(0), k -> new ArrayList<>()).add(project);
+        }
+        return result;
+    }
+
+    private static Map<Project, Map<String, PropertyMapper>> scope(
+            final List<Project> hierarchy,
+            final Map<Project, Map<String, PropertyMapper>> updates) {
+        final Map<Project, Map<String, PropertyMapper>> result = new LinkedHashMap<>();
+        for (final Project project : hierarchy) {
+            final Map<String, PropertyMapper> existing = updates.get(project);
+            if (existing != null) {
+                result.put(project, existing);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Alignment of a single project, recording any property updates into the supplied maps.
+     */
+    @FunctionalInterface
+    protected interface ProjectAlignment {
+        void apply(
+                Project project,
+                Map<Project, Map<String, PropertyMapper>> versionPropertyUpdates,
+                Map<Project, Map<String, PropertyMapper>> explicitPropertyUpdates)
+                throws ManipulationException;
+    }
+
+    private static final class ProjectUpdates {
+        private final Map<Project, Map<String, PropertyMapper>> versionPropertyUpdates;
+
+        private final Map<Project, Map<String, PropertyMapper>> explicitPropertyUpdates;
+
+        private ProjectUpdates(
+                Map<Project, Map<String, PropertyMapper>> versionPropertyUpdates,
+                Map<Project, Map<String, PropertyMapper>> explicitPropertyUpdates) {
+            this.versionPropertyUpdates = versionPropertyUpdates;
+            this.explicitPropertyUpdates = explicitPropertyUpdates;
+        }
+    }
+
     static Exclusion processExclusion(Logger logger, String target, Object toLog) {
         final String exclusion = target.substring(1);
         logger.info("Adding dependency exclusion {} to dependency {}", exclusion, toLog);
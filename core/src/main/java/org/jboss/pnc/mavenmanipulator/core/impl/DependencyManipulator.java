@@ -52,9 +52,10 @@ import org.commonjava.atlas.maven.ident.ref.SimpleProjectVersionRef;
 import org.jboss.pnc.mavenmanipulator.common.Version;
 import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationException;
 import org.jboss.pnc.mavenmanipulator.common.model.Project;
+import org.jboss.pnc.mavenmanipulator.common.model.RefInterner;
 import org.jboss.pnc.mavenmanipulator.common.model.SimpleScopedArtifactRef;
+import org.jboss.pnc.mavenmanipulator.common.util.GlobMap;
 import org.jboss.pnc.mavenmanipulator.common.util.PropertyResolver;
-import org.jboss.pnc.mavenmanipulator.common.util.WildcardMap;
 import org.jboss.pnc.mavenmanipulator.core.ManipulationSession;
 import org.jboss.pnc.mavenmanipulator.core.state.CommonState;
 import org.jboss.pnc.mavenmanipulator.core.state.DependencyState;
@@ -104,8 +105,10 @@ public class DependencyManipulator extends CommonManipulator implements Manipula
      */
     @Override
     public void init(final ManipulationSession session) throws ManipulationException {
-        session.setState(new DependencyState(session.getUserProperties()));
+        session.setState(new DependencyState(session.getConfig()));
         this.session = session;
+        // This component may be reused for further runs (e.g. by the CLI daemon).
+        versionPropertyUpdateMap.clear();
     }
 
     /**
@@ -236,14 +239,17 @@ public class DependencyManipulator extends CommonManipulator implements Manipula
         final CommonState cState = session.getState(CommonState.class);
         final Set<Project> result = new HashSet<>(projects.size());
 
-        for (final Project project : projects) {
-            final Model model = project.getModel();
-
-            if (!overrides.isEmpty() || !state.getDependencyOverrides().isEmpty()) {
-                apply(project, model, overrides);
-
-                result.add(project);
-            }
+        if (!overrides.isEmpty() || !state.getDependencyOverrides().isEmpty()) {
+            applyToProjects(
+                    projects,
+                    versionPropertyUpdateMap,
+                    (project, propertyUpdates, explicitPropertyUpdates) -> apply(
+                            project,
+                            project.getModel(),
+                            overrides,
+                            propertyUpdates,
+                            explicitPropertyUpdates));
+            result.addAll(projects);
         }
 
         // If we've changed something now update any old properties with the new values.
@@ -295,12 +301,17 @@ public class DependencyManipulator extends CommonManipulator implements Manipula
     }
 
     /**
-     * Applies dependency overrides to the project.
+     * Applies dependency overrides to the project, recording any property updates into the supplied maps.
      */
-    private void apply(final Project project, final Model model, final Map<ArtifactRef, String> overrides)
+    private void apply(
+            final Project project,
+            final Model model,
+            final Map<ArtifactRef, String> overrides,
+            final Map<Project, Map<String, PropertyMapper>> propertyUpdates,
+            final Map<Project, Map<String, PropertyMapper>> explicitPropertyUpdates)
             throws ManipulationException {
         // Map of Group : Map of artifactId [ may be wildcard ] : value
-        final WildcardMap<String> explicitOverrides = new WildcardMap<>();
+        final GlobMap.Builder<String> explicitOverrideRules = new GlobMap.Builder<>();
         final String projectGA = ga(project);
         final DependencyState dependencyState = session.getState(DependencyState.class);
         final CommonState commonState = session.getState(CommonState.class);
@@ -314,16 +325,17 @@ public class DependencyManipulator extends CommonManipulator implements Manipula
         try {
             originalOverrides = applyModuleVersionOverrides(
                     projectGA,
-                    dependencyState.getDependencyOverrides(),
+                    dependencyState.getDependencyOverrideRules(),
                     originalOverrides,
-                    explicitOverrides,
+                    explicitOverrideRules,
                     dependencyState.getExtraBOMDepMgmts());
             logger.debug("Module overrides are:{}{}", System.lineSeparator(), originalOverrides);
-            logger.debug("Explicit overrides are:{}{}", System.lineSeparator(), explicitOverrides);
+            logger.debug("Explicit overrides are:{}{}", System.lineSeparator(), explicitOverrideRules);
         } catch (InvalidRefException e) {
-            logger.error("Invalid module exclusion override {} : {}", originalOverrides, explicitOverrides);
+            logger.error("Invalid module exclusion override {} : {}", originalOverrides, explicitOverrideRules);
             throw e;
         }
+        final GlobMap<String> explicitOverrides = explicitOverrideRules.build();
 
         if (project.isInheritanceRoot()) {
             // Handle the situation where the top level parent refers to a prior build that is in the BOM.
@@ -375,7 +387,7 @@ public class DependencyManipulator extends CommonManipulator implements Manipula
                 d.setVersion(project.getModelParent().getVersion());
                 final Map<ArtifactRef, Dependency> pDepMap = Collections
                         .singletonMap(new SimpleScopedArtifactRef(d), d);
-                applyExplicitOverrides(project, pDepMap, explicitOverrides, explicitVersionPropertyUpdateMap);
+                applyExplicitOverrides(project, pDepMap, explicitOverrides, explicitPropertyUpdates);
                 project.getModelParent().setVersion(d.getVersion());
             }
 
@@ -386,13 +398,14 @@ public class DependencyManipulator extends CommonManipulator implements Manipula
                     project,
                     project.getResolvedManagedDependencies(),
                     explicitOverrides,
-                    originalOverrides);
+                    originalOverrides,
+                    propertyUpdates);
 
             applyExplicitOverrides(
                     project,
                     project.getResolvedManagedDependencies(),
                     explicitOverrides,
-                    explicitVersionPropertyUpdateMap);
+                    explicitPropertyUpdates);
 
             if (commonState.isOverrideTransitive() && dependencyState.getRemoteBOMDepMgmt() != null) {
                 final Collection<ArtifactRef> overrideRefs = overrides.keySet();
@@ -443,78 +456,110 @@ public class DependencyManipulator extends CommonManipulator implements Manipula
                     project,
                     project.getResolvedManagedDependencies(),
                     explicitOverrides,
-                    originalOverrides);
+                    originalOverrides,
+                    propertyUpdates);
             applyExplicitOverrides(
                     project,
                     project.getResolvedManagedDependencies(),
                     explicitOverrides,
-                    explicitVersionPropertyUpdateMap);
+                    explicitPropertyUpdates);
         }
 
         logger.debug("Applying overrides to concrete dependencies for: {}", projectGA);
         // Apply overrides to project direct dependencies
-        applyOverrides(project, project.getResolvedDependencies(), explicitOverrides, originalOverrides);
+        applyOverrides(
+                project,
+                project.getResolvedDependencies(),
+                explicitOverrides,
+                originalOverrides,
+                propertyUpdates);
         applyExplicitOverrides(
                 project,
                 project.getResolvedDependencies(),
                 explicitOverrides,
-                explicitVersionPropertyUpdateMap);
+                explicitPropertyUpdates);
 
         final Map<Profile, Map<ArtifactRef, Dependency>> pd = project.getResolvedProfileDependencies();
         final Map<Profile, Map<ArtifactRef, Dependency>> pmd = project.getResolvedProfileManagedDependencies();
 
         for (final Map<ArtifactRef, Dependency> dependencies : pd.values()) {
-            applyOverrides(project, dependencies, explicitOverrides, originalOverrides);
-            applyExplicitOverrides(project, dependencies, explicitOverrides, explicitVersionPropertyUpdateMap);
+            applyOverrides(project, dependencies, explicitOverrides, originalOverrides, propertyUpdates);
+            applyExplicitOverrides(project, dependencies, explicitOverrides, explicitPropertyUpdates);
         }
 
         for (final Map<ArtifactRef, Dependency> dependencies : pmd.values()) {
-            applyOverrides(project, dependencies, explicitOverrides, originalOverrides);
-            applyExplicitOverrides(project, dependencies, explicitOverrides, explicitVersionPropertyUpdateMap);
+            applyOverrides(project, dependencies, explicitOverrides, originalOverrides, propertyUpdates);
+            applyExplicitOverrides(project, dependencies, explicitOverrides, explicitPropertyUpdates);
         }
 
         // Apply dependency changes to dependencies that occur within plugins.
         final Map<ProjectVersionRef, Plugin> resolvedPlugins = project.getAllResolvedPlugins();
-        applyPlugins(project, resolvedPlugins, explicitOverrides, originalOverrides);
-        applyExplicitOverrides(project, resolvedPlugins, explicitOverrides, explicitVersionPropertyUpdateMap);
+        applyPlugins(
+                project,
+                resolvedPlugins,
+                explicitOverrides,
+                originalOverrides,
+                propertyUpdates,
+                explicitPropertyUpdates);
+        applyExplicitOverrides(project, resolvedPlugins, explicitOverrides, explicitPropertyUpdates);
 
         final Map<ProjectVersionRef, Plugin> resolvedManagedPlugins = project.getResolvedManagedPlugins();
-        applyPlugins(project, resolvedManagedPlugins, explicitOverrides, originalOverrides);
-        applyExplicitOverrides(project, resolvedManagedPlugins, explicitOverrides, explicitVersionPropertyUpdateMap);
+        applyPlugins(
+                project,
+                resolvedManagedPlugins,
+                explicitOverrides,
+                originalOverrides,
+                propertyUpdates,
+                explicitPropertyUpdates);
+        applyExplicitOverrides(project, resolvedManagedPlugins, explicitOverrides, explicitPropertyUpdates);
 
         for (Map<ProjectVersionRef, Plugin> resolvedProfilePlugins : project.getAllResolvedProfilePlugins()
                 .values()) {
-            applyPlugins(project, resolvedProfilePlugins, explicitOverrides, originalOverrides);
+            applyPlugins(
+                    project,
+                    resolvedProfilePlugins,
+                    explicitOverrides,
+                    originalOverrides,
+                    propertyUpdates,
+                    explicitPropertyUpdates);
             applyExplicitOverrides(
                     project,
                     resolvedProfilePlugins,
                     explicitOverrides,
-                    explicitVersionPropertyUpdateMap);
+                    explicitPropertyUpdates);
         }
         for (Map<ProjectVersionRef, Plugin> resolvedManagedProfilePlugins : project
                 .getResolvedProfileManagedPlugins()
                 .values()) {
-            applyPlugins(project, resolvedManagedProfilePlugins, explicitOverrides, originalOverrides);
+            applyPlugins(
+                    project,
+                    resolvedManagedProfilePlugins,
+                    explicitOverrides,
+                    originalOverrides,
+                    propertyUpdates,
+                    explicitPropertyUpdates);
             applyExplicitOverrides(
                     project,
                     resolvedManagedProfilePlugins,
                     explicitOverrides,
-                    explicitVersionPropertyUpdateMap);
+                    explicitPropertyUpdates);
         }
 
         // This handles dependencies of plugins themselves.
         final List<Map<ArtifactRef, Dependency>> pluginDependencies = project.getAllResolvedPluginDependencies();
         for (Map<ArtifactRef, Dependency> depMap : pluginDependencies) {
-            applyOverrides(project, depMap, explicitOverrides, originalOverrides);
-            applyExplicitOverrides(project, depMap, explicitOverrides, explicitVersionPropertyUpdateMap);
+            applyOverrides(project, depMap, explicitOverrides, originalOverrides, propertyUpdates);
+            applyExplicitOverrides(project, depMap, explicitOverrides, explicitPropertyUpdates);
         }
     }
 
     private void applyPlugins(
             Project project,
             Map<ProjectVersionRef, Plugin> plugins,
-            WildcardMap<String> explicitOverrides,
-            Map<ArtifactRef, String> overrides)
+            GlobMap<String> explicitOverrides,
+            Map<ArtifactRef, String> overrides,
+            Map<Project, Map<String, PropertyMapper>> propertyUpdates,
+            Map<Project, Map<String, PropertyMapper>> explicitPropertyUpdates)
             throws ManipulationException {
         // Handles plugin configurations
         final List<PluginReference> refs = DependencyPluginUtils.findPluginReferences(galleyWrapper, project, plugins);
@@ -536,8 +581,8 @@ public class DependencyManipulator extends CommonManipulator implements Manipula
         logger.debug("Located plugins with resolved artifact references: {}", pluginsWithDeps);
 
         // Reuse prior apply* to handle plugin with dependencies as well.
-        applyOverrides(project, pluginsWithDeps, explicitOverrides, overrides);
-        applyExplicitOverrides(project, pluginsWithDeps, explicitOverrides, explicitVersionPropertyUpdateMap);
+        applyOverrides(project, pluginsWithDeps, explicitOverrides, overrides, propertyUpdates);
+        applyExplicitOverrides(project, pluginsWithDeps, explicitOverrides, explicitPropertyUpdates);
     }
 
     /**
@@ -547,14 +592,16 @@ public class DependencyManipulator extends CommonManipulator implements Manipula
      * @param dependencies The list of dependencies
      * @param explicitOverrides Any explicitOverrides to track for ignoring
      * @param overrides The map of dependency version overrides
+     * @param propertyUpdates the map to record any property updates in
      * @return The map of overrides that were not matched in the dependencies
      * @throws ManipulationException if an error occurs
      */
     private Map<ArtifactRef, String> applyOverrides(
             final Project project,
             final Map<? extends ProjectVersionRef, ? extends InputLocationTracker> dependencies,
-            final WildcardMap<String> explicitOverrides,
-            final Map<ArtifactRef, String> overrides)
+            final GlobMap<String> explicitOverrides,
+            final Map<ArtifactRef, String> overrides,
+            final Map<Project, Map<String, PropertyMapper>> propertyUpdates)
             throws ManipulationException {
         // Duplicate the override map so unused overrides can be easily recorded
         final Map<ArtifactRef, String> unmatchedVersionOverrides = new LinkedHashMap<>(overrides);
@@ -565,11 +612,12 @@ public class DependencyManipulator extends CommonManipulator implements Manipula
 
         final CommonState commonState = session.getState(CommonState.class);
         final boolean strict = commonState.isStrict();
+        final RefInterner interner = session.getRefInterner();
 
         // Apply matching overrides to dependencies
         for (final Entry<? extends ProjectVersionRef, ? extends InputLocationTracker> e : dependencies.entrySet()) {
             final ProjectVersionRef dependency = e.getKey();
-            ProjectRef depPr = new SimpleProjectRef(dependency.getGroupId(), dependency.getArtifactId());
+            final ProjectRef depPr = interner.projectRef(dependency.getGroupId(), dependency.getArtifactId());
 
             // We might have junit:junit:3.8.2 and junit:junit:4.1 for differing override scenarios within the
             // overrides list. If strict mode alignment is enabled, using multiple overrides will work with
@@ -577,19 +625,18 @@ public class DependencyManipulator extends CommonManipulator implements Manipula
             // multiple versions are in the remote override list (be it from a bom or rest call). Actually, what
             // will most likely happen is last-wins.
             for (final Entry<ArtifactRef, String> entry : overrides.entrySet()) {
-                ProjectRef groupIdArtifactId = entry.getKey().asProjectRef();
-                if (depPr.equals(groupIdArtifactId)) {
+                // Compare the coordinates directly rather than allocating a ProjectRef per override.
+                if (depPr.getArtifactId().equals(entry.getKey().getArtifactId())
+                        && depPr.getGroupId().equals(entry.getKey().getGroupId())) {
                     final DependencyPluginWrapper wrapper = new DependencyPluginWrapper(e.getValue());
                     final String oldVersion = wrapper.getVersion();
                     final String overrideVersion = entry.getValue();
                     final String resolvedValue = dependency.getVersionString();
 
                     if (isEmpty(overrideVersion)) {
-                        logger.warn(
-                                "Unable to align with an empty override version for {}; ignoring",
-                                groupIdArtifactId);
+                        logger.warn("Unable to align with an empty override version for {}; ignoring", depPr);
                     } else if (isEmpty(oldVersion)) {
-                        logger.debug("Dependency is a managed version for {}; ignoring", groupIdArtifactId);
+                        logger.debug("Dependency is a managed version for {}; ignoring", depPr);
                     } else if (oldVersion.equals(Version.PROJECT_VERSION)
                             || (oldVersion.contains("$") && project.getVersion().equals(resolvedValue))) {
                         logger.debug(
@@ -642,7 +689,7 @@ public class DependencyManipulator extends CommonManipulator implements Manipula
                         if (!PropertiesUtils.cacheProperty(
                                 session,
                                 project,
-                                versionPropertyUpdateMap,
+                                propertyUpdates,
                                 oldVersion,
                                 overrideVersion,
                                 entry.getKey(),
@@ -652,21 +699,17 @@ public class DependencyManipulator extends CommonManipulator implements Manipula
                                     throw new ManipulationException(
                                             "Replacing original version {} in dependency {} with new version {} violates the strict version-alignment rule!",
                                             oldVersion,
-                                            groupIdArtifactId,
+                                            depPr,
                                             overrideVersion);
                                 } else {
                                     logger.warn(
                                             "Replacing original version {} in dependency {} with new version {} violates the strict version-alignment rule!",
                                             oldVersion,
-                                            groupIdArtifactId,
+                                            depPr,
                                             overrideVersion);
                                 }
                             } else {
-                                logger.debug(
-                                        "Altered dependency {} : {} -> {}",
-                                        groupIdArtifactId,
-                                        oldVersion,
-                                        overrideVersion);
+                                logger.debug("Altered dependency {} : {} -> {}", depPr, oldVersion, overrideVersion);
 
                                 // This block handles a version that is a partial property with a value.
                                 if (oldVersion.contains("${")) {
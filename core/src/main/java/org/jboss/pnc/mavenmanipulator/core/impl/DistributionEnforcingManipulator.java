@@ -125,7 +125,7 @@ public class DistributionEnforcingManipulator
     @Override
     public void init(final ManipulationSession session) {
         this.session = session;
-        session.setState(new DistributionEnforcingState(session.getUserProperties()));
+        session.setState(new DistributionEnforcingState(session.getConfig()));
     }
 
     /**
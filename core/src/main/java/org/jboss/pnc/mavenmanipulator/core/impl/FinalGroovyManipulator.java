@@ -29,6 +29,7 @@ import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationException;
 import org.jboss.pnc.mavenmanipulator.common.model.Project;
 import org.jboss.pnc.mavenmanipulator.core.ManipulationSession;
 import org.jboss.pnc.mavenmanipulator.core.groovy.InvocationStage;
+import org.jboss.pnc.mavenmanipulator.core.groovy.ReactorIndex;
 import org.jboss.pnc.mavenmanipulator.core.state.GroovyState;
 import org.jboss.pnc.mavenmanipulator.core.state.State;
 import org.jboss.pnc.mavenmanipulator.io.FileIO;
@@ -76,6 +77,7 @@ public class FinalGroovyManipulator
 
         final List<File> groovyScripts = parseGroovyScripts(state.getGroovyScripts());
         final Set<Project> changed = new HashSet<>(groovyScripts.size());
+        final ReactorIndex reactorIndex = new ReactorIndex(projects);
 
         for (final File groovyScript : groovyScripts) {
             final Project project = projects.stream()
@@ -85,7 +87,7 @@ public class FinalGroovyManipulator
                             () -> new ManipulationException(
                                     "Unable to find execution"
                                             + " root"));
-            applyGroovyScript(projects, project, groovyScript);
+            applyGroovyScript(projects, project, groovyScript, reactorIndex);
             changed.add(project);
         }
         return changed;
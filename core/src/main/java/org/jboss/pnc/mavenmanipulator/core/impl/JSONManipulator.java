@@ -18,9 +18,13 @@ package org.jboss.pnc.mavenmanipulator.core.impl;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.inject.Inject;
@@ -36,6 +40,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.JsonPathException;
 
 /**
@@ -86,8 +91,13 @@ public class JSONManipulator
 
         for (final Project project : projects) {
             if (project.isExecutionRoot()) {
+                // Group the operations by target file so each file is only parsed and written once.
+                final Map<String, List<JSONState.JSONOperation>> byFile = new LinkedHashMap<>();
                 for (JSONState.JSONOperation operation : scripts) {
-                    internalApplyChanges(project, operation);
+                    byFile.computeIfAbsent(operation.getFile(), k -> new ArrayList<>()).add(operation);
+                }
+                for (Map.Entry<String, List<JSONState.JSONOperation>> entry : byFile.entrySet()) {
+                    internalApplyChanges(project, entry.getKey(), entry.getValue());
 
                     changed.add(project);
                 }
@@ -100,13 +110,12 @@ public class JSONManipulator
 
     // Package accessible so tests can use it.
     void internalApplyChanges(Project project, JSONState.JSONOperation operation) throws ManipulationException {
-        File target = new File(project.getPom().getParentFile(), operation.getFile());
+        internalApplyChanges(project, operation.getFile(), Collections.singletonList(operation));
+    }
 
-        logger.info(
-                "Attempting to start JSON update to file {} with xpath {} and replacement '{}' ",
-                target,
-                operation.getXPath(),
-                operation.getUpdate());
+    void internalApplyChanges(Project project, String file, List<JSONState.JSONOperation> operations)
+            throws ManipulationException {
+        File target = new File(project.getPom().getParentFile(), file);
 
         DocumentContext dc = null;
         try {
@@ -117,28 +126,37 @@ public class JSONManipulator
 
             dc = jsonIO.parseJSON(target);
 
-            List<?> o = dc.read(operation.getXPath());
-            if (o.size() == 0) {
-                if (project.isIncrementalPME()) {
-                    logger.warn("Did not locate JSON using XPath {}", operation.getXPath());
-                    return;
-                } else {
-                    logger.error(
-                            "XPath {} did not find any expressions within {}",
-                            operation.getXPath(),
-                            operation.getFile());
-                    throw new ManipulationException("XPath did not resolve to a valid value");
+            for (JSONState.JSONOperation operation : operations) {
+                logger.info(
+                        "Attempting to start JSON update to file {} with xpath {} and replacement '{}' ",
+                        target,
+                        operation.getXPath(),
+                        operation.getUpdate());
+
+                JsonPath path = operation.getPath();
+                List<?> o = dc.read(path);
+                if (o.size() == 0) {
+                    if (project.isIncrementalPME()) {
+                        logger.warn("Did not locate JSON using XPath {}", operation.getXPath());
+                        continue;
+                    } else {
+                        logger.error(
+                                "XPath {} did not find any expressions within {}",
+                                operation.getXPath(),
+                                operation.getFile());
+                        throw new ManipulationException("XPath did not resolve to a valid value");
+                    }
                 }
-            }
 
-            if (isEmpty(operation.getUpdate())) {
-                // Delete
-                logger.info("Deleting {} on {}", operation.getXPath(), dc);
-                dc.delete(operation.getXPath());
-            } else {
-                // Update
-                logger.info("Updating {} on {}", operation.getXPath(), dc);
-                dc.set(operation.getXPath(), operation.getUpdate());
+                if (isEmpty(operation.getUpdate())) {
+                    // Delete
+                    logger.info("Deleting {} on {}", operation.getXPath(), dc);
+                    dc.delete(path);
+                } else {
+                    // Update
+                    logger.info("Updating {} on {}", operation.getXPath(), dc);
+                    dc.set(path, operation.getUpdate());
+                }
             }
 
             jsonIO.writeJSON(target, dc);
@@ -152,4 +170,14 @@ public class JSONManipulator
     public int getExecutionIndex() {
         return 90;
     }
+
+    @Override
+    public Set<Resource> getReads() {
+        return EnumSet.of(Resource.FILES);
+    }
+
+    @Override
+    public Set<Resource> getWrites() {
+        return EnumSet.of(Resource.FILES);
+    }
 }
@@ -15,6 +15,7 @@
  */
 package org.jboss.pnc.mavenmanipulator.core.impl;
 
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
 
@@ -79,4 +80,51 @@ public interface Manipulator {
      * @return current index.
      */
     int getExecutionIndex();
+
+    /**
+     * The resources this manipulator reads in {@link #applyChanges(List)}. Together with {@link #getWrites()} this
+     * determines which manipulators may be run concurrently. Defaults to every resource.
+     *
+     * @return the resources read.
+     */
+    default Set<Resource> getReads() {
+        return EnumSet.allOf(Resource.class);
+    }
+
+    /**
+     * The resources this manipulator writes in {@link #applyChanges(List)}. Defaults to every resource so that,
+     * unless declared otherwise, a manipulator is always run after every manipulator before it and before every
+     * manipulator after it.
+     *
+     * @return the resources written.
+     */
+    default Set<Resource> getWrites() {
+        return EnumSet.allOf(Resource.class);
+    }
+
+    /**
+     * The session resources a manipulator may read or write.
+     */
+    enum Resource {
+        /**
+         * The project models.
+         */
+        MODEL,
+        /**
+         * The user properties of the session.
+         */
+        PROPERTIES,
+        /**
+         * Remote alignment results and BOM references recorded in the session state for later manipulators.
+         */
+        REST,
+        /**
+         * Files within the project tree other than the POMs.
+         */
+        FILES,
+        /**
+         * Files generated within the target directory.
+         */
+        OUTPUT
+    }
 }
@@ -21,6 +21,7 @@ import static org.jboss.pnc.mavenmanipulator.core.util.IdUtils.ga;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -29,6 +30,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -49,7 +51,7 @@ import org.jboss.pnc.mavenmanipulator.common.Version;
 import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationException;
 import org.jboss.pnc.mavenmanipulator.common.model.ArtifactPluginWrapper;
 import org.jboss.pnc.mavenmanipulator.common.model.Project;
-import org.jboss.pnc.mavenmanipulator.common.util.WildcardMap;
+import org.jboss.pnc.mavenmanipulator.common.util.GlobMap;
 import org.jboss.pnc.mavenmanipulator.core.ManipulationSession;
 import org.jboss.pnc.mavenmanipulator.core.state.CommonState;
 import org.jboss.pnc.mavenmanipulator.core.state.PluginState;
@@ -108,7 +110,9 @@ public class PluginManipulator extends CommonManipulator implements Manipulator
     @Override
     public void init(final ManipulationSession session) throws ManipulationException {
         this.session = session;
-        session.setState(new PluginState(session.getUserProperties()));
+        session.setState(new PluginState(session.getConfig()));
+        // This component may be reused for further runs (e.g. by the CLI daemon).
+        versionPropertyUpdateMap.clear();
     }
 
     /**
@@ -128,14 +132,48 @@ public class PluginManipulator extends CommonManipulator implements Manipulator
         final Set<Project> changed = new HashSet<>();
         final Set<Plugin> mgmtOverrides = loadRemoteBOM();
 
-        for (final Project project : projects) {
-            final Model model = project.getModel();
-
-            if (!mgmtOverrides.isEmpty() || !state.getPluginOverride().isEmpty()) {
-                apply(project, model, mgmtOverrides);
-
-                changed.add(project);
+        if (!mgmtOverrides.isEmpty() || !state.getPluginOverride().isEmpty()) {
+            final boolean parallel = cState.isParallelAlignment();
+            final Map<Project, GlobMap<String>> explicitOverrides = new HashMap<>();
+            final Map<Project, Set<Plugin>> projectOverrides = new HashMap<>();
+            // Injecting the remote configuration may alter the overrides. Projects aligned in the same inheritance
+            // hierarchy share them as in the sequential run but concurrent hierarchies each get their own copies.
+            final Map<Project, Map<Plugin, Plugin>> hierarchyOverrides = new HashMap<>();
+
+            // Removing the explicitly overridden plugins is cumulative across the projects so establish the overrides
+            // each project uses up front, in project order.
+            Set<Plugin> current = null;
+            for (final Project project : projects) {
+                // Map of Group : Map of artifactId [ may be wildcard ] : value
+                final GlobMap.Builder<String> explicit = new GlobMap.Builder<>();
+                if (reduceOverrides(project, mgmtOverrides, explicit) || current == null) {
+                    current = new LinkedHashSet<>(mgmtOverrides);
+                }
+                explicitOverrides.put(project, explicit.build());
+                if (parallel) {
+                    final Map<Plugin, Plugin> copies = hierarchyOverrides
+                            .computeIfAbsent(project.getInheritedList().get(0), k -> new IdentityHashMap<>());
+                    projectOverrides.put(
+                            project,
+                            current.stream()
+                                    .map(p -> copies.computeIfAbsent(p, Plugin::clone))
+                                    .collect(Collectors.toCollection(LinkedHashSet::new)));
+                } else {
+                    projectOverrides.put(project, current);
+                }
             }
+
+            applyToProjects(projects, versionPropertyUpdateMap, (project, propertyUpdates, explicitPropertyUpdates) -> {
+                apply(
+                        project,
+                        project.getModel(),
+                        projectOverrides.get(project),
+                        explicitOverrides.get(project),
+                        propertyUpdates,
+                        explicitPropertyUpdates);
+                explicitOverridePropertyUpdates(session, explicitPropertyUpdates);
+            });
+            changed.addAll(projects);
         }
         // If we've changed something now update any old properties with the new values.
         if (!changed.isEmpty()) {
@@ -237,29 +275,32 @@ public class PluginManipulator extends CommonManipulator implements Manipulator
         return mergedOverrides;
     }
 
-    private void apply(final Project project, final Model model, final Set<Plugin> overrides)
+    /**
+     * Removes the plugins which are explicitly overridden for the project from the overrides, recording the explicit
+     * overrides.
+     *
+     * @return true if any plugins were removed from the overrides.
+     */
+    private boolean reduceOverrides(
+            final Project project,
+            final Set<Plugin> overrides,
+            final GlobMap.Builder<String> explicitOverrides)
             throws ManipulationException {
-        if (logger.isDebugEnabled()) {
-            logger.debug("Applying plugin changes for {} to: {}", PluginType.RemotePM, ga(project));
-        }
-
         final PluginState pluginState = session.getState(PluginState.class);
-
-        // Map of Group : Map of artifactId [ may be wildcard ] : value
-        final WildcardMap<String> explicitOverrides = new WildcardMap<>();
         final String projectGA = ga(project);
         final Map<ArtifactRef, String> originalOverrides = new HashMap<>();
         overrides.forEach(p -> originalOverrides.put(new ArtifactPluginWrapper(p), p.getVersion()));
 
         final Map<ArtifactRef, String> originalOverridesReduced = applyModuleVersionOverrides(
                 projectGA,
-                pluginState.getPluginOverride(),
+                pluginState.getPluginOverrideRules(),
                 originalOverrides,
                 explicitOverrides,
                 Collections.emptyMap());
 
         // Now we have a reduced list of wrapper plugins (due to removing those are being explicitly overridden).
         // Therefore reflect that in the original plugin list.
+        boolean removed = false;
         final Iterator<Plugin> it = overrides.iterator();
         while (it.hasNext()) {
             final Plugin existing = it.next();
@@ -270,6 +311,21 @@ public class PluginManipulator extends CommonManipulator implements Manipulator
             }
             // Couldn't find it so remove it.
             it.remove();
+            removed = true;
+        }
+        return removed;
+    }
+
+    private void apply(
+            final Project project,
+            final Model model,
+            final Set<Plugin> overrides,
+            final GlobMap<String> explicitOverrides,
+            final Map<Project, Map<String, PropertyMapper>> propertyUpdates,
+            final Map<Project, Map<String, PropertyMapper>> explicitPropertyUpdates)
+            throws ManipulationException {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Applying plugin changes for {} to: {}", PluginType.RemotePM, ga(project));
         }
 
         if (project.isInheritanceRoot()) {
@@ -291,36 +347,39 @@ public class PluginManipulator extends CommonManipulator implements Manipulator
             }
 
             // Override plugin management versions
-            applyOverrides(project, PluginType.LocalPM, project.getResolvedManagedPlugins(), overrides);
+            applyOverrides(
+                    project,
+                    PluginType.LocalPM,
+                    project.getResolvedManagedPlugins(),
+                    overrides,
+                    propertyUpdates);
         }
 
-        applyOverrides(project, PluginType.LocalP, project.getResolvedPlugins(), overrides);
+        applyOverrides(project, PluginType.LocalP, project.getResolvedPlugins(), overrides, propertyUpdates);
         applyExplicitOverrides(
                 project,
                 project.getResolvedPlugins(),
                 explicitOverrides,
-                explicitVersionPropertyUpdateMap);
+                explicitPropertyUpdates);
         applyExplicitOverrides(
                 project,
                 project.getResolvedManagedPlugins(),
                 explicitOverrides,
-                explicitVersionPropertyUpdateMap);
+                explicitPropertyUpdates);
 
         final Map<Profile, Map<ProjectVersionRef, Plugin>> pd = project.getResolvedProfilePlugins();
         final Map<Profile, Map<ProjectVersionRef, Plugin>> pmd = project.getResolvedProfileManagedPlugins();
 
         logger.debug("Processing profiles with plugin management");
         for (final Map<ProjectVersionRef, Plugin> plugins : pmd.values()) {
-            applyOverrides(project, PluginType.LocalPM, plugins, overrides);
-            applyExplicitOverrides(project, plugins, explicitOverrides, explicitVersionPropertyUpdateMap);
+            applyOverrides(project, PluginType.LocalPM, plugins, overrides, propertyUpdates);
+            applyExplicitOverrides(project, plugins, explicitOverrides, explicitPropertyUpdates);
         }
         logger.debug("Processing profiles with plugins");
         for (final Map<ProjectVersionRef, Plugin> plugins : pd.values()) {
-            applyOverrides(project, PluginType.LocalP, plugins, overrides);
-            applyExplicitOverrides(project, plugins, explicitOverrides, explicitVersionPropertyUpdateMap);
+            applyOverrides(project, PluginType.LocalP, plugins, overrides, propertyUpdates);
+            applyExplicitOverrides(project, plugins, explicitOverrides, explicitPropertyUpdates);
         }
-
-        explicitOverridePropertyUpdates(session);
     }
 
     /**
@@ -343,6 +402,7 @@ public class PluginManipulator extends CommonManipulator implements Manipulator
      *        configs/deps/executions.
      * @param plugins The list of plugins to modify
      * @param pluginVersionOverrides The list of version overrides to apply to the plugins
+     * @param propertyUpdates the map to record any property updates in
      * @throws ManipulationException if an error occurs.
      */
     // TODO:  Pass in explicitOverrides to avoid potential property clashes.
@@ -350,7 +410,8 @@ public class PluginManipulator extends CommonManipulator implements Manipulator
             Project project,
             final PluginType localPluginType,
             final Map<ProjectVersionRef, Plugin> plugins,
-            final Set<Plugin> pluginVersionOverrides) throws ManipulationException {
+            final Set<Plugin> pluginVersionOverrides,
+            final Map<Project, Map<String, PropertyMapper>> propertyUpdates) throws ManipulationException {
         if (plugins == null) {
             throw new ManipulationException("Original plugins should not be null");
         }
@@ -504,7 +565,7 @@ public class PluginManipulator extends CommonManipulator implements Manipulator
                 if (!PropertiesUtils.cacheProperty(
                         session,
                         project,
-                        versionPropertyUpdateMap,
+                        propertyUpdates,
                         oldVersion,
                         newValue,
                         plugin,
@@ -67,7 +67,7 @@ public class PreparseGroovyManipulator
         final List<File> groovyScripts = parseGroovyScripts(state.getGroovyScripts());
 
         for (final File groovyScript : groovyScripts) {
-            applyGroovyScript(Collections.emptyList(), null, groovyScript);
+            applyGroovyScript(Collections.emptyList(), null, groovyScript, null);
         }
 
         return Collections.emptySet();
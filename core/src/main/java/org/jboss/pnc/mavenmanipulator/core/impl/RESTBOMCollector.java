@@ -18,6 +18,7 @@ package org.jboss.pnc.mavenmanipulator.core.impl;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
@@ -77,6 +78,16 @@ public class RESTBOMCollector
         return 4;
     }
 
+    @Override
+    public Set<Resource> getReads() {
+        return EnumSet.of(Resource.REST);
+    }
+
+    @Override
+    public Set<Resource> getWrites() {
+        return EnumSet.of(Resource.REST);
+    }
+
     private void populateBOMVersions() throws RestException {
         final RESTState state = session.getState(RESTState.class);
         final DependencyState ds = session.getState(DependencyState.class);
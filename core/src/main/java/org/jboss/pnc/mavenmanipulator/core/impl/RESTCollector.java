@@ -19,6 +19,7 @@ import static org.apache.commons.lang3.StringUtils.isEmpty;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -40,6 +41,7 @@ import org.commonjava.atlas.maven.ident.ref.SimpleTypeAndClassifier;
 import org.jboss.pnc.mavenmanipulator.common.Version;
 import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationException;
 import org.jboss.pnc.mavenmanipulator.common.model.Project;
+import org.jboss.pnc.mavenmanipulator.common.model.RefInterner;
 import org.jboss.pnc.mavenmanipulator.common.model.SimpleScopedArtifactRef;
 import org.jboss.pnc.mavenmanipulator.core.ManipulationSession;
 import org.jboss.pnc.mavenmanipulator.core.state.DependencyState;
@@ -183,6 +185,16 @@ public class RESTCollector
         return 10;
     }
 
+    @Override
+    public Set<Resource> getReads() {
+        return EnumSet.of(Resource.MODEL, Resource.PROPERTIES, Resource.REST);
+    }
+
+    @Override
+    public Set<Resource> getWrites() {
+        return EnumSet.of(Resource.REST);
+    }
+
     /**
      * Scans a list of projects and accumulates all dependencies and returns them.
      *
@@ -286,14 +298,16 @@ public class RESTCollector
             Set<ArtifactRef> deps,
             Map<ProjectVersionRef, Plugin> plugins) {
         final VersioningState vs = session.getState(VersioningState.class);
+        final RefInterner interner = session.getRefInterner();
 
         for (ProjectVersionRef pvr : plugins.keySet()) {
             deps.add(
-                    new SimpleScopedArtifactRef(
-                            new SimpleProjectVersionRef(
-                                    pvr.asProjectRef(),
-                                    handlePotentialSnapshotVersion(vs, pvr.getVersionString())),
-                            new SimpleTypeAndClassifier("maven-plugin", null),
+                    interner.artifactRef(
+                            pvr.getGroupId(),
+                            pvr.getArtifactId(),
+                            handlePotentialSnapshotVersion(vs, pvr.getVersionString()),
+                            "maven-plugin",
+                            null,
                             null));
         }
     }
@@ -311,15 +325,17 @@ public class RESTCollector
             Map<ArtifactRef, Dependency> dependencies) {
         final VersioningState vs = session.getState(VersioningState.class);
         final RESTState state = session.getState(RESTState.class);
+        final RefInterner interner = session.getRefInterner();
 
         for (final Entry<ArtifactRef, Dependency> entry : dependencies.entrySet()) {
             final ArtifactRef pvr = entry.getKey();
             final Dependency d = entry.getValue();
-            final SimpleScopedArtifactRef sa = new SimpleScopedArtifactRef(
-                    new SimpleProjectVersionRef(
-                            pvr.asProjectRef(),
-                            handlePotentialSnapshotVersion(vs, pvr.getVersionString())),
-                    new SimpleTypeAndClassifier(d.getType(), d.getClassifier()),
+            final SimpleScopedArtifactRef sa = interner.artifactRef(
+                    pvr.getGroupId(),
+                    pvr.getArtifactId(),
+                    handlePotentialSnapshotVersion(vs, pvr.getVersionString()),
+                    d.getType(),
+                    d.getClassifier(),
                     d.getScope());
 
             boolean validate = true;
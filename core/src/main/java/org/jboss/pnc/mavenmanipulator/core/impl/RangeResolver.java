@@ -15,10 +15,21 @@
  */
 package org.jboss.pnc.mavenmanipulator.core.impl;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
@@ -31,14 +42,16 @@ import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
 import org.apache.maven.artifact.versioning.InvalidVersionSpecificationException;
 import org.apache.maven.artifact.versioning.VersionRange;
 import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
 import org.apache.maven.model.Plugin;
+import org.apache.maven.model.Profile;
 import org.commonjava.atlas.maven.ident.ref.ProjectRef;
 import org.commonjava.atlas.maven.ident.ref.SimpleProjectRef;
 import org.commonjava.maven.galley.maven.GalleyMavenException;
 import org.commonjava.maven.galley.maven.model.view.meta.MavenMetadataView;
 import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationException;
-import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationUncheckedException;
 import org.jboss.pnc.mavenmanipulator.common.model.Project;
+import org.jboss.pnc.mavenmanipulator.common.util.PropertyInterpolator;
 import org.jboss.pnc.mavenmanipulator.common.util.PropertyResolver;
 import org.jboss.pnc.mavenmanipulator.core.ManipulationSession;
 import org.jboss.pnc.mavenmanipulator.core.state.RangeResolverState;
@@ -67,7 +80,7 @@ public class RangeResolver
     }
 
     @Override
-    public void init(final ManipulationSession session) {
+    public void init(final ManipulationSession session) throws ManipulationException {
         this.session = session;
         session.setState(new RangeResolverState(session.getUserProperties()));
     }
@@ -82,166 +95,185 @@ public class RangeResolver
             return Collections.emptySet();
         }
 
-        final Set<Project> changed = new HashSet<>(projects.size());
+        // The properties are not modified by this manipulator so resolve everything against the same context.
+        final PropertyInterpolator interpolator = PropertyResolver.createInterpolator(session, projects);
+        final List<RangedVersion> ranges = new ArrayList<>();
 
         for (final Project p : projects) {
-            try {
-                if (p.getModel().getBuild() != null) {
-                    // PluginManagement
-                    if (p.getModel().getBuild().getPluginManagement() != null) {
-                        p.getModel()
-                                .getBuild()
-                                .getPluginManagement()
-                                .getPlugins()
-                                .stream()
-                                .filter(plugin -> StringUtils.isNotEmpty(plugin.getVersion()))
-                                .forEach(plugin -> handleVersionWithRange(projects, plugin));
-                    }
-                    // Plugins
-                    p.getModel()
-                            .getBuild()
-                            .getPlugins()
-                            .stream()
-                            .filter(plugin -> StringUtils.isNotEmpty(plugin.getVersion()))
-                            .forEach(plugin -> handleVersionWithRange(projects, plugin));
+            final Model model = p.getModel();
+
+            if (model.getBuild() != null) {
+                // PluginManagement
+                if (model.getBuild().getPluginManagement() != null) {
+                    collectPlugins(interpolator, p, model.getBuild().getPluginManagement().getPlugins(), ranges);
                 }
+                // Plugins
+                collectPlugins(interpolator, p, model.getBuild().getPlugins(), ranges);
+            }
 
-                // DependencyManagement
-                if (p.getModel().getDependencyManagement() != null) {
-                    p.getModel()
-                            .getDependencyManagement()
-                            .getDependencies()
-                            .stream()
-                            .filter(dependency -> StringUtils.isNotEmpty(dependency.getVersion()))
-                            .forEach(dependency -> handleVersionWithRange(projects, dependency));
+            // DependencyManagement
+            if (model.getDependencyManagement() != null) {
+                collectDependencies(interpolator, p, model.getDependencyManagement().getDependencies(), ranges);
+            }
+            // Dependencies
+            collectDependencies(interpolator, p, model.getDependencies(), ranges);
+
+            for (final Profile profile : model.getProfiles()) {
+                if (profile.getDependencyManagement() == null) {
+                    continue;
                 }
+                // DependencyManagement
+                collectDependencies(interpolator, p, profile.getDependencyManagement().getDependencies(), ranges);
                 // Dependencies
-                p.getModel()
-                        .getDependencies()
-                        .stream()
-                        .filter(dependency -> StringUtils.isNotEmpty(dependency.getVersion()))
-                        .forEach(dependency -> handleVersionWithRange(projects, dependency));
-
-                p.getModel()
-                        .getProfiles()
-                        .stream()
-                        .filter(profile -> profile.getDependencyManagement() != null)
-                        .forEach(profile -> {
-                            // DependencyManagement
-                            profile.getDependencyManagement()
-                                    .getDependencies()
-                                    .stream()
-                                    .filter(dependency -> StringUtils.isNotEmpty(dependency.getVersion()))
-                                    .forEach(dependency -> handleVersionWithRange(projects, dependency));
-                            // Dependencies
-                            profile.getDependencies()
-                                    .stream()
-                                    .filter(dependency -> StringUtils.isNotEmpty(dependency.getVersion()))
-                                    .forEach(dependency -> handleVersionWithRange(projects, dependency));
-
-                            if (profile.getBuild() != null) {
-                                // PluginManagement
-                                if (profile.getBuild().getPluginManagement() != null) {
-                                    profile.getBuild()
-                                            .getPluginManagement()
-                                            .getPlugins()
-                                            .stream()
-                                            .filter(plugin -> StringUtils.isNotEmpty(plugin.getVersion()))
-                                            .forEach(plugin -> handleVersionWithRange(projects, plugin));
-                                }
-                                // Plugins
-                                profile.getBuild()
-                                        .getPlugins()
-                                        .stream()
-                                        .filter(plugin -> StringUtils.isNotEmpty(plugin.getVersion()))
-                                        .forEach(plugin -> handleVersionWithRange(projects, plugin));
-                            }
-                        });
-
-                changed.add(p);
-            } catch (RuntimeException e) {
-                if (e.getCause() instanceof ManipulationException) {
-                    throw (ManipulationException) e.getCause();
+                collectDependencies(interpolator, p, profile.getDependencies(), ranges);
+
+                if (profile.getBuild() != null) {
+                    // PluginManagement
+                    if (profile.getBuild().getPluginManagement() != null) {
+                        collectPlugins(interpolator, p, profile.getBuild().getPluginManagement().getPlugins(), ranges);
+                    }
+                    // Plugins
+                    collectPlugins(interpolator, p, profile.getBuild().getPlugins(), ranges);
                 }
-                throw e;
+            }
+        }
+
+        final Map<ProjectRef, List<ArtifactVersion>> versions = getVersions(
+                ranges.stream().map(r -> r.ga).collect(Collectors.toCollection(LinkedHashSet::new)),
+                state.getThreads());
+        final Set<Project> changed = new HashSet<>();
+
+        for (final RangedVersion r : ranges) {
+            final ArtifactVersion result = r.range.matchVersion(versions.get(r.ga));
+
+            logger.debug(
+                    "Resolved range for {} got versionRange {} and potential replacement of {}",
+                    r.target,
+                    r.range,
+                    result);
+
+            if (result != null) {
+                r.setter.accept(result.toString());
+                changed.add(r.project);
+            } else {
+                logger.warn("Unable to find replacement for range.");
             }
         }
         return changed;
     }
 
-    private void handleVersionWithRange(List<Project> projects, Plugin p) {
-        final String version = PropertyResolver.resolvePropertiesUnchecked(session, projects, p.getVersion());
+    private void collectPlugins(
+            PropertyInterpolator interpolator,
+            Project project,
+            List<Plugin> plugins,
+            List<RangedVersion> ranges) throws ManipulationException {
+        for (final Plugin plugin : plugins) {
+            collect(
+                    interpolator,
+                    project,
+                    plugin,
+                    plugin.getGroupId(),
+                    plugin.getArtifactId(),
+                    plugin.getVersion(),
+                    plugin::setVersion,
+                    ranges);
+        }
+    }
+
+    private void collectDependencies(
+            PropertyInterpolator interpolator,
+            Project project,
+            List<Dependency> dependencies,
+            List<RangedVersion> ranges) throws ManipulationException {
+        for (final Dependency dependency : dependencies) {
+            collect(
+                    interpolator,
+                    project,
+                    dependency,
+                    dependency.getGroupId(),
+                    dependency.getArtifactId(),
+                    dependency.getVersion(),
+                    dependency::setVersion,
+                    ranges);
+        }
+    }
 
+    private void collect(
+            PropertyInterpolator interpolator,
+            Project project,
+            Object target,
+            String groupId,
+            String artifactId,
+            String version,
+            Consumer<String> setter,
+            List<RangedVersion> ranges) throws ManipulationException {
+        if (StringUtils.isEmpty(version)) {
+            return;
+        }
         try {
-            final VersionRange versionRange = VersionRange.createFromVersionSpec(version);
+            final VersionRange versionRange = VersionRange.createFromVersionSpec(interpolator.interp(version));
 
             // If it's a range then try to use a matching version...
             if (versionRange.hasRestrictions()) {
-                final String groupId = PropertyResolver.resolvePropertiesUnchecked(session, projects, p.getGroupId());
-                final String artifactId = PropertyResolver.resolvePropertiesUnchecked(
-                        session,
-                        projects,
-                        p.getArtifactId());
-                final List<ArtifactVersion> versions = getVersions(new SimpleProjectRef(groupId, artifactId));
-                final ArtifactVersion result = versionRange.matchVersion(versions);
-
-                logger.debug(
-                        "Resolved range for plugin {} got versionRange {} and potential replacement of {}",
-                        p,
-                        versionRange,
-                        result);
-
-                if (result != null) {
-                    p.setVersion(result.toString());
-                } else {
-                    logger.warn("Unable to find replacement for range.");
-                }
+                ranges.add(
+                        new RangedVersion(
+                                project,
+                                target,
+                                new SimpleProjectRef(interpolator.interp(groupId), interpolator.interp(artifactId)),
+                                versionRange,
+                                setter));
             }
         } catch (InvalidVersionSpecificationException e) {
-            throw new ManipulationUncheckedException(new ManipulationException("Invalid range", e));
+            throw new ManipulationException("Invalid range", e);
         }
     }
 
-    private void handleVersionWithRange(List<Project> projects, Dependency d) {
-        final String version = PropertyResolver.resolvePropertiesUnchecked(session, projects, d.getVersion());
+    /**
+     * Reads the available versions for each distinct groupId:artifactId, concurrently if there are several. The
+     * number of concurrent requests follows the {@link RangeResolverState#RESOLVE_RANGES_THREADS} setting.
+     */
+    private Map<ProjectRef, List<ArtifactVersion>> getVersions(Set<ProjectRef> gas, int maxThreads)
+            throws ManipulationException {
+        final Map<ProjectRef, List<ArtifactVersion>> result = new HashMap<>();
 
-        try {
-            final VersionRange versionRange = VersionRange.createFromVersionSpec(version);
+        final int threads = Math.min(gas.size(), maxThreads);
 
-            // If it's a range then try to use a matching version...
-            if (versionRange.hasRestrictions()) {
-                final String groupId = PropertyResolver.resolvePropertiesUnchecked(session, projects, d.getGroupId());
-                final String artifactId = PropertyResolver.resolvePropertiesUnchecked(
-                        session,
-                        projects,
-                        d.getArtifactId());
-                final List<ArtifactVersion> versions = getVersions(new SimpleProjectRef(groupId, artifactId));
-                final ArtifactVersion result = versionRange.matchVersion(versions);
-
-                logger.debug(
-                        "Resolved range for dependency {} got versionRange {} and potential replacement of {}",
-                        d,
-                        versionRange,
-                        result);
-
-                if (result != null) {
-                    d.setVersion(result.toString());
-                } else {
-                    logger.warn("Unable to find replacement for range");
-                }
+        if (threads <= 1) {
+            for (ProjectRef ga : gas) {
+                result.put(ga, getVersions(ga));
             }
-        } catch (InvalidVersionSpecificationException e) {
-            throw new ManipulationUncheckedException(new ManipulationException("Invalid range", e));
+            return result;
         }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final Map<ProjectRef, Future<List<ArtifactVersion>>> futures = new LinkedHashMap<>();
+            for (ProjectRef ga : gas) {
+                futures.put(ga, executor.submit(() -> getVersions(ga)));
+            }
+            for (Map.Entry<ProjectRef, Future<List<ArtifactVersion>>> entry : futures.entrySet()) {
+                result.put(entry.getKey(), entry.getValue().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ManipulationException("Interrupted reading metadata", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ManipulationException) {
+                throw (ManipulationException) e.getCause();
+            }
+            throw new ManipulationException("Caught exception reading metadata", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return result;
     }
 
-    private List<ArtifactVersion> getVersions(ProjectRef ga) {
+    private List<ArtifactVersion> getVersions(ProjectRef ga) throws ManipulationException {
         final MavenMetadataView mavenMetadataView;
         try {
             mavenMetadataView = readerWrapper.readMetadataView(ga);
         } catch (GalleyMavenException e) {
-            throw new ManipulationUncheckedException(
-                    new ManipulationException("Caught Galley exception processing artifact", e));
+            throw new ManipulationException("Caught Galley exception processing artifact", e);
         }
         return mavenMetadataView.resolveXPathToAggregatedStringList("/metadata/versioning/versions/version", true, -1)
                 .stream()
@@ -250,9 +282,47 @@ public class RangeResolver
                 .collect(Collectors.toList());
     }
 
+    /**
+     * A dependency or plugin whose version is a range.
+     */
+    private static final class RangedVersion {
+        private final Project project;
+
+        private final Object target;
+
+        private final ProjectRef ga;
+
+        private final VersionRange range;
+
+        private final Consumer<String> setter;
+
+        private RangedVersion(
+                Project project,
+                Object target,
+                ProjectRef ga,
+                VersionRange range,
+                Consumer<String> setter) {
+            this.project = project;
+            this.target = target;
+            this.ga = ga;
+            this.range = range;
+            this.setter = setter;
+        }
+    }
+
     @Override
     public int getExecutionIndex() {
         // Low value index so it runs very early in order to lock the versions down prior to attempting REST alignment.
         return 2;
     }
+
+    @Override
+    public Set<Resource> getReads() {
+        return EnumSet.of(Resource.MODEL, Resource.PROPERTIES);
+    }
+
+    @Override
+    public Set<Resource> getWrites() {
+        return EnumSet.of(Resource.MODEL);
+    }
 }
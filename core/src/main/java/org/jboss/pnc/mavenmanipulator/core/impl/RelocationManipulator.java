@@ -40,8 +40,8 @@ import org.commonjava.atlas.maven.ident.ref.SimpleProjectVersionRef;
 import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationException;
 import org.jboss.pnc.mavenmanipulator.common.model.Project;
 import org.jboss.pnc.mavenmanipulator.common.model.SimpleScopedArtifactRef;
+import org.jboss.pnc.mavenmanipulator.common.util.GlobMap;
 import org.jboss.pnc.mavenmanipulator.common.util.ProfileUtils;
-import org.jboss.pnc.mavenmanipulator.common.util.WildcardMap;
 import org.jboss.pnc.mavenmanipulator.core.ManipulationSession;
 import org.jboss.pnc.mavenmanipulator.core.state.RelocationState;
 import org.jboss.pnc.mavenmanipulator.core.state.State;
@@ -81,7 +81,7 @@ public class RelocationManipulator
     public void init(final ManipulationSession session)
             throws ManipulationException {
         this.session = session;
-        session.setState(new RelocationState(session.getUserProperties()));
+        session.setState(new RelocationState(session.getConfig()));
     }
 
     /**
@@ -113,8 +113,8 @@ public class RelocationManipulator
     private boolean apply(final Project project, final Model model) throws ManipulationException {
         boolean result = false;
         final RelocationState state = session.getState(RelocationState.class);
-        final WildcardMap<ProjectVersionRef> dependencyRelocations = state.getDependencyRelocations();
-        final WildcardMap<ProjectVersionRef> pluginRelocations = state.getPluginRelocations();
+        final GlobMap<ProjectVersionRef> dependencyRelocations = state.getDependencyRelocations().toGlobMap();
+        final GlobMap<ProjectVersionRef> pluginRelocations = state.getPluginRelocations().toGlobMap();
 
         logger.debug(
                 "Applying relocation changes for dependencies ({}) and for plugins ({}) to: {}:{}",
@@ -180,7 +180,7 @@ public class RelocationManipulator
 
     private boolean updateDependencies(
             Project project,
-            WildcardMap<ProjectVersionRef> relocations,
+            GlobMap<ProjectVersionRef> relocations,
             Map<ArtifactRef, Dependency> dependencies)
             throws ManipulationException {
         final Map<ArtifactRef, Dependency> postFixUp = new HashMap<>();
@@ -205,7 +205,7 @@ public class RelocationManipulator
                             dependency.getArtifactId(),
                             relocation.getArtifactId());
 
-                    if (!relocation.getArtifactId().equals(WildcardMap.WILDCARD)) {
+                    if (!relocation.getArtifactId().equals(GlobMap.WILDCARD)) {
                         DependencyPluginUtils.updateString(
                                 project,
                                 session,
@@ -214,7 +214,7 @@ public class RelocationManipulator
                                 relocation.getArtifactId(),
                                 d -> dependency.setArtifactId(relocation.getArtifactId()));
                     }
-                    if (relocation.getVersionString().equals(WildcardMap.WILDCARD)) {
+                    if (relocation.getVersionString().equals(GlobMap.WILDCARD)) {
                         logger.debug("No version alignment to perform for relocation {}", relocation);
                     } else {
                         for (final String target : relocation.getVersionString().split(",")) {
@@ -266,8 +266,8 @@ public class RelocationManipulator
     }
 
     private boolean updatePlugins(
-            WildcardMap<ProjectVersionRef> pluginRelocations,
-            final WildcardMap<ProjectVersionRef> dependencyRelocations,
+            GlobMap<ProjectVersionRef> pluginRelocations,
+            final GlobMap<ProjectVersionRef> dependencyRelocations,
             final Project project,
             final Map<ProjectVersionRef, Plugin> pluginMap) throws ManipulationException {
         final Map<ProjectVersionRef, Plugin> postFixUp = new HashMap<>();
@@ -296,7 +296,7 @@ public class RelocationManipulator
                             relocation.getGroupId(),
                             d -> pluginReference.groupIdNode.setTextContent(relocation.getGroupId()));
 
-                    if (!relocation.getArtifactId().equals(WildcardMap.WILDCARD)) {
+                    if (!relocation.getArtifactId().equals(GlobMap.WILDCARD)) {
                         DependencyPluginUtils.updateString(
                                 project,
                                 session,
@@ -307,7 +307,7 @@ public class RelocationManipulator
                     }
 
                     if (pluginReference.versionNode != null) {
-                        if (relocation.getVersionString().equals(WildcardMap.WILDCARD)) {
+                        if (relocation.getVersionString().equals(GlobMap.WILDCARD)) {
                             logger.debug("No version alignment to perform for relocation {}", relocation);
                         } else {
                             String originalVersion = pluginReference.versionNode.getTextContent();
@@ -359,7 +359,7 @@ public class RelocationManipulator
                             plugin.getArtifactId(),
                             relocation.getArtifactId());
 
-                    if (!relocation.getArtifactId().equals(WildcardMap.WILDCARD)) {
+                    if (!relocation.getArtifactId().equals(GlobMap.WILDCARD)) {
                         DependencyPluginUtils.updateString(
                                 project,
                                 session,
@@ -368,7 +368,7 @@ public class RelocationManipulator
                                 relocation.getArtifactId(),
                                 d -> plugin.setArtifactId(relocation.getArtifactId()));
                     }
-                    if (relocation.getVersionString().equals(WildcardMap.WILDCARD)) {
+                    if (relocation.getVersionString().equals(GlobMap.WILDCARD)) {
                         logger.debug("No version alignment to perform for relocation {}", relocation);
                     } else {
                         String originalVersion = plugin.getVersion();
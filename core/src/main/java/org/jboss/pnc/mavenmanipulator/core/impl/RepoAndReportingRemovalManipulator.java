@@ -20,6 +20,7 @@ import static org.apache.commons.lang3.StringUtils.isEmpty;
 
 import java.io.File;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -244,4 +245,14 @@ public class RepoAndReportingRemovalManipulator
     public int getExecutionIndex() {
         return 50;
     }
+
+    @Override
+    public Set<Resource> getReads() {
+        return EnumSet.of(Resource.MODEL);
+    }
+
+    @Override
+    public Set<Resource> getWrites() {
+        return EnumSet.of(Resource.MODEL, Resource.FILES);
+    }
 }
@@ -18,15 +18,18 @@ package org.jboss.pnc.mavenmanipulator.core.impl;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
-import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpressionException;
 
@@ -51,8 +54,6 @@ public class XMLManipulator
         implements Manipulator {
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
-    private final XPath xPath;
-
     private final XMLIO xmlIO;
 
     private ManipulationSession session;
@@ -60,7 +61,6 @@ public class XMLManipulator
     @Inject
     public XMLManipulator(XMLIO xmlIO) {
         this.xmlIO = xmlIO;
-        this.xPath = xmlIO.getXPath();
     }
 
     /**
@@ -92,8 +92,13 @@ public class XMLManipulator
 
         for (final Project project : projects) {
             if (project.isExecutionRoot()) {
+                // Group the operations by target file so each file is only parsed and written once.
+                final Map<String, List<XMLState.XMLOperation>> byFile = new LinkedHashMap<>();
                 for (XMLState.XMLOperation operation : scripts) {
-                    internalApplyChanges(project, operation);
+                    byFile.computeIfAbsent(operation.getFile(), k -> new ArrayList<>()).add(operation);
+                }
+                for (Map.Entry<String, List<XMLState.XMLOperation>> entry : byFile.entrySet()) {
+                    internalApplyChanges(project, entry.getKey(), entry.getValue());
 
                     changed.add(project);
                 }
@@ -105,41 +110,48 @@ public class XMLManipulator
     }
 
     void internalApplyChanges(Project project, XMLState.XMLOperation operation) throws ManipulationException {
-        File target = new File(project.getPom().getParentFile(), operation.getFile());
+        internalApplyChanges(project, operation.getFile(), Collections.singletonList(operation));
+    }
 
-        logger.info(
-                "Attempting to start XML update to file {} with xpath {} and replacement {}",
-                target,
-                operation.getXPath(),
-                operation.getUpdate());
+    void internalApplyChanges(Project project, String file, List<XMLState.XMLOperation> operations)
+            throws ManipulationException {
+        File target = new File(project.getPom().getParentFile(), file);
 
         Document doc = xmlIO.parseXML(target);
 
         try {
-            NodeList nodeList = (NodeList) xPath.evaluate(operation.getXPath(), doc, XPathConstants.NODESET);
-
-            if (nodeList.getLength() == 0) {
-                if (project.isIncrementalPME()) {
-                    logger.warn("Did not locate XML using XPath {}", operation.getXPath());
-                    return;
-                } else {
-                    logger.error(
-                            "XPath {} did not find any expressions within {}",
-                            operation.getXPath(),
-                            operation.getFile());
-                    throw new ManipulationException("Did not locate XML using XPath {}", operation.getXPath());
+            for (XMLState.XMLOperation operation : operations) {
+                logger.info(
+                        "Attempting to start XML update to file {} with xpath {} and replacement {}",
+                        target,
+                        operation.getXPath(),
+                        operation.getUpdate());
+
+                NodeList nodeList = (NodeList) operation.getExpression().evaluate(doc, XPathConstants.NODESET);
+
+                if (nodeList.getLength() == 0) {
+                    if (project.isIncrementalPME()) {
+                        logger.warn("Did not locate XML using XPath {}", operation.getXPath());
+                        continue;
+                    } else {
+                        logger.error(
+                                "XPath {} did not find any expressions within {}",
+                                operation.getXPath(),
+                                operation.getFile());
+                        throw new ManipulationException("Did not locate XML using XPath {}", operation.getXPath());
+                    }
                 }
-            }
 
-            for (int i = 0; i < nodeList.getLength(); i++) {
-                Node node = nodeList.item(i);
+                for (int i = 0; i < nodeList.getLength(); i++) {
+                    Node node = nodeList.item(i);
 
-                if (isEmpty(operation.getUpdate())) {
-                    // Delete
-                    node.getParentNode().removeChild(node);
-                } else {
-                    // Update
-                    node.setTextContent(operation.getUpdate());
+                    if (isEmpty(operation.getUpdate())) {
+                        // Delete
+                        node.getParentNode().removeChild(node);
+                    } else {
+                        // Update
+                        node.setTextContent(operation.getUpdate());
+                    }
                 }
             }
 
@@ -154,4 +166,14 @@ public class XMLManipulator
     public int getExecutionIndex() {
         return 91;
     }
+
+    @Override
+    public Set<Resource> getReads() {
+        return EnumSet.of(Resource.FILES);
+    }
+
+    @Override
+    public Set<Resource> getWrites() {
+        return EnumSet.of(Resource.FILES);
+    }
 }
@@ -94,6 +94,14 @@ public class CommonState
     @ConfigValue(docIndex = "dep-manip.html#strict-property-validation")
     public static final String DEPENDENCY_PROPERTY_VALIDATION = "strictPropertyValidation";
 
+    /**
+     * Whether dependency and plugin alignment may process separate inheritance hierarchies concurrently. The projects
+     * within a hierarchy are still aligned in order and property updates are merged in project order before they are
+     * applied.
+     */
+    @ConfigValue(docIndex = "dep-manip.html#parallel-alignment")
+    public static final String PARALLEL_ALIGNMENT = "parallelAlignment";
+
     /**
      * Whether to override transitive as well. This is common between {@link DependencyState} and
      * {@link DependencyState}.
@@ -122,6 +130,8 @@ public class CommonState
 
     private List<String> excludedScopes;
 
+    private boolean parallelAlignment;
+
     public CommonState(final Properties userProps) throws ManipulationException {
         initialise(userProps);
     }
@@ -133,6 +143,7 @@ public class CommonState
         strict = Boolean.parseBoolean(userProps.getProperty(STRICT_ALIGNMENT, "true"));
         strictIgnoreSuffix = Boolean.parseBoolean(userProps.getProperty(STRICT_ALIGNMENT_IGNORE_SUFFIX, "true"));
         failOnStrictViolation = Boolean.parseBoolean(userProps.getProperty(STRICT_VIOLATION_FAILS, "false"));
+        parallelAlignment = Boolean.parseBoolean(userProps.getProperty(PARALLEL_ALIGNMENT, "false"));
         excludedScopes = Arrays.asList(
                 userProps.getProperty(EXCLUDED_SCOPES, "").length() > 0
                         ? userProps.getProperty(EXCLUDED_SCOPES).split(",")
@@ -31,7 +31,9 @@ import org.commonjava.atlas.maven.ident.ref.SimpleProjectVersionRef;
 import org.jboss.pnc.mavenmanipulator.annotation.ConfigValue;
 import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationException;
 import org.jboss.pnc.mavenmanipulator.core.impl.DependencyManipulator;
+import org.jboss.pnc.mavenmanipulator.core.util.ConfigSnapshot;
 import org.jboss.pnc.mavenmanipulator.core.util.IdUtils;
+import org.jboss.pnc.mavenmanipulator.core.util.OverrideRules;
 
 /**
  * Captures configuration relating to dependency alignment from the POMs. Used by {@link DependencyManipulator}.
@@ -134,6 +136,8 @@ public class DependencyState
 
     private Map<String, String> dependencyOverrides;
 
+    private OverrideRules dependencyOverrideRules;
+
     private Map<ArtifactRef, String> remoteRESTdepMgmt;
 
     private DependencyPrecedence precedence;
@@ -142,20 +146,29 @@ public class DependencyState
         initialise(userProps);
     }
 
+    public DependencyState(final ConfigSnapshot config) throws ManipulationException {
+        initialise(config);
+    }
+
     @Override
     public void initialise(Properties userProps) throws ManipulationException {
-        remoteBOMdepMgmt = IdUtils.parseGAVs(userProps.getProperty(DEPENDENCY_MANAGEMENT_POM_PROPERTY));
+        initialise(ConfigSnapshot.of(userProps));
+    }
+
+    @Override
+    public void initialise(ConfigSnapshot config) throws ManipulationException {
+        remoteBOMdepMgmt = IdUtils.parseGAVs(config.getProperty(DEPENDENCY_MANAGEMENT_POM_PROPERTY));
 
         extraBOMDepMgmts = new HashMap<>();
         extraBOMs = new HashMap<>();
 
-        for (Entry<String, String> extra : getPropertiesByPrefix(userProps, EXTRA_BOM_PREFIX).entrySet()) {
+        for (Entry<String, String> extra : getPropertiesByPrefix(config, EXTRA_BOM_PREFIX).entrySet()) {
             extraBOMs.put(extra.getKey(), SimpleProjectVersionRef.parse(extra.getValue()));
         }
 
-        dependencyOverrides = getPropertiesByPrefix(userProps, DEPENDENCY_EXCLUSION_PREFIX);
+        dependencyOverrides = getPropertiesByPrefix(config, DEPENDENCY_EXCLUSION_PREFIX);
 
-        final Map<String, String> oP = getPropertiesByPrefix(userProps, DEPENDENCY_OVERRIDE_PREFIX);
+        final Map<String, String> oP = getPropertiesByPrefix(config, DEPENDENCY_OVERRIDE_PREFIX);
         for (final Entry<String, String> entry : oP.entrySet()) {
             final String s = entry.getKey();
             if (dependencyOverrides.put(s, entry.getValue()) != null) {
@@ -164,7 +177,9 @@ public class DependencyState
                         s);
             }
         }
-        String sourceValue = userProps.getProperty(
+        dependencyOverrideRules = new OverrideRules(dependencyOverrides);
+
+        String sourceValue = config.getProperty(
                 DEPENDENCY_SOURCE,
                 DependencyPrecedence.BOM.toString()).toUpperCase();
         if (StringUtils.isEmpty(sourceValue)) {
@@ -194,7 +209,7 @@ public class DependencyState
             default: {
                 throw new ManipulationException(
                         "Unknown value {} for {}",
-                        userProps.getProperty(DEPENDENCY_SOURCE),
+                        config.getProperty(DEPENDENCY_SOURCE),
                         DEPENDENCY_SOURCE);
             }
         }
@@ -243,4 +258,11 @@ public class DependencyState
     public Map<String, String> getDependencyOverrides() {
         return dependencyOverrides;
     }
+
+    /**
+     * @return the module specific dependency overrides and exclusions, indexed by the module they apply to.
+     */
+    public OverrideRules getDependencyOverrideRules() {
+        return dependencyOverrideRules;
+    }
 }
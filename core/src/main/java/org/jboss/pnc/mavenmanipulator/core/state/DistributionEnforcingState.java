@@ -22,6 +22,7 @@ import java.util.Properties;
 
 import org.jboss.pnc.mavenmanipulator.annotation.ConfigValue;
 import org.jboss.pnc.mavenmanipulator.core.impl.DistributionEnforcingManipulator;
+import org.jboss.pnc.mavenmanipulator.core.util.ConfigSnapshot;
 
 /**
  * Captures configuration relating to enforcing distribution (install/deploy) configurations within the POM(s). Used by
@@ -49,10 +50,19 @@ public class DistributionEnforcingState
         initialise(userProps);
     }
 
+    public DistributionEnforcingState(final ConfigSnapshot config) {
+        initialise(config);
+    }
+
     public void initialise(Properties userProps) {
-        final String value = userProps.getProperty(ENFORCE_SYSPROP);
+        initialise(ConfigSnapshot.of(userProps));
+    }
+
+    @Override
+    public void initialise(ConfigSnapshot config) {
+        final String value = config.getProperty(ENFORCE_SYSPROP);
 
-        excludedProjects = getPropertiesByPrefix(userProps, DistributionEnforcingState.PROJECT_EXCLUSION_PREFIX);
+        excludedProjects = getPropertiesByPrefix(config, DistributionEnforcingState.PROJECT_EXCLUSION_PREFIX);
         mode = EnforcingMode.getMode(value);
     }
 
@@ -27,6 +27,8 @@ import org.jboss.pnc.mavenmanipulator.core.impl.JSONManipulator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.jayway.jsonpath.JsonPath;
+
 /**
  * Captures configuration relating to JSON manipulation. Used by {@link JSONManipulator}.
  */
@@ -106,6 +108,11 @@ public class JSONState
 
         private String update;
 
+        /**
+         * Compiled form of the xpath, lazily created and cached so it is only compiled once per session.
+         */
+        private JsonPath path;
+
         public JSONOperation(String file, String xpath, String update) {
             this.file = file;
             this.xpath = xpath;
@@ -124,6 +131,13 @@ public class JSONState
             return update;
         }
 
+        public synchronized JsonPath getPath() {
+            if (path == null) {
+                path = JsonPath.compile(xpath);
+            }
+            return path;
+        }
+
         @Override
         public String toString() {
             return "File " + file + " xpath '" + xpath + "' update " + update;
@@ -30,7 +30,9 @@ import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
 import org.jboss.pnc.mavenmanipulator.annotation.ConfigValue;
 import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationException;
 import org.jboss.pnc.mavenmanipulator.core.impl.PluginManipulator;
+import org.jboss.pnc.mavenmanipulator.core.util.ConfigSnapshot;
 import org.jboss.pnc.mavenmanipulator.core.util.IdUtils;
+import org.jboss.pnc.mavenmanipulator.core.util.OverrideRules;
 
 import lombok.Getter;
 
@@ -112,15 +114,31 @@ public class PluginState
     @Getter
     private Map<String, String> pluginOverride;
 
+    /**
+     * The module specific plugin overrides, indexed by the module they apply to.
+     */
+    @Getter
+    private OverrideRules pluginOverrideRules;
+
     public PluginState(final Properties userProps) throws ManipulationException {
         initialise(userProps);
     }
 
+    public PluginState(final ConfigSnapshot config) throws ManipulationException {
+        initialise(config);
+    }
+
     public void initialise(Properties userProps) throws ManipulationException {
-        remotePluginMgmt = IdUtils.parseGAVs(userProps.getProperty(PLUGIN_MANAGEMENT_POM_PROPERTY));
-        pluginOverride = getPropertiesByPrefix(userProps, PLUGIN_OVERRIDE_PREFIX);
+        initialise(ConfigSnapshot.of(userProps));
+    }
+
+    @Override
+    public void initialise(ConfigSnapshot config) throws ManipulationException {
+        remotePluginMgmt = IdUtils.parseGAVs(config.getProperty(PLUGIN_MANAGEMENT_POM_PROPERTY));
+        pluginOverride = getPropertiesByPrefix(config, PLUGIN_OVERRIDE_PREFIX);
+        pluginOverrideRules = new OverrideRules(pluginOverride);
         switch (Precedence.valueOf(
-                userProps.getProperty(
+                config.getProperty(
                         PLUGIN_MANAGEMENT_PRECEDENCE,
                         Precedence.REMOTE.toString()).toUpperCase())) {
             case LOCAL: {
@@ -136,9 +154,9 @@ public class PluginState
         // While pluginState can have a separate precedence to dependencyState by default it takes the same. This
         // is a slight shortcut to avoid duplicate configuring while still allowing flexibility.
         switch (PluginPrecedence.valueOf(
-                (userProps.getProperty(
+                (config.getProperty(
                         PLUGIN_SOURCE,
-                        userProps.getProperty(
+                        config.getProperty(
                                 DependencyState.DEPENDENCY_SOURCE,
                                 DependencyState.DependencyPrecedence.BOM.toString())))
                         .toUpperCase())) {
@@ -165,7 +183,7 @@ public class PluginState
             default: {
                 throw new ManipulationException(
                         "Unknown value {} for {}",
-                        userProps.getProperty(PLUGIN_SOURCE),
+                        config.getProperty(PLUGIN_SOURCE),
                         PLUGIN_SOURCE);
             }
         }
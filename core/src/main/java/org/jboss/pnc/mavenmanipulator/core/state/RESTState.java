@@ -103,16 +103,19 @@ public class RESTState implements State {
                         REST_RETRY_DURATION_SEC,
                         String.valueOf(DefaultTranslator.RETRY_DURATION_SEC)));
 
-        restEndpoint = new DefaultTranslator(
-                restURL,
-                restMaxSize,
-                restMinSize,
-                brewPullActive,
-                mode,
-                restHeaders,
-                restConnectionTimeout,
-                restSocketTimeout,
-                restRetryDuration);
+        restEndpoint = session.getCacheBundle()
+                .translator(
+                        new DefaultTranslator(
+                                restURL,
+                                restMaxSize,
+                                restMinSize,
+                                brewPullActive,
+                                mode,
+                                restHeaders,
+                                restConnectionTimeout,
+                                restSocketTimeout,
+                                restRetryDuration,
+                                session.getMetrics()));
     }
 
     /**
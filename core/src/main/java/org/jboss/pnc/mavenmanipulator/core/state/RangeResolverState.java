@@ -18,6 +18,7 @@ package org.jboss.pnc.mavenmanipulator.core.state;
 import java.util.Properties;
 
 import org.jboss.pnc.mavenmanipulator.annotation.ConfigValue;
+import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationException;
 import org.jboss.pnc.mavenmanipulator.core.impl.RangeResolver;
 
 /**
@@ -32,18 +33,34 @@ public class RangeResolverState
     @ConfigValue(docIndex = "misc.html#version-range-resolving")
     private static final String RESOLVE_RANGES_PROPERTY = "resolveRanges";
 
+    /**
+     * The number of artifacts to read the metadata of concurrently when resolving ranges. Defaults to 4.
+     */
+    @ConfigValue(docIndex = "misc.html#version-range-resolving")
+    public static final String RESOLVE_RANGES_THREADS = "resolveRangesThreads";
+
+    private static final int DEFAULT_RESOLVE_RANGES_THREADS = 4;
+
     static {
         State.activeByDefault.add(RangeResolverState.class);
     }
 
     private Boolean enabled;
 
-    public RangeResolverState(final Properties userProps) {
+    private int threads;
+
+    public RangeResolverState(final Properties userProps) throws ManipulationException {
         initialise(userProps);
     }
 
-    public void initialise(Properties userProps) {
+    public void initialise(Properties userProps) throws ManipulationException {
         enabled = Boolean.parseBoolean(userProps.getProperty(RESOLVE_RANGES_PROPERTY, "true"));
+        try {
+            threads = Integer.parseInt(
+                    userProps.getProperty(RESOLVE_RANGES_THREADS, Integer.toString(DEFAULT_RESOLVE_RANGES_THREADS)));
+        } catch (NumberFormatException e) {
+            throw new ManipulationException("Invalid value for {}", RESOLVE_RANGES_THREADS, e);
+        }
     }
 
     /**
@@ -56,4 +73,12 @@ public class RangeResolverState
     public boolean isEnabled() {
         return enabled;
     }
+
+    /**
+     * @return the number of artifacts to read the metadata of concurrently.
+     * @see #RESOLVE_RANGES_THREADS
+     */
+    public int getThreads() {
+        return threads;
+    }
 }
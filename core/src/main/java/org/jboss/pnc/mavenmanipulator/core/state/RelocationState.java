@@ -27,6 +27,7 @@ import org.commonjava.atlas.maven.ident.ref.SimpleProjectVersionRef;
 import org.jboss.pnc.mavenmanipulator.annotation.ConfigValue;
 import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationException;
 import org.jboss.pnc.mavenmanipulator.common.util.WildcardMap;
+import org.jboss.pnc.mavenmanipulator.core.util.ConfigSnapshot;
 import org.jboss.pnc.mavenmanipulator.core.util.PropertiesUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -63,28 +64,40 @@ public class RelocationState
     private static final Logger logger = LoggerFactory.getLogger(RelocationState.class);
 
     @Getter
-    private final WildcardMap<ProjectVersionRef> dependencyRelocations = new WildcardMap<>();
+    private WildcardMap<ProjectVersionRef> dependencyRelocations = new WildcardMap<>();
 
     @Getter
-    private final WildcardMap<ProjectVersionRef> pluginRelocations = new WildcardMap<>();
+    private WildcardMap<ProjectVersionRef> pluginRelocations = new WildcardMap<>();
 
     public RelocationState(final Properties userProps)
             throws ManipulationException {
         initialise(userProps);
     }
 
+    public RelocationState(final ConfigSnapshot config)
+            throws ManipulationException {
+        initialise(config);
+    }
+
     public void initialise(Properties userProps) throws ManipulationException {
+        initialise(ConfigSnapshot.of(userProps));
+    }
+
+    @Override
+    public void initialise(ConfigSnapshot config) throws ManipulationException {
         // This contains everything before the equals and a possibly null set of values. We now need to further
         // post-process this into something useful i.e. establish whether we are relocating groupIds and artifactIds.
-        Map<String, String> depPropRelocs = PropertiesUtils.getPropertiesByPrefix(userProps, DEPENDENCY_RELOCATIONS);
-        Map<String, String> pluginPropRelocs = PropertiesUtils.getPropertiesByPrefix(userProps, PLUGIN_RELOCATIONS);
+        Map<String, String> depPropRelocs = PropertiesUtils.getPropertiesByPrefix(config, DEPENDENCY_RELOCATIONS);
+        Map<String, String> pluginPropRelocs = PropertiesUtils.getPropertiesByPrefix(config, PLUGIN_RELOCATIONS);
 
-        processProperties(dependencyRelocations, depPropRelocs);
-        processProperties(pluginRelocations, pluginPropRelocs);
+        dependencyRelocations = processProperties(depPropRelocs);
+        pluginRelocations = processProperties(pluginPropRelocs);
     }
 
-    private void processProperties(WildcardMap<ProjectVersionRef> map, Map<String, String> propRelocs)
+    private WildcardMap<ProjectVersionRef> processProperties(Map<String, String> propRelocs)
             throws ManipulationException {
+        final WildcardMap<ProjectVersionRef> map = new WildcardMap<>();
+
         for (Map.Entry<String, String> entry : propRelocs.entrySet()) {
             String[] split = entry.getKey().split(":", 3);
             if (split.length != 3) {
@@ -140,6 +153,7 @@ public class RelocationState
         }
 
         logger.trace("Wildcard map {}", map);
+        return map;
     }
 
     /**
@@ -21,6 +21,7 @@ import java.util.Properties;
 
 import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationException;
 import org.jboss.pnc.mavenmanipulator.core.impl.Manipulator;
+import org.jboss.pnc.mavenmanipulator.core.util.ConfigSnapshot;
 
 /**
  * Basic list of methods that state collections related to different {@link Manipulator}'s should implement. This is
@@ -45,4 +46,15 @@ public interface State {
     boolean isEnabled();
 
     void initialise(Properties userProperties) throws ManipulationException;
+
+    /**
+     * Initialises this from the snapshot of the user properties held by the session. States that read many
+     * properties, or properties by prefix, should override this to query the snapshot rather than the properties.
+     *
+     * @param config the snapshot of the user properties.
+     * @throws ManipulationException if an error occurs
+     */
+    default void initialise(ConfigSnapshot config) throws ManipulationException {
+        initialise(config.getSource());
+    }
 }
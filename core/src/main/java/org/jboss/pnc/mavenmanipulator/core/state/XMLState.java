@@ -21,6 +21,10 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
 
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+
 import org.jboss.pnc.mavenmanipulator.annotation.ConfigValue;
 import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationException;
 import org.jboss.pnc.mavenmanipulator.core.impl.XMLManipulator;
@@ -102,6 +106,11 @@ public class XMLState
         private final String xpath;
         private final String update;
 
+        /**
+         * Compiled form of the xpath, lazily created and cached so it is only compiled once per session.
+         */
+        private XPathExpression expression;
+
         public XMLOperation(String file, String xpath, String update) {
             this.file = file;
             this.xpath = xpath;
@@ -120,6 +129,13 @@ public class XMLState
             return update;
         }
 
+        public synchronized XPathExpression getExpression() throws XPathExpressionException {
+            if (expression == null) {
+                expression = XPathFactory.newInstance().newXPath().compile(xpath);
+            }
+            return expression;
+        }
+
         @Override
         public String toString() {
             return "File " + file + " xpath '" + xpath + "' update " + update;
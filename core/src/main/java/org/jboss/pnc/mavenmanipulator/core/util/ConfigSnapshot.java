@@ -0,0 +1,119 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.core.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.jboss.pnc.mavenmanipulator.annotation.ConfigKeyTrie;
+import org.jboss.pnc.mavenmanipulator.core.ConfigList;
+
+/**
+ * An immutable, parsed copy of the user properties that the states are configured from. It is built once (see
+ * {@link org.jboss.pnc.mavenmanipulator.core.ManipulationSession#getConfig()}) in a single pass over the properties
+ * that also matches every property against the configuration keys to find unknown and deprecated properties. The
+ * properties are held sorted so that those sharing a prefix (e.g. <code>dependencyOverride.</code>) are found without
+ * scanning them all.
+ */
+public final class ConfigSnapshot {
+    private static final String MAVEN_REPO_LOCAL = "maven.repo.local";
+
+    private final Properties source;
+
+    private final NavigableMap<String, String> values = new TreeMap<>();
+
+    private final List<String> unknown = new ArrayList<>();
+
+    private final Map<String, String> deprecated = new TreeMap<>();
+
+    ConfigSnapshot(Properties properties, ConfigKeyTrie keys) {
+        source = properties;
+
+        for (final String name : properties.stringPropertyNames()) {
+            values.put(name, properties.getProperty(name));
+
+            if (!keys.isKnown(name) && !MAVEN_REPO_LOCAL.equals(name)) {
+                unknown.add(name);
+            }
+            final String key = keys.deprecatedPrefixOf(name);
+            if (key != null) {
+                deprecated.put(name, key);
+            }
+        }
+        Collections.sort(unknown);
+    }
+
+    /**
+     * @param properties the user properties.
+     * @return a snapshot of the properties matched against all configuration keys.
+     */
+    public static ConfigSnapshot of(Properties properties) {
+        return new ConfigSnapshot(properties, ConfigList.configKeys);
+    }
+
+    /**
+     * @return the properties this is a snapshot of. These may have been modified since.
+     */
+    public Properties getSource() {
+        return source;
+    }
+
+    /**
+     * @param key the property name.
+     * @return the value or null if not set.
+     */
+    public String getProperty(String key) {
+        return values.get(key);
+    }
+
+    /**
+     * @param key the property name.
+     * @param defaultValue the value if not set.
+     * @return the value or the default if not set.
+     */
+    public String getProperty(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    /**
+     * @param prefix the prefix.
+     * @return an unmodifiable view, in order, of the properties whose names start with the prefix.
+     */
+    public SortedMap<String, String> getPropertiesWithPrefix(String prefix) {
+        // Property names do not contain the maximum character so this bounds all names starting with the prefix.
+        return Collections.unmodifiableSortedMap(values.subMap(prefix, prefix + Character.MAX_VALUE));
+    }
+
+    /**
+     * @return the names, in order, of properties not matching any configuration key.
+     */
+    public List<String> getUnknown() {
+        return Collections.unmodifiableList(unknown);
+    }
+
+    /**
+     * @return the names of properties matching a deprecated configuration key, mapped to that key.
+     */
+    public Map<String, String> getDeprecated() {
+        return Collections.unmodifiableMap(deprecated);
+    }
+}
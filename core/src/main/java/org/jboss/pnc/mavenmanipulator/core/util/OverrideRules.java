@@ -0,0 +1,159 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.core.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.commonjava.atlas.maven.ident.ref.ProjectRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectRef;
+import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationException;
+
+import lombok.Getter;
+
+/**
+ * Parsed form of the module specific override properties (e.g. dependencyOverride, dependencyExclusion and
+ * pluginOverride) of the form <code>groupId:artifactId@moduleGroupId:moduleArtifactId=value</code>. The rules are
+ * indexed by the module they apply to so that those for a particular project may be found without examining every
+ * property.
+ * <p>
+ * The original property ordering is retained within the rules returned as, where multiple rules target the same
+ * artifact, the last one processed takes precedence.
+ */
+public final class OverrideRules {
+    private static final String MODULE_WILDCARD = "@*";
+
+    /**
+     * Rules keyed on the module groupId:artifactId.
+     */
+    private final Map<String, List<Rule>> byModule = new HashMap<>();
+
+    /**
+     * Rules applying to all modules within a groupId (i.e. <code>@groupId:*</code>) keyed on the groupId.
+     */
+    private final Map<String, List<Rule>> byModuleGroup = new HashMap<>();
+
+    /**
+     * Rules applying to all modules (i.e. <code>@*</code>).
+     */
+    @Getter
+    private final List<Rule> globalRules = new ArrayList<>();
+
+    private final int size;
+
+    /**
+     * A single override rule.
+     */
+    public static final class Rule {
+        private final int ordinal;
+
+        @Getter
+        private final String key;
+
+        @Getter
+        private final String value;
+
+        @Getter
+        private final ProjectRef artifact;
+
+        private Rule(int ordinal, String key, String value, ProjectRef artifact) {
+            this.ordinal = ordinal;
+            this.key = key;
+            this.value = value;
+            this.artifact = artifact;
+        }
+    }
+
+    /**
+     * @param overrides the override properties, with their prefix removed.
+     * @throws ManipulationException if a key is invalid.
+     */
+    public OverrideRules(Map<String, String> overrides) throws ManipulationException {
+        int ordinal = 0;
+
+        for (Map.Entry<String, String> entry : overrides.entrySet()) {
+            final String key = entry.getKey();
+
+            if (!key.contains("@")) {
+                continue;
+            }
+            if (key.endsWith(MODULE_WILDCARD)) {
+                globalRules.add(
+                        new Rule(
+                                ordinal++,
+                                key,
+                                entry.getValue(),
+                                SimpleProjectRef.parse(key.substring(0, key.length() - MODULE_WILDCARD.length()))));
+            } else {
+                final String[] artifactAndModule = key.split("@");
+                if (artifactAndModule.length != 2) {
+                    throw new ManipulationException("Invalid format for exclusion key {}", key);
+                }
+                final Rule rule = new Rule(
+                        ordinal++,
+                        key,
+                        entry.getValue(),
+                        SimpleProjectRef.parse(artifactAndModule[0]));
+                final ProjectRef module = SimpleProjectRef.parse(artifactAndModule[1]);
+
+                if (module.getArtifactId().equals("*")) {
+                    byModuleGroup.computeIfAbsent(module.getGroupId(), k -> new ArrayList<>()).add(rule);
+                } else {
+                    byModule.computeIfAbsent(module.toString(), k -> new ArrayList<>()).add(rule);
+                }
+            }
+        }
+        size = ordinal;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the rules that specifically target the given module, either directly or via a groupId wildcard, in
+     * their original order.
+     *
+     * @param projectGA the groupId:artifactId of the module.
+     * @return the matching rules.
+     */
+    public List<Rule> getModuleRules(String projectGA) {
+        final List<Rule> direct = byModule.getOrDefault(projectGA, Collections.emptyList());
+        final List<Rule> group = byModuleGroup
+                .getOrDefault(SimpleProjectRef.parse(projectGA).getGroupId(), Collections.emptyList());
+
+        if (group.isEmpty()) {
+            return direct;
+        } else if (direct.isEmpty()) {
+            return group;
+        }
+        // Both lists are in ordinal order so merge them.
+        final List<Rule> result = new ArrayList<>(direct.size() + group.size());
+        int i = 0;
+        int j = 0;
+        while (i < direct.size() || j < group.size()) {
+            if (j == group.size() || (i < direct.size() && direct.get(i).ordinal < group.get(j).ordinal)) {
+                result.add(direct.get(i++));
+            } else {
+                result.add(group.get(j++));
+            }
+        }
+        return result;
+    }
+}
@@ -66,25 +66,47 @@ public final class PropertiesUtils {
      */
     public static Map<String, String> getPropertiesByPrefix(final Properties properties, final String prefix) {
         final Map<String, String> matchedProperties = new HashMap<>();
-        final int prefixLength = prefix.length();
 
         for (final String propertyName : properties.stringPropertyNames()) {
             if (propertyName.startsWith(prefix)) {
-                final String trimmedPropertyName = propertyName.substring(prefixLength);
-                String value = properties.getProperty(propertyName);
-                if ("true".equals(value)) {
-                    logger.warn(
-                            "Work around Brew/Maven bug - removing erroneous 'true' value for {}.",
-                            trimmedPropertyName);
-                    value = "";
-                }
-                matchedProperties.put(trimmedPropertyName, value);
+                addTrimmed(matchedProperties, prefix, propertyName, properties.getProperty(propertyName));
             }
         }
 
         return matchedProperties;
     }
 
+    /**
+     * Returns the properties with names that start with prefix, with the prefix trimmed from their names. Only the
+     * matching properties are visited.
+     *
+     * @param config the snapshot of the properties.
+     * @param prefix The String that must be at the start of the property names
+     * @return map of properties with matching prepend and their values
+     */
+    public static Map<String, String> getPropertiesByPrefix(final ConfigSnapshot config, final String prefix) {
+        final Map<String, String> matchedProperties = new HashMap<>();
+
+        for (final Entry<String, String> entry : config.getPropertiesWithPrefix(prefix).entrySet()) {
+            addTrimmed(matchedProperties, prefix, entry.getKey(), entry.getValue());
+        }
+
+        return matchedProperties;
+    }
+
+    private static void addTrimmed(
+            final Map<String, String> matchedProperties,
+            final String prefix,
+            final String propertyName,
+            String value) {
+        final String trimmedPropertyName = propertyName.substring(prefix.length());
+        if ("true".equals(value)) {
+            logger.warn("Work around Brew/Maven bug - removing erroneous 'true' value for {}.", trimmedPropertyName);
+            value = "";
+        }
+        matchedProperties.put(trimmedPropertyName, value);
+    }
+
     /**
      * Recursively update properties.
      *
@@ -0,0 +1,160 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.model.Activation;
+import org.apache.maven.model.ActivationFile;
+import org.apache.maven.model.ActivationProperty;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Profile;
+import org.apache.maven.model.path.DefaultPathTranslator;
+import org.apache.maven.model.path.ProfileActivationFilePathInterpolator;
+import org.apache.maven.model.profile.DefaultProfileSelector;
+import org.apache.maven.model.profile.ProfileSelector;
+import org.apache.maven.model.profile.activation.FileProfileActivator;
+import org.apache.maven.model.profile.activation.PropertyProfileActivator;
+import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationException;
+import org.jboss.pnc.mavenmanipulator.common.model.Project;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ActiveProfileResolverTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final AtomicInteger evaluations = new AtomicInteger();
+
+    private final ProfileActivationFilePathInterpolator interpolator = new ProfileActivationFilePathInterpolator()
+            .setPathTranslator(new DefaultPathTranslator());
+
+    private final DefaultProfileSelector delegate = new DefaultProfileSelector()
+            .addProfileActivator(new PropertyProfileActivator())
+            .addProfileActivator(new FileProfileActivator().setProfileActivationFilePathInterpolator(interpolator));
+
+    private final ProfileSelector selector = (profiles, context, problems) -> {
+        evaluations.incrementAndGet();
+        return delegate.getActiveProfiles(profiles, context, problems);
+    };
+
+    @Test
+    public void testActiveByDefault() throws Exception {
+        final List<Project> projects = Arrays.asList(
+                project("root", byDefault("first")),
+                project("child", byDefault("second"), property("third", "enable")));
+
+        assertEquals(
+                new HashSet<>(Arrays.asList("first", "second")),
+                resolve(projects, Collections.emptyList(), new Properties()));
+
+        // Once another profile is active later default profiles are no longer activated.
+        final Properties properties = new Properties();
+        properties.setProperty("enable", "true");
+        assertEquals(
+                new HashSet<>(Arrays.asList("first", "third")),
+                resolve(projects, Collections.emptyList(), properties));
+    }
+
+    @Test
+    public void testExplicitActivation() throws Exception {
+        final List<Project> projects = Arrays.asList(
+                project("root", byDefault("first"), property("second", "enable")),
+                project("child", property("second", "other")));
+
+        assertEquals(
+                Collections.singleton("second"),
+                resolve(projects, Collections.singletonList("second"), new Properties()));
+    }
+
+    @Test
+    public void testFileActivationRelativeToModule() throws Exception {
+        final Project root = project("root", file("root", "marker.txt"));
+        final Project child = project("child", file("child", "marker.txt"));
+        assertTrue(new File(child.getPom().getParentFile(), "marker.txt").createNewFile());
+
+        assertEquals(
+                Collections.singleton("child"),
+                resolve(Arrays.asList(root, child), Collections.emptyList(), new Properties()));
+    }
+
+    @Test
+    public void testActivationEvaluatedOncePerDefinition() throws Exception {
+        final Project root = project("root", property("first", "enable"), property("second", "enable"));
+        final Project child = project("child", property("third", "other"), file("fourth", "marker.txt"));
+        final Project other = project("other", file("fifth", "marker.txt"));
+
+        resolve(Arrays.asList(root, child, other), Collections.emptyList(), new Properties());
+
+        // Property 'enable' once, property 'other' once and the file activation once per module.
+        assertEquals(4, evaluations.get());
+    }
+
+    private HashSet<String> resolve(List<Project> projects, List<String> explicit, Properties properties)
+            throws ManipulationException {
+        return new HashSet<>(new ActiveProfileResolver(selector, explicit, properties).resolve(projects));
+    }
+
+    private Project project(String name, Profile... profiles) throws IOException, ManipulationException {
+        final Model model = new Model();
+        model.setGroupId("org.foo");
+        model.setArtifactId(name);
+        model.setVersion("1.0");
+        model.setProfiles(Arrays.asList(profiles));
+        model.setPomFile(new File(folder.newFolder(name), "pom.xml"));
+        return new Project(model);
+    }
+
+    private static Profile byDefault(String id) {
+        final Activation activation = new Activation();
+        activation.setActiveByDefault(true);
+        return profile(id, activation);
+    }
+
+    private static Profile property(String id, String name) {
+        final ActivationProperty property = new ActivationProperty();
+        property.setName(name);
+        final Activation activation = new Activation();
+        activation.setProperty(property);
+        return profile(id, activation);
+    }
+
+    private static Profile file(String id, String exists) {
+        final ActivationFile file = new ActivationFile();
+        file.setExists("${basedir}/" + exists);
+        final Activation activation = new Activation();
+        activation.setFile(file);
+        return profile(id, activation);
+    }
+
+    private static Profile profile(String id, Activation activation) {
+        final Profile profile = new Profile();
+        profile.setId(id);
+        profile.setActivation(activation);
+        return profile;
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationException;
+import org.jboss.pnc.mavenmanipulator.common.model.Project;
+import org.jboss.pnc.mavenmanipulator.core.impl.Manipulator;
+import org.jboss.pnc.mavenmanipulator.core.impl.Manipulator.Resource;
+import org.junit.Test;
+
+public class ManipulatorSchedulerTest {
+    private final List<String> executed = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void testDefaultFootprintsAreSequential() {
+        final ManipulatorScheduler scheduler = new ManipulatorScheduler(
+                Arrays.asList(new Recording("a"), new Recording("b"), new Recording("c")),
+                true);
+
+        assertTrue(scheduler.isSequential());
+        assertEquals(Arrays.asList(0, 1), scheduler.getPredecessors(2));
+    }
+
+    @Test
+    public void testPredecessors() {
+        final List<Manipulator> manipulators = Arrays.asList(
+                new Recording("model", EnumSet.of(Resource.MODEL), EnumSet.of(Resource.MODEL)),
+                new Recording("rest", EnumSet.of(Resource.REST), EnumSet.of(Resource.REST)),
+                new Recording("collector", EnumSet.of(Resource.MODEL), EnumSet.of(Resource.REST)),
+                new Recording("files", EnumSet.of(Resource.FILES), EnumSet.of(Resource.FILES)),
+                new Recording("last"));
+        final ManipulatorScheduler scheduler = new ManipulatorScheduler(manipulators, true);
+
+        assertFalse(scheduler.isSequential());
+        assertEquals(Collections.emptyList(), scheduler.getPredecessors(1));
+        assertEquals(Arrays.asList(0, 1), scheduler.getPredecessors(2));
+        assertEquals(Collections.emptyList(), scheduler.getPredecessors(3));
+        assertEquals(Arrays.asList(0, 1, 2, 3), scheduler.getPredecessors(4));
+
+        assertTrue(new ManipulatorScheduler(manipulators, false).isSequential());
+    }
+
+    @Test
+    public void testIndependentManipulatorsRunConcurrently() throws ManipulationException {
+        // Each of the independent manipulators waits for the other to start so this only completes if both run
+        // at the same time.
+        final CountDownLatch latch = new CountDownLatch(2);
+        final ManipulatorScheduler scheduler = new ManipulatorScheduler(
+                Arrays.asList(
+                        new Recording("model", EnumSet.of(Resource.MODEL), EnumSet.of(Resource.MODEL), latch),
+                        new Recording("rest", EnumSet.of(Resource.REST), EnumSet.of(Resource.REST), latch),
+                        new Recording("last")),
+                true);
+
+        scheduler.apply(Collections.emptyList());
+
+        assertEquals(3, executed.size());
+        assertEquals("last", executed.get(2));
+    }
+
+    @Test
+    public void testFirstFailureReported() {
+        final ManipulatorScheduler scheduler = new ManipulatorScheduler(
+                Arrays.asList(
+                        new Recording("model", EnumSet.of(Resource.MODEL), EnumSet.of(Resource.MODEL)) {
+                            @Override
+                            public Set<Project> applyChanges(List<Project> projects) throws ManipulationException {
+                                throw new ManipulationException("Failed {}", "model");
+                            }
+                        },
+                        new Recording("rest", EnumSet.of(Resource.REST), EnumSet.of(Resource.REST)),
+                        new Recording("last")),
+                true);
+
+        try {
+            scheduler.apply(Collections.emptyList());
+            fail("No exception thrown");
+        } catch (ManipulationException e) {
+            assertEquals("Failed model", e.getMessage());
+        }
+        assertEquals(Collections.singletonList("rest"), executed);
+    }
+
+    private class Recording implements Manipulator {
+        private final String name;
+
+        private final Set<Resource> reads;
+
+        private final Set<Resource> writes;
+
+        private final CountDownLatch latch;
+
+        Recording(String name) {
+            this(name, EnumSet.allOf(Resource.class), EnumSet.allOf(Resource.class));
+        }
+
+        Recording(String name, Set<Resource> reads, Set<Resource> writes) {
+            this(name, reads, writes, null);
+        }
+
+        Recording(String name, Set<Resource> reads, Set<Resource> writes, CountDownLatch latch) {
+            this.name = name;
+            this.reads = reads;
+            this.writes = writes;
+            this.latch = latch;
+        }
+
+        @Override
+        public void init(ManipulationSession session) {
+        }
+
+        @Override
+        public Set<Project> applyChanges(List<Project> projects) throws ManipulationException {
+            if (latch != null) {
+                latch.countDown();
+                try {
+                    if (!latch.await(10, TimeUnit.SECONDS)) {
+                        throw new ManipulationException("Manipulators were not run concurrently");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ManipulationException("Interrupted", e);
+                }
+            }
+            executed.add(name);
+            return Collections.emptySet();
+        }
+
+        @Override
+        public int getExecutionIndex() {
+            return 0;
+        }
+
+        @Override
+        public Set<Resource> getReads() {
+            return reads;
+        }
+
+        @Override
+        public Set<Resource> getWrites() {
+            return writes;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.jboss.pnc.mavenmanipulator.common.util.MetricsRegistry;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MetricsExporterTest {
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testToPrometheus() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        metrics.counter("rest.tasks.split").add(2);
+        metrics.gauge("rest.tasks.pending").set(5);
+        metrics.timer("manipulator.Test").start().close();
+
+        String text = MetricsExporter.toPrometheus(metrics.sample());
+        assertTrue(text.contains("# TYPE pme_rest_tasks_split counter\npme_rest_tasks_split 2\n"));
+        assertTrue(text.contains("# TYPE pme_rest_tasks_pending gauge\npme_rest_tasks_pending 5\n"));
+        assertTrue(text.contains("pme_manipulator_Test_count 1\n"));
+    }
+
+    @Test
+    public void testExport() throws Exception {
+        MetricsRegistry metrics = new MetricsRegistry();
+        metrics.counter("pom.parsed").add(3);
+        File file = new File(temporaryFolder.getRoot(), "target/" + MetricsExporter.PROMETHEUS_FILE);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(MetricsExporter.OBJECT_NAME);
+
+        try (MetricsExporter ignored = new MetricsExporter(metrics, file).start(true, 60)) {
+            assertEquals(3L, server.getAttribute(name, "pom.parsed"));
+            metrics.counter("pom.rewritten").increment();
+            assertEquals(2, server.getMBeanInfo(name).getAttributes().length);
+            assertFalse(file.exists());
+        }
+
+        assertFalse(server.isRegistered(name));
+        String text = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        assertTrue(text.contains("pme_pom_parsed 3\n"));
+        assertTrue(text.contains("pme_pom_rewritten 1\n"));
+    }
+
+    @Test
+    public void testConcurrentExport() throws Exception {
+        MetricsRegistry first = new MetricsRegistry();
+        first.counter("pom.parsed").add(1);
+        MetricsRegistry second = new MetricsRegistry();
+        second.counter("pom.parsed").add(2);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        try (MetricsExporter one = new MetricsExporter(first, null).start(true, 0);
+                MetricsExporter two = new MetricsExporter(second, null).start(true, 0)) {
+            assertEquals(new ObjectName(MetricsExporter.OBJECT_NAME), one.getObjectName());
+            assertNotEquals(one.getObjectName(), two.getObjectName());
+            assertEquals(1L, server.getAttribute(one.getObjectName(), "pom.parsed"));
+            assertEquals(2L, server.getAttribute(two.getObjectName(), "pom.parsed"));
+        }
+
+        assertTrue(server.queryNames(new ObjectName(MetricsExporter.OBJECT_NAME + ",*"), null).isEmpty());
+    }
+}
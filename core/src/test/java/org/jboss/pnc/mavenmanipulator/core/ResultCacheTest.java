@@ -0,0 +1,259 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.core;
+
+import static org.jboss.pnc.mavenmanipulator.core.fixture.TestUtils.createSession;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.repository.MavenArtifactRepository;
+import org.apache.maven.artifact.repository.layout.DefaultRepositoryLayout;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.settings.Mirror;
+import org.apache.maven.settings.Settings;
+import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationException;
+import org.jboss.pnc.mavenmanipulator.common.model.Project;
+import org.jboss.pnc.mavenmanipulator.core.state.RESTState;
+import org.jboss.pnc.mavenmanipulator.core.state.VersioningState;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ResultCacheTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private File root;
+
+    private File cache;
+
+    private File pom;
+
+    private File obsolete;
+
+    private List<Project> projects;
+
+    @Before
+    public void before() throws Exception {
+        root = folder.newFolder("project");
+        cache = new File(root, "cache");
+        pom = new File(root, "pom.xml");
+        obsolete = new File(root, "obsolete.txt");
+        FileUtils.writeStringToFile(pom, "original", StandardCharsets.UTF_8);
+        FileUtils.writeStringToFile(obsolete, "obsolete", StandardCharsets.UTF_8);
+
+        Model model = new Model();
+        model.setGroupId("org.foo");
+        model.setArtifactId("bar");
+        model.setVersion("1.0");
+        model.setPomFile(pom);
+        projects = Collections.singletonList(new Project(model));
+    }
+
+    @Test
+    public void testRecordAndRestore() throws Exception {
+        run(false);
+        assertTrue(new File(root, "manipulation.json").isFile());
+
+        reset();
+        ResultCache resultCache = fingerprinted(false);
+        assertTrue(resultCache.restore());
+
+        assertEquals("manipulated", FileUtils.readFileToString(pom, StandardCharsets.UTF_8));
+        assertEquals("{}", FileUtils.readFileToString(new File(root, "manipulation.json"), StandardCharsets.UTF_8));
+        assertFalse(obsolete.exists());
+    }
+
+    @Test
+    public void testDifferentInputsMiss() throws Exception {
+        run(false);
+        reset();
+
+        Properties properties = new Properties();
+        properties.setProperty("dependencyOverride.org.foo:bar@*", "");
+        ResultCache resultCache = new ResultCache(cache, root, false);
+        resultCache.snapshot();
+        resultCache.fingerprint(properties, null, null, projects, Collections.emptyList());
+        assertFalse(resultCache.restore());
+    }
+
+    @Test
+    public void testCachePropertiesIgnored() throws Exception {
+        run(false);
+        reset();
+
+        Properties properties = new Properties();
+        properties.setProperty(ManipulationManager.RESULT_CACHE, cache.getPath());
+        ResultCache resultCache = new ResultCache(cache, root, false);
+        resultCache.snapshot();
+        resultCache.fingerprint(properties, null, null, projects, Collections.emptyList());
+        assertTrue(resultCache.restore());
+    }
+
+    @Test
+    public void testVerify() throws Exception {
+        run(false);
+        reset();
+
+        // Verification runs the manipulation and compares the result.
+        run(true);
+        assertEquals("manipulated", FileUtils.readFileToString(pom, StandardCharsets.UTF_8));
+
+        reset();
+        ResultCache resultCache = fingerprinted(true);
+        assertFalse(resultCache.restore());
+        FileUtils.writeStringToFile(pom, "different", StandardCharsets.UTF_8);
+        FileUtils.writeStringToFile(new File(root, "manipulation.json"), "{}", StandardCharsets.UTF_8);
+        FileUtils.deleteQuietly(obsolete);
+        try {
+            resultCache.record();
+            fail("Verification should fail");
+        } catch (ManipulationException e) {
+            assertTrue(e.getMessage().contains("pom.xml"));
+            assertFalse(e.getMessage().contains("manipulation.json"));
+        }
+    }
+
+    @Test
+    public void testFilesPartOfKey() throws Exception {
+        File bom = folder.newFile();
+        FileUtils.writeStringToFile(bom, "first", StandardCharsets.UTF_8);
+
+        ResultCache resultCache = new ResultCache(cache, root, false);
+        resultCache.fingerprint(new Properties(), null, null, projects, Collections.singletonList(bom));
+        String first = resultCache.getKey();
+
+        FileUtils.writeStringToFile(bom, "second", StandardCharsets.UTF_8);
+        resultCache.fingerprint(new Properties(), null, null, projects, Collections.singletonList(bom));
+        String second = resultCache.getKey();
+        assertNotEquals(first, second);
+
+        // e.g. a file to be edited by the JSON manipulator that does not exist (yet).
+        FileUtils.deleteQuietly(bom);
+        resultCache.fingerprint(new Properties(), null, null, projects, Collections.singletonList(bom));
+        assertNotEquals(first, resultCache.getKey());
+        assertNotEquals(second, resultCache.getKey());
+    }
+
+    @Test
+    public void testSettingsAndRepositoriesPartOfKey() throws Exception {
+        ResultCache resultCache = new ResultCache(cache, root, false);
+        resultCache.fingerprint(new Properties(), null, null, projects, Collections.emptyList());
+        String plain = resultCache.getKey();
+
+        Settings settings = new Settings();
+        Mirror mirror = new Mirror();
+        mirror.setId("mirror");
+        mirror.setMirrorOf("*");
+        mirror.setUrl("https://first.example.com");
+        settings.addMirror(mirror);
+        resultCache.fingerprint(new Properties(), settings, null, projects, Collections.emptyList());
+        String withSettings = resultCache.getKey();
+        assertNotEquals(plain, withSettings);
+
+        mirror.setUrl("https://second.example.com");
+        resultCache.fingerprint(new Properties(), settings, null, projects, Collections.emptyList());
+        assertNotEquals(withSettings, resultCache.getKey());
+
+        resultCache.fingerprint(
+                new Properties(),
+                null,
+                Collections.singletonList(repository("https://first.example.com")),
+                projects,
+                Collections.emptyList());
+        String withRepository = resultCache.getKey();
+        assertNotEquals(plain, withRepository);
+
+        resultCache.fingerprint(
+                new Properties(),
+                null,
+                Collections.singletonList(repository("https://second.example.com")),
+                projects,
+                Collections.emptyList());
+        assertNotEquals(withRepository, resultCache.getKey());
+    }
+
+    @Test
+    public void testUncachedLookups() throws Exception {
+        assertNull(ResultCache.uncachedLookups(createSession(new Properties()), projects));
+
+        Properties properties = new Properties();
+        properties.setProperty(RESTState.REST_URL, "http://localhost:8080");
+        assertTrue(ResultCache.uncachedLookups(createSession(properties), projects).contains(RESTState.REST_URL));
+
+        properties = new Properties();
+        properties.setProperty(VersioningState.INCREMENT_SERIAL_SUFFIX_SYSPROP, "redhat");
+        assertTrue(
+                ResultCache.uncachedLookups(createSession(properties), projects)
+                        .contains(VersioningState.INCREMENT_SERIAL_SUFFIX_SYSPROP));
+
+        Dependency dependency = new Dependency();
+        dependency.setGroupId("org.foo");
+        dependency.setArtifactId("baz");
+        dependency.setVersion("[1.0,2.0)");
+        projects.get(0).getModel().addDependency(dependency);
+        assertTrue(ResultCache.uncachedLookups(createSession(new Properties()), projects).contains("version ranges"));
+
+        properties = new Properties();
+        properties.setProperty("resolveRanges", "false");
+        assertNull(ResultCache.uncachedLookups(createSession(properties), projects));
+
+        properties.setProperty("groovyScripts", "org.foo:script:groovy:1.0");
+        assertTrue(ResultCache.uncachedLookups(createSession(properties), projects).contains("Groovy"));
+    }
+
+    private static ArtifactRepository repository(String url) {
+        return new MavenArtifactRepository("central", url, new DefaultRepositoryLayout(), null, null);
+    }
+
+    private ResultCache fingerprinted(boolean verify) throws ManipulationException {
+        ResultCache resultCache = new ResultCache(cache, root, verify);
+        resultCache.snapshot();
+        resultCache.fingerprint(new Properties(), null, null, projects, Collections.emptyList());
+        return resultCache;
+    }
+
+    private void run(boolean verify) throws Exception {
+        ResultCache resultCache = fingerprinted(verify);
+        assertFalse(resultCache.restore());
+
+        // Ensure the modification is detected even within the modification time resolution.
+        FileUtils.writeStringToFile(pom, "manipulated", StandardCharsets.UTF_8);
+        FileUtils.writeStringToFile(new File(root, "manipulation.json"), "{}", StandardCharsets.UTF_8);
+        FileUtils.deleteQuietly(obsolete);
+        resultCache.record();
+    }
+
+    private void reset() throws Exception {
+        FileUtils.writeStringToFile(pom, "original", StandardCharsets.UTF_8);
+        FileUtils.writeStringToFile(obsolete, "obsolete", StandardCharsets.UTF_8);
+        FileUtils.deleteQuietly(new File(root, "manipulation.json"));
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.core.groovy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.Profile;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectRef;
+import org.jboss.pnc.mavenmanipulator.common.model.Project;
+import org.jboss.pnc.mavenmanipulator.common.util.ProfileUtils;
+import org.jboss.pnc.mavenmanipulator.core.ManipulationSession;
+import org.jboss.pnc.mavenmanipulator.core.fixture.TestUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ReactorIndexTest {
+    private Project parent;
+
+    private Project child;
+
+    private ReactorIndex index;
+
+    @Before
+    public void before() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty(ProfileUtils.PROFILE_SCANNING, "false");
+        ManipulationSession session = TestUtils.createSession(properties);
+
+        Model parentModel = model("parent", null);
+        parentModel.addProperty("fooVersion", "1.0");
+        DependencyManagement dm = new DependencyManagement();
+        dm.addDependency(dependency("org.foo", "foo", "${fooVersion}"));
+        dm.addDependency(dependency("org.foo", "bar", "2.0"));
+        parentModel.setDependencyManagement(dm);
+        parentModel.setBuild(new Build());
+        Plugin plugin = new Plugin();
+        plugin.setGroupId("org.foo");
+        plugin.setArtifactId("foo-maven-plugin");
+        plugin.setVersion("${fooVersion}");
+        parentModel.getBuild().addPlugin(plugin);
+
+        Model childModel = model("child", parentModel);
+        childModel.addDependency(dependency("org.foo", "foo", null));
+        Profile profile = new Profile();
+        profile.setId("extra");
+        profile.addDependency(dependency("org.foo", "baz", "${fooVersion}"));
+        childModel.addProfile(profile);
+
+        parent = new Project(session, new File("parent/pom.xml"), parentModel);
+        child = new Project(session, new File("child/pom.xml"), childModel);
+        child.setProjectParent(parent);
+        index = new ReactorIndex(Arrays.asList(parent, child));
+    }
+
+    @Test
+    public void testFind() throws Exception {
+        List<ReactorIndex.Entry> foo = index.find(SimpleProjectRef.parse("org.foo:foo"));
+        assertEquals(2, foo.size());
+        assertEquals(
+                1,
+                index.find(SimpleProjectRef.parse("org.foo:foo"), ReactorIndex.Kind.MANAGED_DEPENDENCY).size());
+
+        ReactorIndex.Entry dependency = index.find(SimpleProjectRef.parse("org.foo:foo"), ReactorIndex.Kind.DEPENDENCY)
+                .get(0);
+        assertSame(child, dependency.getProject());
+        assertNull(dependency.getVersion());
+
+        assertEquals(5, index.find(SimpleProjectRef.parse("org.foo:*")).size());
+        ReactorIndex.Entry baz = index.find(SimpleProjectRef.parse("org.foo:baz")).get(0);
+        assertEquals("extra", baz.getProfile().getId());
+        assertEquals("1.0", baz.getRef().getVersionString());
+        assertTrue(index.find(SimpleProjectRef.parse("org.bar:*")).isEmpty());
+    }
+
+    @Test
+    public void testFindByProperty() throws Exception {
+        assertEquals(3, index.findByProperty("fooVersion").size());
+        assertEquals(
+                Collections.singleton("fooVersion"),
+                index.getReferencedProperties(SimpleProjectRef.parse("org.foo:foo-maven-plugin")));
+
+        ReactorIndex.Entry plugin = index.find(SimpleProjectRef.parse("org.foo:foo-maven-plugin")).get(0);
+        plugin.setVersion("1.0");
+        assertEquals("1.0", parent.getModel().getBuild().getPlugins().get(0).getVersion());
+        assertEquals(2, index.findByProperty("fooVersion").size());
+    }
+
+    @Test
+    public void testModelChanges() throws Exception {
+        assertEquals(1, index.find(SimpleProjectRef.parse("org.foo:bar")).size());
+
+        // Added, changed in place and removed elements are all seen.
+        child.getModel().addDependency(dependency("org.foo", "bar", "${fooVersion}"));
+        assertEquals(2, index.find(SimpleProjectRef.parse("org.foo:bar")).size());
+        assertEquals(4, index.findByProperty("fooVersion").size());
+
+        parent.getModel().getDependencyManagement().getDependencies().get(1).setArtifactId("qux");
+        assertEquals(1, index.find(SimpleProjectRef.parse("org.foo:bar")).size());
+        assertEquals(1, index.find(SimpleProjectRef.parse("org.foo:qux")).size());
+
+        child.getModel().getDependencies().clear();
+        assertTrue(index.find(SimpleProjectRef.parse("org.foo:bar")).isEmpty());
+
+        // A changed property alters the resolved versions.
+        parent.getModel().addProperty("fooVersion", "2.0");
+        assertEquals("2.0", index.find(SimpleProjectRef.parse("org.foo:baz")).get(0).getRef().getVersionString());
+    }
+
+    @Test
+    public void testCoordinatesChangedInPlace() throws Exception {
+        assertEquals(5, index.find(SimpleProjectRef.parse("org.foo:*")).size());
+
+        // Only the new coordinates are queried so no entry found refers to the changed element.
+        parent.getModel().getDependencyManagement().getDependencies().get(1).setArtifactId("qux");
+        assertEquals(1, index.find(SimpleProjectRef.parse("org.foo:qux")).size());
+
+        parent.getModel().getBuild().getPlugins().get(0).setGroupId("org.bar");
+        assertEquals(1, index.find(SimpleProjectRef.parse("org.bar:foo-maven-plugin")).size());
+        assertEquals(1, index.find(SimpleProjectRef.parse("org.bar:*")).size());
+    }
+
+    private static Model model(String artifactId, Model parent) {
+        Model model = new Model();
+        model.setGroupId("org.foo");
+        model.setArtifactId(artifactId);
+        model.setVersion("1.0");
+        if (parent != null) {
+            Parent p = new Parent();
+            p.setGroupId(parent.getGroupId());
+            p.setArtifactId(parent.getArtifactId());
+            p.setVersion(parent.getVersion());
+            model.setParent(p);
+        }
+        return model;
+    }
+
+    private static Dependency dependency(String groupId, String artifactId, String version) {
+        Dependency dependency = new Dependency();
+        dependency.setGroupId(groupId);
+        dependency.setArtifactId(artifactId);
+        dependency.setVersion(version);
+        return dependency;
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.core.impl;
+
+import static org.jboss.pnc.mavenmanipulator.core.fixture.TestUtils.createSession;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+import org.commonjava.atlas.maven.ident.ref.ArtifactRef;
+import org.jboss.pnc.mavenmanipulator.common.model.Project;
+import org.jboss.pnc.mavenmanipulator.common.model.SimpleScopedArtifactRef;
+import org.jboss.pnc.mavenmanipulator.core.ManipulationSession;
+import org.jboss.pnc.mavenmanipulator.core.state.CommonState;
+import org.jboss.pnc.mavenmanipulator.core.state.DependencyState;
+import org.jboss.pnc.mavenmanipulator.core.state.PluginState;
+import org.jboss.pnc.mavenmanipulator.io.PomIO;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ParallelAlignmentTest {
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void parallelMatchesSequential() throws Exception {
+        final List<String> sequential = align(false);
+        final List<String> parallel = align(true);
+
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    public void alignmentIsApplied() throws Exception {
+        final File root = writeProject();
+        final List<String> original = models(new PomIO().parseProject(createSession(new Properties()), root));
+        final List<String> aligned = align(true);
+
+        assertNotEquals(original, aligned);
+        final String all = String.join("", aligned);
+        assertTrue(all.contains("2.0.redhat-1"));
+        assertTrue(all.contains("1.0.redhat-1"));
+        assertTrue(all.contains("3.0.redhat-1"));
+    }
+
+    @Test
+    public void hierarchiesFollowInheritanceRoots() throws Exception {
+        final List<Project> projects = new PomIO().parseProject(createSession(new Properties()), writeProject());
+        final Map<Project, List<Project>> hierarchies = CommonManipulator.hierarchies(projects);
+
+        assertEquals(3, hierarchies.size());
+        for (Map.Entry<Project, List<Project>> e : hierarchies.entrySet()) {
+            for (Project p : e.getValue()) {
+                assertEquals(e.getKey(), p.getInheritedList().get(0));
+            }
+        }
+    }
+
+    private List<String> align(boolean parallel) throws Exception {
+        final Properties properties = new Properties();
+        properties.setProperty(CommonState.PARALLEL_ALIGNMENT, Boolean.toString(parallel));
+        properties.setProperty(DependencyState.DEPENDENCY_SOURCE, "REST");
+        properties.setProperty("pluginSource", "REST");
+        properties.setProperty("dependencyOverride.org.foo:foo@*", "2.0.redhat-1");
+        properties.setProperty("pluginOverride.org.plugins:explicit@*", "3.0.redhat-1");
+
+        final ManipulationSession session = createSession(properties);
+        final List<Project> projects = new PomIO().parseProject(session, writeProject());
+
+        final Map<ArtifactRef, String> rest = Collections.singletonMap(
+                new SimpleScopedArtifactRef("org.bar", "bar", "1.0", "jar", null, "compile"),
+                "1.0.redhat-1");
+        final Map<ArtifactRef, String> restPlugins = Collections.singletonMap(
+                new SimpleScopedArtifactRef("org.plugins", "aligned", "2.0", "maven-plugin", null, null),
+                "2.0.redhat-1");
+
+        final DependencyManipulator dependencyManipulator = new DependencyManipulator(null, null);
+        dependencyManipulator.init(session);
+        session.getState(DependencyState.class).setRemoteRESTOverrides(rest);
+        dependencyManipulator.applyChanges(projects);
+
+        final PluginManipulator pluginManipulator = new PluginManipulator(null);
+        pluginManipulator.init(session);
+        session.getState(PluginState.class).setRemoteRESTOverrides(restPlugins);
+        pluginManipulator.applyChanges(projects);
+
+        return models(projects);
+    }
+
+    private static List<String> models(List<Project> projects) throws IOException {
+        final List<String> result = new ArrayList<>();
+        for (Project project : projects) {
+            final StringWriter writer = new StringWriter();
+            new MavenXpp3Writer().write(writer, project.getModel());
+            result.add(writer.toString());
+        }
+        return result;
+    }
+
+    /**
+     * An aggregator of two separate hierarchies, each a parent declaring the versions as properties and a child using
+     * them.
+     */
+    private File writeProject() throws IOException {
+        final File root = temp.newFolder();
+        write(
+                new File(root, "pom.xml"),
+                "<project><modelVersion>4.0.0</modelVersion><groupId>org.test</groupId>"
+                        + "<artifactId>aggregator</artifactId><version>1.0</version><packaging>pom</packaging>"
+                        + "<modules><module>a</module><module>b</module></modules></project>");
+        for (String name : new String[] { "a", "b" }) {
+            final File parent = new File(root, name);
+            write(
+                    new File(parent, "pom.xml"),
+                    "<project><modelVersion>4.0.0</modelVersion><groupId>org.test</groupId>"
+                            + "<artifactId>parent-" + name + "</artifactId><version>1.0</version>"
+                            + "<packaging>pom</packaging><modules><module>child</module></modules>"
+                            + "<properties><foo.version>1.0</foo.version><bar.version>1.0</bar.version>"
+                            + "<explicit.version>2.0</explicit.version></properties>"
+                            + "<dependencyManagement><dependencies>"
+                            + dependency("org.foo", "foo", "${foo.version}")
+                            + dependency("org.bar", "bar", "${bar.version}")
+                            + "</dependencies></dependencyManagement>"
+                            + "<build><pluginManagement><plugins>"
+                            + plugin("explicit", "${explicit.version}")
+                            + plugin("aligned", "2.0")
+                            + "</plugins></pluginManagement></build></project>");
+            write(
+                    new File(parent, "child/pom.xml"),
+                    "<project><modelVersion>4.0.0</modelVersion><parent><groupId>org.test</groupId>"
+                            + "<artifactId>parent-" + name + "</artifactId><version>1.0</version></parent>"
+                            + "<artifactId>child-" + name + "</artifactId><dependencies>"
+                            + dependency("org.foo", "foo", "${foo.version}")
+                            + dependency("org.bar", "bar", "${bar.version}")
+                            + "</dependencies><build><plugins>"
+                            + plugin("explicit", "${explicit.version}")
+                            + plugin("aligned", "2.0")
+                            + "</plugins></build></project>");
+        }
+        return root;
+    }
+
+    private static String dependency(String groupId, String artifactId, String version) {
+        return "<dependency><groupId>" + groupId + "</groupId><artifactId>" + artifactId + "</artifactId><version>"
+                + version + "</version></dependency>";
+    }
+
+    private static String plugin(String artifactId, String version) {
+        return "<plugin><groupId>org.plugins</groupId><artifactId>" + artifactId + "</artifactId><version>" + version
+                + "</version></plugin>";
+    }
+
+    private static void write(File file, String content) throws IOException {
+        FileUtils.writeStringToFile(file, content, StandardCharsets.UTF_8);
+    }
+}
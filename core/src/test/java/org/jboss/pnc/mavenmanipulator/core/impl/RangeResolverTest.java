@@ -0,0 +1,232 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.core.impl;
+
+import static org.jboss.pnc.mavenmanipulator.core.fixture.TestUtils.createSession;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Writer;
+import org.apache.maven.artifact.versioning.ArtifactVersion;
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+import org.apache.maven.artifact.versioning.VersionRange;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.repository.DefaultMirrorSelector;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectRef;
+import org.jboss.pnc.mavenmanipulator.common.model.Project;
+import org.jboss.pnc.mavenmanipulator.core.ManipulationSession;
+import org.jboss.pnc.mavenmanipulator.core.fixture.StubTransport;
+import org.jboss.pnc.mavenmanipulator.core.state.RangeResolverState;
+import org.jboss.pnc.mavenmanipulator.io.resolver.GalleyAPIWrapper;
+import org.jboss.pnc.mavenmanipulator.io.resolver.GalleyInfrastructure;
+import org.jboss.pnc.mavenmanipulator.io.resolver.MavenLocationExpander;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class RangeResolverTest {
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private final Map<String, byte[]> metadata = new HashMap<>();
+
+    @Test
+    public void resolveRanges() throws Exception {
+        final List<Project> projects = resolve(new Properties());
+
+        assertEquals(
+                Arrays.asList("1.5", "2.1", "1.0", "[1.0,2.0)", "1.5", "3.0"),
+                versions(projects.get(0)));
+        assertEquals(Arrays.asList("1.5", "2.1", "2.1"), versions(projects.get(1)));
+    }
+
+    @Test
+    public void batchedMatchesPerDependency() throws Exception {
+        final Properties properties = new Properties();
+        final GalleyAPIWrapper wrapper = wrapper(properties);
+        final List<Project> expected = projects();
+
+        // Resolve each dependency and plugin on its own, as the manipulator did before batching.
+        for (Project project : expected) {
+            for (Dependency d : project.getModel().getDependencyManagement().getDependencies()) {
+                d.setVersion(resolveSingle(wrapper, project, d.getGroupId(), d.getArtifactId(), d.getVersion()));
+            }
+            for (Dependency d : project.getModel().getDependencies()) {
+                d.setVersion(resolveSingle(wrapper, project, d.getGroupId(), d.getArtifactId(), d.getVersion()));
+            }
+            for (Plugin p : project.getModel().getBuild().getPlugins()) {
+                p.setVersion(resolveSingle(wrapper, project, p.getGroupId(), p.getArtifactId(), p.getVersion()));
+            }
+        }
+
+        final List<Project> batched = resolve(properties);
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(versions(expected.get(i)), versions(batched.get(i)));
+        }
+    }
+
+    @Test
+    public void sequentialMatchesConcurrent() throws Exception {
+        final Properties sequential = new Properties();
+        sequential.setProperty(RangeResolverState.RESOLVE_RANGES_THREADS, "1");
+        final Properties concurrent = new Properties();
+        concurrent.setProperty(RangeResolverState.RESOLVE_RANGES_THREADS, "8");
+
+        final List<Project> first = resolve(sequential);
+        final List<Project> second = resolve(concurrent);
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(versions(first.get(i)), versions(second.get(i)));
+        }
+    }
+
+    private List<Project> resolve(Properties properties) throws Exception {
+        final ManipulationSession session = createSession(properties);
+        final RangeResolver resolver = new RangeResolver(wrapper(properties));
+        resolver.init(session);
+
+        final List<Project> projects = projects();
+        resolver.applyChanges(projects);
+        return projects;
+    }
+
+    private GalleyAPIWrapper wrapper(Properties properties) throws Exception {
+        metadata.put(path("org.foo", "foo"), metadata("1.0", "1.5", "2.0"));
+        metadata.put(path("org.bar", "bar"), metadata("1.0", "2.0", "2.1"));
+        metadata.put(path("org.plugins", "plugin"), metadata("2.0", "3.0"));
+
+        return new GalleyAPIWrapper(
+                new GalleyInfrastructure(createSession(properties), new DefaultMirrorSelector()).init(
+                        MavenLocationExpander.EXPANSION_TARGET,
+                        new StubTransport(metadata),
+                        temp.newFolder()));
+    }
+
+    private static String resolveSingle(
+            GalleyAPIWrapper wrapper,
+            Project project,
+            String groupId,
+            String artifactId,
+            String version) throws Exception {
+        final VersionRange range = VersionRange.createFromVersionSpec(
+                version.replace("${foo.range}", project.getModel().getProperties().getProperty("foo.range", "")));
+        if (!range.hasRestrictions()) {
+            return version;
+        }
+        final List<ArtifactVersion> available = wrapper
+                .readMetadataView(new SimpleProjectRef(groupId, artifactId))
+                .resolveXPathToAggregatedStringList("/metadata/versioning/versions/version", true, -1)
+                .stream()
+                .distinct()
+                .map(DefaultArtifactVersion::new)
+                .collect(Collectors.toList());
+        final ArtifactVersion result = range.matchVersion(available);
+        return result == null ? version : result.toString();
+    }
+
+    private static List<Project> projects() throws Exception {
+        final Model parent = model("parent");
+        parent.getProperties().setProperty("foo.range", "[1.0,2.0)");
+        // A range, an open ended range, a soft version, missing metadata and a plugin.
+        parent.getDependencyManagement().addDependency(dependency("org.foo", "foo", "[1.0,2.0)"));
+        parent.getDependencyManagement().addDependency(dependency("org.bar", "bar", "[2.0,)"));
+        parent.addDependency(dependency("org.foo", "foo", "1.0"));
+        parent.addDependency(dependency("org.missing", "missing", "[1.0,2.0)"));
+        parent.getBuild().addPlugin(plugin("[2.0,4.0)"));
+        // A property holding a range.
+        parent.addDependency(dependency("org.foo", "foo", "${foo.range}"));
+
+        final Model child = model("child");
+        child.setParent(new Parent());
+        child.getParent().setGroupId(parent.getGroupId());
+        child.getParent().setArtifactId(parent.getArtifactId());
+        child.getParent().setVersion(parent.getVersion());
+        // The same range as the parent, a version with no upper bound and one for another project.
+        child.getDependencyManagement().addDependency(dependency("org.foo", "foo", "[1.0,2.0)"));
+        child.addDependency(dependency("org.bar", "bar", "[2.0,)"));
+        child.addDependency(dependency("org.bar", "bar", "(1.0,3.0]"));
+
+        final Project parentProject = new Project(parent);
+        parentProject.setInheritanceRoot(true);
+        final Project childProject = new Project(child);
+        childProject.setProjectParent(parentProject);
+        return Arrays.asList(parentProject, childProject);
+    }
+
+    private static List<String> versions(Project project) {
+        final List<String> result = new ArrayList<>();
+        project.getModel().getDependencyManagement().getDependencies().forEach(d -> result.add(d.getVersion()));
+        project.getModel().getDependencies().forEach(d -> result.add(d.getVersion()));
+        project.getModel().getBuild().getPlugins().forEach(p -> result.add(p.getVersion()));
+        return result;
+    }
+
+    private static Model model(String artifactId) {
+        final Model model = new Model();
+        model.setGroupId("org.test");
+        model.setArtifactId(artifactId);
+        model.setVersion("1.0");
+        model.setDependencyManagement(new DependencyManagement());
+        model.setBuild(new Build());
+        return model;
+    }
+
+    private static Dependency dependency(String groupId, String artifactId, String version) {
+        final Dependency dependency = new Dependency();
+        dependency.setGroupId(groupId);
+        dependency.setArtifactId(artifactId);
+        dependency.setVersion(version);
+        return dependency;
+    }
+
+    private static Plugin plugin(String version) {
+        final Plugin plugin = new Plugin();
+        plugin.setGroupId("org.plugins");
+        plugin.setArtifactId("plugin");
+        plugin.setVersion(version);
+        return plugin;
+    }
+
+    private static String path(String groupId, String artifactId) {
+        return String.format("%s/%s/maven-metadata.xml", groupId.replace('.', '/'), artifactId);
+    }
+
+    private static byte[] metadata(String... versions) throws IOException {
+        final Metadata md = new Metadata();
+        final Versioning v = new Versioning();
+        md.setVersioning(v);
+        v.setVersions(Arrays.asList(versions));
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        new MetadataXpp3Writer().write(baos, md);
+        return baos.toByteArray();
+    }
+}
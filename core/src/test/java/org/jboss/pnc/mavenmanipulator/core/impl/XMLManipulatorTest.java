@@ -16,6 +16,7 @@
 package org.jboss.pnc.mavenmanipulator.core.impl;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.xmlunit.builder.Input.fromFile;
 
@@ -23,6 +24,7 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.util.Arrays;
 
 import org.apache.commons.io.FileUtils;
 import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationException;
@@ -97,4 +99,31 @@ public class XMLManipulatorTest {
 
     }
 
+    @Test
+    public void alterFileMultipleOperations() throws Exception {
+        String tomcatPath = "//include[starts-with(.,'org.apache.tomcat')]";
+        String nettyPath = "//include[starts-with(.,'io.netty')]";
+
+        File target = tf.newFile();
+        FileUtils.copyFile(xmlFile, target);
+        Project project = new Project(null, target, TestUtils.getDummyModel());
+
+        xmlManipulator.internalApplyChanges(
+                project,
+                target.getName(),
+                Arrays.asList(
+                        new XMLState.XMLOperation(target.getName(), tomcatPath, "com.rebuild:servlet-api"),
+                        new XMLState.XMLOperation(target.getName(), nettyPath, null)));
+
+        Iterable<Node> i = new JAXPXPathEngine()
+                .selectNodes("//*[local-name() = 'include']", fromFile(target).build());
+        int count = 0;
+        for (Node anI : i) {
+            assertFalse(anI.getTextContent().startsWith("io.netty"));
+            if (anI.getTextContent().startsWith("com.rebuild:servlet-api")) {
+                count++;
+            }
+        }
+        assertEquals(1, count);
+    }
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.core.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.jboss.pnc.mavenmanipulator.annotation.ConfigKeyTrie;
+import org.junit.Test;
+
+public class ConfigSnapshotTest {
+    private final ConfigKeyTrie keys = new ConfigKeyTrie(
+            new String[] { "dependencyOverride.", "strictAlignment", "strictAlignmentIgnoreSuffix", "versionSuffix" },
+            new boolean[] { false, true, false, false });
+
+    @Test
+    public void testTrie() {
+        assertEquals(4, keys.size());
+        assertTrue(keys.contains("strictAlignment"));
+        assertFalse(keys.contains("strict"));
+        assertTrue(keys.isDeprecated("strictAlignment"));
+        assertFalse(keys.isDeprecated("strictAlignmentIgnoreSuffix"));
+
+        assertTrue(keys.isKnown("dependencyOverride.org.foo:bar@*"));
+        assertFalse(keys.isKnown("dependencyOverride"));
+        assertFalse(keys.isKnown("unknown"));
+
+        assertEquals(
+                Arrays.asList("strictAlignment", "strictAlignmentIgnoreSuffix"),
+                keys.prefixesOf("strictAlignmentIgnoreSuffix"));
+        assertEquals(Collections.emptyList(), keys.prefixesOf("version"));
+        assertEquals("strictAlignment", keys.deprecatedPrefixOf("strictAlignmentIgnoreSuffix"));
+        assertNull(keys.deprecatedPrefixOf("versionSuffix"));
+    }
+
+    @Test
+    public void testUnknownAndDeprecated() {
+        Properties properties = new Properties();
+        properties.setProperty("dependencyOverride.org.foo:bar@*", "1.0");
+        properties.setProperty("strictAlignment", "true");
+        properties.setProperty("versionSufix", "rebuild");
+        properties.setProperty("maven.repo.local", "/tmp/repo");
+        properties.setProperty("another", "value");
+
+        ConfigSnapshot config = new ConfigSnapshot(properties, keys);
+
+        assertEquals(Arrays.asList("another", "versionSufix"), config.getUnknown());
+        assertEquals(Collections.singletonMap("strictAlignment", "strictAlignment"), config.getDeprecated());
+    }
+
+    @Test
+    public void testPrefix() {
+        Properties properties = new Properties();
+        properties.setProperty("dependencyOverride.org.foo:bar@*", "1.0");
+        properties.setProperty("dependencyOverride.org.foo:baz@*", "true");
+        properties.setProperty("dependencyOverrides", "ignored");
+        properties.setProperty("dependencyExclusion.org.foo:bar@*", "");
+        properties.setProperty("dependencySource", "REST");
+
+        ConfigSnapshot config = new ConfigSnapshot(properties, keys);
+        properties.setProperty("dependencySource", "BOM");
+
+        assertEquals("REST", config.getProperty("dependencySource"));
+        assertEquals("NONE", config.getProperty("pluginSource", "NONE"));
+        assertEquals(
+                Arrays.asList("dependencyOverride.org.foo:bar@*", "dependencyOverride.org.foo:baz@*"),
+                Arrays.asList(config.getPropertiesWithPrefix("dependencyOverride.").keySet().toArray()));
+
+        Map<String, String> expected = new HashMap<>();
+        expected.put("org.foo:bar@*", "1.0");
+        expected.put("org.foo:baz@*", "");
+        assertEquals(expected, PropertiesUtils.getPropertiesByPrefix(config, "dependencyOverride."));
+        assertEquals(
+                PropertiesUtils.getPropertiesByPrefix(properties, "dependencyOverride."),
+                PropertiesUtils.getPropertiesByPrefix(config, "dependencyOverride."));
+        assertTrue(PropertiesUtils.getPropertiesByPrefix(config, "pluginOverride.").isEmpty());
+    }
+}
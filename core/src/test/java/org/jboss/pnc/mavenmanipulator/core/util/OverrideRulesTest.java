@@ -0,0 +1,61 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.core.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationException;
+import org.junit.Test;
+
+public class OverrideRulesTest {
+    @Test
+    public void testIndexing() throws ManipulationException {
+        Map<String, String> overrides = new LinkedHashMap<>();
+        overrides.put("junit:junit", "4.12");
+        overrides.put("org.foo:bar@org.project:*", "1.0");
+        overrides.put("org.foo:baz@*", "");
+        overrides.put("org.foo:bar@org.project:module", "");
+        overrides.put("org.foo:qux@org.other:module", "2.0");
+
+        OverrideRules rules = new OverrideRules(overrides);
+
+        assertEquals(
+                "[org.foo:bar@org.project:*, org.foo:bar@org.project:module]",
+                keys(rules.getModuleRules("org.project:module")));
+        assertEquals("[org.foo:bar@org.project:*]", keys(rules.getModuleRules("org.project:another")));
+        assertEquals("[org.foo:qux@org.other:module]", keys(rules.getModuleRules("org.other:module")));
+        assertTrue(rules.getModuleRules("org.unknown:module").isEmpty());
+        assertEquals("[org.foo:baz@*]", keys(rules.getGlobalRules()));
+    }
+
+    @Test(expected = ManipulationException.class)
+    public void testInvalidKey() throws ManipulationException {
+        Map<String, String> overrides = new LinkedHashMap<>();
+        overrides.put("org.foo:bar@org.project:module@other", "1.0");
+
+        new OverrideRules(overrides);
+    }
+
+    private static String keys(List<OverrideRules.Rule> rules) {
+        return rules.stream().map(OverrideRules.Rule::getKey).collect(Collectors.toList()).toString();
+    }
+}
@@ -20,11 +20,14 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
 
 import org.apache.commons.io.FileUtils;
 import org.jboss.pnc.mavenmanipulator.common.model.Project;
+import org.jboss.pnc.mavenmanipulator.core.ManipulationSession;
 import org.jboss.pnc.mavenmanipulator.core.fixture.TestUtils;
 import org.jboss.pnc.mavenmanipulator.io.PomIO;
 import org.junit.Rule;
@@ -79,4 +82,39 @@ public class PomIOTest {
         List<Project> projects = pomIO.parseProject(null, projectroot);
         assertEquals(1, projects.size());
     }
+
+    @Test
+    public void testTextPatchingFromSession() throws Exception {
+        final File projectroot = folder.newFile();
+        FileUtils.writeStringToFile(
+                projectroot,
+                "<?xml version='1.0' encoding='UTF-8'?>\n"
+                        + "<project xmlns = \"http://maven.apache.org/POM/4.0.0\">\n"
+                        + "  <modelVersion>4.0.0</modelVersion>\n"
+                        + "  <groupId>org.foo</groupId>\n"
+                        + "  <artifactId>bar</artifactId>\n"
+                        + "  <version>1.0</version>\n"
+                        + "  <properties>\n"
+                        + "    <a-property>one</a-property>\n"
+                        + "    <empty></empty>\n"
+                        + "  </properties>\n"
+                        + "</project>\n",
+                StandardCharsets.UTF_8);
+
+        // The singleton is created before the Maven session, so the option is only present in the session passed
+        // to parseProject.
+        PomIO pomIO = new PomIO(TestUtils.createSessionAndManager(new Properties(), projectroot).getSession());
+        Properties p = new Properties();
+        p.put(PomIO.POM_TEXT_PATCHING, "true");
+        ManipulationSession session = TestUtils.createSessionAndManager(p, projectroot).getSession();
+
+        Project project = pomIO.parseProject(session, projectroot).get(0);
+        project.getModel().getProperties().setProperty("a-property", "two");
+        pomIO.rewritePOMs(Collections.singleton(project));
+
+        String result = FileUtils.readFileToString(projectroot, StandardCharsets.UTF_8);
+        assertTrue(result.contains("<project xmlns = \"http://maven.apache.org/POM/4.0.0\">"));
+        assertTrue(result.contains("<a-property>two</a-property>"));
+        assertTrue(result.contains("<empty></empty>"));
+    }
 }
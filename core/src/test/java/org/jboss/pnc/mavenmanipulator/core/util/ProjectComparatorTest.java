@@ -35,6 +35,7 @@ import org.codehaus.plexus.PlexusContainer;
 import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
 import org.jboss.pnc.mavenmanipulator.common.json.PME;
 import org.jboss.pnc.mavenmanipulator.common.model.Project;
+import org.jboss.pnc.mavenmanipulator.common.model.ProjectSnapshot;
 import org.jboss.pnc.mavenmanipulator.common.util.JSONUtils;
 import org.jboss.pnc.mavenmanipulator.common.util.ProjectComparator;
 import org.jboss.pnc.mavenmanipulator.common.util.WildcardMap;
@@ -259,6 +260,44 @@ public class ProjectComparatorTest {
         assertTrue(contents.contains("org.foobar"));
     }
 
+    @Test
+    public void testCompareSnapshot() throws Exception {
+        ManipulationSession session = createUpdateSession();
+
+        // Locate the PME project pom file. Use that to verify inheritance tracking.
+        final File projectroot = new File(
+                TestUtils.resolveFileResource(RESOURCE_BASE, "")
+                        .getParentFile()
+                        .getParentFile()
+                        .getParentFile()
+                        .getParentFile(),
+                "pom.xml");
+        PomIO pomIO = new PomIO();
+
+        List<Project> projectOriginal = pomIO.parseProject(session, projectroot);
+        List<Project> projectNew = pomIO.parseProject(session, projectroot);
+        List<ProjectSnapshot> snapshot = ProjectSnapshot.of(projectNew);
+
+        projectNew.forEach(project -> project.getModel().setVersion(project.getVersion() + "-redhat-1"));
+        projectNew.forEach(project -> {
+            if (project.getModel().getDependencyManagement() != null) {
+                project.getModel()
+                        .getDependencyManagement()
+                        .getDependencies()
+                        .forEach(dependency -> dependency.setVersion(dependency.getVersion() + "-redhat-1"));
+            }
+        });
+
+        PME json = new PME();
+        PME snapshotJson = new PME();
+        String result = ProjectComparator.compareProjects(session, json, map, projectOriginal, projectNew);
+        String snapshotResult = ProjectComparator.compareProjects(session, snapshotJson, map, snapshot, projectNew);
+
+        assertTrue(result.contains("-redhat-1"));
+        assertEquals(result, snapshotResult);
+        assertEquals(JSONUtils.jsonToString(json), JSONUtils.jsonToString(snapshotJson));
+    }
+
     @Test
     public void messageFormatterTest() {
         FormattingTuple tuple = MessageFormatter.format("this is a test {} and {}", "test", "foobar");
@@ -0,0 +1,106 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.ext;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.building.FileModelSource;
+import org.apache.maven.model.building.ModelProcessor;
+import org.eclipse.sisu.Priority;
+import org.eclipse.sisu.Typed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Replaces Maven's model processor so that the project building following the manipulation uses the
+ * {@link ManipulatedModels manipulated models} directly rather than parsing the POMs again. Anything else is passed to
+ * Maven's default implementation.
+ */
+@Named
+@Singleton
+@Priority(10)
+@Typed(ModelProcessor.class)
+public class ManipulatedModelProcessor
+        implements ModelProcessor {
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final ModelProcessor delegate;
+
+    private final ManipulatedModels models;
+
+    @Inject
+    public ManipulatedModelProcessor(@Named("default") ModelProcessor delegate, ManipulatedModels models) {
+        this.delegate = delegate;
+        this.models = models;
+    }
+
+    @Override
+    public File locatePom(final File projectDirectory) {
+        return delegate.locatePom(projectDirectory);
+    }
+
+    @Override
+    public Model read(final File input, final Map<String, ?> options) throws IOException {
+        final Model model = models.get(input);
+        if (model != null) {
+            logger.debug("Using manipulated model for {}", input);
+            return model;
+        }
+        return delegate.read(input, options);
+    }
+
+    @Override
+    public Model read(final Reader input, final Map<String, ?> options) throws IOException {
+        final Model model = lookup(options);
+        if (model != null) {
+            input.close();
+            return model;
+        }
+        return delegate.read(input, options);
+    }
+
+    @Override
+    public Model read(final InputStream input, final Map<String, ?> options) throws IOException {
+        final Model model = lookup(options);
+        if (model != null) {
+            input.close();
+            return model;
+        }
+        return delegate.read(input, options);
+    }
+
+    private Model lookup(final Map<String, ?> options) {
+        final Object source = options == null ? null : options.get(SOURCE);
+        if (source instanceof FileModelSource) {
+            final File pom = ((FileModelSource) source).getFile();
+            final Model model = models.get(pom);
+            if (model != null) {
+                logger.debug("Using manipulated model for {}", pom);
+            }
+            return model;
+        }
+        return null;
+    }
+}
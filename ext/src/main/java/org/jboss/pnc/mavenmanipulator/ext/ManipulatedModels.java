@@ -0,0 +1,104 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.ext;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.apache.maven.model.Model;
+import org.jboss.pnc.mavenmanipulator.common.model.Project;
+import org.jboss.pnc.mavenmanipulator.io.PomIO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds the models of the projects as manipulated so that Maven's project building can use them rather than parsing
+ * the POMs written to disk again. A model is only used while the content of the POM on disk is known to match it.
+ */
+@Named
+@Singleton
+public class ManipulatedModels {
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final Map<File, Entry> models = new ConcurrentHashMap<>();
+
+    /**
+     * Records the models of the projects whose POM on disk matches the model, i.e. unmodified projects whose POM is
+     * still the one parsed and modified projects whose POM has been rewritten from their model.
+     *
+     * @param projects the manipulated projects.
+     * @param matchesPom decides whether the POM on disk of a project holds its model, see
+     *        {@link org.jboss.pnc.mavenmanipulator.io.PomIO#matchesPom(Project)}.
+     */
+    void register(final List<Project> projects, final Predicate<Project> matchesPom) {
+        for (final Project project : projects) {
+            final File pom = project.getPom();
+            if (pom == null || !matchesPom.test(project)) {
+                logger.debug("Model for {} does not match the POM on disk ; not retaining", pom);
+                continue;
+            }
+            try {
+                models.put(pom.getCanonicalFile(), new Entry(project.getModel(), PomIO.digest(pom)));
+            } catch (IOException e) {
+                logger.debug("Unable to read {} ; not retaining model: {}", pom, e.getMessage());
+            }
+        }
+        logger.debug("Retained {} manipulated models", models.size());
+    }
+
+    /**
+     * Returns a copy of the manipulated model for the POM if it is known and its content has not changed since.
+     *
+     * @param pom the POM file
+     * @return a copy of the model or null.
+     */
+    Model get(final File pom) {
+        if (models.isEmpty()) {
+            return null;
+        }
+        try {
+            final Entry entry = models.get(pom.getCanonicalFile());
+            if (entry != null && entry.digest.equals(PomIO.digest(pom))) {
+                return entry.model.clone();
+            }
+        } catch (IOException e) {
+            logger.debug("Unable to read {}: {}", pom, e.getMessage());
+        }
+        return null;
+    }
+
+    void clear() {
+        models.clear();
+    }
+
+    private static final class Entry {
+        private final Model model;
+
+        private final String digest;
+
+        private Entry(final Model model, final String digest) {
+            this.model = model;
+            this.digest = digest;
+        }
+    }
+}
@@ -30,6 +30,7 @@ import org.jboss.pnc.mavenmanipulator.core.ManipulationManager;
 import org.jboss.pnc.mavenmanipulator.core.ManipulationSession;
 import org.jboss.pnc.mavenmanipulator.core.util.PropertiesUtils;
 import org.jboss.pnc.mavenmanipulator.io.ConfigIO;
+import org.jboss.pnc.mavenmanipulator.io.PomIO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -51,14 +52,22 @@ public class ManipulatingEventSpy
 
     private ConfigIO configIO;
 
+    private ManipulatedModels manipulatedModels;
+
+    private PomIO pomIO;
+
     @Inject
     public ManipulatingEventSpy(
             ManipulationManager manipulationManager,
             ManipulationSession session,
-            ConfigIO configIO) {
+            ConfigIO configIO,
+            ManipulatedModels manipulatedModels,
+            PomIO pomIO) {
         this.manipulationManager = manipulationManager;
         this.session = session;
         this.configIO = configIO;
+        this.manipulatedModels = manipulatedModels;
+        this.pomIO = pomIO;
     }
 
     @Override
@@ -70,7 +79,11 @@ public class ManipulatingEventSpy
                 final ExecutionEvent ee = (ExecutionEvent) event;
                 final ExecutionEvent.Type type = ee.getType();
 
-                if (type == Type.ProjectDiscoveryStarted) {
+                if (type == Type.SessionEnded) {
+                    manipulatedModels.clear();
+                } else if (type == Type.ProjectDiscoveryStarted) {
+                    manipulatedModels.clear();
+
                     if (ee.getSession() != null) {
                         session.setMavenSession(ee.getSession());
 
@@ -99,6 +112,12 @@ public class ManipulatingEventSpy
                     }
 
                     manipulationManager.scanAndApply(session);
+
+                    // Hand the models over to the project building that follows rather than parsing them again.
+                    if (Boolean.parseBoolean(
+                            session.getUserProperties().getProperty(ManipulationManager.MODEL_HANDOFF, "false"))) {
+                        manipulatedModels.register(session.getProjects(), pomIO::matchesPom);
+                    }
                 }
             }
         } catch (final ManipulationException e) {
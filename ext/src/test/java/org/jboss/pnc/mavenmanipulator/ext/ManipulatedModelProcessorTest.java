@@ -0,0 +1,124 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.ext;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.building.FileModelSource;
+import org.apache.maven.model.building.ModelProcessor;
+import org.jboss.pnc.mavenmanipulator.common.model.Project;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ManipulatedModelProcessorTest {
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private final Model parsed = new Model();
+
+    private final ManipulatedModels models = new ManipulatedModels();
+
+    private final ManipulatedModelProcessor processor = new ManipulatedModelProcessor(new StubProcessor(), models);
+
+    @Test
+    public void usesManipulatedModel() throws Exception {
+        final File pom = registered();
+
+        assertEquals("1.0.redhat-00001", processor.read(pom, null).getVersion());
+        assertEquals(
+                "1.0.redhat-00001",
+                processor.read(new StringReader(""), options(pom)).getVersion());
+    }
+
+    @Test
+    public void fallsBackToDefault() throws Exception {
+        registered();
+        final File other = temp.newFile("other.xml");
+
+        assertSame(parsed, processor.read(other, null));
+        assertSame(parsed, processor.read(new StringReader(""), options(other)));
+        assertSame(parsed, processor.read(new ByteArrayInputStream(new byte[0]), options(other)));
+        // Without a file source there is nothing to look up.
+        assertSame(parsed, processor.read(new ByteArrayInputStream(new byte[0]), null));
+        assertSame(parsed, processor.read(new StringReader(""), Collections.emptyMap()));
+    }
+
+    @Test
+    public void fallsBackToDefaultForChangedPom() throws Exception {
+        final File pom = registered();
+        FileUtils.writeStringToFile(pom, "<project/>", StandardCharsets.UTF_8);
+
+        assertSame(parsed, processor.read(pom, null));
+        assertSame(parsed, processor.read(new ByteArrayInputStream(new byte[0]), options(pom)));
+    }
+
+    @Test
+    public void locatesWithDefault() {
+        assertEquals(new File("located"), processor.locatePom(new File("dir")));
+    }
+
+    private File registered() throws Exception {
+        final File pom = temp.newFile("pom.xml");
+        FileUtils.writeStringToFile(pom, "<project></project>", StandardCharsets.UTF_8);
+
+        final Model model = new Model();
+        model.setGroupId("org.test");
+        model.setArtifactId("test");
+        model.setVersion("1.0.redhat-00001");
+        models.register(Collections.singletonList(new Project(null, pom, model)), p -> true);
+        return pom;
+    }
+
+    private static Map<String, ?> options(File pom) {
+        return Collections.singletonMap(ModelProcessor.SOURCE, new FileModelSource(pom));
+    }
+
+    private class StubProcessor
+            implements ModelProcessor {
+        @Override
+        public File locatePom(File projectDirectory) {
+            return new File("located");
+        }
+
+        @Override
+        public Model read(File input, Map<String, ?> options) {
+            return parsed;
+        }
+
+        @Override
+        public Model read(Reader input, Map<String, ?> options) {
+            return parsed;
+        }
+
+        @Override
+        public Model read(InputStream input, Map<String, ?> options) {
+            return parsed;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.ext;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.model.Model;
+import org.jboss.pnc.mavenmanipulator.common.model.Project;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ManipulatedModelsTest {
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private final ManipulatedModels models = new ManipulatedModels();
+
+    @Test
+    public void matchingPomReturnsCopy() throws Exception {
+        final Project project = project(temp.newFile("pom.xml"));
+        models.register(Collections.singletonList(project), p -> true);
+
+        final Model model = models.get(project.getPom());
+        assertEquals("1.0.redhat-00001", model.getVersion());
+        assertNotSame(project.getModel(), model);
+
+        // Callers may modify the returned model without affecting later lookups.
+        model.setVersion("2.0");
+        assertEquals("1.0.redhat-00001", models.get(project.getPom()).getVersion());
+    }
+
+    @Test
+    public void stalePomIsNotUsed() throws Exception {
+        final Project project = project(temp.newFile("pom.xml"));
+        models.register(Collections.singletonList(project), p -> true);
+
+        // Same length and written within the same second, so only the content differs.
+        FileUtils.writeStringToFile(
+                project.getPom(),
+                pom("1.0.redhat-00002"),
+                StandardCharsets.UTF_8);
+
+        assertNull(models.get(project.getPom()));
+    }
+
+    @Test
+    public void unrelatedPomIsNotUsed() throws Exception {
+        final Project project = project(temp.newFile("pom.xml"));
+        models.register(Collections.singletonList(project), p -> true);
+
+        final File other = temp.newFile("other.xml");
+        FileUtils.writeStringToFile(other, pom("1.0.redhat-00001"), StandardCharsets.UTF_8);
+
+        assertNull(models.get(other));
+    }
+
+    @Test
+    public void mismatchedPomIsNotRegistered() throws Exception {
+        final Project project = project(temp.newFile("pom.xml"));
+        models.register(Collections.singletonList(project), p -> false);
+
+        assertNull(models.get(project.getPom()));
+    }
+
+    @Test
+    public void clearDropsModels() throws Exception {
+        final Project project = project(temp.newFile("pom.xml"));
+        models.register(Collections.singletonList(project), p -> true);
+        models.clear();
+
+        assertNull(models.get(project.getPom()));
+    }
+
+    private static Project project(File pom) throws Exception {
+        FileUtils.writeStringToFile(pom, pom("1.0.redhat-00001"), StandardCharsets.UTF_8);
+
+        final Model model = new Model();
+        model.setModelVersion("4.0.0");
+        model.setGroupId("org.test");
+        model.setArtifactId("test");
+        model.setVersion("1.0.redhat-00001");
+        return new Project(null, pom, model);
+    }
+
+    private static String pom(String version) {
+        return "<project><modelVersion>4.0.0</modelVersion><groupId>org.test</groupId>"
+                + "<artifactId>test</artifactId><version>" + version + "</version></project>";
+    }
+}
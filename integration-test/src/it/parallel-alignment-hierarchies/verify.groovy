@@ -0,0 +1,24 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+// Both hierarchies declare the same properties, aligned concurrently to different values.
+[ first: '4.10', second: '4.11' ].each { hierarchy, junit ->
+    def pomFile = new File( basedir, "${hierarchy}/pom.xml" )
+    System.out.println( "Slurping POM: ${pomFile.getAbsolutePath()}" )
+
+    def pom = new XmlSlurper().parse( pomFile )
+    assert pom.properties.'version.junit'.text() == junit
+    assert pom.properties.'version.commons-lang'.text() == '2.6'
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.integrationtest;
+
+import static org.codehaus.plexus.util.FileUtils.copyDirectoryStructure;
+import static org.jboss.pnc.mavenmanipulator.integrationtest.ITestUtils.DEFAULT_MVN_PARAMS;
+import static org.jboss.pnc.mavenmanipulator.integrationtest.ITestUtils.getDefaultTestLocation;
+import static org.jboss.pnc.mavenmanipulator.integrationtest.ITestUtils.runCli;
+import static org.jboss.pnc.mavenmanipulator.integrationtest.ITestUtils.runMaven;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Aligns the same reactor, containing independent inheritance hierarchies that declare the same properties, with and
+ * without parallelAlignment and verifies that every POM written is identical.
+ */
+public class ParallelAlignmentIntegrationTest {
+    private static final String TEST = "parallel-alignment-hierarchies";
+
+    @Rule
+    public TemporaryFolder tmpFolderRule = new TemporaryFolder();
+
+    @BeforeClass
+    public static void setUp()
+            throws Exception {
+        Map<String, String> params = new HashMap<>(DEFAULT_MVN_PARAMS);
+        params.put("pomFile", "bom.xml");
+        params.put("file", "bom.xml");
+        runMaven("install:install-file -N", params, getDefaultTestLocation(TEST));
+    }
+
+    @Test
+    public void testParallelMatchesSequential()
+            throws Exception {
+        File sequential = align(false);
+        File parallel = align(true);
+
+        List<Path> poms = poms(sequential);
+        assertEquals(5, poms.size());
+        assertEquals(poms, poms(parallel));
+        for (Path pom : poms) {
+            assertArrayEquals(
+                    pom.toString(),
+                    Files.readAllBytes(sequential.toPath().resolve(pom)),
+                    Files.readAllBytes(parallel.toPath().resolve(pom)));
+        }
+        assertTrue(
+                new String(Files.readAllBytes(parallel.toPath().resolve("first/pom.xml")), StandardCharsets.UTF_8)
+                        .contains("<version.junit>4.10</version.junit>"));
+        assertTrue(
+                new String(Files.readAllBytes(parallel.toPath().resolve("second/pom.xml")), StandardCharsets.UTF_8)
+                        .contains("<version.junit>4.11</version.junit>"));
+    }
+
+    private File align(boolean parallel)
+            throws Exception {
+        File test = new File(getDefaultTestLocation(TEST));
+        File baseDir = tmpFolderRule.newFolder();
+        copyDirectoryStructure(test, baseDir);
+
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(new File(test, "test.properties").toPath())) {
+            properties.load(in);
+        }
+        Map<String, String> params = new HashMap<>();
+        properties.stringPropertyNames().forEach(k -> params.put(k, properties.getProperty(k)));
+        params.put("parallelAlignment", Boolean.toString(parallel));
+
+        List<String> args = new ArrayList<>(Arrays.asList("-s", getDefaultTestLocation("settings.xml")));
+        assertEquals((Integer) 0, runCli(args, params, baseDir.getCanonicalPath()));
+        return baseDir;
+    }
+
+    private static List<Path> poms(File baseDir)
+            throws Exception {
+        try (Stream<Path> files = Files.walk(baseDir.toPath())) {
+            return files.filter(p -> p.getFileName().toString().equals("pom.xml"))
+                    .map(p -> baseDir.toPath().relativize(p))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
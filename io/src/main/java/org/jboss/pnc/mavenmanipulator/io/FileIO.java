@@ -17,7 +17,9 @@ package org.jboss.pnc.mavenmanipulator.io;
 
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
@@ -33,6 +35,7 @@ import org.apache.commons.lang3.SystemUtils;
 import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationException;
 import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationUncheckedException;
 import org.jboss.pnc.mavenmanipulator.common.util.LineSeparator;
+import org.jboss.pnc.mavenmanipulator.io.resolver.CacheBundle;
 
 /**
  * Class to resolve Files from alternate locations
@@ -43,18 +46,22 @@ public class FileIO {
 
     private final File cacheDir;
 
+    private final CacheBundle cacheBundle;
+
     @Inject
-    public FileIO() {
+    public FileIO(CacheBundle cacheBundle) {
         try {
             cacheDir = Files.createTempDirectory("pme-cache-").toFile();
             Runtime.getRuntime().addShutdownHook(new Thread(() -> FileUtils.deleteQuietly(cacheDir)));
         } catch (IOException e) {
             throw new ManipulationUncheckedException(e);
         }
+        this.cacheBundle = cacheBundle;
     }
 
     public FileIO(File cacheDir) {
         this.cacheDir = cacheDir;
+        this.cacheBundle = new CacheBundle();
     }
 
     /**
@@ -77,7 +84,17 @@ public class FileIO {
         // If its a local file reference. just use the file itself rather than copying it.
         if (!"file".equals(ref.getProtocol())) {
             result = Files.createTempFile(cacheDir.toPath(), UUID.randomUUID().toString(), null).toFile();
-            FileUtils.copyURLToFile(ref, result);
+            if (cacheBundle.isImporting()) {
+                try (InputStream in = cacheBundle.getURL(reference)) {
+                    if (in == null) {
+                        throw new FileNotFoundException("Not found in cache bundle: " + reference);
+                    }
+                    FileUtils.copyInputStreamToFile(in, result);
+                }
+            } else {
+                FileUtils.copyURLToFile(ref, result);
+                cacheBundle.putURL(reference, result);
+            }
         } else {
             result = new File(ref.getPath());
         }
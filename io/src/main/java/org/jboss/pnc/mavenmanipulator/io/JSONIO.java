@@ -51,6 +51,8 @@ import com.jayway.jsonpath.Option;
 public class JSONIO {
     private static final Logger logger = LoggerFactory.getLogger(JSONIO.class);
 
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
     private File jsonFile;
 
     private JsonEncoding encoding;
@@ -141,9 +143,9 @@ public class JSONIO {
     public void writeJSON(File target, DocumentContext contents) throws ManipulationException {
         try {
             PrettyPrinter dpp = new MyPrettyPrinter(getCharset());
-            ObjectMapper mapper = new ObjectMapper();
-            String jsonString = contents.jsonString();
-            String pretty = mapper.writer(dpp).writeValueAsString(mapper.readValue(jsonString, Object.class));
+            // Serialise the parsed (ordered) map/list structure directly rather than round-tripping through
+            // a JSON string.
+            String pretty = MAPPER.writer(dpp).writeValueAsString(contents.json());
             Charset cs = getCharset();
             FileOutputStream fileOutputStream = new FileOutputStream(target);
             try (OutputStreamWriter p = new OutputStreamWriter(fileOutputStream, cs)) {
@@ -15,10 +15,10 @@
  */
 package org.jboss.pnc.mavenmanipulator.io;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.ArrayList;
@@ -26,12 +26,15 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.reflect.FieldUtils;
 import org.apache.maven.model.Model;
@@ -48,6 +51,7 @@ import org.apache.maven.shared.release.transform.jdom2.JDomModelETLFactory;
 import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
 import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
 import org.commonjava.maven.galley.maven.parse.PomPeek;
+import org.jboss.pnc.mavenmanipulator.annotation.ConfigValue;
 import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationException;
 import org.jboss.pnc.mavenmanipulator.common.jdom.JDOMModelConverter;
 import org.jboss.pnc.mavenmanipulator.common.model.Project;
@@ -69,6 +73,13 @@ public class PomIO {
     // TODO: Remove this if no side affects reported in 2022.
     public static final String PARSE_POM_TEMPLATES = "parsePomTemplates";
 
+    /**
+     * If enabled, POMs whose models only have changed version or property values are written by patching
+     * those values into the original text rather than through the JDOM based writer.
+     */
+    @ConfigValue(docIndex = "misc.html#pom-text-patching")
+    public static final String POM_TEXT_PATCHING = "pomTextPatching";
+
     private static final String MODIFIED_BY = "Modified by POM Manipulation Extension for Maven";
 
     private static final Logger logger = LoggerFactory.getLogger(PomIO.class);
@@ -78,19 +89,40 @@ public class PomIO {
 
     private final JDOMModelConverter jdomModelConverter = new JDOMModelConverter();
 
-    private final boolean parsePomTemplates;
+    /**
+     * The session this component was created with. As this is a singleton, created before the Maven session is
+     * available, the configuration is read from the session passed to {@link #parseProject} where possible.
+     */
+    private final MavenSessionHandler handler;
+
+    private final boolean defaultTextPatching;
 
-    private String manifestComment;
+    /**
+     * Original sources of the POMs parsed by the last {@link #parseProject} call, only recorded if
+     * {@link #POM_TEXT_PATCHING} is enabled.
+     */
+    private final Map<File, PomTextPatcher.Source> patchSources = new ConcurrentHashMap<>();
+
+    /**
+     * Digests of the POMs as last parsed or written by this instance, see {@link #matchesPom(Project)}.
+     */
+    private final Map<File, Content> contents = new ConcurrentHashMap<>();
 
     @Inject
     public PomIO(MavenSessionHandler handler) {
-        parsePomTemplates = Boolean.parseBoolean(
-                handler.getUserProperties().getProperty(PARSE_POM_TEMPLATES, "true"));
+        this.handler = handler;
+        this.defaultTextPatching = false;
     }
 
     // Test use only.
     public PomIO() {
-        parsePomTemplates = true;
+        this(false);
+    }
+
+    // Test use only.
+    public PomIO(boolean textPatching) {
+        this.handler = null;
+        this.defaultTextPatching = textPatching;
     }
 
     /**
@@ -99,9 +131,17 @@ public class PomIO {
      */
     public List<Project> parseProject(final MavenSessionHandler session, final File pom)
             throws ManipulationException {
-        final List<PomPeek> peeked = peekAtPomHierarchy(pom);
+        // Sources recorded by a previous run (e.g. an earlier CLI daemon job) are stale.
+        patchSources.clear();
+        contents.clear();
+
+        final List<PomPeek> peeked = peekAtPomHierarchy(pom, isEnabled(session, PARSE_POM_TEMPLATES, true));
         try {
-            return readModelsForManipulation(session, pom.getCanonicalFile(), peeked);
+            return readModelsForManipulation(
+                    session,
+                    pom.getCanonicalFile(),
+                    peeked,
+                    isEnabled(session, POM_TEXT_PATCHING, defaultTextPatching));
         } catch (IOException e) {
             throw new ManipulationException("Error getting canonical file", e);
         }
@@ -114,13 +154,15 @@ public class PomIO {
      *
      * @param executionRoot the top level pom file.
      * @param peeked a collection of poms resolved from the top level file.
+     * @param textPatching whether to record the sources of the POMs for {@link #POM_TEXT_PATCHING}.
      * @return a collection of Projects
      * @throws ManipulationException if an error occurs.
      */
     private List<Project> readModelsForManipulation(
             MavenSessionHandler session,
             File executionRoot,
-            final List<PomPeek> peeked)
+            final List<PomPeek> peeked,
+            final boolean textPatching)
             throws ManipulationException {
         final List<Project> projects = new ArrayList<>();
         final HashMap<Project, ProjectVersionRef> projectToParent = new HashMap<>();
@@ -134,10 +176,21 @@ public class PomIO {
             // the plugin versions set inside profiles...so they're not entirely
             // raw.
             Model raw;
-            try (InputStream in = Files.newInputStream(pom.toPath())) {
-                raw = new MavenXpp3Reader().read(in);
-            } catch (final IOException | XmlPullParserException e) {
-                throw new ManipulationException("Failed to build model for POM: ({}) : {}", pom, e.getMessage(), e);
+            if (textPatching) {
+                raw = PomTextPatcher.read(pom, patchSources);
+                record(pom, false);
+            } else {
+                try {
+                    final byte[] bytes = Files.readAllBytes(pom.toPath());
+                    raw = new MavenXpp3Reader().read(new ByteArrayInputStream(bytes));
+                    contents.put(pom, new Content(DigestUtils.sha256Hex(bytes), false));
+                } catch (final IOException | XmlPullParserException e) {
+                    throw new ManipulationException(
+                            "Failed to build model for POM: ({}) : {}",
+                            pom,
+                            e.getMessage(),
+                            e);
+                }
             }
 
             if (raw == null) {
@@ -178,6 +231,21 @@ public class PomIO {
         return projects;
     }
 
+    /**
+     * @param session the session passed to the current call, or null.
+     * @param property the boolean user property.
+     * @param defaultValue the value if neither session configures the property.
+     * @return the value of the property.
+     */
+    private boolean isEnabled(MavenSessionHandler session, String property, boolean defaultValue) {
+        final MavenSessionHandler source = session == null ? handler : session;
+        if (source == null) {
+            return defaultValue;
+        }
+        return Boolean.parseBoolean(
+                source.getUserProperties().getProperty(property, Boolean.toString(defaultValue)));
+    }
+
     private Project getParent(List<Project> projects, ProjectVersionRef pvr) {
         for (Project p : projects) {
             if (p.getKey().equals(pvr)) {
@@ -197,7 +265,7 @@ public class PomIO {
      */
     public void rewritePOMs(final Set<Project> changed)
             throws ManipulationException {
-        manifestComment = "Modified by POM Manipulation Extension for Maven "
+        final String manifestComment = "Modified by POM Manipulation Extension for Maven "
                 + ManifestUtils.getManifestInformation(PomIO.class);
 
         for (final Project project : changed) {
@@ -216,7 +284,8 @@ public class PomIO {
                     System.lineSeparator(),
                     pom);
 
-            write(project, pom, model);
+            write(project, pom, model, manifestComment);
+            record(pom, true);
 
             // this happens with integration tests!
             // This is a total hack, but the alternative seems to be adding complexity through a custom model processor.
@@ -225,11 +294,50 @@ public class PomIO {
                 final File dir = pom.getParentFile();
                 pom = dir == null ? new File("pom.xml") : new File(dir, "pom.xml");
 
-                write(project, pom, model);
+                write(project, pom, model, manifestComment);
             }
         }
     }
 
+    /**
+     * Returns whether the POM of the project on disk still holds exactly what was parsed by the last
+     * {@link #parseProject} call or, if the model has been modified, what was written from it by
+     * {@link #rewritePOMs}. Only then does the model of the project match the POM on disk.
+     *
+     * @param project the project to check.
+     * @return true if the POM on disk is the one parsed into, or written from, the model.
+     */
+    public boolean matchesPom(final Project project) {
+        final File pom = project.getPom();
+        final Content content = pom == null ? null : contents.get(pom);
+        if (content == null || (project.isModified() && !content.written)) {
+            return false;
+        }
+        try {
+            return content.digest.equals(digest(pom));
+        } catch (IOException e) {
+            logger.debug("Unable to read {}: {}", pom, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * @param pom the file to digest.
+     * @return the SHA-256 digest of the content of the file.
+     * @throws IOException if the file cannot be read.
+     */
+    public static String digest(final File pom) throws IOException {
+        return DigestUtils.sha256Hex(Files.readAllBytes(pom.toPath()));
+    }
+
+    private void record(final File pom, final boolean written) throws ManipulationException {
+        try {
+            contents.put(pom, new Content(digest(pom), written));
+        } catch (IOException e) {
+            throw new ManipulationException("Failed to read POM: {}", pom, e);
+        }
+    }
+
     /**
      * Writes out the Model to the selected target file.
      *
@@ -246,8 +354,21 @@ public class PomIO {
         }
     }
 
-    private void write(final Project project, final File pom, final Model model)
+    private void write(final Project project, final File pom, final Model model, final String manifestComment)
             throws ManipulationException {
+        final PomTextPatcher.Source source = patchSources.remove(pom);
+        if (source != null) {
+            final PomTextPatcher.Source patched = PomTextPatcher.patch(
+                    source,
+                    model,
+                    project.isExecutionRoot() ? manifestComment : null,
+                    pom);
+            if (patched != null) {
+                patchSources.put(pom, patched);
+                return;
+            }
+            logger.debug("Falling back to JDOM writer for {}", pom);
+        }
         try {
             // We possibly could store the EOL type in the Project when we first read
             // the file but we would then have to do a dual read, then write as opposed
@@ -306,7 +427,7 @@ public class PomIO {
         }
     }
 
-    private List<PomPeek> peekAtPomHierarchy(final File topPom)
+    private List<PomPeek> peekAtPomHierarchy(final File topPom, final boolean parsePomTemplates)
             throws ManipulationException {
         final List<PomPeek> peeked = new ArrayList<>();
 
@@ -433,4 +554,15 @@ public class PomIO {
         }
         return false;
     }
+
+    private static final class Content {
+        private final String digest;
+
+        private final boolean written;
+
+        private Content(final String digest, final boolean written) {
+            this.digest = digest;
+            this.written = written;
+        }
+    }
 }
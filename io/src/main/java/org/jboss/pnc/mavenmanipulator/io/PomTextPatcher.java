@@ -0,0 +1,373 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.Consumer;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.BuildBase;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.InputLocation;
+import org.apache.maven.model.InputSource;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.ModelBase;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginManagement;
+import org.apache.maven.model.Profile;
+import org.apache.maven.model.io.xpp3.MavenXpp3ReaderEx;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+import org.codehaus.plexus.util.xml.XmlStreamReader;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Alternative POM output engine that rewrites only the text of version, parent version and property values
+ * in the original file, leaving every other byte untouched. The source offsets are recorded from the
+ * {@link InputLocation} tracking performed by {@link MavenXpp3ReaderEx} when the POM is first read.
+ * <p>
+ * If the model has been structurally changed (e.g. dependencies, profiles or plugins added or removed) or
+ * a changed value cannot be located exactly in the source, {@link #patch(Source, Model, String, File)}
+ * returns null and the caller should fall back to the JDOM based writer.
+ */
+final class PomTextPatcher {
+    private static final Logger logger = LoggerFactory.getLogger(PomTextPatcher.class);
+
+    private static final String PROPERTIES = "properties";
+
+    private static final String VERSION = "version";
+
+    private static final String ROOT_END = "</project>";
+
+    private PomTextPatcher() {
+    }
+
+    /**
+     * Captured state of a POM as originally read.
+     */
+    static final class Source {
+        private final String content;
+
+        private final Charset charset;
+
+        private final String structure;
+
+        private final List<String> values;
+
+        private final List<int[]> ranges;
+
+        private Source(String content, Charset charset, String structure, List<String> values, List<int[]> ranges) {
+            this.content = content;
+            this.charset = charset;
+            this.structure = structure;
+            this.values = values;
+            this.ranges = ranges;
+        }
+    }
+
+    /**
+     * A single patchable value within the model.
+     */
+    private static final class Site {
+        private final String value;
+
+        private final InputLocation location;
+
+        private final Consumer<String> blank;
+
+        private Site(String value, InputLocation location, Consumer<String> blank) {
+            this.value = value;
+            this.location = location;
+            this.blank = blank;
+        }
+    }
+
+    /**
+     * Read the POM, tracking input locations, and record its source for later patching.
+     *
+     * @param pom the file to read
+     * @param sources the map to record the captured source in, keyed by the file.
+     * @return the read model.
+     * @throws ManipulationException if an error occurs.
+     */
+    static Model read(File pom, Map<File, Source> sources) throws ManipulationException {
+        try {
+            byte[] bytes = Files.readAllBytes(pom.toPath());
+            String content;
+            Charset charset;
+
+            try (XmlStreamReader reader = new XmlStreamReader(new ByteArrayInputStream(bytes))) {
+                charset = Charset.forName(reader.getEncoding());
+                content = new String(bytes, charset);
+            }
+
+            Model model = new MavenXpp3ReaderEx().read(new StringReader(content), true, new InputSource());
+
+            // A leading byte order mark would be lost on the round trip so leave those to the JDOM writer.
+            if (!content.isEmpty() && content.charAt(0) != '\uFEFF') {
+                sources.put(pom, capture(content, charset, model));
+            }
+            return model;
+        } catch (IOException | XmlPullParserException e) {
+            throw new ManipulationException("Failed to build model for POM: ({}) : {}", pom, e.getMessage(), e);
+        }
+    }
+
+    private static Source capture(String content, Charset charset, Model model) throws IOException {
+        List<Site> sites = collect(model);
+        List<String> values = new ArrayList<>(sites.size());
+        List<int[]> ranges = new ArrayList<>(sites.size());
+        int[] lineStarts = lineStarts(content);
+
+        for (Site site : sites) {
+            values.add(site.value);
+            ranges.add(locate(content, lineStarts, site));
+        }
+        return new Source(content, charset, structure(model), values, ranges);
+    }
+
+    /**
+     * Apply the changed values in the model as text patches to the original source.
+     *
+     * @param source the captured source
+     * @param model the current model
+     * @param manifestComment comment to add or update after the root element, or null if not the execution root.
+     * @param target the file to write to.
+     * @return the new captured source if the file was written, otherwise null.
+     * @throws ManipulationException if an error occurs.
+     */
+    static Source patch(Source source, Model model, String manifestComment, File target)
+            throws ManipulationException {
+        try {
+            List<Site> sites = collect(model);
+
+            if (sites.size() != source.values.size() || !structure(model).equals(source.structure)) {
+                logger.debug("Structural changes detected in {} ; unable to patch text", target);
+                return null;
+            }
+
+            List<int[]> patches = new ArrayList<>();
+            List<String> replacements = new ArrayList<>();
+
+            for (int i = 0; i < sites.size(); i++) {
+                String original = source.values.get(i);
+                String current = sites.get(i).value;
+
+                if (original == null ? current == null : original.equals(current)) {
+                    continue;
+                }
+                int[] range = source.ranges.get(i);
+                if (original == null || current == null || range == null) {
+                    logger.debug("Unable to locate text for changed value {} in {}", current, target);
+                    return null;
+                }
+                patches.add(range);
+                replacements.add(escape(current));
+            }
+
+            StringBuilder result = new StringBuilder(source.content);
+            // Ranges are collected in document order for each section but not globally, so apply from the end.
+            List<Integer> order = new ArrayList<>();
+            for (int i = 0; i < patches.size(); i++) {
+                order.add(i);
+            }
+            order.sort((a, b) -> Integer.compare(patches.get(b)[0], patches.get(a)[0]));
+            for (int i : order) {
+                result.replace(patches.get(i)[0], patches.get(i)[1], replacements.get(i));
+            }
+
+            if (manifestComment != null) {
+                addManifestComment(result, manifestComment, FileIO.determineEOL(target).value());
+            }
+
+            String content = result.toString();
+            FileUtils.writeStringToFile(target, content, source.charset);
+
+            logger.debug("Patched {} value(s) in {}", patches.size(), target);
+
+            return capture(
+                    content,
+                    source.charset,
+                    new MavenXpp3ReaderEx().read(new StringReader(content), true, new InputSource()));
+        } catch (IOException | XmlPullParserException e) {
+            throw new ManipulationException("Failed to patch POM: {}. Reason: ", target, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Matches the handling of the outtro by the JDOM writer in {@link PomIO}.
+     */
+    private static void addManifestComment(StringBuilder content, String manifestComment, String ls) {
+        int end = content.lastIndexOf(ROOT_END);
+        if (end < 0) {
+            return;
+        }
+        end += ROOT_END.length();
+
+        String outtro = content.substring(end);
+
+        if (outtro.equals(ls)) {
+            outtro = ls + "<!--" + ls + manifestComment + ls + "-->" + ls;
+        } else {
+            outtro = outtro.replaceAll("Modified by.*", manifestComment);
+        }
+        content.replace(end, content.length(), outtro);
+    }
+
+    /**
+     * Returns a digest of the model with every patchable value blanked out ; if two models have the same digest
+     * they only differ in those values.
+     */
+    private static String structure(Model model) throws IOException {
+        Model clone = model.clone();
+        collect(clone).forEach(s -> s.blank.accept(null));
+
+        StringWriter writer = new StringWriter();
+        new MavenXpp3Writer().write(writer, clone);
+        return DigestUtils.sha256Hex(writer.toString());
+    }
+
+    private static List<Site> collect(Model model) {
+        List<Site> sites = new ArrayList<>();
+
+        sites.add(new Site(model.getVersion(), model.getLocation(VERSION), model::setVersion));
+        if (model.getParent() != null) {
+            sites.add(
+                    new Site(
+                            model.getParent().getVersion(),
+                            model.getParent().getLocation(VERSION),
+                            model.getParent()::setVersion));
+        }
+        collect(model, model.getBuild(), sites);
+        for (Profile profile : model.getProfiles()) {
+            collect(profile, profile.getBuild(), sites);
+        }
+        return sites;
+    }
+
+    private static void collect(ModelBase base, BuildBase build, List<Site> sites) {
+        Properties properties = base.getProperties();
+        InputLocation propertiesLocation = base.getLocation(PROPERTIES);
+
+        // Sort the keys so the ordering is stable between captures.
+        List<String> keys = new ArrayList<>(properties.stringPropertyNames());
+        Collections.sort(keys);
+        for (String key : keys) {
+            sites.add(
+                    new Site(
+                            properties.getProperty(key),
+                            propertiesLocation == null ? null : propertiesLocation.getLocation(key),
+                            v -> properties.setProperty(key, "")));
+        }
+
+        collectDependencies(base.getDependencies(), sites);
+        if (base.getDependencyManagement() != null) {
+            collectDependencies(base.getDependencyManagement().getDependencies(), sites);
+        }
+        if (build != null) {
+            collectPlugins(build.getPlugins(), sites);
+            PluginManagement pm = build.getPluginManagement();
+            if (pm != null) {
+                collectPlugins(pm.getPlugins(), sites);
+            }
+            if (build instanceof Build) {
+                // Extensions may also carry versions.
+                ((Build) build).getExtensions()
+                        .forEach(e -> sites.add(new Site(e.getVersion(), e.getLocation(VERSION), e::setVersion)));
+            }
+        }
+    }
+
+    private static void collectDependencies(List<Dependency> dependencies, List<Site> sites) {
+        for (Dependency d : dependencies) {
+            sites.add(new Site(d.getVersion(), d.getLocation(VERSION), d::setVersion));
+        }
+    }
+
+    private static void collectPlugins(List<Plugin> plugins, List<Site> sites) {
+        for (Plugin p : plugins) {
+            sites.add(new Site(p.getVersion(), p.getLocation(VERSION), p::setVersion));
+            collectDependencies(p.getDependencies(), sites);
+        }
+    }
+
+    private static int[] lineStarts(String content) {
+        List<Integer> starts = new ArrayList<>();
+        starts.add(0);
+        for (int i = 0; i < content.length(); i++) {
+            if (content.charAt(i) == '\n') {
+                starts.add(i + 1);
+            }
+        }
+        return starts.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Converts the input location (which points directly after the start tag) into the offsets of the trimmed
+     * text value, verifying that the text exactly matches the value read.
+     *
+     * @return start and end offsets, or null if the value cannot be safely patched.
+     */
+    private static int[] locate(String content, int[] lineStarts, Site site) {
+        InputLocation l = site.location;
+        if (site.value == null || l == null) {
+            return null;
+        }
+        int line = l.getLineNumber();
+        int column = l.getColumnNumber();
+        if (line < 1 || line > lineStarts.length || column < 1) {
+            return null;
+        }
+        int start = lineStarts[line - 1] + column - 1;
+        if (start < 2 || start > content.length() || content.charAt(start - 1) != '>'
+                || content.charAt(start - 2) == '/') {
+            return null;
+        }
+        int end = content.indexOf('<', start);
+        if (end < 0) {
+            return null;
+        }
+        String raw = content.substring(start, end);
+        String trimmed = raw.trim();
+        if (!trimmed.equals(site.value) || trimmed.indexOf('&') >= 0) {
+            return null;
+        }
+        if (trimmed.isEmpty()) {
+            return new int[] { start, end };
+        }
+        int offset = start + raw.indexOf(trimmed);
+        return new int[] { offset, offset + trimmed.length() };
+    }
+
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
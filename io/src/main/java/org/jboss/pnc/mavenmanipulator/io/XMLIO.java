@@ -18,7 +18,11 @@ package org.jboss.pnc.mavenmanipulator.io;
 import java.io.File;
 import java.io.IOException;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.regex.Pattern;
 
 import javax.inject.Named;
 import javax.inject.Singleton;
@@ -33,8 +37,6 @@ import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 
 import org.apache.commons.io.FileUtils;
@@ -43,37 +45,39 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 
-import lombok.Getter;
-
+/**
+ * Reads and writes generic XML files. The underlying JAXP {@link DocumentBuilder}, {@link Transformer} and
+ * {@link XPath} instances are not thread-safe so one of each is held per thread, which allows this singleton
+ * to be used concurrently.
+ */
 @Named
 @Singleton
 public class XMLIO {
+    private static final Pattern COMMENT_BEFORE_NODE = Pattern.compile("(?s)(<!--.*-->)<");
+
+    private static final Pattern CDATA_WHITESPACE = Pattern.compile("(?s)>\\s*(<\\!\\[CDATA\\[.*?]]>)\\s*<");
+
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
-    @Getter
-    private final XPath xPath = XPathFactory.newInstance().newXPath();
-    private final DocumentBuilder builder;
+    private final ThreadLocal<XPath> xPath = ThreadLocal.withInitial(() -> XPathFactory.newInstance().newXPath());
+
+    private final ThreadLocal<DocumentBuilder> builder = ThreadLocal.withInitial(this::newDocumentBuilder);
 
-    private final Transformer transformer;
+    private final ThreadLocal<Transformer> transformer = ThreadLocal.withInitial(this::newTransformer);
 
     public XMLIO() {
-        try {
-            builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+        // Create the instances for the constructing thread so that any configuration problem is reported early.
+        builder.get();
+        transformer.get();
+    }
 
-            transformer = TransformerFactory.newInstance().newTransformer();
-            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-            transformer.setOutputProperty(OutputKeys.ENCODING, StandardCharsets.UTF_8.name());
-            transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
-        } catch (ParserConfigurationException e) {
-            logger.error("Unable to create new DocumentBuilder", e);
-            throw new RuntimeException("Unable to create new DocumentBuilder");
-        } catch (TransformerConfigurationException e) {
-            logger.error("Unable to create new Transformer", e);
-            throw new RuntimeException("Unable to create new Transformer");
-        }
+    /**
+     * @return an XPath instance that may only be used by the calling thread.
+     */
+    public XPath getXPath() {
+        return xPath.get();
     }
 
     public Document parseXML(final File xmlFile) throws ManipulationException {
@@ -83,18 +87,16 @@ public class XMLIO {
         }
         Document doc;
         try {
-            doc = builder.parse(xmlFile);
+            doc = builder.get().parse(xmlFile);
 
             // https://bugs.java.com/bugdatabase/view_bug.do?bug_id=8262285
             // https://stackoverflow.com/questions/12669686/how-to-remove-extra-empty-lines-from-xml-file/12670194#12670194
-            NodeList nl = (NodeList) xPath.evaluate("//text()[normalize-space(.)='']", doc, XPathConstants.NODESET);
-            for (int i = 0; i < nl.getLength(); ++i) {
-                Node node = nl.item(i);
-                node.getParentNode().removeChild(node);
-            }
-        } catch (SAXException | IOException | XPathExpressionException e) {
+            removeWhitespaceText(doc);
+        } catch (SAXException | IOException e) {
             logger.error("Unable to parse XML File", e);
             throw new ManipulationException("Unable to parse XML File", e);
+        } finally {
+            builder.get().reset();
         }
         return doc;
     }
@@ -103,17 +105,16 @@ public class XMLIO {
         try {
             // TODO: https://stackoverflow.com/questions/24551962/adding-linebreak-in-xml-file-before-root-node
             // TODO: Can't get a clean round trip due to newline differences.
-            // StreamResult result = new StreamResult( new FileWriter( target));
-            // transformer.transform( new DOMSource( contents ), result);
+            // The output is completed before the target is touched so a failure does not leave it truncated.
             String result = convert(contents);
             // Adjust for comment before root node and possibly insert a newline.
-            result = result.replaceFirst("(?s)(<!--.*-->)<", "$1\n<");
+            result = COMMENT_BEFORE_NODE.matcher(result).replaceFirst("$1\n<");
 
             // JDK adds extra newlines to CDATA sections.
             // https://bugs.java.com/bugdatabase/view_bug.do?bug_id=JDK-8223291
             // See
             // https://exchangetuts.com/handling-change-in-newlines-by-xml-transformation-for-cdata-from-java-8-to-java-11-1640168583549032
-            result = result.replaceAll("(?s)>\\s*(<\\!\\[CDATA\\[.*?]]>)\\s*<", ">$1<");
+            result = CDATA_WHITESPACE.matcher(result).replaceAll(">$1<");
 
             FileUtils.writeStringToFile(target, result, StandardCharsets.UTF_8);
         } catch (IOException e) {
@@ -124,13 +125,90 @@ public class XMLIO {
 
     public String convert(Document contents) throws ManipulationException {
         StringWriter outWriter = new StringWriter();
+        transform(contents, outWriter);
+        return outWriter.toString();
+    }
+
+    private void transform(Document contents, Writer writer) throws ManipulationException {
         try {
-            StreamResult streamResult = new StreamResult(outWriter);
-            transformer.transform(new DOMSource(contents), streamResult);
+            transformer.get().transform(new DOMSource(contents), new StreamResult(writer));
         } catch (TransformerException e) {
             logger.error("XML transformer failure", e);
             throw new ManipulationException("XML transformer failure", e);
         }
-        return outWriter.toString();
+    }
+
+    /**
+     * Removes all whitespace only text nodes in a single traversal of the document. This is equivalent to removing
+     * the nodes matched by the XPath {@code //text()[normalize-space(.)='']} ; as in the XPath data model adjacent
+     * text and CDATA nodes are treated as a single text node. Explicit CDATA sections are always retained.
+     */
+    private static void removeWhitespaceText(Document doc) {
+        final Deque<Node> pending = new ArrayDeque<>();
+        pending.push(doc);
+
+        while (!pending.isEmpty()) {
+            final Node parent = pending.pop();
+            Node child = parent.getFirstChild();
+            while (child != null) {
+                if (isText(child)) {
+                    Node end = child;
+                    boolean whitespace = true;
+                    while (end != null && isText(end)) {
+                        whitespace &= isWhitespace(end.getNodeValue());
+                        end = end.getNextSibling();
+                    }
+                    while (whitespace && child != end) {
+                        final Node next = child.getNextSibling();
+                        if (child.getNodeType() == Node.TEXT_NODE) {
+                            parent.removeChild(child);
+                        }
+                        child = next;
+                    }
+                    child = end;
+                } else {
+                    if (child.hasChildNodes()) {
+                        pending.push(child);
+                    }
+                    child = child.getNextSibling();
+                }
+            }
+        }
+    }
+
+    private static boolean isText(Node node) {
+        return node.getNodeType() == Node.TEXT_NODE || node.getNodeType() == Node.CDATA_SECTION_NODE;
+    }
+
+    private static boolean isWhitespace(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private DocumentBuilder newDocumentBuilder() {
+        try {
+            return DocumentBuilderFactory.newInstance().newDocumentBuilder();
+        } catch (ParserConfigurationException e) {
+            logger.error("Unable to create new DocumentBuilder", e);
+            throw new RuntimeException("Unable to create new DocumentBuilder");
+        }
+    }
+
+    private Transformer newTransformer() {
+        try {
+            Transformer result = TransformerFactory.newInstance().newTransformer();
+            result.setOutputProperty(OutputKeys.INDENT, "yes");
+            result.setOutputProperty(OutputKeys.ENCODING, StandardCharsets.UTF_8.name());
+            result.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+            return result;
+        } catch (TransformerConfigurationException e) {
+            logger.error("Unable to create new Transformer", e);
+            throw new RuntimeException("Unable to create new Transformer");
+        }
     }
 }
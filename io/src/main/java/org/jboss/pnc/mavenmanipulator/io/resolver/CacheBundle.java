@@ -0,0 +1,361 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.io.resolver;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
+import org.jboss.pnc.mavenmanipulator.annotation.ConfigValue;
+import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationException;
+import org.jboss.pnc.mavenmanipulator.io.rest.RestException;
+import org.jboss.pnc.mavenmanipulator.io.rest.Translator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A single archive holding everything a run fetched remotely, so that later runs can be served from it without any
+ * network access.
+ * <p>
+ * When exporting, every resource Galley downloads (POMs, metadata and Groovy script artifacts) is recorded by the
+ * location it came from, as are the results of Dependency Analyser lookups and any files read from URLs. When
+ * importing, the locations recorded replace the configured repositories and are served from the archive, as are the
+ * Dependency Analyser lookups and URLs; anything not recorded is not found.
+ * <p>
+ * The archive is a zip file whose entries are sorted and undated, so that the same content always produces the same
+ * archive. When importing, entries are read on demand using the zip's central directory as the index.
+ */
+@Named
+@Singleton
+public class CacheBundle {
+    /**
+     * The file to write a bundle of everything fetched remotely to at the end of the run.
+     */
+    @ConfigValue(docIndex = "misc.html#cache-bundle")
+    public static final String CACHE_BUNDLE_EXPORT = "manipulationCacheBundleExport";
+
+    /**
+     * A bundle previously exported to serve all remote lookups from, without any network access.
+     */
+    @ConfigValue(docIndex = "misc.html#cache-bundle")
+    public static final String CACHE_BUNDLE_IMPORT = "manipulationCacheBundle";
+
+    private static final String LOCATIONS = "locations";
+
+    private static final String REPOSITORY = "repository/";
+
+    private static final String URLS = "urls/";
+
+    private static final String REST = "rest/";
+
+    private static final String LOCATION_URI = "bundle:";
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private File export;
+
+    private ZipFile source;
+
+    private final List<String> locations = Collections.synchronizedList(new ArrayList<>());
+
+    private final Map<String, byte[]> entries = new ConcurrentHashMap<>();
+
+    private final Map<String, Map<String, String>> translations = new ConcurrentHashMap<>();
+
+    /**
+     * Configures the bundle for a run, discarding anything from a previous run.
+     *
+     * @param userProperties the user properties of the run.
+     * @throws ManipulationException if both importing and exporting or the bundle cannot be read.
+     */
+    public void init(Properties userProperties) throws ManipulationException {
+        close();
+
+        final String exportFile = userProperties.getProperty(CACHE_BUNDLE_EXPORT);
+        final String importFile = userProperties.getProperty(CACHE_BUNDLE_IMPORT);
+        if (exportFile != null && importFile != null) {
+            throw new ManipulationException(
+                    "Cannot both import ({}) and export ({}) a cache bundle",
+                    CACHE_BUNDLE_IMPORT,
+                    CACHE_BUNDLE_EXPORT);
+        }
+        if (exportFile != null) {
+            export = new File(exportFile);
+            logger.info("Recording remote lookups to cache bundle {}", export);
+        } else if (importFile != null) {
+            try {
+                source = new ZipFile(importFile);
+                locations.addAll(IOUtils.readLines(read(LOCATIONS), StandardCharsets.UTF_8));
+                for (final Endpoint endpoint : Endpoint.values()) {
+                    translations.put(endpoint.name(), readTranslations(endpoint));
+                }
+            } catch (IOException e) {
+                close();
+                throw new ManipulationException("Unable to read cache bundle {}", importFile, e);
+            }
+            logger.info("Serving remote lookups from cache bundle {} ; the network will not be used", importFile);
+        }
+    }
+
+    public boolean isExporting() {
+        return export != null;
+    }
+
+    public boolean isImporting() {
+        return source != null;
+    }
+
+    /**
+     * Writes the bundle if exporting and releases any bundle being imported.
+     *
+     * @throws ManipulationException if the bundle cannot be written.
+     */
+    public void finish() throws ManipulationException {
+        if (export != null) {
+            try {
+                write();
+            } catch (IOException e) {
+                throw new ManipulationException("Unable to write cache bundle {}", export, e);
+            }
+        }
+        close();
+    }
+
+    /**
+     * @param delegate the translator for the configured Dependency Analyser.
+     * @return a translator that records the lookups if exporting, serves them from the bundle if importing or else
+     *         the delegate.
+     */
+    public Translator translator(Translator delegate) {
+        if (isImporting() || isExporting()) {
+            return new BundleTranslator(delegate);
+        }
+        return delegate;
+    }
+
+    /**
+     * @param url the URL.
+     * @return the content recorded for the URL or null if not recorded.
+     * @throws IOException if the bundle cannot be read.
+     */
+    public InputStream getURL(String url) throws IOException {
+        return read(URLS + DigestUtils.sha256Hex(url));
+    }
+
+    /**
+     * Records the content of a URL if exporting.
+     *
+     * @param url the URL.
+     * @param content the file holding its content.
+     * @throws IOException if the file cannot be read.
+     */
+    public void putURL(String url, File content) throws IOException {
+        if (isExporting()) {
+            entries.put(URLS + DigestUtils.sha256Hex(url), Files.readAllBytes(content.toPath()));
+        }
+    }
+
+    /**
+     * @param locations the names of the locations to record, in order of precedence.
+     */
+    void setLocations(List<String> locations) {
+        this.locations.clear();
+        this.locations.addAll(locations);
+    }
+
+    /**
+     * @return the names of the recorded locations, in order of precedence.
+     */
+    List<String> getLocations() {
+        return Collections.unmodifiableList(locations);
+    }
+
+    String getLocationUri(String location) {
+        return LOCATION_URI + location;
+    }
+
+    boolean isLocationUri(String uri) {
+        return uri != null && uri.startsWith(LOCATION_URI);
+    }
+
+    InputStream getResource(String location, String path) throws IOException {
+        return read(resource(location, path));
+    }
+
+    void putResource(String location, String path, InputStream content) throws IOException {
+        entries.put(resource(location, path), IOUtils.toByteArray(content));
+    }
+
+    private String resource(String location, String path) throws UnsupportedEncodingException {
+        final String relative = path.startsWith("/") ? path.substring(1) : path;
+        return REPOSITORY + URLEncoder.encode(location, "UTF-8") + '/' + relative;
+    }
+
+    private InputStream read(String name) throws IOException {
+        if (source == null) {
+            return null;
+        }
+        final ZipEntry entry = source.getEntry(name);
+        return entry == null ? null : source.getInputStream(entry);
+    }
+
+    private Map<String, String> readTranslations(Endpoint endpoint) throws IOException {
+        final Map<String, String> result = new HashMap<>();
+        try (InputStream in = read(REST + endpoint.name())) {
+            if (in != null) {
+                final Properties properties = new Properties();
+                properties.load(in);
+                properties.stringPropertyNames().forEach(k -> result.put(k, properties.getProperty(k)));
+            }
+        }
+        return result;
+    }
+
+    private void write() throws IOException {
+        final Map<String, byte[]> content = new TreeMap<>(entries);
+        content.put(LOCATIONS, String.join("\n", locations).getBytes(StandardCharsets.UTF_8));
+        for (final Map.Entry<String, Map<String, String>> endpoint : translations.entrySet()) {
+            final StringBuilder lines = new StringBuilder();
+            new TreeMap<>(endpoint.getValue()).forEach(
+                    (k, v) -> lines.append(escape(k)).append('=').append(escape(v)).append('\n'));
+            content.put(REST + endpoint.getKey(), lines.toString().getBytes(StandardCharsets.ISO_8859_1));
+        }
+
+        final File parent = export.getAbsoluteFile().getParentFile();
+        Files.createDirectories(parent.toPath());
+        final File temp = File.createTempFile(export.getName(), ".tmp", parent);
+        try (OutputStream out = Files.newOutputStream(temp.toPath()); ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (final Map.Entry<String, byte[]> entry : content.entrySet()) {
+                final ZipEntry zipEntry = new ZipEntry(entry.getKey());
+                zipEntry.setTime(0);
+                zip.putNextEntry(zipEntry);
+                zip.write(entry.getValue());
+                zip.closeEntry();
+            }
+        }
+        Files.move(temp.toPath(), export.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        logger.info("Wrote {} entries to cache bundle {}", content.size(), export);
+    }
+
+    /**
+     * Escapes a value for a properties file, which is written by hand as {@link Properties#store} adds a timestamp.
+     */
+    private static String escape(String value) {
+        final StringBuilder result = new StringBuilder(value.length());
+        for (final char c : value.toCharArray()) {
+            if (c == '\\' || c == '=' || c == ':' || c == '#' || c == '!' || c == ' ') {
+                result.append('\\').append(c);
+            } else if (c < 0x20 || c > 0x7e) {
+                result.append(String.format("\\u%04x", (int) c));
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    private void close() {
+        export = null;
+        if (source != null) {
+            try {
+                source.close();
+            } catch (IOException e) {
+                logger.debug("Unable to close cache bundle: {}", e.getMessage());
+            }
+            source = null;
+        }
+        locations.clear();
+        entries.clear();
+        translations.clear();
+    }
+
+    private enum Endpoint {
+        VERSIONS,
+        PROJECT_VERSIONS
+    }
+
+    private final class BundleTranslator
+            implements Translator {
+        private final Translator delegate;
+
+        private BundleTranslator(Translator delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Map<ProjectVersionRef, String> lookupVersions(List<ProjectVersionRef> projects) throws RestException {
+            return lookup(Endpoint.VERSIONS, projects);
+        }
+
+        @Override
+        public Map<ProjectVersionRef, String> lookupProjectVersions(List<ProjectVersionRef> projects)
+                throws RestException {
+            return lookup(Endpoint.PROJECT_VERSIONS, projects);
+        }
+
+        private Map<ProjectVersionRef, String> lookup(Endpoint endpoint, List<ProjectVersionRef> projects)
+                throws RestException {
+            if (isImporting()) {
+                final Map<String, String> recorded = translations.getOrDefault(endpoint.name(), Collections.emptyMap());
+                final Map<ProjectVersionRef, String> result = new HashMap<>();
+                for (final ProjectVersionRef project : projects) {
+                    final String version = recorded.get(key(project));
+                    if (version != null) {
+                        result.put(project, version);
+                    }
+                }
+                return result;
+            }
+
+            final Map<ProjectVersionRef, String> result = endpoint == Endpoint.VERSIONS
+                    ? delegate.lookupVersions(projects)
+                    : delegate.lookupProjectVersions(projects);
+            if (isExporting()) {
+                final Map<String, String> recorded = translations
+                        .computeIfAbsent(endpoint.name(), k -> new ConcurrentHashMap<>());
+                result.forEach((k, v) -> recorded.put(key(k), v));
+            }
+            return result;
+        }
+
+        private String key(ProjectVersionRef project) {
+            return project.getGroupId() + ':' + project.getArtifactId() + ':' + project.getVersionString();
+        }
+    }
+}
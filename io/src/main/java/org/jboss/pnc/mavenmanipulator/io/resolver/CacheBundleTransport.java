@@ -0,0 +1,141 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.io.resolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+
+import org.apache.commons.io.IOUtils;
+import org.commonjava.maven.galley.TransferException;
+import org.commonjava.maven.galley.event.EventMetadata;
+import org.commonjava.maven.galley.model.ConcreteResource;
+import org.commonjava.maven.galley.model.Location;
+import org.commonjava.maven.galley.model.Transfer;
+import org.commonjava.maven.galley.model.TransferOperation;
+import org.commonjava.maven.galley.spi.transport.DownloadJob;
+import org.commonjava.maven.galley.spi.transport.ExistenceJob;
+import org.commonjava.maven.galley.spi.transport.ListingJob;
+import org.commonjava.maven.galley.spi.transport.PublishJob;
+import org.commonjava.maven.galley.spi.transport.Transport;
+
+/**
+ * Galley {@link Transport} serving the locations recorded in a {@link CacheBundle} from the bundle.
+ */
+class CacheBundleTransport
+        implements Transport {
+    private final CacheBundle bundle;
+
+    CacheBundleTransport(final CacheBundle bundle) {
+        this.bundle = bundle;
+    }
+
+    @Override
+    public DownloadJob createDownloadJob(
+            final ConcreteResource resource,
+            final Transfer transfer,
+            final Map<Transfer, Long> transferSizes,
+            final int timeoutSeconds,
+            final EventMetadata eventMetadata) {
+        return new DownloadJob() {
+            private Transfer result;
+
+            private TransferException error;
+
+            @Override
+            public long getTransferSize() {
+                return 0;
+            }
+
+            @Override
+            public Transfer getTransfer() {
+                return result;
+            }
+
+            @Override
+            public DownloadJob call() {
+                try (InputStream in = bundle.getResource(resource.getLocation().getName(), resource.getPath())) {
+                    if (in == null) {
+                        return null;
+                    }
+                    transfer.delete(false);
+                    try (OutputStream out = transfer.openOutputStream(TransferOperation.DOWNLOAD)) {
+                        IOUtils.copy(in, out);
+                    }
+                    result = transfer;
+                } catch (final IOException e) {
+                    error = new TransferException("Unable to read {} from cache bundle", e, resource);
+                }
+                return this;
+            }
+
+            @Override
+            public TransferException getError() {
+                return error;
+            }
+        };
+    }
+
+    @Override
+    public ExistenceJob createExistenceJob(
+            final ConcreteResource resource,
+            final Transfer transfer,
+            final int timeoutSeconds)
+            throws TransferException {
+        throw new TransferException("Existence checks are not supported by the cache bundle: {}", resource);
+    }
+
+    @Override
+    public PublishJob createPublishJob(
+            final ConcreteResource resource,
+            final InputStream stream,
+            final long length,
+            final int timeoutSeconds)
+            throws TransferException {
+        throw new TransferException("Publishing is not supported by the cache bundle: {}", resource);
+    }
+
+    @Override
+    public PublishJob createPublishJob(
+            final ConcreteResource resource,
+            final InputStream stream,
+            final long length,
+            final String contentType,
+            final int timeoutSeconds)
+            throws TransferException {
+        throw new TransferException("Publishing is not supported by the cache bundle: {}", resource);
+    }
+
+    @Override
+    public boolean handles(final Location location) {
+        return bundle.isLocationUri(location.getUri());
+    }
+
+    @Override
+    public boolean allowsCaching() {
+        return false;
+    }
+
+    @Override
+    public ListingJob createListingJob(
+            final ConcreteResource resource,
+            final Transfer target,
+            final int timeoutSeconds)
+            throws TransferException {
+        throw new TransferException("Listing is not supported by the cache bundle: {}", resource);
+    }
+}
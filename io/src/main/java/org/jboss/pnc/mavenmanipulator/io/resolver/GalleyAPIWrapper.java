@@ -38,6 +38,9 @@ import org.commonjava.maven.galley.maven.model.view.meta.MavenMetadataView;
 import org.commonjava.maven.galley.maven.parse.GalleyMavenXMLException;
 import org.commonjava.maven.galley.model.Location;
 import org.commonjava.maven.galley.model.Transfer;
+import org.jboss.pnc.mavenmanipulator.common.util.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 
@@ -59,6 +62,8 @@ public class GalleyAPIWrapper {
         private static final long serialVersionUID = 1L;
     };
 
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
     private GalleyInfrastructure infra;
 
     @Inject
@@ -83,20 +88,40 @@ public class GalleyAPIWrapper {
 
     public MavenPomView readPomView(final ProjectVersionRef ref)
             throws GalleyMavenException {
-        return infra.getPomReader()
-                .read(ref, MAVEN_REPOS);
+        try (MetricsRegistry.Context ignored = infra.getMetrics().timer("galley.pom").start()) {
+            final ParallelArtifactRetriever retriever = infra.getArtifactRetriever();
+            if (retriever != null && retriever.isParallel()) {
+                // Locate the POM concurrently first ; the reader then finds it in the cache and the locations before
+                // it in the not found cache.
+                try {
+                    retriever.retrieveFirst(MAVEN_REPOS, ref.asPomArtifact());
+                } catch (final TransferException e) {
+                    logger.debug("Unable to locate {} concurrently: {}", ref, e.getMessage());
+                }
+            }
+            return infra.getPomReader()
+                    .read(ref, MAVEN_REPOS);
+        }
     }
 
     public MavenMetadataView readMetadataView(final ProjectRef ref)
             throws GalleyMavenException {
-        return infra.getMetadataReader()
-                .getMetadata(ref, MAVEN_REPOS);
+        try (MetricsRegistry.Context ignored = infra.getMetrics().timer("galley.metadata").start()) {
+            return infra.getMetadataReader()
+                    .getMetadata(ref, MAVEN_REPOS);
+        }
     }
 
     public Transfer resolveArtifact(final ArtifactRef asPomArtifact)
             throws TransferException {
-        return infra.getArtifactManager()
-                .retrieveFirst(MAVEN_REPOS, asPomArtifact);
+        try (MetricsRegistry.Context ignored = infra.getMetrics().timer("galley.artifact").start()) {
+            final ParallelArtifactRetriever retriever = infra.getArtifactRetriever();
+            if (retriever != null) {
+                return retriever.retrieveFirst(MAVEN_REPOS, asPomArtifact);
+            }
+            return infra.getArtifactManager()
+                    .retrieveFirst(MAVEN_REPOS, asPomArtifact);
+        }
     }
 
     public String toXML(final Node config, final boolean includeXmlDeclaration) {
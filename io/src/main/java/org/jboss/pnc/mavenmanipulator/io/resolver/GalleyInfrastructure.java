@@ -16,19 +16,26 @@
 package org.jboss.pnc.mavenmanipulator.io.resolver;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.MalformedURLException;
+import java.nio.file.Files;
 import java.util.Collections;
 import java.util.List;
+import java.util.Properties;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.repository.MirrorSelector;
 import org.apache.maven.settings.Settings;
+import org.commonjava.maven.galley.TransferException;
 import org.commonjava.maven.galley.TransferManager;
 import org.commonjava.maven.galley.auth.MemoryPasswordManager;
 import org.commonjava.maven.galley.cache.FileCacheProvider;
@@ -62,6 +69,7 @@ import org.commonjava.maven.galley.maven.spi.defaults.MavenPluginImplications;
 import org.commonjava.maven.galley.maven.spi.type.TypeMapper;
 import org.commonjava.maven.galley.maven.spi.version.VersionResolver;
 import org.commonjava.maven.galley.model.Location;
+import org.commonjava.maven.galley.model.SimpleLocation;
 import org.commonjava.maven.galley.nfc.MemoryNotFoundCache;
 import org.commonjava.maven.galley.spi.cache.CacheProvider;
 import org.commonjava.maven.galley.spi.event.FileEventManager;
@@ -73,8 +81,11 @@ import org.commonjava.maven.galley.spi.transport.TransportManager;
 import org.commonjava.maven.galley.transport.TransportManagerImpl;
 import org.commonjava.maven.galley.transport.htcli.HttpClientTransport;
 import org.commonjava.maven.galley.transport.htcli.HttpImpl;
+import org.jboss.pnc.mavenmanipulator.annotation.ConfigValue;
 import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationException;
+import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationUncheckedException;
 import org.jboss.pnc.mavenmanipulator.common.session.MavenSessionHandler;
+import org.jboss.pnc.mavenmanipulator.common.util.MetricsRegistry;
 
 /**
  * Manager component responsible for setting up and managing the Galley API instances used to resolve POMs and metadata.
@@ -85,6 +96,39 @@ import org.jboss.pnc.mavenmanipulator.common.session.MavenSessionHandler;
 @Singleton
 public class GalleyInfrastructure
         implements ExtensionInfrastructure {
+    /**
+     * If set to a number of seconds greater than zero, resources that were not found in a repository are recorded in
+     * a cache file within the local repository and are not looked up again in that repository until they expire.
+     */
+    @ConfigValue(docIndex = "misc.html#not-found-cache")
+    public static final String NOT_FOUND_CACHE_TIMEOUT = "notFoundCacheTimeout";
+
+    /**
+     * If true, the entries in the persistent not found cache are ignored and replaced by the results of this run.
+     */
+    @ConfigValue(docIndex = "misc.html#not-found-cache")
+    public static final String NOT_FOUND_CACHE_REFRESH = "notFoundCacheRefresh";
+
+    /**
+     * The directory to cache resolved artifacts and metadata in, instead of a directory within the project's target
+     * directory. This allows the cache to be shared between runs.
+     */
+    @ConfigValue(docIndex = "misc.html#cache-directory")
+    public static final String CACHE_DIRECTORY = "manipulationCacheDir";
+
+    /**
+     * The number of repositories to query concurrently when resolving an artifact. The artifact from the first
+     * repository, in declared order, that contains it is still the one used. Defaults to 1, querying the repositories
+     * one after another ; as each repository queried concurrently may download the artifact this increases the
+     * traffic to the repositories and mirrors in exchange for a lower latency.
+     */
+    @ConfigValue(docIndex = "misc.html#parallel-resolution")
+    public static final String PARALLEL_RESOLUTION_THREADS = "parallelResolutionThreads";
+
+    private static final int DEFAULT_PARALLEL_RESOLUTION_THREADS = 1;
+
+    private static final String NOT_FOUND_CACHE_FILE = ".manipulator-not-found-cache";
+
     private final MirrorSelector mirrorSelector;
 
     private final MavenSessionHandler sessionHandler;
@@ -101,16 +145,32 @@ public class GalleyInfrastructure
 
     private ExecutorService executor;
 
+    private PersistentNotFoundCache persistentNotFoundCache;
+
+    private ParallelArtifactRetriever artifactRetriever;
+
+    private final CacheBundle cacheBundle;
+
+    private File bundleCacheDir;
+
     public File getCacheDir() {
         return cacheDir;
     }
 
     private File cacheDir;
 
-    @Inject
+    private final MetricsRegistry metrics;
+
     public GalleyInfrastructure(MavenSessionHandler session, MirrorSelector mirrorSelector) {
+        this(session, mirrorSelector, new CacheBundle());
+    }
+
+    @Inject
+    public GalleyInfrastructure(MavenSessionHandler session, MirrorSelector mirrorSelector, CacheBundle cacheBundle) {
         this.mirrorSelector = mirrorSelector;
         this.sessionHandler = session;
+        this.cacheBundle = cacheBundle;
+        this.metrics = session == null ? new MetricsRegistry() : session.getMetrics();
     }
 
     @Override
@@ -127,6 +187,20 @@ public class GalleyInfrastructure
                     null,
                     null);
         } else {
+            cacheBundle.init(sessionHandler.getUserProperties());
+
+            File cacheDirectory = null;
+            if (cacheBundle.isExporting()) {
+                // Start with an empty cache so that everything used is downloaded, and so recorded.
+                try {
+                    bundleCacheDir = Files.createTempDirectory("pme-bundle-cache").toFile();
+                } catch (IOException e) {
+                    throw new ManipulationException("Unable to create cache directory", e);
+                }
+                cacheDirectory = bundleCacheDir;
+            } else if (sessionHandler.getUserProperties().getProperty(CACHE_DIRECTORY) != null) {
+                cacheDirectory = new File(sessionHandler.getUserProperties().getProperty(CACHE_DIRECTORY));
+            }
             return init(
                     sessionHandler.getTargetDir(),
                     sessionHandler.getRemoteRepositories(),
@@ -135,7 +209,7 @@ public class GalleyInfrastructure
                     sessionHandler.getActiveProfiles(),
                     null,
                     null,
-                    null);
+                    cacheDirectory);
         }
     }
 
@@ -195,19 +269,41 @@ public class GalleyInfrastructure
             final Transport customTransport,
             File cacheDir_)
             throws ManipulationException {
+        final boolean importing = customTransport == null && cacheBundle.isImporting();
         LocationExpander locationExpander;
         try {
-            final List<Location> custom = customLocation == null ? Collections.emptyList()
-                    : Collections.singletonList(customLocation);
-
-            locationExpander = new MavenLocationExpander(
-                    custom,
-                    remoteRepositories,
-                    localRepository,
-                    mirrorSelector,
-                    settings,
-                    activeProfiles);
-        } catch (final MalformedURLException e) {
+            if (importing) {
+                // Only the locations recorded in the bundle are used.
+                locationExpander = new MavenLocationExpander(
+                        cacheBundle.getLocations()
+                                .stream()
+                                .map(l -> new SimpleLocation(l, cacheBundle.getLocationUri(l)))
+                                .collect(Collectors.toList()),
+                        null,
+                        null,
+                        mirrorSelector,
+                        null,
+                        null);
+            } else {
+                final List<Location> custom = customLocation == null ? Collections.emptyList()
+                        : Collections.singletonList(customLocation);
+
+                locationExpander = new MavenLocationExpander(
+                        custom,
+                        remoteRepositories,
+                        localRepository,
+                        mirrorSelector,
+                        settings,
+                        activeProfiles);
+            }
+            if (customTransport == null && cacheBundle.isExporting()) {
+                cacheBundle.setLocations(
+                        locationExpander.expand(MavenLocationExpander.EXPANSION_TARGET)
+                                .stream()
+                                .map(Location::getName)
+                                .collect(Collectors.toList()));
+            }
+        } catch (final MalformedURLException | TransferException e) {
             throw new ManipulationException("Failed to setup Maven-specific LocationExpander: {}", e.getMessage(), e);
         }
 
@@ -217,6 +313,15 @@ public class GalleyInfrastructure
         final TransportManager transports;
         if (customTransport != null) {
             transports = new TransportManagerImpl(customTransport);
+        } else if (importing) {
+            transports = new TransportManagerImpl(new CacheBundleTransport(cacheBundle));
+        } else if (cacheBundle.isExporting()) {
+            transports = new TransportManagerImpl(
+                    new RecordingTransport(
+                            new HttpClientTransport(new HttpImpl(new MemoryPasswordManager())),
+                            cacheBundle),
+                    new RecordingTransport(new FileTransport(), cacheBundle),
+                    new RecordingTransport(new ZipJarTransport(), cacheBundle));
         } else {
             transports = new TransportManagerImpl(
                     new HttpClientTransport(new HttpImpl(new MemoryPasswordManager())),
@@ -239,7 +344,7 @@ public class GalleyInfrastructure
                 fileEvents,
                 transferDecoratorManager);
 
-        final NotFoundCache nfc = new MemoryNotFoundCache();
+        final NotFoundCache nfc = createNotFoundCache(localRepository, cacheDir);
         executor = Executors.newCachedThreadPool();
 
         final TransportManagerConfig config = new TransportManagerConfig();
@@ -262,6 +367,11 @@ public class GalleyInfrastructure
                 new MavenMetadataReader(xml, locationExpander, metadataManager, xpaths));
 
         artifactManager = new ArtifactManagerImpl(transfers, locationExpander, types, versionResolver);
+        artifactRetriever = new ParallelArtifactRetriever(
+                artifactManager,
+                locationExpander,
+                executor,
+                parseParallelResolutionThreads());
 
         final MavenPluginDefaults pluginDefaults = new StandardMaven350PluginDefaults();
         final MavenPluginImplications pluginImplications = new StandardMavenPluginImplications(xml);
@@ -279,6 +389,44 @@ public class GalleyInfrastructure
         return this;
     }
 
+    private NotFoundCache createNotFoundCache(final ArtifactRepository localRepository, final File cacheDir)
+            throws ManipulationException {
+        final Properties userProperties = sessionHandler == null ? new Properties()
+                : sessionHandler.getUserProperties();
+        final long timeout;
+        try {
+            timeout = Long.parseLong(userProperties.getProperty(NOT_FOUND_CACHE_TIMEOUT, "0"));
+        } catch (NumberFormatException e) {
+            throw new ManipulationException("Invalid value for {}", NOT_FOUND_CACHE_TIMEOUT, e);
+        }
+        if (timeout <= 0) {
+            return new MemoryNotFoundCache();
+        }
+        // Share the cache between runs on the same machine by default.
+        final File directory = localRepository == null ? cacheDir : new File(localRepository.getBasedir());
+
+        persistentNotFoundCache = new PersistentNotFoundCache(
+                new File(directory, NOT_FOUND_CACHE_FILE),
+                TimeUnit.SECONDS.toMillis(timeout),
+                Boolean.parseBoolean(userProperties.getProperty(NOT_FOUND_CACHE_REFRESH, "false")));
+        return persistentNotFoundCache;
+    }
+
+    private int parseParallelResolutionThreads() throws ManipulationException {
+        if (sessionHandler == null) {
+            return DEFAULT_PARALLEL_RESOLUTION_THREADS;
+        }
+        try {
+            return Integer.parseInt(
+                    sessionHandler.getUserProperties()
+                            .getProperty(
+                                    PARALLEL_RESOLUTION_THREADS,
+                                    Integer.toString(DEFAULT_PARALLEL_RESOLUTION_THREADS)));
+        } catch (NumberFormatException e) {
+            throw new ManipulationException("Invalid value for {}", PARALLEL_RESOLUTION_THREADS, e);
+        }
+    }
+
     public MavenPomReader getPomReader() {
         return pomReader;
     }
@@ -299,7 +447,32 @@ public class GalleyInfrastructure
         return xpaths;
     }
 
+    ParallelArtifactRetriever getArtifactRetriever() {
+        return artifactRetriever;
+    }
+
+    MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
     public void finish() {
         executor.shutdown();
+
+        if (persistentNotFoundCache != null) {
+            persistentNotFoundCache.flush();
+        }
+        if (artifactRetriever != null) {
+            artifactRetriever.logStatistics();
+        }
+        try {
+            cacheBundle.finish();
+        } catch (ManipulationException e) {
+            throw new ManipulationUncheckedException(e);
+        } finally {
+            if (bundleCacheDir != null) {
+                FileUtils.deleteQuietly(bundleCacheDir);
+                bundleCacheDir = null;
+            }
+        }
     }
 }
@@ -0,0 +1,221 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.io.resolver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.commonjava.atlas.maven.ident.ref.ArtifactRef;
+import org.commonjava.maven.galley.TransferException;
+import org.commonjava.maven.galley.maven.ArtifactManager;
+import org.commonjava.maven.galley.model.Location;
+import org.commonjava.maven.galley.model.Transfer;
+import org.commonjava.maven.galley.spi.transport.LocationExpander;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Retrieves an artifact from the first of several locations that contains it, probing the locations concurrently
+ * rather than one after another.
+ * <p>
+ * The result is the same as that of sequential retrieval: a hit is only returned once every location declared before
+ * it has missed, at which point the probes still running are cancelled. Release and snapshot policies are applied by
+ * Galley for each location as before and, as Galley does when retrieving the first of several resources, failures are
+ * treated as misses. Locations are probed in order of their hit rate so far, so that when there are more locations
+ * than threads the likely ones are probed first.
+ */
+final class ParallelArtifactRetriever {
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final ArtifactManager artifacts;
+
+    private final LocationExpander expander;
+
+    private final Executor executor;
+
+    private final int threads;
+
+    private final Map<String, Statistics> statistics = new ConcurrentHashMap<>();
+
+    /**
+     * @param artifacts the artifact manager to retrieve from each location with.
+     * @param expander the expander for the locations.
+     * @param executor the executor to probe locations on.
+     * @param threads the maximum number of locations to probe concurrently for one artifact. If less than two,
+     *        locations are probed sequentially by Galley.
+     */
+    ParallelArtifactRetriever(
+            ArtifactManager artifacts,
+            LocationExpander expander,
+            Executor executor,
+            int threads) {
+        this.artifacts = artifacts;
+        this.expander = expander;
+        this.executor = executor;
+        this.threads = threads;
+    }
+
+    boolean isParallel() {
+        return threads > 1;
+    }
+
+    /**
+     * Retrieves the artifact from the first location that contains it.
+     *
+     * @param locations the locations, in order of precedence.
+     * @param ref the artifact.
+     * @return the transfer or null if not found.
+     * @throws TransferException if an error occurs.
+     */
+    Transfer retrieveFirst(List<? extends Location> locations, ArtifactRef ref)
+            throws TransferException {
+        // Versions that are resolved using the metadata of all the locations are left to Galley.
+        if (!isParallel() || !ref.isSpecificVersion() || ref.isSnapshot()) {
+            return artifacts.retrieveFirst(locations, ref);
+        }
+        final List<Location> candidates = expander.expand(locations);
+        if (candidates.size() < 2) {
+            return artifacts.retrieveFirst(locations, ref);
+        }
+        return first(candidates, location -> {
+            final Transfer transfer = artifacts.retrieve(location, ref);
+            return transfer != null && transfer.exists() ? transfer : null;
+        });
+    }
+
+    /**
+     * Returns the result of the first location, in declared order, for which the probe returns a result.
+     *
+     * @param candidates the locations, in order of precedence.
+     * @param probe looks up a location, returning null if not found.
+     * @param <T> the type of the result.
+     * @return the result or null if not found in any location.
+     * @throws TransferException if interrupted or the probe fails unexpectedly.
+     */
+    <T> T first(List<Location> candidates, Probe<T> probe)
+            throws TransferException {
+        final int size = candidates.size();
+        final List<Integer> order = IntStream.range(0, size)
+                .boxed()
+                .sorted(Comparator.comparingDouble(i -> -statistics(candidates.get(i)).score()))
+                .collect(Collectors.toList());
+        final List<Outcome<T>> outcomes = new ArrayList<>(Collections.nCopies(size, null));
+        final CompletionService<Outcome<T>> completion = new ExecutorCompletionService<>(executor);
+        final List<Future<Outcome<T>>> futures = new ArrayList<>(size);
+
+        int next = 0;
+        int running = 0;
+        int decided = 0;
+        try {
+            while (decided < size) {
+                while (running < threads && next < size) {
+                    final int index = order.get(next++);
+                    futures.add(completion.submit(() -> probe(index, candidates.get(index), probe)));
+                    running++;
+                }
+
+                final Outcome<T> outcome = completion.take().get();
+                running--;
+                outcomes.set(outcome.index, outcome);
+                statistics(candidates.get(outcome.index)).record(outcome.result != null);
+
+                while (decided < size && outcomes.get(decided) != null) {
+                    if (outcomes.get(decided).result != null) {
+                        logger.debug("Found in {} after probing {} locations", candidates.get(decided), next);
+                        return outcomes.get(decided).result;
+                    }
+                    decided++;
+                }
+            }
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransferException("Interrupted probing {}", e, candidates);
+        } catch (ExecutionException e) {
+            throw new TransferException("Failed probing {}", e.getCause(), candidates);
+        } finally {
+            futures.forEach(f -> f.cancel(true));
+        }
+    }
+
+    private <T> Outcome<T> probe(int index, Location location, Probe<T> probe) {
+        try {
+            return new Outcome<>(index, probe.retrieve(location));
+        } catch (TransferException e) {
+            logger.debug("Failed probing {} ; treating as not found: {}", location, e.getMessage());
+            return new Outcome<>(index, null);
+        }
+    }
+
+    private Statistics statistics(Location location) {
+        return statistics.computeIfAbsent(location.getUri(), k -> new Statistics());
+    }
+
+    void logStatistics() {
+        if (logger.isDebugEnabled()) {
+            statistics.forEach(
+                    (uri, s) -> logger.debug("Location {} had {} hits from {} probes", uri, s.hits, s.probes));
+        }
+    }
+
+    @FunctionalInterface
+    interface Probe<T> {
+        T retrieve(Location location) throws TransferException;
+    }
+
+    private static final class Outcome<T> {
+        private final int index;
+
+        private final T result;
+
+        private Outcome(int index, T result) {
+            this.index = index;
+            this.result = result;
+        }
+    }
+
+    private static final class Statistics {
+        private final AtomicInteger probes = new AtomicInteger();
+
+        private final AtomicInteger hits = new AtomicInteger();
+
+        private void record(boolean hit) {
+            probes.incrementAndGet();
+            if (hit) {
+                hits.incrementAndGet();
+            }
+        }
+
+        /**
+         * The hit rate, smoothed so that locations not yet probed are neither favoured nor avoided.
+         */
+        private double score() {
+            return (hits.get() + 1.0) / (probes.get() + 2.0);
+        }
+    }
+}
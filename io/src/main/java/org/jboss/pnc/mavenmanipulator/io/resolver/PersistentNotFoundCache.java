@@ -0,0 +1,248 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.io.resolver;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.commonjava.maven.galley.model.ConcreteResource;
+import org.commonjava.maven.galley.model.Location;
+import org.commonjava.maven.galley.nfc.MemoryNotFoundCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link org.commonjava.maven.galley.spi.nfc.NotFoundCache} that, in addition to the in-memory cache for this
+ * run, records resources that were not found in a file so that later runs (e.g. on the same build node) do not probe
+ * those locations again until the entry expires. Each entry is keyed by the location URI and the path.
+ * <p>
+ * Only misses against remote (http/https) locations are recorded in the file. A miss in a local repository is
+ * remembered for this run only, as the artifact may be installed there by the next build.
+ * <p>
+ * The file is only read on creation and written on {@link #flush()}, which merges with any entries written by other
+ * processes in the meantime while holding a file lock, and replaces the file atomically.
+ */
+class PersistentNotFoundCache
+        extends MemoryNotFoundCache {
+    private static final String SEPARATOR = "\t";
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final File file;
+
+    private final long timeoutMillis;
+
+    private final boolean refresh;
+
+    /**
+     * Entries loaded from the file, keyed by location URI and path, with their expiry time.
+     */
+    private final Map<String, Long> persisted = new ConcurrentHashMap<>();
+
+    /**
+     * Entries added during this run, with their expiry time.
+     */
+    private final Map<String, Long> added = new ConcurrentHashMap<>();
+
+    /**
+     * Keys (or location prefixes ending in the separator) cleared during this run.
+     */
+    private final Set<String> cleared = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean clearedAll;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    /**
+     * @param file the file to persist the entries in.
+     * @param timeoutMillis how long an entry is valid for.
+     * @param refresh if true, existing entries are neither used nor retained i.e. every resource is probed again.
+     */
+    PersistentNotFoundCache(File file, long timeoutMillis, boolean refresh) {
+        this.file = file;
+        this.timeoutMillis = timeoutMillis;
+        this.refresh = refresh;
+
+        if (refresh) {
+            logger.info("Refreshing not found cache {}", file);
+        } else if (file.exists()) {
+            try {
+                read(file.toPath(), persisted, System.currentTimeMillis());
+            } catch (IOException e) {
+                // The cache is only an optimisation so carry on without it.
+                logger.warn("Unable to read not found cache {} ; ignoring: {}", file, e.getMessage());
+            }
+            logger.debug("Loaded {} entries from not found cache {}", persisted.size(), file);
+        }
+    }
+
+    @Override
+    public void addMissing(final ConcreteResource resource) {
+        super.addMissing(resource);
+
+        if (!isRemote(resource.getLocation())) {
+            return;
+        }
+        final String key = key(resource.getLocation(), resource.getPath());
+        added.put(key, System.currentTimeMillis() + timeoutMillis);
+        cleared.remove(key);
+    }
+
+    @Override
+    public boolean isMissing(final ConcreteResource resource) {
+        if (super.isMissing(resource)) {
+            return true;
+        }
+        if (!isRemote(resource.getLocation())) {
+            return false;
+        }
+        final Long expiry = persisted.get(key(resource.getLocation(), resource.getPath()));
+        if (expiry != null && expiry > System.currentTimeMillis()) {
+            hits.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void clearMissing(final Location location) {
+        super.clearMissing(location);
+
+        final String prefix = key(location, "");
+        persisted.keySet().removeIf(k -> k.startsWith(prefix));
+        added.keySet().removeIf(k -> k.startsWith(prefix));
+        cleared.add(prefix);
+    }
+
+    @Override
+    public void clearMissing(final ConcreteResource resource) {
+        super.clearMissing(resource);
+
+        final String key = key(resource.getLocation(), resource.getPath());
+        persisted.remove(key);
+        added.remove(key);
+        cleared.add(key);
+    }
+
+    @Override
+    public void clearAllMissing() {
+        super.clearAllMissing();
+
+        persisted.clear();
+        added.clear();
+        cleared.clear();
+        clearedAll = true;
+    }
+
+    /**
+     * @return the number of lookups answered from entries recorded by previous runs.
+     */
+    long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Writes the entries to the file, merged with the current content of the file.
+     */
+    void flush() {
+        logger.info(
+                "Not found cache {} : {} lookups avoided using {} cached entries ; {} entries added",
+                file,
+                hits.get(),
+                persisted.size(),
+                added.size());
+
+        if (added.isEmpty() && cleared.isEmpty() && !clearedAll && !refresh) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.getAbsoluteFile().getParentFile().toPath());
+
+            final Path lock = new File(file.getPath() + ".lock").toPath();
+            try (FileChannel channel = FileChannel.open(lock, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                    FileLock ignored = channel.lock()) {
+                final long now = System.currentTimeMillis();
+                final Map<String, Long> merged = new ConcurrentHashMap<>();
+
+                if (!refresh && !clearedAll && file.exists()) {
+                    read(file.toPath(), merged, now);
+                    merged.keySet()
+                            .removeIf(k -> cleared.contains(k) || cleared.contains(k.substring(0, prefixEnd(k))));
+                }
+                added.forEach((k, v) -> merged.merge(k, v, Math::max));
+
+                final Path temp = Files.createTempFile(file.getAbsoluteFile().getParentFile().toPath(), ".nfc", ".tmp");
+                try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                    for (final Map.Entry<String, Long> entry : merged.entrySet()) {
+                        writer.write(Long.toString(entry.getValue()));
+                        writer.write(SEPARATOR);
+                        writer.write(entry.getKey());
+                        writer.newLine();
+                    }
+                }
+                Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            logger.warn("Unable to write not found cache {} ; ignoring: {}", file, e.getMessage());
+        }
+    }
+
+    private static void read(final Path path, final Map<String, Long> entries, final long now) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final int index = line.indexOf(SEPARATOR);
+                if (index <= 0) {
+                    continue;
+                }
+                try {
+                    final long expiry = Long.parseLong(line.substring(0, index));
+                    if (expiry > now) {
+                        entries.merge(line.substring(index + 1), expiry, Math::max);
+                    }
+                } catch (NumberFormatException e) {
+                    // Skip any corrupted entries.
+                }
+            }
+        }
+    }
+
+    private static int prefixEnd(final String key) {
+        return key.indexOf(SEPARATOR) + 1;
+    }
+
+    private static boolean isRemote(final Location location) {
+        final String uri = location.getUri();
+        return uri != null && (uri.startsWith("http://") || uri.startsWith("https://"));
+    }
+
+    private static String key(final Location location, final String path) {
+        return location.getUri() + SEPARATOR + path;
+    }
+}
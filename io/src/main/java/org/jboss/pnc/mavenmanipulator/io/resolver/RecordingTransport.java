@@ -0,0 +1,141 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.io.resolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+import org.commonjava.maven.galley.TransferException;
+import org.commonjava.maven.galley.event.EventMetadata;
+import org.commonjava.maven.galley.model.ConcreteResource;
+import org.commonjava.maven.galley.model.Location;
+import org.commonjava.maven.galley.model.Transfer;
+import org.commonjava.maven.galley.spi.transport.DownloadJob;
+import org.commonjava.maven.galley.spi.transport.ExistenceJob;
+import org.commonjava.maven.galley.spi.transport.ListingJob;
+import org.commonjava.maven.galley.spi.transport.PublishJob;
+import org.commonjava.maven.galley.spi.transport.Transport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Galley {@link Transport} that records everything downloaded through another transport in a {@link CacheBundle}.
+ */
+class RecordingTransport
+        implements Transport {
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final Transport delegate;
+
+    private final CacheBundle bundle;
+
+    RecordingTransport(final Transport delegate, final CacheBundle bundle) {
+        this.delegate = delegate;
+        this.bundle = bundle;
+    }
+
+    @Override
+    public DownloadJob createDownloadJob(
+            final ConcreteResource resource,
+            final Transfer transfer,
+            final Map<Transfer, Long> transferSizes,
+            final int timeoutSeconds,
+            final EventMetadata eventMetadata)
+            throws TransferException {
+        final DownloadJob job = delegate
+                .createDownloadJob(resource, transfer, transferSizes, timeoutSeconds, eventMetadata);
+        return new DownloadJob() {
+            @Override
+            public long getTransferSize() {
+                return job.getTransferSize();
+            }
+
+            @Override
+            public Transfer getTransfer() {
+                return job.getTransfer();
+            }
+
+            @Override
+            public DownloadJob call() throws Exception {
+                final DownloadJob result = job.call();
+                final Transfer downloaded = job.getTransfer();
+                if (result != null && job.getError() == null && downloaded != null && downloaded.exists()) {
+                    try (InputStream in = downloaded.openInputStream()) {
+                        bundle.putResource(resource.getLocation().getName(), resource.getPath(), in);
+                    } catch (final IOException e) {
+                        logger.warn("Unable to record {} in cache bundle: {}", resource, e.getMessage());
+                    }
+                }
+                return result == null ? null : this;
+            }
+
+            @Override
+            public TransferException getError() {
+                return job.getError();
+            }
+        };
+    }
+
+    @Override
+    public ExistenceJob createExistenceJob(
+            final ConcreteResource resource,
+            final Transfer transfer,
+            final int timeoutSeconds)
+            throws TransferException {
+        return delegate.createExistenceJob(resource, transfer, timeoutSeconds);
+    }
+
+    @Override
+    public PublishJob createPublishJob(
+            final ConcreteResource resource,
+            final InputStream stream,
+            final long length,
+            final int timeoutSeconds)
+            throws TransferException {
+        return delegate.createPublishJob(resource, stream, length, timeoutSeconds);
+    }
+
+    @Override
+    public PublishJob createPublishJob(
+            final ConcreteResource resource,
+            final InputStream stream,
+            final long length,
+            final String contentType,
+            final int timeoutSeconds)
+            throws TransferException {
+        return delegate.createPublishJob(resource, stream, length, contentType, timeoutSeconds);
+    }
+
+    @Override
+    public boolean handles(final Location location) {
+        return delegate.handles(location);
+    }
+
+    @Override
+    public boolean allowsCaching() {
+        return delegate.allowsCaching();
+    }
+
+    @Override
+    public ListingJob createListingJob(
+            final ConcreteResource resource,
+            final Transfer target,
+            final int timeoutSeconds)
+            throws TransferException {
+        return delegate.createListingJob(resource, target, timeoutSeconds);
+    }
+}
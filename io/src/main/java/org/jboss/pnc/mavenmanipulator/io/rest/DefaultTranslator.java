@@ -38,6 +38,7 @@ import org.jboss.pnc.mavenmanipulator.common.json.DependencyAnalyserResult;
 import org.jboss.pnc.mavenmanipulator.common.json.ErrorMessage;
 import org.jboss.pnc.mavenmanipulator.common.util.GAVUtils;
 import org.jboss.pnc.mavenmanipulator.common.util.ListUtils;
+import org.jboss.pnc.mavenmanipulator.common.util.MetricsRegistry;
 import org.jboss.pnc.mavenmanipulator.common.util.PMEObjectMapper;
 import org.jboss.pnc.otel.OTelCLIHelper;
 import org.slf4j.Logger;
@@ -100,6 +101,8 @@ public class DefaultTranslator
 
     private final int restSocketTimeout;
 
+    private final MetricsRegistry metrics;
+
     static {
         // According to https://kong.github.io/unirest-java/#configuration the default connection timeout is 10000
         // and the default socketTimeout is 60000.
@@ -133,6 +136,42 @@ public class DefaultTranslator
             int restConnectionTimeout,
             int restSocketTimeout,
             int restRetryDuration) {
+        this(
+                endpointUrl,
+                restMaxSize,
+                restMinSize,
+                brewPullActive,
+                mode,
+                restHeaders,
+                restConnectionTimeout,
+                restSocketTimeout,
+                restRetryDuration,
+                new MetricsRegistry());
+    }
+
+    /**
+     * @param endpointUrl is the URL to talk to.
+     * @param restMaxSize initial (maximum) size of the rest call; if zero will send everything.
+     * @param restMinSize minimum size for the call
+     * @param brewPullActive flag saying if brew pull should be used for version retrieval
+     * @param mode lookup mode, either PERSISTENT, TEMPORARY, SERVICE or SERVICE-TEMPORARY
+     * @param restHeaders the headers to pass to the endpoint
+     * @param restConnectionTimeout the timeout for the REST request
+     * @param restSocketTimeout the timeout for the REST socket calls
+     * @param restRetryDuration the retry duration configuration
+     * @param metrics the registry to record the progress of the lookups (e.g. pending chunks and splits) in
+     */
+    public DefaultTranslator(
+            String endpointUrl,
+            int restMaxSize,
+            int restMinSize,
+            Boolean brewPullActive,
+            String mode,
+            Map<String, String> restHeaders,
+            int restConnectionTimeout,
+            int restSocketTimeout,
+            int restRetryDuration,
+            MetricsRegistry metrics) {
         this.brewPullActive = brewPullActive;
         this.mode = mode;
         this.endpointUrl = endpointUrl + (isNotBlank(endpointUrl) ? endpointUrl.endsWith("/") ? "" : "/" : "");
@@ -142,6 +181,7 @@ public class DefaultTranslator
         this.restConnectionTimeout = restConnectionTimeout;
         this.restSocketTimeout = restSocketTimeout;
         this.retryDuration = restRetryDuration;
+        this.metrics = metrics;
 
         if (OTelCLIHelper.otelEnabled()) {
             SpanContext current = Span.current().getSpanContext();
@@ -299,16 +339,24 @@ public class DefaultTranslator
         final Queue<Task> queue = new ArrayDeque<>();
         final Map<ProjectVersionRef, String> result = new HashMap<>();
         final long start = System.nanoTime();
+        final MetricsRegistry.Context lookupTime = metrics.timer("rest.lookup").start();
+        // Several lookups may be in progress so the queue sizes are added to, rather than set on, the gauge.
+        final MetricsRegistry.Gauge pending = metrics.gauge("rest.tasks.pending");
+        metrics.counter("rest.gavs").add(projects.size());
 
         boolean finishedSuccessfully = false;
 
         try {
 
             partition(endpointType, projects, queue);
+            pending.add(queue.size());
 
             while (!queue.isEmpty()) {
                 Task task = queue.remove();
-                task.executeTranslate();
+                pending.add(-1);
+                try (MetricsRegistry.Context ignored = metrics.timer("rest.task").start()) {
+                    task.executeTranslate();
+                }
                 if (task.isSuccess()) {
                     result.putAll(task.getResult());
                 } else {
@@ -318,10 +366,14 @@ public class DefaultTranslator
                                     "The DA server is unavailable. Waiting {} before splitting the tasks and retrying",
                                     retryDuration);
 
+                            metrics.counter("rest.tasks.unavailable").increment();
                             waitBeforeRetry(retryDuration);
                         }
 
                         List<Task> tasks = task.split(endpointType);
+                        metrics.counter("rest.tasks.split").increment();
+                        metrics.counter("rest.tasks.retried").add(tasks.size());
+                        pending.add(tasks.size());
 
                         logger.warn(
                                 "Failed to translate versions for task @{} due to {}, splitting and retrying. Chunk size was: {} and new chunk size {} in {} segments.",
@@ -332,6 +384,7 @@ public class DefaultTranslator
                                 tasks.size());
                         queue.addAll(tasks);
                     } else {
+                        metrics.counter("rest.tasks.failed").increment();
                         if (task.getStatus() < 0) {
                             logger.debug("Caught exception calling server with message {}", task.getErrorMessage());
                         } else {
@@ -347,6 +400,8 @@ public class DefaultTranslator
             }
             finishedSuccessfully = true;
         } finally {
+            pending.add(-queue.size());
+            lookupTime.close();
             printFinishTime(logger, start, finishedSuccessfully);
         }
 
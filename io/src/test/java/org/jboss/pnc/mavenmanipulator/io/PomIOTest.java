@@ -16,6 +16,7 @@
 package org.jboss.pnc.mavenmanipulator.io;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -23,6 +24,7 @@ import static org.junit.Assert.assertTrue;
 import java.io.File;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 
@@ -191,4 +193,81 @@ public class PomIOTest {
         s = FileUtils.readFileToString(targetFile, StandardCharsets.UTF_8);
         assertEquals(1, StringUtils.countMatches(s, "Modified by POM Manipulation Extension"));
     }
+
+    @Test
+    public void testTextPatching()
+            throws Exception {
+        URL resource = PomIOTest.class.getResource(filename);
+        assertNotNull(resource);
+        File pom = new File(resource.getFile());
+        assertTrue(pom.exists());
+
+        File targetFile = folder.newFile("target.xml");
+        FileUtils.copyFile(pom, targetFile);
+
+        pomIO = new PomIO(true);
+        Project project = pomIO.parseProject(null, targetFile).get(0);
+        project.getModel().setVersion("1.0.redhat-00001");
+        project.getModel().getProperties().setProperty("a-property", "two");
+
+        pomIO.rewritePOMs(Collections.singleton(project));
+
+        String expected = FileUtils.readFileToString(pom, StandardCharsets.UTF_8)
+                .replace("<version>1.0</version>", "<version>1.0.redhat-00001</version>")
+                .replace("<a-property>one</a-property>", "<a-property>two</a-property>");
+        String result = FileUtils.readFileToString(targetFile, StandardCharsets.UTF_8);
+        // Only the manifest comment is added after the root element.
+        assertTrue(result.startsWith(expected));
+        assertEquals(1, StringUtils.countMatches(result, "Modified by POM Manipulation Extension"));
+    }
+
+    @Test
+    public void testTextPatchingFallback()
+            throws Exception {
+        URL resource = PomIOTest.class.getResource(filename);
+        assertNotNull(resource);
+        File pom = new File(resource.getFile());
+        assertTrue(pom.exists());
+
+        File targetFile = folder.newFile("target.xml");
+        FileUtils.copyFile(pom, targetFile);
+
+        pomIO = new PomIO(true);
+        Project project = pomIO.parseProject(null, targetFile).get(0);
+        project.getModel().getRepositories().clear();
+        project.getModel().setVersion("1.0.redhat-00001");
+
+        pomIO.rewritePOMs(Collections.singleton(project));
+
+        project = pomIO.parseProject(null, targetFile).get(0);
+        assertEquals(0, project.getModel().getRepositories().size());
+        assertEquals("1.0.redhat-00001", project.getModel().getVersion());
+    }
+
+    @Test
+    public void testMatchesPom()
+            throws Exception {
+        URL resource = PomIOTest.class.getResource(filename);
+        assertNotNull(resource);
+        File targetFile = folder.newFile("target.xml");
+        FileUtils.copyFile(new File(resource.getFile()), targetFile);
+
+        Project project = pomIO.parseProject(null, targetFile).get(0);
+        assertTrue(pomIO.matchesPom(project));
+
+        // Modified but not yet written.
+        project.getModel().setVersion("1.0.redhat-00001");
+        assertFalse(pomIO.matchesPom(project));
+
+        pomIO.rewritePOMs(Collections.singleton(project));
+        assertTrue(pomIO.matchesPom(project));
+
+        // Changed on disk by something else.
+        FileUtils.writeStringToFile(
+                targetFile,
+                FileUtils.readFileToString(targetFile, StandardCharsets.UTF_8).replace("redhat-00001", "redhat-00002"),
+                StandardCharsets.UTF_8);
+        assertFalse(pomIO.matchesPom(project));
+        assertFalse(pomIO.matchesPom(new Project(project.getModel())));
+    }
 }
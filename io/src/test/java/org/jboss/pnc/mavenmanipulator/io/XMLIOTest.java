@@ -28,6 +28,12 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URL;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
@@ -288,4 +294,62 @@ public class XMLIOTest {
         }
         assertEquals(0, count);
     }
+
+    @Test
+    public void concurrentReadWrite() throws Exception {
+        String expected = xmlIO.convert(xmlIO.parseXML(xmlFile));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                File target = tf.newFile();
+                results.add(executor.submit(() -> {
+                    xmlIO.writeXML(target, xmlIO.parseXML(xmlFile));
+                    return xmlIO.convert(xmlIO.parseXML(target));
+                }));
+            }
+            for (Future<String> result : results) {
+                assertEquals(expected, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void writeMatchesPreviousOutput() throws Exception {
+        List<String> sources = new ArrayList<>();
+        sources.add("<!-- licence --><!-- second --><?pi data?><project><a>1</a><!-- inner --><b>2</b></project>");
+        sources.add("<!-- one --><project><!-- two --><a><![CDATA[ x ]]></a>\n<b>\n  <![CDATA[y]]>\n</b>"
+                + "<c><![CDATA[z]]>text</c><d>\n<![CDATA[w]]>\n</d></project>");
+        sources.add("<project><a><!--x--><!--y--></a><b><![CDATA[<!-- not a comment -->]]></b></project>");
+        for (String name : new String[] { "activemq-artemis-dep.xml", "azure-file-system.windup.xml", "pom.xml",
+                "settings.xml" }) {
+            sources.add(FileUtils.readFileToString(
+                    new File(this.getClass().getResource(name).getFile()),
+                    StandardCharsets.UTF_8));
+        }
+
+        for (String source : sources) {
+            File input = tf.newFile();
+            FileUtils.writeStringToFile(input, source, StandardCharsets.UTF_8);
+            Document doc = xmlIO.parseXML(input);
+
+            File target = tf.newFile();
+            xmlIO.writeXML(target, doc);
+
+            assertEquals(
+                    legacyPostProcess(xmlIO.convert(doc)),
+                    FileUtils.readFileToString(target, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * The adjustments previously made by {@link XMLIO#writeXML} to the complete output.
+     */
+    private static String legacyPostProcess(String result) {
+        result = result.replaceFirst("(?s)(<!--.*-->)<", "$1\n<");
+        return result.replaceAll("(?s)>\\s*(<\\!\\[CDATA\\[.*?]]>)\\s*<", ">$1<");
+    }
 }
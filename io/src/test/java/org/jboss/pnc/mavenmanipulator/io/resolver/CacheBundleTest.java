@@ -0,0 +1,180 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.io.resolver;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
+import org.commonjava.atlas.maven.ident.ref.SimpleProjectVersionRef;
+import org.jboss.pnc.mavenmanipulator.common.exception.ManipulationException;
+import org.jboss.pnc.mavenmanipulator.io.rest.RestException;
+import org.jboss.pnc.mavenmanipulator.io.rest.Translator;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CacheBundleTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final ProjectVersionRef foo = new SimpleProjectVersionRef("org.foo", "foo", "1.0");
+
+    private final ProjectVersionRef bar = new SimpleProjectVersionRef("org.foo", "bar", "2.0");
+
+    @Test
+    public void testInactive() throws Exception {
+        CacheBundle bundle = new CacheBundle();
+        bundle.init(new Properties());
+
+        Translator translator = new RecordedTranslator();
+        assertSame(translator, bundle.translator(translator));
+        assertFalse(bundle.isExporting());
+        assertFalse(bundle.isImporting());
+        assertNull(bundle.getURL("http://example.com/script.groovy"));
+    }
+
+    @Test
+    public void testExportAndImport() throws Exception {
+        File file = export(new File(folder.getRoot(), "bundle.zip"));
+
+        CacheBundle bundle = new CacheBundle();
+        bundle.init(properties(CacheBundle.CACHE_BUNDLE_IMPORT, file));
+        assertTrue(bundle.isImporting());
+
+        assertEquals(Arrays.asList("local", "central"), bundle.getLocations());
+        assertEquals("<project/>", read(bundle.getResource("central", "org/foo/foo/1.0/foo-1.0.pom")));
+        assertNull(bundle.getResource("local", "org/foo/foo/1.0/foo-1.0.pom"));
+        assertEquals("println 'hello'", read(bundle.getURL("http://example.com/script.groovy")));
+        assertNull(bundle.getURL("http://example.com/other.groovy"));
+
+        Translator translator = bundle.translator(new Translator() {
+            @Override
+            public Map<ProjectVersionRef, String> lookupVersions(List<ProjectVersionRef> projects) {
+                throw new AssertionError("Network used");
+            }
+
+            @Override
+            public Map<ProjectVersionRef, String> lookupProjectVersions(List<ProjectVersionRef> projects) {
+                throw new AssertionError("Network used");
+            }
+        });
+        ProjectVersionRef other = new SimpleProjectVersionRef("org.foo", "foo", "1.0");
+        ProjectVersionRef unknown = new SimpleProjectVersionRef("org.foo", "baz", "3.0");
+        assertEquals(
+                Collections.singletonMap(other, "1.0.redhat-00001"),
+                translator.lookupVersions(Arrays.asList(other, unknown)));
+        assertEquals(
+                Collections.singletonMap(bar, "2.0.redhat-00002"),
+                translator.lookupProjectVersions(Collections.singletonList(bar)));
+
+        bundle.finish();
+        assertFalse(bundle.isImporting());
+    }
+
+    @Test
+    public void testExportDeterministic() throws Exception {
+        File first = export(new File(folder.getRoot(), "first.zip"));
+        File second = export(new File(folder.newFolder(), "second.zip"));
+
+        assertArrayEquals(Files.readAllBytes(first.toPath()), Files.readAllBytes(second.toPath()));
+    }
+
+    @Test
+    public void testImportAndExport() throws Exception {
+        Properties properties = properties(CacheBundle.CACHE_BUNDLE_IMPORT, folder.newFile());
+        properties.setProperty(CacheBundle.CACHE_BUNDLE_EXPORT, folder.getRoot().getPath());
+        try {
+            new CacheBundle().init(properties);
+            fail("Importing and exporting should be rejected");
+        } catch (ManipulationException e) {
+            assertTrue(e.getMessage().contains(CacheBundle.CACHE_BUNDLE_IMPORT));
+        }
+    }
+
+    private File export(File file) throws Exception {
+        CacheBundle bundle = new CacheBundle();
+        bundle.init(properties(CacheBundle.CACHE_BUNDLE_EXPORT, file));
+        assertTrue(bundle.isExporting());
+
+        bundle.setLocations(Arrays.asList("local", "central"));
+        bundle.putResource(
+                "central",
+                "/org/foo/foo/1.0/foo-1.0.pom",
+                new ByteArrayInputStream("<project/>".getBytes(StandardCharsets.UTF_8)));
+        File script = folder.newFile();
+        FileUtils.writeStringToFile(script, "println 'hello'", StandardCharsets.UTF_8);
+        bundle.putURL("http://example.com/script.groovy", script);
+
+        Translator translator = bundle.translator(new RecordedTranslator());
+        assertEquals(2, translator.lookupVersions(Arrays.asList(foo, bar)).size());
+        translator.lookupProjectVersions(Collections.singletonList(bar));
+
+        bundle.finish();
+        assertFalse(bundle.isExporting());
+        assertTrue(file.isFile());
+        return file;
+    }
+
+    private static Properties properties(String key, File value) {
+        Properties properties = new Properties();
+        properties.setProperty(key, value.getPath());
+        return properties;
+    }
+
+    private static String read(InputStream in) throws IOException {
+        try (InputStream stream = in) {
+            return IOUtils.toString(stream, StandardCharsets.UTF_8);
+        }
+    }
+
+    private final class RecordedTranslator
+            implements Translator {
+        @Override
+        public Map<ProjectVersionRef, String> lookupVersions(List<ProjectVersionRef> projects) {
+            Map<ProjectVersionRef, String> result = new HashMap<>();
+            result.put(foo, "1.0.redhat-00001");
+            result.put(bar, "2.0.redhat-00001");
+            return result;
+        }
+
+        @Override
+        public Map<ProjectVersionRef, String> lookupProjectVersions(List<ProjectVersionRef> projects)
+                throws RestException {
+            return Collections.singletonMap(bar, "2.0.redhat-00002");
+        }
+    }
+}
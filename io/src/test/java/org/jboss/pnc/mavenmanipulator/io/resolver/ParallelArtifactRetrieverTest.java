@@ -0,0 +1,155 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.io.resolver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.commonjava.maven.galley.TransferException;
+import org.commonjava.maven.galley.model.Location;
+import org.commonjava.maven.galley.model.SimpleLocation;
+import org.junit.After;
+import org.junit.Test;
+
+public class ParallelArtifactRetrieverTest {
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final List<Location> locations = Arrays.asList(
+            new SimpleLocation("first", "http://first.example.com/"),
+            new SimpleLocation("second", "http://second.example.com/"),
+            new SimpleLocation("third", "http://third.example.com/"));
+
+    @After
+    public void after() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testDeclaredOrderWins() throws Exception {
+        ParallelArtifactRetriever retriever = new ParallelArtifactRetriever(null, null, executor, 4);
+
+        String result = retriever.first(locations, location -> {
+            if (location == locations.get(0)) {
+                return null;
+            } else if (location == locations.get(1)) {
+                sleep(200);
+                return "second";
+            }
+            return "third";
+        });
+        assertEquals("second", result);
+    }
+
+    @Test
+    public void testFailuresAreMisses() throws Exception {
+        ParallelArtifactRetriever retriever = new ParallelArtifactRetriever(null, null, executor, 4);
+
+        String result = retriever.first(locations, location -> {
+            if (location == locations.get(0)) {
+                throw new TransferException("Unavailable");
+            }
+            return null;
+        });
+        assertNull(result);
+
+        assertEquals(
+                "third",
+                retriever.first(locations, location -> {
+                    if (location == locations.get(2)) {
+                        return "third";
+                    }
+                    throw new TransferException("Unavailable");
+                }));
+    }
+
+    @Test
+    public void testPendingProbesCancelled() throws Exception {
+        ParallelArtifactRetriever retriever = new ParallelArtifactRetriever(null, null, executor, 4);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        String result = retriever.first(locations, location -> {
+            if (location == locations.get(0)) {
+                await(started);
+                return "first";
+            }
+            if (location == locations.get(2)) {
+                started.countDown();
+                try {
+                    Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+            }
+            return null;
+        });
+        assertEquals("first", result);
+        assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testLikelyLocationsProbedFirst() throws Exception {
+        // A single thread makes the order deterministic.
+        ParallelArtifactRetriever retriever = new ParallelArtifactRetriever(null, null, executor, 1);
+        List<Location> probed = new CopyOnWriteArrayList<>();
+        ParallelArtifactRetriever.Probe<String> probe = location -> {
+            probed.add(location);
+            return location == locations.get(2) ? "third" : null;
+        };
+
+        assertEquals("third", retriever.first(locations, probe));
+        assertEquals(locations, probed);
+
+        probed.clear();
+        assertEquals("third", retriever.first(locations, probe));
+        // Every location before the hit is still probed.
+        assertEquals(Arrays.asList(locations.get(2), locations.get(0), locations.get(1)), probed);
+    }
+
+    @Test
+    public void testNotFound() throws Exception {
+        ParallelArtifactRetriever retriever = new ParallelArtifactRetriever(null, null, executor, 4);
+
+        assertNull(retriever.first(locations, location -> null));
+        assertNull(retriever.first(Collections.emptyList(), location -> "found"));
+    }
+
+    private static void sleep(long millis) throws TransferException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new TransferException("Interrupted", e);
+        }
+    }
+
+    private static void await(CountDownLatch latch) throws TransferException {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new TransferException("Interrupted", e);
+        }
+    }
+}
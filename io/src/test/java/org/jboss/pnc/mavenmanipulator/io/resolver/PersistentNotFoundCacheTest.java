@@ -0,0 +1,133 @@
+/*
+ * Copyright © 2012 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.pnc.mavenmanipulator.io.resolver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.commonjava.maven.galley.model.ConcreteResource;
+import org.commonjava.maven.galley.model.Location;
+import org.commonjava.maven.galley.model.SimpleLocation;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PersistentNotFoundCacheTest {
+    private static final long TIMEOUT = TimeUnit.HOURS.toMillis(1);
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final Location central = new SimpleLocation("central", "https://repo.maven.apache.org/maven2");
+
+    private final Location other = new SimpleLocation("other", "https://repository.example.com/maven2");
+
+    private final ConcreteResource missing = new ConcreteResource(central, "org/foo/bar/1.0/bar-1.0.pom");
+
+    private File file;
+
+    @Before
+    public void setup() {
+        file = new File(folder.getRoot(), "nfc");
+    }
+
+    @Test
+    public void testEntriesSharedBetweenRuns() {
+        final PersistentNotFoundCache first = new PersistentNotFoundCache(file, TIMEOUT, false);
+        first.addMissing(missing);
+        assertTrue(first.isMissing(missing));
+        assertEquals(0, first.getHits());
+        first.flush();
+
+        final PersistentNotFoundCache second = new PersistentNotFoundCache(file, TIMEOUT, false);
+        assertTrue(second.isMissing(missing));
+        assertFalse(second.isMissing(new ConcreteResource(other, missing.getPath())));
+        assertEquals(1, second.getHits());
+    }
+
+    @Test
+    public void testExpiredEntriesIgnored() throws Exception {
+        final PersistentNotFoundCache first = new PersistentNotFoundCache(file, 1, false);
+        first.addMissing(missing);
+        first.flush();
+        Thread.sleep(10);
+
+        assertFalse(new PersistentNotFoundCache(file, TIMEOUT, false).isMissing(missing));
+    }
+
+    @Test
+    public void testRefresh() {
+        final PersistentNotFoundCache first = new PersistentNotFoundCache(file, TIMEOUT, false);
+        first.addMissing(missing);
+        first.flush();
+
+        final PersistentNotFoundCache refresh = new PersistentNotFoundCache(file, TIMEOUT, true);
+        assertFalse(refresh.isMissing(missing));
+        refresh.flush();
+
+        assertFalse(new PersistentNotFoundCache(file, TIMEOUT, false).isMissing(missing));
+    }
+
+    @Test
+    public void testConcurrentWritersMerged() {
+        final ConcreteResource another = new ConcreteResource(other, "org/foo/baz/1.0/baz-1.0.pom");
+        final PersistentNotFoundCache first = new PersistentNotFoundCache(file, TIMEOUT, false);
+        final PersistentNotFoundCache second = new PersistentNotFoundCache(file, TIMEOUT, false);
+        first.addMissing(missing);
+        second.addMissing(another);
+        first.flush();
+        second.flush();
+
+        final PersistentNotFoundCache third = new PersistentNotFoundCache(file, TIMEOUT, false);
+        assertTrue(third.isMissing(missing));
+        assertTrue(third.isMissing(another));
+    }
+
+    @Test
+    public void testLocalMissesNotPersisted() {
+        final Location local = new SimpleLocation("local", "file:" + folder.getRoot().getAbsolutePath());
+        final ConcreteResource localMissing = new ConcreteResource(local, missing.getPath());
+
+        final PersistentNotFoundCache first = new PersistentNotFoundCache(file, TIMEOUT, false);
+        first.addMissing(localMissing);
+        first.addMissing(missing);
+        assertTrue(first.isMissing(localMissing));
+        first.flush();
+
+        final PersistentNotFoundCache second = new PersistentNotFoundCache(file, TIMEOUT, false);
+        assertFalse(second.isMissing(localMissing));
+        assertTrue(second.isMissing(missing));
+    }
+
+    @Test
+    public void testClearMissing() {
+        final PersistentNotFoundCache first = new PersistentNotFoundCache(file, TIMEOUT, false);
+        first.addMissing(missing);
+        first.flush();
+
+        final PersistentNotFoundCache second = new PersistentNotFoundCache(file, TIMEOUT, false);
+        second.clearMissing(central);
+        assertFalse(second.isMissing(missing));
+        second.flush();
+
+        assertFalse(new PersistentNotFoundCache(file, TIMEOUT, false).isMissing(missing));
+    }
+}
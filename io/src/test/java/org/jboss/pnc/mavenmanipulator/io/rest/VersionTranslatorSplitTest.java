@@ -24,15 +24,20 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.commonjava.atlas.maven.ident.ref.ProjectVersionRef;
+import org.eclipse.jetty.server.Request;
+import org.jboss.pnc.mavenmanipulator.common.util.MetricsRegistry;
 import org.jboss.pnc.mavenmanipulator.io.rest.handler.SpyFailJettyHandler;
 import org.jboss.pnc.mavenmanipulator.io.rest.rule.MockServer;
 import org.junit.Before;
@@ -55,7 +60,22 @@ public class VersionTranslatorSplitTest {
 
     private DefaultTranslator versionTranslator;
 
-    private final SpyFailJettyHandler handler = new SpyFailJettyHandler();
+    private final MetricsRegistry metrics = new MetricsRegistry();
+
+    private final List<Long> pendingPerRequest = new ArrayList<>();
+
+    private final SpyFailJettyHandler handler = new SpyFailJettyHandler() {
+        @Override
+        public void handle(
+                String target,
+                Request baseRequest,
+                HttpServletRequest request,
+                HttpServletResponse response)
+                throws IOException {
+            pendingPerRequest.add(metrics.gauge("rest.tasks.pending").get());
+            super.handle(target, baseRequest, request, response);
+        }
+    };
 
     @Rule
     public TestName testName = new TestName();
@@ -130,6 +150,40 @@ public class VersionTranslatorSplitTest {
         assertEquals(original, chunks);
     }
 
+    @Test
+    public void testTranslateVersionsSplitMetrics() {
+        this.versionTranslator = new DefaultTranslator(
+                mockServer.getUrl(),
+                0,
+                Translator.CHUNK_SPLIT_COUNT,
+                false,
+                "",
+                Collections.emptyMap(),
+                DEFAULT_CONNECTION_TIMEOUT_SEC,
+                DEFAULT_SOCKET_TIMEOUT_SEC,
+                RETRY_DURATION_SEC,
+                metrics);
+
+        List<ProjectVersionRef> data = aLotOfGavs.subList(0, 37);
+        handler.getRequestData().clear();
+        try {
+            versionTranslator.lookupVersions(data);
+            fail();
+        } catch (RestException ex) {
+            // ok
+        }
+        // As in testTranslateVersionsCorrectSplit: 37 -> 9, 9, 9, 10 then each of those into four until a chunk of 2
+        // can not be split. Each split adds four tasks to those still queued.
+        assertEquals(Arrays.asList(0L, 3L, 6L, 9L, 12L, 15L), pendingPerRequest);
+        assertEquals(0, metrics.gauge("rest.tasks.pending").get());
+        assertEquals(5, metrics.counter("rest.tasks.split").get());
+        assertEquals(20, metrics.counter("rest.tasks.retried").get());
+        assertEquals(1, metrics.counter("rest.tasks.failed").get());
+        assertEquals(0, metrics.counter("rest.tasks.unavailable").get());
+        assertEquals(6, metrics.timer("rest.task").getCount());
+        assertEquals(37, metrics.counter("rest.gavs").get());
+    }
+
     @Test
     public void testTranslateVersionsCorrectSplit2() {
         List<ProjectVersionRef> data = aLotOfGavs.subList(0, 36);